@@ -0,0 +1,52 @@
+package io.mosip.proxy.abis.configuration;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.client.RestTemplate;
+
+import io.mosip.proxy.abis.service.RequestTracer;
+
+/**
+ * Configuration class propagating request traces over HTTP.
+ * <p>
+ * Every {@link RestTemplate} bean, including the {@code selfTokenRestTemplate}
+ * fetching CBEFF data from the data share, sends the {@code traceparent} of the
+ * span current on the calling thread, so the data share call can be joined to
+ * the trace of the request it was made for. The asynchronous data share client
+ * runs the same interceptors, so its fetches carry the header too.
+ */
+@Configuration
+public class TracingConfig {
+
+	/**
+	 * Adds the {@code traceparent} interceptor to every {@link RestTemplate} bean.
+	 *
+	 * @param requestTracer The tracer, looked up on the first request so that it is
+	 *                      not created before the post-processor runs.
+	 * @return The post-processor adding the interceptor.
+	 */
+	@Bean
+	public static BeanPostProcessor traceparentPropagation(ObjectProvider<RequestTracer> requestTracer) {
+		Supplier<RequestTracer> tracer = SingletonSupplier.of(requestTracer::getObject);
+		ClientHttpRequestInterceptor interceptor = (request, body, execution) -> {
+			String traceparent = tracer.get().current().traceparent();
+			if (traceparent != null)
+				request.getHeaders().set(RequestTracer.TRACEPARENT, traceparent);
+			return execution.execute(request, body);
+		};
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof RestTemplate restTemplate)
+					restTemplate.getInterceptors().add(0, interceptor);
+				return bean;
+			}
+		};
+	}
+}
@@ -47,6 +47,7 @@ public enum AbisErrorCode {
 	INVALID_CONFIGURATION_EXCEPTION("MOS-MABIS-010", "Invalid configure"),
 	INVALID_CACHE_EXCEPTION("MOS-MABIS-010", "Invalid cache:"),
 	DATA_NULL_OR_EMPTY_EXCEPTION("MOS-MABIS-011", "data is null or length is 0"),
+	SEED_EXCEPTION("MOS-MABIS-012", "Invalid seed request"),
 
 	TECHNICAL_ERROR_EXCEPTION("MOS-MABIS-500", "Technical Error");
 
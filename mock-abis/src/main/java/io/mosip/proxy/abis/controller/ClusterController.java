@@ -0,0 +1,136 @@
+package io.mosip.proxy.abis.controller;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.mosip.proxy.abis.dto.ClusterQuery;
+import io.mosip.proxy.abis.dto.InsertRequestMO;
+import io.mosip.proxy.abis.exception.RequestException;
+import io.mosip.proxy.abis.service.ClusterPartition;
+import io.mosip.proxy.abis.service.ClusterTransport;
+import io.mosip.proxy.abis.service.ProxyAbisInsertService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controller class handling the requests exchanged between mock ABIS nodes in
+ * cluster mode. These endpoints are called by the {@code HttpClusterTransport}
+ * of the other nodes and answer from this node's share of the gallery only.
+ */
+@RestController
+@Tag(name = "Proxy Abis cluster API", description = "Provides API's used between mock ABIS cluster nodes")
+@RequestMapping("cluster/")
+public class ClusterController {
+	private static final Logger logger = LoggerFactory.getLogger(ClusterController.class);
+
+	private ProxyAbisInsertService abisInsertService;
+	private ClusterPartition clusterPartition;
+
+	/**
+	 * Constructs the controller with the provided services.
+	 *
+	 * @param abisInsertService The service inserting and deleting reference IDs.
+	 * @param clusterPartition  The share of the gallery stored on this node.
+	 */
+	@Autowired
+	public ClusterController(ProxyAbisInsertService abisInsertService, ClusterPartition clusterPartition) {
+		this.abisInsertService = abisInsertService;
+		this.clusterPartition = clusterPartition;
+	}
+
+	/**
+	 * Inserts a reference ID owned by this node.
+	 *
+	 * @param request The insert request.
+	 * @return The response delay, or the failure reason if the insert was
+	 *         rejected.
+	 */
+	@PostMapping(value = "insert")
+	@Operation(summary = "Insert owned reference ID", tags = { "Proxy Abis cluster API" })
+	public ResponseEntity<ClusterTransport.InsertOutcome> insert(@RequestBody InsertRequestMO request) {
+		try {
+			return new ResponseEntity<>(new ClusterTransport.InsertOutcome(abisInsertService.insertData(request), null),
+					HttpStatus.OK);
+		} catch (RequestException exp) {
+			logger.error("Cluster insert rejected", exp);
+			return new ResponseEntity<>(
+					new ClusterTransport.InsertOutcome(exp.getDelayResponse(), exp.getReasonConstant()), HttpStatus.OK);
+		}
+	}
+
+	/**
+	 * Deletes a reference ID owned by this node.
+	 *
+	 * @param referenceId The reference ID.
+	 * @return An empty response.
+	 */
+	@DeleteMapping(value = "referenceId/{referenceId}")
+	@Operation(summary = "Delete owned reference ID", tags = { "Proxy Abis cluster API" })
+	public ResponseEntity<Void> delete(@PathVariable String referenceId) {
+		abisInsertService.deleteData(referenceId);
+		return new ResponseEntity<>(HttpStatus.OK);
+	}
+
+	/**
+	 * Returns the digests stored for a reference ID.
+	 *
+	 * @param referenceId The reference ID.
+	 * @return The hexadecimal digests.
+	 */
+	@GetMapping(value = "digests/{referenceId}")
+	@Operation(summary = "Get digests of a reference ID", tags = { "Proxy Abis cluster API" })
+	public ResponseEntity<List<String>> digests(@PathVariable String referenceId) {
+		return new ResponseEntity<>(clusterPartition.fetchDigests(referenceId), HttpStatus.OK);
+	}
+
+	/**
+	 * Counts the given reference IDs stored on this node.
+	 *
+	 * @param referenceIds The distinct reference IDs.
+	 * @return The number of them stored.
+	 */
+	@PostMapping(value = "count")
+	@Operation(summary = "Count stored reference IDs", tags = { "Proxy Abis cluster API" })
+	public ResponseEntity<Integer> count(@RequestBody List<String> referenceIds) {
+		return new ResponseEntity<>(clusterPartition.countPresent(referenceIds), HttpStatus.OK);
+	}
+
+	/**
+	 * Finds the biometrics stored on this node sharing any of the digests.
+	 *
+	 * @param query The digests, reference ID and gallery.
+	 * @return The matches ordered by reference ID.
+	 */
+	@PostMapping(value = "duplicates")
+	@Operation(summary = "Find local duplicates", tags = { "Proxy Abis cluster API" })
+	public ResponseEntity<List<ClusterPartition.Match>> duplicates(@RequestBody ClusterQuery query) {
+		return new ResponseEntity<>(
+				clusterPartition.findDuplicates(query.getDigests(), query.getReferenceId(), query.getGalleryIds()),
+				HttpStatus.OK);
+	}
+
+	/**
+	 * Finds the reference IDs stored on this node holding the digest.
+	 *
+	 * @param query The digest and gallery.
+	 * @return The distinct reference IDs.
+	 */
+	@PostMapping(value = "referenceIds")
+	@Operation(summary = "Find local reference IDs by digest", tags = { "Proxy Abis cluster API" })
+	public ResponseEntity<List<String>> referenceIds(@RequestBody ClusterQuery query) {
+		return new ResponseEntity<>(
+				clusterPartition.findReferenceIds(query.getDigests().get(0), query.getGalleryIds()), HttpStatus.OK);
+	}
+}
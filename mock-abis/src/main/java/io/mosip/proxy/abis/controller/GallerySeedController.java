@@ -0,0 +1,109 @@
+package io.mosip.proxy.abis.controller;
+
+import java.io.InputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import io.mosip.proxy.abis.constant.AbisErrorCode;
+import io.mosip.proxy.abis.dto.SeedRequest;
+import io.mosip.proxy.abis.dto.SeedResult;
+import io.mosip.proxy.abis.exception.AbisException;
+import io.mosip.proxy.abis.service.GallerySeeder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controller class that handles HTTP requests seeding the gallery with
+ * synthetic or imported reference IDs, for benchmarking duplicate checks at
+ * scale without inserting through the insert API.
+ */
+@SuppressWarnings({ "java:S5122" })
+@CrossOrigin
+@RestController
+@Tag(name = "Proxy Abis config API", description = "Provides API's for configuring proxy Abis")
+@RequestMapping("config/")
+public class GallerySeedController {
+	private static final Logger logger = LoggerFactory.getLogger(GallerySeedController.class);
+
+	private GallerySeeder gallerySeeder;
+
+	/**
+	 * Constructs the controller with the provided GallerySeeder instance.
+	 *
+	 * @param gallerySeeder The service writing the seeded gallery.
+	 */
+	@Autowired
+	public GallerySeedController(GallerySeeder gallerySeeder) {
+		this.gallerySeeder = gallerySeeder;
+	}
+
+	/**
+	 * Generates a synthetic gallery.
+	 *
+	 * @param request The gallery to generate.
+	 * @return ResponseEntity with the rows written and the load rate.
+	 * @throws AbisException If the request is invalid or the rows cannot be
+	 *                       written.
+	 */
+	@PostMapping(value = "seed")
+	@Operation(summary = "Seed synthetic gallery", description = "Seed synthetic gallery", tags = {
+			"Proxy Abis config API" })
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "OK"),
+			@ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "403", description = "Forbidden", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(schema = @Schema(hidden = true))) })
+	@SuppressWarnings({ "java:S2139" })
+	public ResponseEntity<SeedResult> seed(@RequestBody SeedRequest request) {
+		logger.info("Seed request for {} reference IDs", request.getCount());
+		try {
+			return new ResponseEntity<>(gallerySeeder.generate(request), HttpStatus.OK);
+		} catch (Exception exp) {
+			logger.error("Exception in seed request: ", exp);
+			throw new AbisException(AbisErrorCode.SEED_EXCEPTION.getErrorCode(),
+					AbisErrorCode.SEED_EXCEPTION.getErrorMessage() + " " + exp.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Imports a gallery from a CSV file of {@code referenceId,type,subtype,digest}
+	 * lines.
+	 *
+	 * @param file The CSV file.
+	 * @return ResponseEntity with the rows written and the load rate.
+	 * @throws AbisException If the file is malformed or the rows cannot be
+	 *                       written.
+	 */
+	@PostMapping(value = "seed/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+	@Operation(summary = "Import gallery", description = "Import gallery", tags = { "Proxy Abis config API" })
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "OK"),
+			@ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "403", description = "Forbidden", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(schema = @Schema(hidden = true))) })
+	@SuppressWarnings({ "java:S2139" })
+	public ResponseEntity<SeedResult> importGallery(@RequestParam("file") MultipartFile file) {
+		logger.info("Import gallery request of {} bytes", file.getSize());
+		try (InputStream csv = file.getInputStream()) {
+			return new ResponseEntity<>(gallerySeeder.importCsv(csv), HttpStatus.OK);
+		} catch (Exception exp) {
+			logger.error("Exception in import gallery request: ", exp);
+			throw new AbisException(AbisErrorCode.SEED_EXCEPTION.getErrorCode(),
+					AbisErrorCode.SEED_EXCEPTION.getErrorMessage() + " " + exp.getLocalizedMessage());
+		}
+	}
+}
@@ -156,6 +156,60 @@ public class ProxyAbisConfigController {
 		}
 	}
 
+	/**
+	 * Retrieves every expectation currently set, in the form taken by
+	 * {@link #restoreExpectations(List)}.
+	 *
+	 * @return ResponseEntity containing the list of expectations.
+	 * @throws AbisException If an error occurs during retrieving the expectations.
+	 */
+	@GetMapping(value = "expectation/snapshot")
+	@Operation(summary = "Gets expectation snapshot", description = "Gets expectation snapshot", tags = {
+			"Proxy Abis config API" })
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "OK"),
+			@ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "403", description = "Forbidden", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(schema = @Schema(hidden = true))) })
+	@SuppressWarnings({ "java:S2139" })
+	public ResponseEntity<List<Expectation>> getExpectationSnapshot() {
+		logger.info("Getting expectation snapshot");
+		try {
+			return new ResponseEntity<>(proxyAbisConfigService.getExpectationSnapshot(), HttpStatus.OK);
+		} catch (Exception exp) {
+			logger.error("Exception while getting expectation snapshot: ", exp);
+			throw new AbisException(AbisErrorCode.GET_EXPECTATION_EXCEPTION.getErrorCode(),
+					AbisErrorCode.GET_EXPECTATION_EXCEPTION.getErrorMessage() + " " + exp.getLocalizedMessage());
+		}
+	}
+
+	/**
+	 * Replaces every expectation with the expectations of a snapshot.
+	 *
+	 * @param expectations The expectations to set.
+	 * @return ResponseEntity indicating the success or failure of the operation.
+	 * @throws AbisException If an expectation has no ID.
+	 */
+	@PutMapping(value = "expectation/snapshot")
+	@Operation(summary = "Restore expectation snapshot", description = "Restore expectation snapshot", tags = {
+			"Proxy Abis config API" })
+	@ApiResponses(value = { @ApiResponse(responseCode = "200", description = "OK"),
+			@ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "403", description = "Forbidden", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(schema = @Schema(hidden = true))) })
+	@SuppressWarnings({ "java:S2139" })
+	public ResponseEntity<String> restoreExpectations(@RequestBody List<Expectation> expectations) {
+		logger.info("Restoring {} expectations", expectations.size());
+		try {
+			proxyAbisConfigService.restoreExpectations(expectations);
+			return new ResponseEntity<>("Successfully restored " + expectations.size() + " expectations",
+					HttpStatus.OK);
+		} catch (Exception exp) {
+			logger.error("Exception while restoring expectations: ", exp);
+			throw new AbisException(AbisErrorCode.SET_EXPECTATION_EXCEPTION.getErrorCode(),
+					AbisErrorCode.SET_EXPECTATION_EXCEPTION.getErrorMessage() + " " + exp.getLocalizedMessage());
+		}
+	}
+
 	/**
 	 * Retrieves the current configuration details.
 	 *
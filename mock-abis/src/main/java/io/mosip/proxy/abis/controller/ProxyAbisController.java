@@ -2,8 +2,10 @@ package io.mosip.proxy.abis.controller;
 
 import java.io.UnsupportedEncodingException;
 import java.util.Objects;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,10 +32,16 @@ import io.mosip.proxy.abis.dto.IdentityRequest;
 import io.mosip.proxy.abis.dto.InsertRequestMO;
 import io.mosip.proxy.abis.dto.RequestMO;
 import io.mosip.proxy.abis.dto.ResponseMO;
+import io.mosip.proxy.abis.exception.AdmissionRejectedException;
 import io.mosip.proxy.abis.exception.BindingException;
 import io.mosip.proxy.abis.exception.RequestException;
+import io.mosip.proxy.abis.listener.AbisMessageCodec;
 import io.mosip.proxy.abis.listener.Listener;
+import io.mosip.proxy.abis.service.AdmissionLimiter;
+import io.mosip.proxy.abis.service.PipelineMetrics;
 import io.mosip.proxy.abis.service.ProxyAbisInsertService;
+import io.mosip.proxy.abis.service.RequestTracer;
+import io.mosip.proxy.abis.service.ResponseDispatcher;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -57,17 +65,31 @@ public class ProxyAbisController {
 
 	private ProxyAbisInsertService abisInsertService;
 	private Listener listener;
-	private Timer timer = new Timer();
+	private ResponseDispatcher responseDispatcher;
+	private PipelineMetrics pipelineMetrics;
+	private RequestTracer requestTracer;
+	private AdmissionLimiter admissionLimiter;
 
 	/**
-	 * Constructor to initialize ProxyAbisController with ProxyAbisInsertService.
+	 * Constructor to initialize ProxyAbisController with ProxyAbisInsertService,
+	 * ResponseDispatcher, PipelineMetrics, RequestTracer and AdmissionLimiter.
 	 *
-	 * @param abisInsertService Service for inserting data into Proxy Abis.
+	 * @param abisInsertService  Service for inserting data into Proxy Abis.
+	 * @param responseDispatcher Dispatcher sending the delayed responses.
+	 * @param pipelineMetrics    Timer of the stages of processing a request.
+	 * @param requestTracer      Tracer of requests received over REST and of
+	 *                           delayed responses.
+	 * @param admissionLimiter   Limiter of the requests processed at once over
+	 *                           REST.
 	 */
 	@Autowired
-	public ProxyAbisController(ProxyAbisInsertService abisInsertService) {
+	public ProxyAbisController(ProxyAbisInsertService abisInsertService, ResponseDispatcher responseDispatcher,
+			PipelineMetrics pipelineMetrics, RequestTracer requestTracer, AdmissionLimiter admissionLimiter) {
 		this.abisInsertService = abisInsertService;
-		this.timer = new Timer();
+		this.responseDispatcher = responseDispatcher;
+		this.pipelineMetrics = pipelineMetrics;
+		this.requestTracer = requestTracer;
+		this.admissionLimiter = admissionLimiter;
 	}
 
 	/**
@@ -77,6 +99,8 @@ public class ProxyAbisController {
 	 * @param bd BindingResult for request validation.
 	 * @return ResponseEntity with status and response body.
 	 * @throws Exception if there are errors during request processing.
+	 * @throws AdmissionRejectedException if too many insert requests are being
+	 *                                    processed.
 	 */
 	@PostMapping(value = "insertrequest")
 	@Operation(summary = "Save Insert Request", description = "Save Insert Request", tags = { "Proxy Abis API" })
@@ -84,31 +108,39 @@ public class ProxyAbisController {
 			@ApiResponse(responseCode = "201", description = "Created", content = @Content(schema = @Schema(hidden = true))),
 			@ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(schema = @Schema(hidden = true))),
 			@ApiResponse(responseCode = "403", description = "Forbidden", content = @Content(schema = @Schema(hidden = true))),
-			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(schema = @Schema(hidden = true))) })
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "429", description = "Too Many Requests", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "503", description = "Service Unavailable", content = @Content(schema = @Schema(hidden = true))) })
 	@SuppressWarnings({ "java:S112" })
 	public ResponseEntity<Object> saveInsertRequest(@Valid @RequestBody InsertRequestMO ie, BindingResult bd)
 			throws Exception {
-		logger.info("Saving Insert Request");
-		if (bd.hasErrors()) {
-			logger.info("Some fields are missing in the insert request");
-			RequestMO re = new RequestMO(ie.getId(), ie.getVersion(), ie.getRequestId(), ie.getRequesttime(),
-					ie.getReferenceId());
-			throw new BindingException(re, bd);
-		}
-		try {
-			return processInsertRequest(ie, 1);
-		} catch (RequestException exp) {
-			logger.error("Exception while saving insert request");
-			RequestMO re = new RequestMO(ie.getId(), ie.getVersion(), ie.getRequestId(), ie.getRequesttime(),
-					ie.getReferenceId());
+		return requestTracer.trace(ie.getId(), ie.getRequestId(), () -> {
+			logger.info("Saving Insert Request");
+			if (bd.hasErrors()) {
+				logger.info("Some fields are missing in the insert request");
+				RequestMO re = new RequestMO(ie.getId(), ie.getVersion(), ie.getRequestId(), ie.getRequesttime(),
+						ie.getReferenceId());
+				throw new BindingException(re, bd);
+			}
+			AdmissionLimiter.Permit permit = admissionLimiter.acquire(AdmissionLimiter.Endpoint.INSERT, new RequestMO(
+					ie.getId(), ie.getVersion(), ie.getRequestId(), ie.getRequesttime(), ie.getReferenceId()));
+			try {
+				return processInsertRequest(ie, 1);
+			} catch (RequestException exp) {
+				logger.error("Exception while saving insert request");
+				RequestMO re = new RequestMO(ie.getId(), ie.getVersion(), ie.getRequestId(), ie.getRequesttime(),
+						ie.getReferenceId());
 
-			String reason = null;
-			if (Objects.isNull(exp.getReasonConstant()))
-				reason = FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN;
+				String reason = null;
+				if (Objects.isNull(exp.getReasonConstant()))
+					reason = FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN;
 
-			RequestException expInfo = new RequestException(re, reason, 0);
-			return new ResponseEntity<>(expInfo.getReasonConstant(), HttpStatus.INTERNAL_SERVER_ERROR);
-		}
+				RequestException expInfo = new RequestException(re, reason, 0);
+				return new ResponseEntity<>(expInfo.getReasonConstant(), HttpStatus.INTERNAL_SERVER_ERROR);
+			} finally {
+				permit.release();
+			}
+		});
 	}
 
 	/**
@@ -126,18 +158,20 @@ public class ProxyAbisController {
 			@ApiResponse(responseCode = "403", description = "Forbidden", content = @Content(schema = @Schema(hidden = true))),
 			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(schema = @Schema(hidden = true))) })
 	public ResponseEntity<Object> deleteRequest(@RequestBody RequestMO ie) {
-		try {
-			return processDeleteRequest(ie, 1);
-		} catch (RequestException exp) {
-			logger.error("Exception while deleting reference id", exp);
+		return requestTracer.trace(ie.getId(), ie.getRequestId(), () -> {
+			try {
+				return processDeleteRequest(ie, 1);
+			} catch (RequestException exp) {
+				logger.error("Exception while deleting reference id", exp);
 
-			String reason = null;
-			if (Objects.isNull(exp.getReasonConstant()))
-				reason = FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN;
+				String reason = null;
+				if (Objects.isNull(exp.getReasonConstant()))
+					reason = FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN;
 
-			RequestException expInfo = new RequestException(ie, reason, 0);
-			return new ResponseEntity<>(expInfo.getReasonConstant(), HttpStatus.INTERNAL_SERVER_ERROR);
-		}
+				RequestException expInfo = new RequestException(ie, reason, 0);
+				return new ResponseEntity<>(expInfo.getReasonConstant(), HttpStatus.INTERNAL_SERVER_ERROR);
+			}
+		});
 	}
 
 	/**
@@ -177,6 +211,8 @@ public class ProxyAbisController {
 	 *
 	 * @param ir IdentityRequest object containing identity request details.
 	 * @return ResponseEntity with status and response body.
+	 * @throws AdmissionRejectedException if too many identify requests are being
+	 *                                    processed.
 	 */
 	@PostMapping(value = "identifyrequest")
 	@Operation(summary = "Checks duplication", description = "Checks duplication", tags = { "Proxy Abis API" })
@@ -184,22 +220,30 @@ public class ProxyAbisController {
 			@ApiResponse(responseCode = "201", description = "Created", content = @Content(schema = @Schema(hidden = true))),
 			@ApiResponse(responseCode = "401", description = "Unauthorized", content = @Content(schema = @Schema(hidden = true))),
 			@ApiResponse(responseCode = "403", description = "Forbidden", content = @Content(schema = @Schema(hidden = true))),
-			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(schema = @Schema(hidden = true))) })
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "429", description = "Too Many Requests", content = @Content(schema = @Schema(hidden = true))),
+			@ApiResponse(responseCode = "503", description = "Service Unavailable", content = @Content(schema = @Schema(hidden = true))) })
 	public ResponseEntity<Object> identityRequest(@RequestBody IdentityRequest ir) {
-		try {
-			return processIdentityRequest(ir, 1);
-		} catch (RequestException exp) {
-			logger.info("Error while finding duplicates for id");
-			logger.error("Error while finding duplicates", exp);
-			RequestMO re = new RequestMO(ir.getId(), ir.getVersion(), ir.getRequestId(), ir.getRequesttime(),
-					ir.getReferenceId());
-			String reason = null;
-			if (Objects.isNull(exp.getReasonConstant()))
-				reason = FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN;
+		return requestTracer.trace(ir.getId(), ir.getRequestId(), () -> {
+			AdmissionLimiter.Permit permit = admissionLimiter.acquire(AdmissionLimiter.Endpoint.IDENTIFY, new RequestMO(
+					ir.getId(), ir.getVersion(), ir.getRequestId(), ir.getRequesttime(), ir.getReferenceId()));
+			try {
+				return processIdentityRequest(ir, 1);
+			} catch (RequestException exp) {
+				logger.info("Error while finding duplicates for id");
+				logger.error("Error while finding duplicates", exp);
+				RequestMO re = new RequestMO(ir.getId(), ir.getVersion(), ir.getRequestId(), ir.getRequesttime(),
+						ir.getReferenceId());
+				String reason = null;
+				if (Objects.isNull(exp.getReasonConstant()))
+					reason = FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN;
 
-			RequestException expInfo = new RequestException(re, reason, 0);
-			return new ResponseEntity<>(expInfo.getReasonConstant(), HttpStatus.INTERNAL_SERVER_ERROR);
-		}
+				RequestException expInfo = new RequestException(re, reason, 0);
+				return new ResponseEntity<>(expInfo.getReasonConstant(), HttpStatus.INTERNAL_SERVER_ERROR);
+			} finally {
+				permit.release();
+			}
+		});
 	}
 
 	/**
@@ -342,6 +386,60 @@ public class ProxyAbisController {
 		return responseEntity;
 	}
 
+	/**
+	 * Handles an insertion request via listener like
+	 * {@link #saveInsertRequestThroughListner(InsertRequestMO, int)}, without
+	 * waiting for the CBEFF data to be downloaded. The response is scheduled when
+	 * the insert completes, to the ABIS the request was received from.
+	 *
+	 * @param ie      The insertion request details.
+	 * @param msgType The message type for asynchronous processing.
+	 * @return A future completed with the response, never exceptionally.
+	 */
+	public CompletableFuture<ResponseEntity<Object>> saveInsertRequestThroughListnerAsync(InsertRequestMO ie,
+			int msgType) {
+		logger.info("Saving Insert Request");
+		String validate = validateRequest(ie);
+		if (null != validate) {
+			FailureResponse fr = new FailureResponse(ie.getId(), ie.getRequestId(), ie.getRequesttime(), "2", validate);
+			return CompletableFuture.completedFuture(new ResponseEntity<>(fr, HttpStatus.NOT_ACCEPTABLE));
+		}
+		Listener target = Listener.receivingOr(listener);
+		return abisInsertService.insertDataAsync(ie).handle((delayResponse, error) -> {
+			ResponseEntity<Object> responseEntity;
+			int delay = 0;
+			if (error == null) {
+				delay = delayResponse;
+				ResponseMO responseMO = new ResponseMO(ie.getId(), ie.getRequestId(), ie.getRequesttime(), "1");
+				responseEntity = new ResponseEntity<>(responseMO, HttpStatus.OK);
+			} else {
+				Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+						: error;
+				logger.error("processInsertRequest::failureReason:: ", cause);
+				String reason = null;
+				if (cause instanceof RequestException exp) {
+					reason = exp.getReasonConstant();
+					delay = exp.getDelayResponse();
+				}
+				FailureResponse fr = new FailureResponse(ie.getId(), ie.getRequestId(), ie.getRequesttime(), "2",
+						null == reason ? FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN : reason);
+				responseEntity = new ResponseEntity<>(fr, HttpStatus.OK);
+			}
+			schedule(target, responseEntity, delay, msgType);
+			return responseEntity;
+		});
+	}
+
+	/**
+	 * Returns whether insert requests received via listener should be handled by
+	 * {@link #saveInsertRequestThroughListnerAsync(InsertRequestMO, int)}.
+	 *
+	 * @return {@code true} if inserts download CBEFF data asynchronously
+	 */
+	public boolean isInsertAsync() {
+		return abisInsertService.isAsyncInsertEnabled();
+	}
+
 	/**
 	 * Validates the insertion request details.
 	 *
@@ -365,7 +463,10 @@ public class ProxyAbisController {
 	}
 
 	/**
-	 * Executes a task asynchronously with a specified delay.
+	 * Executes a task asynchronously with a specified delay. If the response
+	 * dispatcher rejects the task because it stays at capacity, the response is
+	 * dropped and logged. The response goes to the ABIS the request being
+	 * processed by the calling thread was received from.
 	 *
 	 * @param finalResponseEntity The final response entity to be sent to the queue
 	 *                            after processing.
@@ -374,22 +475,53 @@ public class ProxyAbisController {
 	 * @param msgType             The type of message for identifying the task.
 	 */
 	public void executeAsync(ResponseEntity<Object> finalResponseEntity, int delayResponse, int msgType) {
-		TimerTask task = new TimerTask() {
-			public void run() {
+		schedule(Listener.receivingOr(listener), finalResponseEntity, delayResponse, msgType);
+	}
+
+	/**
+	 * Schedules a response to be sent to the given ABIS after a delay. The time
+	 * between the delay elapsing and the send starting is recorded as the
+	 * scheduling stage, and the delay itself as a span of the request trace; the
+	 * send runs with the span current on the calling thread.
+	 *
+	 * @param target              The listener of the ABIS to send to.
+	 * @param finalResponseEntity The response to send.
+	 * @param delayResponse       The delay in seconds before sending.
+	 * @param msgType             The type of message for identifying the task.
+	 */
+	private void schedule(Listener target, ResponseEntity<Object> finalResponseEntity, int delayResponse,
+			int msgType) {
+		PipelineMetrics.Operation operation = PipelineMetrics.Operation
+				.of(AbisMessageCodec.idOf(finalResponseEntity.getBody()));
+		long scheduledAt = System.nanoTime();
+		long dueAt = scheduledAt + TimeUnit.SECONDS.toNanos(Math.max(0, delayResponse));
+		RequestTracer.Span delay = requestTracer
+				.start("delay", AbisMessageCodec.requestIdOf(finalResponseEntity.getBody()))
+				.tag("abis.delay.seconds", Integer.toString(delayResponse));
+		Runnable task = requestTracer.wrap(() -> {
+			delay.end();
+			pipelineMetrics.record(PipelineMetrics.Stage.SCHEDULE, operation, PipelineMetrics.SUCCESS,
+					System.nanoTime() - dueAt);
+			try {
 				try {
-					try {
-						listener.sendToQueue(finalResponseEntity, msgType);
-					} catch (UnsupportedEncodingException e) {
-						logger.error("executeAsync::error ", e);
-					}
-					logger.info("Scheduled job completed: MsgType {}", msgType);
-				} catch (JsonProcessingException e) {
+					target.sendToQueue(finalResponseEntity, msgType);
+				} catch (UnsupportedEncodingException e) {
 					logger.error("executeAsync::error ", e);
 				}
+				logger.info("Scheduled job completed: MsgType {}", msgType);
+			} catch (JsonProcessingException e) {
+				logger.error("executeAsync::error ", e);
 			}
-		};
+		});
 		logger.info("Adding timed task with timer as {} in seconds", delayResponse);
-		timer.schedule(task, (long) delayResponse * 1000);
+		try {
+			responseDispatcher.schedule(task, delayResponse, TimeUnit.SECONDS);
+		} catch (RejectedExecutionException e) {
+			delay.end(PipelineMetrics.outcomeOf(e));
+			pipelineMetrics.record(PipelineMetrics.Stage.SCHEDULE, operation, PipelineMetrics.outcomeOf(e),
+					System.nanoTime() - scheduledAt);
+			logger.error("executeAsync::response dropped, MsgType {} ", msgType, e);
+		}
 	}
 
 	/**
@@ -2,6 +2,8 @@ package io.mosip.proxy.abis.dao;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -42,9 +44,19 @@ import io.mosip.proxy.abis.entity.BiometricData;
  * biometric data value.</li>
  * <li>{@link #fetchByReferenceId(String, List)}: Fetches reference IDs by
  * biometric data within specified reference IDs.</li>
+ * <li>{@link #fetchIndexEntriesAfter(Long, Pageable)}: Pages through all
+ * biometric data for loading the in-memory index.</li>
+ * <li>{@link #fetchSignatureEntriesAfter(Long, Pageable)}: Pages through all
+ * biometric signatures for loading the approximate matcher.</li>
  * </ul>
  * 
  * <p>
+ * The {@code ByDigest} variants run the same lookups against the binary
+ * {@code bio_digest} column, which is used instead of {@code bio_data} when
+ * {@code abis.bio.digest.storage} is {@code binary}.
+ * </p>
+ * 
+ * <p>
  * The queries utilize native SQL for some operations for performance reasons.
  * </p>
  * 
@@ -127,4 +139,162 @@ public interface ProxyAbisBioDataRepository extends CrudRepository<BiometricData
 	@Query(value = "select distinct(b.insertEntity.referenceId) from Biometric_Data b where b.bioData=?1 and b.insertEntity.referenceId in ?2")
 	public List<String> fetchByReferenceId(@Param("bioData") String bioData,
 			@Param("referenceIds") List<String> referenceIds);
+
+	/**
+	 * Fetches one page of index entries ordered by primary key, starting after the
+	 * given id. Keyset paging keeps every page an index range scan, so loading a
+	 * large table does not degrade the way offset paging does.
+	 *
+	 * @param lastId   The last id returned by the previous page, or {@code 0} for
+	 *                 the first page
+	 * @param pageable The page size; only the size is used
+	 * @return Rows of {@code [id, referenceId, type, bioData, bioDigest]}
+	 */
+	@Query(value = "select b.id, b.insertEntity.referenceId, b.type, b.bioData, b.bioDigest from Biometric_Data b where b.id > ?1 order by b.id asc")
+	public List<Object[]> fetchIndexEntriesAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+	/**
+	 * Fetches one page of signature entries ordered by primary key, starting
+	 * after the given id, with the digest columns for rows stored without a
+	 * signature.
+	 *
+	 * @param lastId   The last id returned by the previous page, or {@code 0} for
+	 *                 the first page
+	 * @param pageable The page size; only the size is used
+	 * @return Rows of
+	 *         {@code [id, referenceId, type, bioSignature, bioData, bioDigest]}
+	 */
+	@Query(value = "select b.id, b.insertEntity.referenceId, b.type, b.bioSignature, b.bioData, b.bioDigest from Biometric_Data b where b.id > ?1 order by b.id asc")
+	public List<Object[]> fetchSignatureEntriesAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+	/**
+	 * Fetches duplicates of biometric data for a given reference ID, comparing
+	 * binary digests.
+	 * 
+	 * @param referenceId The reference ID to search for duplicates
+	 * @return List of {@link BiometricData} instances representing duplicates
+	 */
+	@Query(value = "select distinct(b.*) from Biometric_Data b where b.bio_digest in (select bio_digest from Biometric_Data where Biometric_Data.reference_id =?1) and b.reference_id <> ?1  order by reference_id asc", nativeQuery = true)
+	public List<BiometricData> fetchDuplicatesForReferenceIdByDigest(@Param("referenceId") String referenceId);
+
+	/**
+	 * Fetches duplicates of biometric data for a given reference ID within
+	 * specified gallery IDs, comparing binary digests.
+	 * 
+	 * @param referenceId  The reference ID to search for duplicates
+	 * @param referenceIds List of gallery IDs to limit the search within
+	 * @return List of {@link BiometricData} instances representing duplicates
+	 */
+	@Query(value = "select distinct(b.*) from Biometric_Data b where b.bio_digest in (select bio_digest from Biometric_Data where Biometric_Data.reference_id =?1) and b.reference_id <> ?1  and b.reference_id in ?2 order by reference_id asc", nativeQuery = true)
+	public List<BiometricData> fetchDuplicatesForReferenceIdBasedOnGalleryIdsByDigest(
+			@Param("referenceId") String referenceId, @Param("referenceIds") List<String> referenceIds);
+
+	/**
+	 * Fetches binary digests by reference ID.
+	 * 
+	 * @param referenceId The reference ID to search for biometric data
+	 * @return List of binary digests associated with the reference ID
+	 */
+	@Query(value = "select b.bioDigest from Biometric_Data b where b.insertEntity.referenceId=?1")
+	public List<byte[]> fetchBioDigestByRefId(@Param("referenceId") String referenceId);
+
+	/**
+	 * Fetches distinct reference IDs by binary digest.
+	 * 
+	 * @param bioDigest The binary digest to search for reference IDs
+	 * @return List of distinct reference IDs associated with the digest
+	 */
+	@Query(value = "select distinct(b.insertEntity.referenceId) from Biometric_Data b where b.bioDigest=?1")
+	public List<String> fetchReferenceIdByDigest(@Param("bioDigest") byte[] bioDigest);
+
+	/**
+	 * Fetches the reference ID and biometric type of the records holding a
+	 * hexadecimal digest.
+	 * 
+	 * @param bioData The hexadecimal digest to search for
+	 * @return Rows of reference ID and type, ordered by reference ID
+	 */
+	@Query(value = "select b.insertEntity.referenceId, b.type from Biometric_Data b where b.bioData=?1 order by b.insertEntity.referenceId")
+	public List<Object[]> fetchTypedReferenceIds(@Param("bioData") String bioData);
+
+	/**
+	 * Fetches the reference ID and biometric type of the records holding a
+	 * binary digest.
+	 * 
+	 * @param bioDigest The binary digest to search for
+	 * @return Rows of reference ID and type, ordered by reference ID
+	 */
+	@Query(value = "select b.insertEntity.referenceId, b.type from Biometric_Data b where b.bioDigest=?1 order by b.insertEntity.referenceId")
+	public List<Object[]> fetchTypedReferenceIdsByDigest(@Param("bioDigest") byte[] bioDigest);
+
+	/**
+	 * Fetches all distinct binary digests.
+	 * 
+	 * @return List of all distinct binary digests
+	 */
+	@Query(value = "select distinct(b.bio_digest) from Biometric_Data b where b.bio_digest is not null", nativeQuery = true)
+	public List<byte[]> fetchAllBioDigest();
+
+	/**
+	 * Fetches binary digests matching the specified digest.
+	 * 
+	 * @param bioDigest The binary digest to search for
+	 * @return List of binary digests matching the specified digest
+	 */
+	@Query(value = "select distinct(b.bio_digest) from Biometric_Data b where b.bio_digest=?1", nativeQuery = true)
+	public List<byte[]> fetchByBioDigest(@Param("bioDigest") byte[] bioDigest);
+
+	/**
+	 * Fetches reference IDs by binary digest within specified reference IDs.
+	 * 
+	 * @param bioDigest    The binary digest to search for
+	 * @param referenceIds List of reference IDs to limit the search within
+	 * @return List of reference IDs associated with the specified digest within
+	 *         the given reference IDs
+	 */
+	@Query(value = "select distinct(b.insertEntity.referenceId) from Biometric_Data b where b.bioDigest=?1 and b.insertEntity.referenceId in ?2")
+	public List<String> fetchByReferenceIdByDigest(@Param("bioDigest") byte[] bioDigest,
+			@Param("referenceIds") List<String> referenceIds);
+
+	/**
+	 * Fetches one page of records that hold their digest as hexadecimal text
+	 * only, ordered by primary key and starting after the given id.
+	 * 
+	 * @param lastId   The last id returned by the previous page
+	 * @param pageable The page size; only the size is used
+	 * @return The records to convert to binary digests
+	 */
+	@Query(value = "select b from Biometric_Data b where b.id > ?1 and b.bioDigest is null and b.bioData is not null order by b.id asc")
+	public List<BiometricData> fetchHexDigestsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+	/**
+	 * Fetches one page of records that hold their digest in binary form only,
+	 * ordered by primary key and starting after the given id.
+	 * 
+	 * @param lastId   The last id returned by the previous page
+	 * @param pageable The page size; only the size is used
+	 * @return The records to convert to hexadecimal digests
+	 */
+	@Query(value = "select b from Biometric_Data b where b.id > ?1 and b.bioData is null and b.bioDigest is not null order by b.id asc")
+	public List<BiometricData> fetchBinaryDigestsAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+	/**
+	 * Deletes the biometric data of a reference ID in one statement, without
+	 * loading it first.
+	 * 
+	 * @param referenceId The reference ID whose biometric data is deleted
+	 * @return The number of deleted records
+	 */
+	@Modifying
+	@Query(value = "delete from Biometric_Data where reference_id = ?1", nativeQuery = true)
+	public int deleteByReferenceId(@Param("referenceId") String referenceId);
+
+	/**
+	 * Deletes all biometric data in one statement.
+	 * 
+	 * @return The number of deleted records
+	 */
+	@Modifying
+	@Query(value = "delete from Biometric_Data", nativeQuery = true)
+	public int deleteAllInBulk();
 }
\ No newline at end of file
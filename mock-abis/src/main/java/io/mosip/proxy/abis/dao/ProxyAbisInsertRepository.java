@@ -2,6 +2,7 @@ package io.mosip.proxy.abis.dao;
 
 import java.util.List;
 
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
@@ -49,4 +50,26 @@ public interface ProxyAbisInsertRepository extends CrudRepository<InsertEntity,
 	 */
 	@Query(value = "select count(b.reference_id) from INSERT_REQUEST b where b.reference_id in ?1", nativeQuery = true)
 	public int fetchCountForReferenceIdPresentInGallery(@Param("referenceIds") List<String> referenceIds);
+
+	/**
+	 * Deletes the insert request with the given reference ID in one statement,
+	 * without loading it first. The biometric data of the reference ID must be
+	 * deleted beforehand.
+	 * 
+	 * @param referenceId The reference ID to delete
+	 * @return The number of deleted records
+	 */
+	@Modifying
+	@Query(value = "delete from INSERT_REQUEST where reference_id = ?1", nativeQuery = true)
+	public int deleteByReferenceId(@Param("referenceId") String referenceId);
+
+	/**
+	 * Deletes every insert request in one statement. The biometric data must be
+	 * deleted beforehand.
+	 * 
+	 * @return The number of deleted records
+	 */
+	@Modifying
+	@Query(value = "delete from INSERT_REQUEST", nativeQuery = true)
+	public int deleteAllInBulk();
 }
\ No newline at end of file
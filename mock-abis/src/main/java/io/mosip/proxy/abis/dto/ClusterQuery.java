@@ -0,0 +1,37 @@
+package io.mosip.proxy.abis.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ClusterQuery represents a search sent to another node in cluster mode.
+ * <p>
+ * This class carries the digests searched for, the reference ID being
+ * identified and the gallery the search is limited to.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ClusterQuery {
+	/**
+	 * Hexadecimal digests searched for.
+	 */
+	private List<String> digests;
+
+	/**
+	 * Reference ID being identified, which is not reported as a match.
+	 */
+	private String referenceId;
+
+	/**
+	 * Gallery reference IDs the search is limited to, or {@code null} to search
+	 * everything stored on the node.
+	 */
+	private List<String> galleryIds;
+}
@@ -0,0 +1,55 @@
+package io.mosip.proxy.abis.dto;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * SeedRequest describes a synthetic gallery to generate.
+ * <p>
+ * Reference IDs are {@code referenceIdPrefix} followed by a sequence number
+ * starting at {@code startIndex}. Each gets one random digest per subtype of
+ * every modality listed, and a share of them, {@code duplicateRate}, copies the
+ * digests of a recently generated reference ID so identify requests find
+ * duplicates. The same request with the same {@code randomSeed} always
+ * generates the same gallery.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+@Data
+@NoArgsConstructor
+public class SeedRequest {
+	/**
+	 * Number of reference IDs to generate.
+	 */
+	private long count;
+
+	/**
+	 * Prefix of the generated reference IDs.
+	 */
+	private String referenceIdPrefix = "seed-";
+
+	/**
+	 * Sequence number of the first reference ID, so a gallery can be grown by
+	 * seeding again.
+	 */
+	private long startIndex;
+
+	/**
+	 * Modalities to generate, out of {@code Finger}, {@code Iris} and
+	 * {@code Face}.
+	 */
+	private List<String> modalities = List.of("Finger", "Iris", "Face");
+
+	/**
+	 * Share of reference IDs, between 0 and 1, duplicating another one.
+	 */
+	private double duplicateRate;
+
+	/**
+	 * Seed of the random digests.
+	 */
+	private long randomSeed;
+}
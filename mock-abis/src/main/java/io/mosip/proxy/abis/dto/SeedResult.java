@@ -0,0 +1,45 @@
+package io.mosip.proxy.abis.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * SeedResult reports a gallery seeding run.
+ * <p>
+ * It carries the number of reference IDs and biometric records written, the
+ * write path used for the database and the load rate, counting rows of both
+ * tables.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeedResult {
+	/**
+	 * Number of reference IDs written.
+	 */
+	private long referenceIds;
+
+	/**
+	 * Number of biometric records written.
+	 */
+	private long biometrics;
+
+	/**
+	 * Write path used, such as {@code jdbc-batch} or {@code copy}.
+	 */
+	private String method;
+
+	/**
+	 * Time taken in milliseconds.
+	 */
+	private long elapsedMillis;
+
+	/**
+	 * Rows of both tables written per second.
+	 */
+	private long rowsPerSecond;
+}
@@ -0,0 +1,73 @@
+package io.mosip.proxy.abis.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * SpanRecord is a finished span of a request trace, as handed to a span sink.
+ * <p>
+ * Trace and span IDs are lowercase hex strings in the W3C trace context
+ * format, so records can be matched against the {@code traceparent} values
+ * carried by JMS messages and data share requests.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SpanRecord {
+	/**
+	 * Trace ID, 32 hex digits.
+	 */
+	private String traceId;
+
+	/**
+	 * Span ID, 16 hex digits.
+	 */
+	private String spanId;
+
+	/**
+	 * Span ID of the parent span, or {@code null} for the root of a trace.
+	 */
+	private String parentSpanId;
+
+	/**
+	 * Name of the operation timed by the span.
+	 */
+	private String name;
+
+	/**
+	 * Kind of the span: {@code INTERNAL}, {@code SERVER}, {@code CLIENT},
+	 * {@code PRODUCER} or {@code CONSUMER}.
+	 */
+	private String kind;
+
+	/**
+	 * Request ID of the ABIS request the span belongs to.
+	 */
+	private String requestId;
+
+	/**
+	 * Start time in nanoseconds since the epoch.
+	 */
+	private long startEpochNanos;
+
+	/**
+	 * End time in nanoseconds since the epoch.
+	 */
+	private long endEpochNanos;
+
+	/**
+	 * {@code success}, or the failure reason of the operation.
+	 */
+	private String outcome;
+
+	/**
+	 * Additional attributes of the span.
+	 */
+	private Map<String, String> attributes;
+}
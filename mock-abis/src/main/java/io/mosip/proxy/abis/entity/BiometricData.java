@@ -5,9 +5,13 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import io.mosip.proxy.abis.utility.BdbSignature;
+import io.mosip.proxy.abis.utility.BioDigest;
 import lombok.Data;
 
 /**
@@ -26,6 +30,16 @@ import lombok.Data;
  * it is associated with.
  * </p>
  * <p>
+ * Depending on {@code abis.bio.digest.storage}, the SHA-256 digest is stored
+ * either as hexadecimal text in {@code bio_data} or as 32 raw bytes in the
+ * indexed {@code bio_digest} column. {@link #getBioData()} returns the
+ * hexadecimal form in both cases.
+ * </p>
+ * <p>
+ * When {@code abis.matcher.enabled} is set, {@code bio_signature} holds the
+ * {@link BdbSignature} used to find near duplicates of the biometric.
+ * </p>
+ * <p>
  * This entity is annotated with Lombok's {@code @Data} to automatically
  * generate boilerplate code like getters, setters, {@code toString},
  * {@code equals}, and {@code hashCode} methods.
@@ -50,11 +64,15 @@ import lombok.Data;
 
 @Data
 @Entity(name = "Biometric_Data")
-@Table
+@Table(indexes = { @Index(name = "idx_biometric_data_bio_digest", columnList = "bio_digest") })
 public class BiometricData {
-	/** The unique identifier for the biometric data record. */
+	/**
+	 * The unique identifier for the biometric data record, drawn from a pooled
+	 * sequence so batched inserts reserve ids fifty at a time.
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "biometric_data_seq")
+	@SequenceGenerator(name = "biometric_data_seq", sequenceName = "Biometric_Data_SEQ", allocationSize = 50)
 	private Long id;
 
 	/**
@@ -75,6 +93,20 @@ public class BiometricData {
 	@Column(name = "bio_data")
 	private String bioData;
 
+	/**
+	 * Raw SHA-256 digest of the biometric data, used instead of {@code bioData}
+	 * when digests are stored in binary form.
+	 */
+	@Column(name = "bio_digest", length = BioDigest.LENGTH)
+	private byte[] bioDigest;
+
+	/**
+	 * Similarity signature of the biometric data, or {@code null} if it was
+	 * stored without one.
+	 */
+	@Column(name = "bio_signature", length = BdbSignature.LENGTH)
+	private byte[] bioSignature;
+
 	/**
 	 * Reference to the InsertEntity this biometric data belongs to (Many-To-One
 	 * relationship).
@@ -107,4 +139,16 @@ public class BiometricData {
 		this.bioData = bioData;
 		this.insertEntity = insertEntity;
 	}
+
+	/**
+	 * Returns the hexadecimal digest of the biometric data, derived from
+	 * {@code bioDigest} when the digest is stored in binary form.
+	 *
+	 * @return the hexadecimal digest, or {@code null} if none is set
+	 */
+	public String getBioData() {
+		if (bioData == null && bioDigest != null && bioDigest.length == BioDigest.LENGTH)
+			return BioDigest.fromBytes(bioDigest).toHex();
+		return bioData;
+	}
 }
\ No newline at end of file
@@ -11,6 +11,8 @@ import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 /**
  * Represents an insert request entity in the ABIS (Automated Biometric
@@ -72,8 +74,13 @@ public class InsertEntity {
 	@Id
 	private String referenceId;
 
-	/** The list of biometric data associated with this insert request. */
-	@OneToMany(cascade = CascadeType.ALL, mappedBy = "insertEntity", fetch = FetchType.EAGER)
+	/**
+	 * The list of biometric data associated with this insert request, loaded only
+	 * when accessed.
+	 */
+	@OneToMany(cascade = CascadeType.ALL, mappedBy = "insertEntity", fetch = FetchType.LAZY)
+	@ToString.Exclude
+	@EqualsAndHashCode.Exclude
 	private List<BiometricData> biometricList;
 
 	/**
@@ -0,0 +1,44 @@
+package io.mosip.proxy.abis.exception;
+
+import org.springframework.http.HttpStatus;
+
+import io.mosip.proxy.abis.dto.RequestMO;
+import lombok.Getter;
+
+/**
+ * Exception thrown when a REST request is turned away by admission control
+ * because its endpoint is overloaded.
+ * <p>
+ * Besides the request and failure reason of a {@link RequestException}, it
+ * carries the HTTP status to answer with, {@code 429} or {@code 503}, and the
+ * number of seconds after which the caller may retry.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+@Getter
+public class AdmissionRejectedException extends RequestException {
+	/** Serial version UID for serialization. */
+	private static final long serialVersionUID = 6410853427719035372L;
+
+	/** The HTTP status of the rejection. */
+	private final HttpStatus status;
+
+	/** Seconds after which the request may be retried. */
+	private final long retryAfterSeconds;
+
+	/**
+	 * Constructs a new {@code AdmissionRejectedException}.
+	 *
+	 * @param entity            The rejected request.
+	 * @param reasonConstant    The reason constant reported for the request.
+	 * @param status            The HTTP status of the rejection.
+	 * @param retryAfterSeconds Seconds after which the request may be retried.
+	 */
+	public AdmissionRejectedException(RequestMO entity, String reasonConstant, HttpStatus status,
+			long retryAfterSeconds) {
+		super(entity, reasonConstant);
+		this.status = status;
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+}
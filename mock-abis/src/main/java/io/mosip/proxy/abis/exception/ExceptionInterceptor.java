@@ -2,6 +2,7 @@ package io.mosip.proxy.abis.exception;
 
 import java.util.Objects;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -50,6 +51,33 @@ public class ExceptionInterceptor extends ResponseEntityExceptionHandler {
 
 	}
 
+	/**
+	 * Handles {@link AdmissionRejectedException} thrown when an endpoint is
+	 * overloaded.
+	 * <p>
+	 * This method answers with the {@link FailureResponse} of the rejected request
+	 * and the status of the rejection, {@code 429} or {@code 503}, with a
+	 * {@code Retry-After} header telling the caller when to try again.
+	 * </p>
+	 * 
+	 * @param exp the exception being handled
+	 * @return a {@code ResponseEntity} containing the {@code FailureResponse},
+	 *         HTTP status and {@code Retry-After} header
+	 */
+	@ExceptionHandler(AdmissionRejectedException.class)
+	public ResponseEntity<Object> handleAdmissionRejectedException(AdmissionRejectedException exp) {
+		FailureResponse fr = new FailureResponse();
+		if (!Objects.isNull(exp.getEntity())) {
+			fr.setId(exp.getEntity().getId());
+			fr.setRequestId(exp.getEntity().getRequestId());
+			fr.setResponsetime(exp.getEntity().getRequesttime());
+			fr.setReturnValue("2");
+			fr.setFailureReason(exp.getReasonConstant());
+		}
+		return ResponseEntity.status(exp.getStatus())
+				.header(HttpHeaders.RETRY_AFTER, Long.toString(exp.getRetryAfterSeconds())).body(fr);
+	}
+
 	/**
 	 * Handles {@link BindingException} thrown by the application.
 	 * <p>
@@ -0,0 +1,222 @@
+package io.mosip.proxy.abis.listener;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import io.mosip.proxy.abis.dto.FailureResponse;
+import io.mosip.proxy.abis.dto.IdentityRequest;
+import io.mosip.proxy.abis.dto.IdentityResponse;
+import io.mosip.proxy.abis.dto.InsertRequestMO;
+import io.mosip.proxy.abis.dto.RequestMO;
+import io.mosip.proxy.abis.dto.ResponseMO;
+
+/**
+ * Decodes ABIS request messages and encodes responses with a single, shared
+ * Jackson configuration.
+ * <p>
+ * A message is tokenized once into a tree, from which the {@code id} naming
+ * the request type is read and the request DTO is then bound with a
+ * pre-built {@link ObjectReader}. Byte messages are parsed straight from their
+ * content, without an intermediate {@code String}. The mapper, with its
+ * modules, is set up once and its readers and writer are thread-safe, so one
+ * configuration serves every consumer.
+ * </p>
+ * <p>
+ * Binding keeps Jackson's default of failing on unknown properties, so a
+ * request with unexpected fields is still rejected and reported through
+ * {@link #toMap(DecodedMessage)} as an invalid request structure.
+ * </p>
+ */
+public final class AbisMessageCodec {
+
+	private static final String ID = "id";
+	private static final String REQUEST_ID = "requestId";
+
+	private static final ObjectMapper MAPPER = createMapper();
+	private static final ObjectReader INSERT_READER = MAPPER.readerFor(InsertRequestMO.class);
+	private static final ObjectReader IDENTIFY_READER = MAPPER.readerFor(IdentityRequest.class);
+	private static final ObjectReader REQUEST_READER = MAPPER.readerFor(RequestMO.class);
+	private static final ObjectWriter RESPONSE_WRITER = MAPPER.writer();
+
+	/**
+	 * A parsed request message.
+	 *
+	 * @param id   The request type, e.g. {@code mosip.abis.insert}, or
+	 *             {@code null} if the message has no textual {@code id}.
+	 * @param body The parsed message.
+	 */
+	public record DecodedMessage(String id, JsonNode body) {
+	}
+
+	private AbisMessageCodec() {
+	}
+
+	/**
+	 * Parses a text message.
+	 *
+	 * @param message The message text.
+	 * @return The parsed message.
+	 * @throws IOException              if the text is not valid JSON.
+	 * @throws IllegalArgumentException if the JSON is not an object.
+	 */
+	public static DecodedMessage decode(String message) throws IOException {
+		return decoded(MAPPER.readTree(message));
+	}
+
+	/**
+	 * Parses a byte message holding UTF-8 JSON.
+	 *
+	 * @param message The message content.
+	 * @return The parsed message.
+	 * @throws IOException              if the content is not valid JSON.
+	 * @throws IllegalArgumentException if the JSON is not an object.
+	 */
+	public static DecodedMessage decode(byte[] message) throws IOException {
+		return decoded(MAPPER.readTree(message));
+	}
+
+	private static DecodedMessage decoded(JsonNode body) {
+		if (body == null || !body.isObject())
+			throw new IllegalArgumentException("ABIS message is not a JSON object");
+		JsonNode id = body.get(ID);
+		return new DecodedMessage(id != null && id.isTextual() ? id.asText() : null, body);
+	}
+
+	/**
+	 * Returns the {@code requestId} of a parsed message without binding it.
+	 *
+	 * @param message The parsed message.
+	 * @return The request ID, or {@code null} if the message has no textual
+	 *         {@code requestId}.
+	 */
+	public static String requestIdOf(DecodedMessage message) {
+		JsonNode requestId = message.body().get(REQUEST_ID);
+		return requestId != null && requestId.isTextual() ? requestId.asText() : null;
+	}
+
+	/**
+	 * Returns the {@code requestId} of a response body.
+	 *
+	 * @param body The response body.
+	 * @return The request ID, or {@code null} if the body is not a response.
+	 */
+	public static String requestIdOf(Object body) {
+		if (body instanceof ResponseMO response)
+			return response.getRequestId();
+		if (body instanceof IdentityResponse response)
+			return response.getRequestId();
+		if (body instanceof FailureResponse response)
+			return response.getRequestId();
+		return null;
+	}
+
+	/**
+	 * Returns the {@code id} of a response body.
+	 *
+	 * @param body The response body.
+	 * @return The {@code id} of the response, or {@code null} if the body is not
+	 *         an ABIS response.
+	 */
+	public static String idOf(Object body) {
+		if (body instanceof ResponseMO response)
+			return response.getId();
+		if (body instanceof IdentityResponse response)
+			return response.getId();
+		if (body instanceof FailureResponse response)
+			return response.getId();
+		return null;
+	}
+
+	/**
+	 * Binds a parsed message to an insert request.
+	 *
+	 * @param message The parsed message.
+	 * @return The insert request.
+	 * @throws IOException if the message does not match the insert request.
+	 */
+	public static InsertRequestMO toInsertRequest(DecodedMessage message) throws IOException {
+		return INSERT_READER.readValue(message.body());
+	}
+
+	/**
+	 * Binds a parsed message to an identify request.
+	 *
+	 * @param message The parsed message.
+	 * @return The identify request.
+	 * @throws IOException if the message does not match the identify request.
+	 */
+	public static IdentityRequest toIdentityRequest(DecodedMessage message) throws IOException {
+		return IDENTIFY_READER.readValue(message.body());
+	}
+
+	/**
+	 * Binds a parsed message to a delete request.
+	 *
+	 * @param message The parsed message.
+	 * @return The delete request.
+	 * @throws IOException if the message does not match the delete request.
+	 */
+	public static RequestMO toRequest(DecodedMessage message) throws IOException {
+		return REQUEST_READER.readValue(message.body());
+	}
+
+	/**
+	 * Returns the top-level fields of a parsed message as strings, for
+	 * validating a request that could not be processed. Nested objects and
+	 * arrays are rendered as JSON.
+	 *
+	 * @param message The parsed message, or {@code null} if parsing failed.
+	 * @return The fields in message order, or {@code null} for a {@code null}
+	 *         message.
+	 */
+	public static Map<String, String> toMap(DecodedMessage message) {
+		if (message == null)
+			return null;
+		Map<String, String> map = new LinkedHashMap<>();
+		Iterator<Map.Entry<String, JsonNode>> fields = message.body().fields();
+		while (fields.hasNext()) {
+			Map.Entry<String, JsonNode> field = fields.next();
+			JsonNode value = field.getValue();
+			map.put(field.getKey(), value.isNull() ? null : value.isValueNode() ? value.asText() : value.toString());
+		}
+		return map;
+	}
+
+	/**
+	 * Serializes a response body as JSON text.
+	 *
+	 * @param body The response body.
+	 * @return The JSON text.
+	 * @throws JsonProcessingException if the body cannot be serialized.
+	 */
+	public static String writeValueAsString(Object body) throws JsonProcessingException {
+		return RESPONSE_WRITER.writeValueAsString(body);
+	}
+
+	/**
+	 * Serializes a response body as UTF-8 JSON bytes.
+	 *
+	 * @param body The response body.
+	 * @return The JSON bytes.
+	 * @throws JsonProcessingException if the body cannot be serialized.
+	 */
+	public static byte[] writeValueAsBytes(Object body) throws JsonProcessingException {
+		return RESPONSE_WRITER.writeValueAsBytes(body);
+	}
+
+	private static ObjectMapper createMapper() {
+		ObjectMapper mapper = new ObjectMapper();
+		mapper.findAndRegisterModules();
+		mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
+		return mapper;
+	}
+}
@@ -0,0 +1,230 @@
+package io.mosip.proxy.abis.listener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+
+/**
+ * Pool of concurrent consumers for a single inbound ABIS queue.
+ * <p>
+ * A JMS {@link Session} delivers its messages serially, so a queue served by a
+ * single session processes one request at a time. This pool opens one session
+ * and one {@link MessageConsumer} per worker, and every worker runs a
+ * {@code receive} loop that hands each message to the {@link QueueListener} on
+ * its own thread. Workers may be platform or virtual threads; virtual threads
+ * suit the blocking sleeps and data-share fetches done while handling a request.
+ * </p>
+ * <p>
+ * A per-queue {@link Semaphore} caps the number of messages being processed at
+ * once. A worker only pulls the next message after acquiring a permit, and
+ * consumers are created with a prefetch of one so that messages waiting for a
+ * permit stay on the broker where other instances can still take them.
+ * Sessions use {@code CLIENT_ACKNOWLEDGE} and each message is acknowledged once
+ * its handler returns, which keeps the acknowledge-after-processing behaviour of
+ * an {@code AUTO_ACKNOWLEDGE} {@code MessageListener}. A message whose handler
+ * throws is not acknowledged; its session is recovered so the broker redelivers
+ * it.
+ * </p>
+ */
+public class ConsumerPool implements AutoCloseable {
+	private static final Logger logger = LoggerFactory.getLogger(ConsumerPool.class);
+
+	/** How long a worker blocks in {@code receive} before rechecking shutdown. */
+	private static final long RECEIVE_TIMEOUT_MILLIS = 1000;
+
+	/** Back-off after a failed receive, e.g. while failover reconnects. */
+	private static final long RECEIVE_ERROR_BACKOFF_MILLIS = 1000;
+
+	/** How long {@link #close()} waits for in-flight messages to complete. */
+	private static final long SHUTDOWN_GRACE_MILLIS = 10000;
+
+	private static final String PREFETCH_OPTION = "consumer.prefetchSize=1";
+
+	private final Connection connection;
+	private final String address;
+	private final QueueListener handler;
+	private final int consumers;
+	private final boolean virtualThreads;
+	private final Semaphore inFlight;
+	private final int maxInFlight;
+
+	private final List<Session> sessions = new ArrayList<>();
+	private final List<Thread> workers = new ArrayList<>();
+	private volatile boolean running;
+
+	/**
+	 * Creates a pool for the given inbound queue.
+	 *
+	 * @param connection     The started JMS connection to create sessions on.
+	 * @param address        The inbound queue name.
+	 * @param handler        The handler each received message is passed to.
+	 * @param consumers      The number of concurrent consumers (at least one).
+	 * @param maxInFlight    The maximum number of messages processed at once for
+	 *                       this queue, or {@code 0} or less to allow one per
+	 *                       consumer.
+	 * @param virtualThreads Whether workers run on virtual threads.
+	 */
+	public ConsumerPool(Connection connection, String address, QueueListener handler, int consumers,
+			int maxInFlight, boolean virtualThreads) {
+		this.connection = connection;
+		this.address = address;
+		this.handler = handler;
+		this.consumers = Math.max(1, consumers);
+		this.maxInFlight = maxInFlight > 0 ? maxInFlight : this.consumers;
+		this.inFlight = new Semaphore(this.maxInFlight);
+		this.virtualThreads = virtualThreads;
+	}
+
+	/**
+	 * Opens the sessions and consumers and starts the workers. Sessions are all
+	 * created before any worker starts, so a broker error fails the whole pool
+	 * instead of leaving it partially running.
+	 *
+	 * @throws JMSException if a session or consumer cannot be created.
+	 */
+	public synchronized void start() throws JMSException {
+		if (running)
+			return;
+		List<MessageConsumer> created = new ArrayList<>();
+		try {
+			for (int i = 0; i < consumers; i++) {
+				Session session = connection.createSession(false, Session.CLIENT_ACKNOWLEDGE);
+				sessions.add(session);
+				created.add(session.createConsumer(session.createQueue(withPrefetch(address))));
+			}
+		} catch (JMSException e) {
+			closeSessions();
+			throw e;
+		}
+
+		running = true;
+		ThreadFactory factory = virtualThreads ? Thread.ofVirtual().name("abis-consumer-" + address + "-", 0).factory()
+				: Thread.ofPlatform().daemon(true).name("abis-consumer-" + address + "-", 0).factory();
+		for (int i = 0; i < created.size(); i++) {
+			Session session = sessions.get(i);
+			MessageConsumer consumer = created.get(i);
+			Thread worker = factory.newThread(() -> receiveLoop(session, consumer));
+			workers.add(worker);
+			worker.start();
+		}
+		logger.info("Started {} consumers for queue {} with max in-flight {} on {} threads", consumers, address,
+				maxInFlight, virtualThreads ? "virtual" : "platform");
+	}
+
+	/**
+	 * Receives and handles messages until the pool is closed.
+	 *
+	 * @param session  The session of the consumer.
+	 * @param consumer The consumer owned by this worker.
+	 */
+	private void receiveLoop(Session session, MessageConsumer consumer) {
+		while (running) {
+			try {
+				inFlight.acquire();
+			} catch (InterruptedException e) {
+				if (!running)
+					break;
+				continue;
+			}
+			try {
+				Message message = consumer.receive(RECEIVE_TIMEOUT_MILLIS);
+				if (!Objects.isNull(message)) {
+					try {
+						handler.setListener(message);
+					} catch (RuntimeException e) {
+						// left unacknowledged, so the broker redelivers it as it would to a listener
+						session.recover();
+						throw e;
+					}
+					message.acknowledge();
+				}
+			} catch (JMSException e) {
+				if (running) {
+					logger.error("Error while receiving from queue {}", address, e);
+					backOff();
+				}
+			} catch (RuntimeException e) {
+				logger.error("Error while handling message from queue {}", address, e);
+			} finally {
+				inFlight.release();
+				// handlers flag interruption on failure; only close() decides when the loop ends
+				Thread.interrupted();
+			}
+		}
+	}
+
+	private void backOff() {
+		try {
+			TimeUnit.MILLISECONDS.sleep(RECEIVE_ERROR_BACKOFF_MILLIS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns the number of messages currently being processed.
+	 *
+	 * @return the in-flight message count
+	 */
+	public int getInFlight() {
+		return maxInFlight - inFlight.availablePermits();
+	}
+
+	/**
+	 * Returns the number of consumers in this pool.
+	 *
+	 * @return the consumer count
+	 */
+	public int getConsumers() {
+		return consumers;
+	}
+
+	/**
+	 * Stops the workers and closes their sessions. Workers get a grace period to
+	 * finish the message they are handling before they are interrupted.
+	 */
+	@Override
+	public synchronized void close() {
+		running = false;
+		long deadline = System.currentTimeMillis() + SHUTDOWN_GRACE_MILLIS;
+		for (Thread worker : workers) {
+			try {
+				worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+			if (worker.isAlive())
+				worker.interrupt();
+		}
+		workers.clear();
+		closeSessions();
+	}
+
+	private void closeSessions() {
+		for (Session session : sessions) {
+			try {
+				session.close();
+			} catch (JMSException e) {
+				logger.error("Error while closing consumer session for queue {}", address, e);
+			}
+		}
+		sessions.clear();
+	}
+
+	private static String withPrefetch(String address) {
+		return address + (address.contains("?") ? "&" : "?") + PREFETCH_OPTION;
+	}
+}
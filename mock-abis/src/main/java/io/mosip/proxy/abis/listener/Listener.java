@@ -16,6 +16,9 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.activemq.ActiveMQConnection;
@@ -34,10 +37,12 @@ import org.springframework.web.client.RestTemplate;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.gson.Gson;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.mosip.proxy.abis.constant.AbisErrorCode;
 import io.mosip.proxy.abis.controller.ProxyAbisController;
 import io.mosip.proxy.abis.dto.FailureResponse;
@@ -48,7 +53,13 @@ import io.mosip.proxy.abis.dto.RequestMO;
 import io.mosip.proxy.abis.exception.AbisException;
 import io.mosip.proxy.abis.exception.FailureReasonsConstants;
 import io.mosip.proxy.abis.exception.RequestException;
+import io.mosip.proxy.abis.service.LaneScheduler;
+import io.mosip.proxy.abis.service.PipelineMetrics;
+import io.mosip.proxy.abis.service.RequestDeduplicator;
+import io.mosip.proxy.abis.service.RequestTracer;
+import io.mosip.proxy.abis.service.ResponseDispatcher;
 import io.mosip.proxy.abis.utility.Helpers;
+import jakarta.annotation.PreDestroy;
 import jakarta.jms.BytesMessage;
 import jakarta.jms.Connection;
 import jakarta.jms.Destination;
@@ -56,7 +67,6 @@ import jakarta.jms.JMSException;
 import jakarta.jms.Message;
 import jakarta.jms.MessageConsumer;
 import jakarta.jms.MessageListener;
-import jakarta.jms.MessageProducer;
 import jakarta.jms.Session;
 import jakarta.jms.TextMessage;
 
@@ -73,6 +83,40 @@ public class Listener {
 	@Value("${registration.processor.abis.response.delay:0}")
 	private int delayResponse;
 
+	/**
+	 * Number of concurrent consumers, each with its own session, per inbound
+	 * queue. With the default of one, a single message listener is registered on
+	 * the shared session.
+	 */
+	@Value("${abis.listener.consumers:1}")
+	private int consumerCount = 1;
+
+	/**
+	 * Maximum number of messages processed at once per inbound queue; {@code 0}
+	 * allows one per consumer.
+	 */
+	@Value("${abis.listener.max.inflight:0}")
+	private int maxInFlight;
+
+	/**
+	 * Maximum number of inserts downloading their CBEFF data asynchronously at
+	 * once, across every ABIS.
+	 */
+	@Value("${abis.listener.max.async.inserts:256}")
+	private int maxAsyncInserts = 256;
+
+	/**
+	 * Runs the consumers on virtual threads instead of platform threads.
+	 */
+	@Value("${abis.listener.virtual.threads:false}")
+	private boolean virtualThreads;
+
+	/**
+	 * Sends responses without waiting for the broker acknowledgement.
+	 */
+	@Value("${abis.producer.async.send:false}")
+	private boolean asyncSend;
+
 	/**
 	 * Default UTC pattern.
 	 */
@@ -84,7 +128,6 @@ public class Listener {
 
 	private static final String ABIS_DELETE = "mosip.abis.delete";
 
-	private static final String ID = "id";
 	private ActiveMQConnectionFactory activeMQConnectionFactory;
 
 	/** The Constant INBOUNDQUEUENAME. */
@@ -129,6 +172,23 @@ public class Listener {
 	private Connection connection;
 	private Session session;
 	private Destination destination;
+	private final List<ConsumerPool> consumerPools = new CopyOnWriteArrayList<>();
+	private ProducerPool producerPool;
+	private boolean closed;
+
+	/** Permits for asynchronous inserts, shared with the listeners of every ABIS. */
+	private Semaphore asyncInserts;
+
+	/** Listeners of the ABIS configured after the first one. */
+	private final List<Listener> abisListeners = new CopyOnWriteArrayList<>();
+
+	/** The listener of the ABIS whose request the current thread processes. */
+	private static final ThreadLocal<Listener> RECEIVING = new ThreadLocal<>();
+
+	private MeterRegistry meterRegistry = Metrics.globalRegistry;
+	private Counter receivedCounter;
+	private Counter sentCounter;
+	private Counter sendFailedCounter;
 
 	/**
 	 * This flag is added for development & debugging locally
@@ -139,68 +199,190 @@ public class Listener {
 	private boolean localDevelopment;
 
 	private ProxyAbisController proxycontroller;
+	private RequestDeduplicator requestDeduplicator;
+	private LaneScheduler laneScheduler;
+	private PipelineMetrics pipelineMetrics;
+	private RequestTracer requestTracer;
+	private ResponseDispatcher responseDispatcher;
 
 	public String outBoundQueue;
 
 	/**
 	 * Constructor for the Listener class.
 	 *
-	 * @param proxycontroller The ProxyAbisController instance.
+	 * @param proxycontroller     The ProxyAbisController instance.
+	 * @param requestDeduplicator Detects requests delivered more than once.
+	 * @param laneScheduler       Runs requests in per-operation work lanes.
+	 * @param pipelineMetrics     Times the receiving and sending of messages.
+	 * @param requestTracer       Traces requests from receiving to responding.
 	 */
 	@Autowired(required = true)
-	public Listener(ProxyAbisController proxycontroller) {
+	public Listener(ProxyAbisController proxycontroller, RequestDeduplicator requestDeduplicator,
+			LaneScheduler laneScheduler, PipelineMetrics pipelineMetrics, RequestTracer requestTracer) {
 		this.proxycontroller = proxycontroller;
+		this.requestDeduplicator = requestDeduplicator;
+		this.laneScheduler = laneScheduler;
+		this.pipelineMetrics = pipelineMetrics;
+		this.requestTracer = requestTracer;
 	}
 	
 	/**
 	 * Consumes and processes the received JMS message.
 	 *
+	 * When {@code abis.dedup.enabled} is set, a message whose {@code requestId}
+	 * was already processed within the window is answered with the recorded
+	 * response, re-sent without delay, and one that is still being processed is
+	 * dropped; neither is processed again.
+	 *
+	 * When {@code abis.lanes.enabled} is set, the request is queued on the lane of
+	 * its operation and this method returns once it is queued, so the message is
+	 * acknowledged before it is processed; a full lane blocks the consumer until
+	 * room frees up. Messages with an unknown {@code id} are answered directly.
+	 *
 	 * @param message               The received JMS message.
 	 * @param abismiddlewareaddress The address of the ABIS middleware.
 	 * @throws JMSException         If there is an issue with JMS operations.
 	 * @throws InterruptedException If the thread is interrupted.
 	 */
 	public void consumeLogic(jakarta.jms.Message message, String abismiddlewareaddress) throws JMSException, InterruptedException {
-		ResponseEntity<Object> obj = null;
-		Map map = null;
+		if (receivedCounter != null)
+			receivedCounter.increment();
+		Listener previous = RECEIVING.get();
+		RECEIVING.set(this);
+		try {
+			receive(message);
+		} finally {
+			RECEIVING.set(previous);
+		}
+	}
+
+	private void receive(jakarta.jms.Message message) throws JMSException, InterruptedException {
+		long receivedAt = System.nanoTime();
+		AbisMessageCodec.DecodedMessage decoded = null;
 		Integer textType = 0;
-		String messageData = null;
 		logger.info("Received message {}", message);
 		try {
 			if (message instanceof TextMessage || message instanceof ActiveMQTextMessage) {
 				textType = 1;
 				TextMessage textMessage = (TextMessage) message;
-				messageData = textMessage.getText();
+				String messageData = textMessage.getText();
+				logger.info("Message Data {} ", messageData);
+				decoded = AbisMessageCodec.decode(messageData);
 			} else if (message instanceof ActiveMQBytesMessage activeMQBytesMessage) {
 				textType = 2;
-				messageData = new String(activeMQBytesMessage.getContent().data);
+				byte[] messageData = activeMQBytesMessage.getContent().data;
+				if (logger.isDebugEnabled())
+					logger.debug("Message Data {} ", new String(messageData, StandardCharsets.UTF_8));
+				decoded = AbisMessageCodec.decode(messageData);
 			} else {
 				logger.error("Received message is neither text nor byte");
 				return;
 			}
-			logger.info("Message Data {} ", messageData);
-			map = new Gson().fromJson(messageData, Map.class);
-			final ObjectMapper mapper = new ObjectMapper();
-			mapper.findAndRegisterModules();
-			mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
-			
+		} catch (Exception e) {
+			long elapsed = System.nanoTime() - receivedAt;
+			logger.error("Issue while hitting mock abis API", e);
+			ResponseEntity<Object> error = sendError(e, decoded, textType);
+			pipelineMetrics.record(PipelineMetrics.Stage.RECEIVE, PipelineMetrics.Operation.UNKNOWN,
+					error.getBody() instanceof FailureResponse failure ? failure.getFailureReason()
+							: FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN,
+					elapsed);
+			return;
+		}
+		pipelineMetrics.record(PipelineMetrics.Stage.RECEIVE, PipelineMetrics.Operation.of(decoded.id()),
+				PipelineMetrics.SUCCESS, System.nanoTime() - receivedAt);
+		String requestId = AbisMessageCodec.requestIdOf(decoded);
+		RequestTracer.Span span = requestTracer
+				.start(decoded.id(), requestId,
+						requestTracer.isEnabled() ? traceparentOf(message) : null)
+				.kind(RequestTracer.Kind.CONSUMER);
+
+		String claimedRequestId = null;
+		if (requestDeduplicator.isEnabled()) {
+			RequestDeduplicator.Claim claim = requestDeduplicator.claim(requestId);
+			if (claim.status() == RequestDeduplicator.Status.COMPLETED) {
+				logger.info("Replaying response of redelivered request {}", requestId);
+				try (RequestTracer.Scope scope = span.tag("abis.dedup", "replayed").activate()) {
+					proxycontroller.executeAsync(claim.response(), 0, textType);
+				}
+				span.end();
+				return;
+			}
+			if (claim.status() == RequestDeduplicator.Status.IN_FLIGHT) {
+				logger.info("Dropping redelivered request {} still being processed", requestId);
+				span.tag("abis.dedup", "dropped").end();
+				return;
+			}
+			claimedRequestId = requestId;
+		}
+
+		LaneScheduler.Lane lane = laneScheduler.isEnabled() ? laneOf(decoded.id()) : null;
+		if (lane == null) {
+			process(decoded, textType, claimedRequestId, span);
+			return;
+		}
+
+		final AbisMessageCodec.DecodedMessage request = decoded;
+		final int type = textType;
+		final String claimed = claimedRequestId;
+		try {
+			laneScheduler.submit(lane, () -> process(request, type, claimed, span));
+		} catch (InterruptedException | RuntimeException e) {
+			if (claimed != null)
+				requestDeduplicator.release(claimed);
+			span.end(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN);
+			throw e;
+		}
+	}
+
+	private String traceparentOf(jakarta.jms.Message message) {
+		try {
+			return message.getStringProperty(RequestTracer.TRACEPARENT);
+		} catch (JMSException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Processes a decoded request and sends its response, or a failure response
+	 * if it cannot be processed, then records the outcome of a claimed request
+	 * ID. An insert downloading its CBEFF data asynchronously returns before it
+	 * completes, once there is room for it among the asynchronous inserts in
+	 * flight, and its outcome is recorded when it does.
+	 *
+	 * @param decoded          The decoded request.
+	 * @param textType         The type of the received message (text or bytes).
+	 * @param claimedRequestId The request ID claimed for the request, or
+	 *                         {@code null}.
+	 * @param span             The span of the request, ended with its outcome.
+	 */
+	private void process(AbisMessageCodec.DecodedMessage decoded, int textType, String claimedRequestId,
+			RequestTracer.Span span) {
+		ResponseEntity<Object> obj = null;
+		CompletableFuture<ResponseEntity<Object>> pending = null;
+		Listener previous = RECEIVING.get();
+		RECEIVING.set(this);
+		RequestTracer.Scope scope = span.activate();
+		try {
 			logger.info("go on sleep {} ", delayResponse);
 			TimeUnit.SECONDS.sleep(delayResponse);
 
-			logger.info("Request type is {} ", map.get("id"));
+			logger.info("Request type is {} ", decoded.id());
 
-			switch (map.get(ID).toString()) {
+			switch (Objects.toString(decoded.id(), "")) {
 			case ABIS_INSERT:
-				final InsertRequestMO ie = mapper.convertValue(map, InsertRequestMO.class);
-				proxycontroller.saveInsertRequestThroughListner(ie, textType);
+				final InsertRequestMO ie = AbisMessageCodec.toInsertRequest(decoded);
+				if (proxycontroller.isInsertAsync())
+					pending = startAsyncInsert(ie, textType);
+				else
+					obj = proxycontroller.saveInsertRequestThroughListner(ie, textType);
 				break;
 			case ABIS_IDENTIFY:
-				final IdentityRequest ir = mapper.convertValue(map, IdentityRequest.class);
-				proxycontroller.identityRequestThroughListner(ir, textType);
+				final IdentityRequest ir = AbisMessageCodec.toIdentityRequest(decoded);
+				obj = proxycontroller.identityRequestThroughListner(ir, textType);
 				break;
 			case ABIS_DELETE:
-				final RequestMO mo = mapper.convertValue(map, RequestMO.class);
-				proxycontroller.deleteRequestThroughListner(mo, textType);
+				final RequestMO mo = AbisMessageCodec.toRequest(decoded);
+				obj = proxycontroller.deleteRequestThroughListner(mo, textType);
 				break;
 			default:
 				throw new AbisException(AbisErrorCode.INVALID_ID_EXCEPTION.getErrorCode(),
@@ -208,12 +390,84 @@ public class Listener {
 			}
 		} catch (Exception e) {
 			logger.error("Issue while hitting mock abis API", e);
-			obj = errorRequestThroughListner(e, map, textType);
-			try {
-				proxycontroller.executeAsync(obj, delayResponse, textType);
-			} catch (Exception e1) {
-				logger.error("Issue while hitting mock abis API1", e1);
-			}
+			obj = sendError(e, decoded, textType);
+		} finally {
+			scope.close();
+			RECEIVING.set(previous);
+			if (pending != null)
+				pending.whenComplete((response, error) -> recordOutcome(claimedRequestId, span, response));
+			else
+				recordOutcome(claimedRequestId, span, obj);
+		}
+	}
+
+	/**
+	 * Starts an insert downloading its CBEFF data asynchronously once fewer than
+	 * {@code abis.listener.max.async.inserts} are in flight. Waiting for room
+	 * blocks the calling consumer, so a burst of inserts slows down intake
+	 * instead of overflowing the data share client.
+	 */
+	private CompletableFuture<ResponseEntity<Object>> startAsyncInsert(InsertRequestMO ie, int textType)
+			throws InterruptedException {
+		Semaphore permits = asyncInserts();
+		permits.acquire();
+		CompletableFuture<ResponseEntity<Object>> pending;
+		try {
+			pending = proxycontroller.saveInsertRequestThroughListnerAsync(ie, textType);
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+		pending.whenComplete((response, error) -> permits.release());
+		return pending;
+	}
+
+	private synchronized Semaphore asyncInserts() {
+		if (asyncInserts == null)
+			asyncInserts = new Semaphore(Math.max(1, maxAsyncInserts));
+		return asyncInserts;
+	}
+
+	/**
+	 * Ends the span of a request with the failure reason of its response, and
+	 * records the response of a claimed request ID, or releases the claim if no
+	 * response was produced.
+	 */
+	private void recordOutcome(String claimedRequestId, RequestTracer.Span span, ResponseEntity<Object> obj) {
+		if (obj == null)
+			span.end(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN);
+		else if (obj.getBody() instanceof FailureResponse failure && failure.getFailureReason() != null)
+			span.end(failure.getFailureReason());
+		else
+			span.end();
+		if (claimedRequestId == null)
+			return;
+		if (obj != null)
+			requestDeduplicator.complete(claimedRequestId, obj);
+		else
+			requestDeduplicator.release(claimedRequestId);
+	}
+
+	private ResponseEntity<Object> sendError(Exception e, AbisMessageCodec.DecodedMessage decoded, int textType) {
+		ResponseEntity<Object> obj = errorRequestThroughListner(e, AbisMessageCodec.toMap(decoded), textType);
+		try {
+			proxycontroller.executeAsync(obj, delayResponse, textType);
+		} catch (Exception e1) {
+			logger.error("Issue while hitting mock abis API1", e1);
+		}
+		return obj;
+	}
+
+	private LaneScheduler.Lane laneOf(String id) {
+		switch (Objects.toString(id, "")) {
+		case ABIS_INSERT:
+			return LaneScheduler.Lane.INSERT;
+		case ABIS_IDENTIFY:
+			return LaneScheduler.Lane.IDENTIFY;
+		case ABIS_DELETE:
+			return LaneScheduler.Lane.DELETE;
+		default:
+			return null;
 		}
 	}
 
@@ -468,15 +722,31 @@ public class Listener {
 	 */
 	public void sendToQueue(ResponseEntity<Object> obj, Integer textType)
 			throws JsonProcessingException, UnsupportedEncodingException {
-		final ObjectMapper mapper = new ObjectMapper();
-		mapper.findAndRegisterModules();
-		mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
 		logger.info("Response: {} ", obj.getBody());
-		if (textType == 2) {
-			send(mapper.writeValueAsString(obj.getBody()).getBytes(StandardCharsets.UTF_8), outBoundQueue);
-		} else if (textType == 1) {
-			send(mapper.writeValueAsString(obj.getBody()), outBoundQueue);
+		long start = System.nanoTime();
+		RequestTracer.Span span = requestTracer
+				.start(PipelineMetrics.Stage.SEND.tag(), AbisMessageCodec.requestIdOf(obj.getBody()))
+				.kind(RequestTracer.Kind.PRODUCER).tag("abis.queue", outBoundQueue);
+		Boolean sent = null;
+		try (RequestTracer.Scope scope = span.activate()) {
+			if (textType == 2) {
+				sent = send(AbisMessageCodec.writeValueAsBytes(obj.getBody()), outBoundQueue);
+			} else if (textType == 1) {
+				sent = send(AbisMessageCodec.writeValueAsString(obj.getBody()), outBoundQueue);
+			}
+		} catch (JsonProcessingException | RuntimeException e) {
+			span.end(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN);
+			throw e;
 		}
+		String outcome = Boolean.FALSE.equals(sent) ? FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN
+				: PipelineMetrics.SUCCESS;
+		span.end(outcome);
+		if (sent != null)
+			pipelineMetrics.record(PipelineMetrics.Stage.SEND,
+					PipelineMetrics.Operation.of(AbisMessageCodec.idOf(obj.getBody())), outcome,
+					System.nanoTime() - start);
+		if (sent != null && sentCounter != null)
+			(Boolean.TRUE.equals(sent) ? sentCounter : sendFailedCounter).increment();
 	}
 
 	/**
@@ -514,7 +784,9 @@ public class Listener {
 	/**
 	 * Retrieves and parses the ABIS queue configuration details. This method
 	 * fetches the JSON configuration (using `getJson`) and parses it to populate a
-	 * list of `MockAbisQueueDetails` objects.
+	 * list of `MockAbisQueueDetails` objects, one per entry of the {@code abis}
+	 * array. The connection factory of the first entry, the default ABIS, is
+	 * kept by this listener.
 	 *
 	 * @return A list of `MockAbisQueueDetails` objects containing parsed queue
 	 *         information.
@@ -528,7 +800,6 @@ public class Listener {
 
 		logger.info("getAbisQueueDetails.....{}", registrationProcessorAbis);
 		JSONObject regProcessorAbisJson;
-		MockAbisQueueDetails abisQueueDetails = new MockAbisQueueDetails();
 		Gson g = new Gson();
 
 		try {
@@ -549,15 +820,16 @@ public class Listener {
 				String outboundQueueName = validateAbisQueueJsonAndReturnValue(json, OUTBOUNDQUEUENAME);
 				String queueName = validateAbisQueueJsonAndReturnValue(json, NAME);
 
-				this.activeMQConnectionFactory = new ActiveMQConnectionFactory(failOverBrokerUrl);
-				this.activeMQConnectionFactory.setTrustedPackages(Arrays.asList("io.mosip.proxy.abis.*"));
-				this.activeMQConnectionFactory.setUserName(userName);
-				this.activeMQConnectionFactory.setPassword(password);
-				
+				MockAbisQueueDetails abisQueueDetails = new MockAbisQueueDetails();
+				abisQueueDetails.setBrokerUrl(failOverBrokerUrl);
+				abisQueueDetails.setUserName(userName);
+				abisQueueDetails.setPassword(password);
 				abisQueueDetails.setTypeOfQueue(typeOfQueue);
 				abisQueueDetails.setInboundQueueName(inboundQueueName);
 				abisQueueDetails.setOutboundQueueName(outboundQueueName);
 				abisQueueDetails.setName(queueName);
+				if (abisQueueDetailsList.isEmpty())
+					this.activeMQConnectionFactory = createConnectionFactory(abisQueueDetails);
 				abisQueueDetailsList.add(abisQueueDetails);
 			}
 		} catch (Exception e) {
@@ -589,6 +861,21 @@ public class Listener {
 		return value;
 	}
 
+	/**
+	 * Creates the connection factory for the broker of an ABIS queue
+	 * configuration.
+	 *
+	 * @param abisQueueDetails The ABIS queue configuration.
+	 * @return The connection factory.
+	 */
+	private ActiveMQConnectionFactory createConnectionFactory(MockAbisQueueDetails abisQueueDetails) {
+		ActiveMQConnectionFactory factory = new ActiveMQConnectionFactory(abisQueueDetails.getBrokerUrl());
+		factory.setTrustedPackages(Arrays.asList("io.mosip.proxy.abis.*"));
+		factory.setUserName(abisQueueDetails.getUserName());
+		factory.setPassword(abisQueueDetails.getPassword());
+		return factory;
+	}
+
 	/**
 	 * Establishes a connection to the ActiveMQ server and creates a session if
 	 * necessary. This method attempts to re-establish a connection if it's closed
@@ -622,6 +909,12 @@ public class Listener {
 	 * details are found, an `AbisException` is thrown indicating missing
 	 * configuration.
 	 *
+	 * The first ABIS is served by this listener. Every further ABIS gets a
+	 * listener of its own, with its own connection factory, connection, consumers,
+	 * producers and outbound queue, so one mock can stand in for several ABIS
+	 * vendors at once. Responses go to the outbound queue of the ABIS the request
+	 * was received from; responses to REST requests go to the first ABIS.
+	 *
 	 * @throws AbisException if an error occurs during configuration retrieval,
 	 *                       message consumption, or if no queue details are found.
 	 */
@@ -631,22 +924,24 @@ public class Listener {
 			if (abisQueueDetails != null && !abisQueueDetails.isEmpty()) {
 
 				for (int i = 0; i < abisQueueDetails.size(); i++) {
-					String outBoundAddress = abisQueueDetails.get(i).getOutboundQueueName();
-					outBoundQueue = outBoundAddress;
+					MockAbisQueueDetails details = abisQueueDetails.get(i);
+					Listener abis = i == 0 ? this : forAbis(details);
+					String outBoundAddress = details.getOutboundQueueName();
+					abis.outBoundQueue = outBoundAddress;
+					abis.bindMeters(Objects.toString(details.getName(), String.valueOf(i)));
 					QueueListener listener = new QueueListener() {
 
 						@Override
 						public void setListener(jakarta.jms.Message message) {
 							try {
-								consumeLogic(message, outBoundAddress);
+								abis.consumeLogic(message, outBoundAddress);
 							} catch (JMSException | InterruptedException e) {
 								logger.error("runAbisQueue", e);
 								Thread.currentThread().interrupt();
 							}
 						}
 					};
-					consume(abisQueueDetails.get(i).getInboundQueueName(), listener,
-							abisQueueDetails.get(i).getTypeOfQueue());
+					abis.consume(details.getInboundQueueName(), listener, details.getTypeOfQueue());
 				}
 
 			} else {
@@ -660,13 +955,100 @@ public class Listener {
 
 	}
 
+	/**
+	 * Creates the listener serving a further ABIS, sharing the settings and
+	 * services of this one but with a connection of its own.
+	 *
+	 * @param details The queue configuration of the ABIS.
+	 * @return The listener for the ABIS.
+	 */
+	private Listener forAbis(MockAbisQueueDetails details) {
+		Listener abis = new Listener(proxycontroller, requestDeduplicator, laneScheduler, pipelineMetrics, requestTracer);
+		abis.configServerFileStorageURL = configServerFileStorageURL;
+		abis.registrationProcessorAbisJson = registrationProcessorAbisJson;
+		abis.delayResponse = delayResponse;
+		abis.consumerCount = consumerCount;
+		abis.maxInFlight = maxInFlight;
+		abis.asyncInserts = asyncInserts();
+		abis.virtualThreads = virtualThreads;
+		abis.asyncSend = asyncSend;
+		abis.localDevelopment = localDevelopment;
+		abis.meterRegistry = meterRegistry;
+		abis.activeMQConnectionFactory = createConnectionFactory(details);
+		abisListeners.add(abis);
+		return abis;
+	}
+
+	/**
+	 * Registers the meters of the ABIS served by this listener, tagged with
+	 * {@code abis}:
+	 * <ul>
+	 * <li>{@code mock.abis.queue.received}: messages received from the inbound
+	 * queue.</li>
+	 * <li>{@code mock.abis.queue.sent}: responses sent to the outbound queue,
+	 * tagged {@code outcome=success} or {@code outcome=failure}.</li>
+	 * <li>{@code mock.abis.queue.inflight}: messages being processed by the
+	 * consumer pools.</li>
+	 * </ul>
+	 *
+	 * @param abisName The name of the ABIS.
+	 */
+	private void bindMeters(String abisName) {
+		receivedCounter = Counter.builder("mock.abis.queue.received").tag("abis", abisName)
+				.description("Messages received from the ABIS inbound queue").register(meterRegistry);
+		sentCounter = Counter.builder("mock.abis.queue.sent").tag("abis", abisName).tag("outcome", "success")
+				.description("Responses sent to the ABIS outbound queue").register(meterRegistry);
+		sendFailedCounter = Counter.builder("mock.abis.queue.sent").tag("abis", abisName).tag("outcome", "failure")
+				.description("Responses sent to the ABIS outbound queue").register(meterRegistry);
+		Gauge.builder("mock.abis.queue.inflight", consumerPools,
+				pools -> pools.stream().mapToInt(ConsumerPool::getInFlight).sum()).tag("abis", abisName)
+				.description("Messages being processed by the ABIS consumers").register(meterRegistry);
+	}
+
+	/**
+	 * Returns the listener of the ABIS whose request the calling thread is
+	 * processing, so that its response goes back to the same ABIS.
+	 *
+	 * @param fallback The listener to use outside of a queued request.
+	 * @return The listener of the ABIS, or {@code fallback}.
+	 */
+	public static Listener receivingOr(Listener fallback) {
+		Listener receiving = RECEIVING.get();
+		return receiving != null ? receiving : fallback;
+	}
+
+	/**
+	 * Sets the meter registry the per-ABIS meters are published to; the global
+	 * registry is used when none is configured.
+	 *
+	 * @param meterRegistry The meter registry.
+	 */
+	@Autowired(required = false)
+	public void setMeterRegistry(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Sets the dispatcher holding the delayed responses, so that they are sent
+	 * before the producers are closed on shutdown.
+	 *
+	 * @param responseDispatcher The response dispatcher.
+	 */
+	@Autowired(required = false)
+	public void setResponseDispatcher(ResponseDispatcher responseDispatcher) {
+		this.responseDispatcher = responseDispatcher;
+	}
+
 	/**
 	 * Consumes messages from a specified JMS queue using a provided message
 	 * listener. This method validates the connection factory and establishes a
 	 * connection/session if necessary using `setup`. It creates a destination
 	 * (queue object) and a message consumer for the provided address. The consumer
 	 * is then assigned the message listener based on the queue name and provided
-	 * object. The method closes the consumer in a finally block.
+	 * object. The method closes the consumer in a finally block. When
+	 * {@code abis.listener.consumers} is greater than one, or virtual threads are
+	 * enabled, a {@link ConsumerPool} with that many sessions serves the queue
+	 * instead.
 	 *
 	 * @param address   The JMS queue address (name) to consume messages from.
 	 * @param object    The `QueueListener` object that will handle received
@@ -687,6 +1069,17 @@ public class Listener {
 		if (destination == null) {
 			setup();
 		}
+		if (consumerCount > 1 || virtualThreads) {
+			ConsumerPool pool = new ConsumerPool(connection, address, object, consumerCount, maxInFlight,
+					virtualThreads);
+			try {
+				pool.start();
+				consumerPools.add(pool);
+			} catch (JMSException e) {
+				logger.error("consume", e);
+			}
+			return new byte[0];
+		}
 		MessageConsumer consumer;
 		try {
 			destination = session.createQueue(address);
@@ -727,11 +1120,9 @@ public class Listener {
 
 	/**
 	 * Sends a byte array message to the specified JMS queue address. This method
-	 * establishes a connection/session if necessary using `initialSetup`. It
-	 * creates a destination (queue object), a message producer, and a
-	 * `BytesMessage` object. The message is written as an object to the
-	 * `BytesMessage`, and then sent using the message producer. The method closes
-	 * the message producer in a finally block.
+	 * establishes a connection if necessary using `initialSetup` and sends a
+	 * `BytesMessage` through the {@link ProducerPool}, which reuses the calling
+	 * thread's session and the producer for the queue.
 	 *
 	 * @param message The byte array representing the message to be sent.
 	 * @param address The JMS queue address (name) to send the message to.
@@ -739,35 +1130,25 @@ public class Listener {
 	 */
 	public Boolean send(byte[] message, String address) {
 		boolean flag = false;
-		MessageProducer messageProducer = null;
 		try {
-			initialSetup();
-			destination = session.createQueue(address);
-			messageProducer = session.createProducer(destination);
-			BytesMessage byteMessage = session.createBytesMessage();
-			byteMessage.writeObject(message);
-			messageProducer.send(byteMessage);
+			String traceparent = requestTracer.current().traceparent();
+			getProducerPool().send(address, producerSession -> {
+				BytesMessage byteMessage = producerSession.createBytesMessage();
+				byteMessage.writeObject(message);
+				return withTraceparent(byteMessage, traceparent);
+			});
 			flag = true;
 		} catch (Exception e) {
 			logger.error("send", e);
-		} finally {
-			if (!Objects.isNull(messageProducer))
-				try {
-					messageProducer.close();
-				} catch (JMSException e) {
-					logger.error("send", e);
-				}
 		}
 		return flag;
 	}
 
 	/**
 	 * Sends a String message to the specified JMS queue address. This method
-	 * establishes a connection/session if necessary using `initialSetup`. It
-	 * creates a destination (queue object), a message producer, and a
-	 * `BytesMessage` object. The message is written as an object to the
-	 * `BytesMessage`, and then sent using the message producer. The method closes
-	 * the message producer in a finally block.
+	 * establishes a connection if necessary using `initialSetup` and sends a
+	 * `TextMessage` through the {@link ProducerPool}, which reuses the calling
+	 * thread's session and the producer for the queue.
 	 *
 	 * @param message The String representing the message to be sent.
 	 * @param address The JMS queue address (name) to send the message to.
@@ -775,27 +1156,87 @@ public class Listener {
 	 */
 	public Boolean send(String message, String address) {
 		boolean flag = false;
-		MessageProducer messageProducer = null;
 		try {
-			initialSetup();
-			destination = session.createQueue(address);
-			messageProducer = session.createProducer(destination);
-			messageProducer.send(session.createTextMessage(message));
-
+			String traceparent = requestTracer.current().traceparent();
+			getProducerPool().send(address,
+					producerSession -> withTraceparent(producerSession.createTextMessage(message), traceparent));
 			flag = true;
 		} catch (Exception e) {
 			logger.error("send", e);
-		} finally {
-			if (!Objects.isNull(messageProducer))
-				try {
-					messageProducer.close();
-				} catch (JMSException e) {
-					logger.error("send", e);
-				}
 		}
 		return flag;
 	}
 
+	/**
+	 * Sets the {@code traceparent} property of an outgoing message, so the broker
+	 * side can join the response to the trace of its request.
+	 */
+	private <M extends Message> M withTraceparent(M message, String traceparent) throws JMSException {
+		if (traceparent != null)
+			message.setStringProperty(RequestTracer.TRACEPARENT, traceparent);
+		return message;
+	}
+
+	/**
+	 * Returns the producer pool for the current connection, replacing it when
+	 * the connection has been re-established since it was created.
+	 *
+	 * @return The producer pool.
+	 * @throws AbisException if the connection factory is invalid, or the listener
+	 *                       has been shut down.
+	 */
+	private synchronized ProducerPool getProducerPool() throws AbisException {
+		if (closed) {
+			throw new AbisException(AbisErrorCode.QUEUE_CONNECTION_NOT_FOUND_EXCEPTION.getErrorCode(),
+					AbisErrorCode.QUEUE_CONNECTION_NOT_FOUND_EXCEPTION.getErrorMessage());
+		}
+		initialSetup();
+		if (producerPool == null || producerPool.getConnection() != connection) {
+			if (producerPool != null)
+				producerPool.close();
+			producerPool = new ProducerPool(connection, asyncSend);
+		}
+		return producerPool;
+	}
+
+
+	/**
+	 * Stops the consumer pools so that in-flight messages can complete before the
+	 * connection goes away, sends the delayed responses still waiting, then closes
+	 * the producers. The dispatcher is drained here because this bean is destroyed
+	 * before the dispatcher it depends on; a response sent after the producers are
+	 * closed fails instead of opening a new pool.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		stopConsumers();
+		for (Listener abis : abisListeners) {
+			abis.stopConsumers();
+		}
+		if (responseDispatcher != null)
+			responseDispatcher.shutdown();
+		for (Listener abis : abisListeners) {
+			abis.shutdown();
+		}
+		abisListeners.clear();
+		synchronized (this) {
+			closed = true;
+			if (producerPool != null) {
+				producerPool.close();
+				producerPool = null;
+			}
+		}
+	}
+
+	/**
+	 * Stops the consumer pools, waiting for in-flight messages to complete.
+	 */
+	private void stopConsumers() {
+		for (ConsumerPool pool : consumerPools) {
+			pool.close();
+		}
+		consumerPools.clear();
+	}
 
 	/**
 	 * Initializes a connection and session to the ActiveMQ server if they are not
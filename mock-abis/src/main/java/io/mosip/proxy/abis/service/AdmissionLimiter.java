@@ -0,0 +1,98 @@
+package io.mosip.proxy.abis.service;
+
+import io.mosip.proxy.abis.dto.RequestMO;
+import io.mosip.proxy.abis.exception.AdmissionRejectedException;
+
+/**
+ * Limits the requests the REST endpoints process at once, so that an overload
+ * is turned away quickly instead of every caller holding a servlet thread
+ * through a slow data share fetch and database transaction.
+ * <p>
+ * Every endpoint has a concurrency limit and a bounded queue of requests
+ * waiting for a slot. A request arriving at a full queue is rejected with
+ * {@code 429 Too Many Requests}, and one that waits too long with
+ * {@code 503 Service Unavailable}, both with a {@code Retry-After} header.
+ * The limit may adapt to the latency observed for the data share and the
+ * database, shrinking as they slow down.
+ * </p>
+ */
+public interface AdmissionLimiter {
+
+	/**
+	 * The endpoints admission is controlled for.
+	 */
+	public enum Endpoint {
+		/** {@code /abis/insertrequest}. */
+		INSERT("insert"),
+		/** {@code /abis/identifyrequest}. */
+		IDENTIFY("identify");
+
+		private final String tag;
+
+		Endpoint(String tag) {
+			this.tag = tag;
+		}
+
+		/**
+		 * Returns the value the endpoint is tagged with.
+		 *
+		 * @return The tag value.
+		 */
+		public String tag() {
+			return tag;
+		}
+	}
+
+	/**
+	 * A slot held by an admitted request.
+	 */
+	@FunctionalInterface
+	public interface Permit {
+		/**
+		 * Frees the slot for the next waiting request. Only the first call has an
+		 * effect.
+		 */
+		public void release();
+	}
+
+	/** Permit of a request admitted without a limit. */
+	public static final Permit UNLIMITED = () -> {
+	};
+
+	/**
+	 * Indicates whether admission is controlled.
+	 *
+	 * @return {@code true} if {@code abis.admission.enabled} is set
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Admits a request, waiting for a slot while the endpoint is at its limit.
+	 *
+	 * @param endpoint the endpoint called
+	 * @param request  the request, reported in the failure response if it is
+	 *                 rejected
+	 * @return the permit to release once the request is processed
+	 * @throws AdmissionRejectedException if the wait queue is full or no slot
+	 *                                    frees up in time
+	 */
+	public Permit acquire(Endpoint endpoint, RequestMO request);
+
+	/**
+	 * Feeds the time a stage of processing a request took into the adaptive
+	 * limit of the endpoint of its operation.
+	 *
+	 * @param operation the operation of the request
+	 * @param stage     the stage
+	 * @param nanos     the time the stage took
+	 */
+	public void observe(PipelineMetrics.Operation operation, PipelineMetrics.Stage stage, long nanos);
+
+	/**
+	 * Returns the current concurrency limit of an endpoint.
+	 *
+	 * @param endpoint the endpoint
+	 * @return the number of requests processed at once
+	 */
+	public int getLimit(Endpoint endpoint);
+}
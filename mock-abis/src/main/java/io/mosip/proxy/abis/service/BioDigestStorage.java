@@ -0,0 +1,37 @@
+package io.mosip.proxy.abis.service;
+
+import io.mosip.proxy.abis.entity.BiometricData;
+
+/**
+ * Decides how the SHA-256 digest of each {@code Biometric_Data} record is
+ * persisted: as 64 hexadecimal characters in {@code bio_data}, or as 32 raw
+ * bytes in the indexed {@code bio_digest} column.
+ * <p>
+ * The binary form halves the column and index size and makes every digest
+ * comparison a fixed 32 byte compare. Callers keep working with hexadecimal
+ * digests either way; only the persisted column differs.
+ * </p>
+ */
+public interface BioDigestStorage {
+
+	/**
+	 * Indicates whether digests are persisted in binary form.
+	 *
+	 * @return {@code true} if {@code abis.bio.digest.storage} is {@code binary}
+	 */
+	public boolean isBinary();
+
+	/**
+	 * Moves the digest of a record about to be saved into the configured column.
+	 *
+	 * @param biometricData the record holding the hexadecimal digest
+	 */
+	public void prepare(BiometricData biometricData);
+
+	/**
+	 * Converts records persisted in the other form to the configured one.
+	 *
+	 * @return the number of records converted
+	 */
+	public long convert();
+}
@@ -0,0 +1,141 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import io.mosip.proxy.abis.entity.BiometricData;
+
+/**
+ * In-memory inverted index over the biometric digests stored in
+ * {@code Biometric_Data}. Each SHA-256 digest maps to the reference IDs whose
+ * biometrics produced it, so duplicate lookups cost time proportional to the
+ * number of candidates instead of the size of the table.
+ * <p>
+ * The database stays the system of record; the index is rebuilt from it on
+ * startup and kept in step with inserts and deletes.
+ * </p>
+ */
+public interface BiometricIndex {
+
+	/**
+	 * Indicates whether the index is switched on by configuration.
+	 *
+	 * @return {@code true} if {@code abis.index.enabled} is set
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Indicates whether the index is enabled and fully loaded, and can therefore
+	 * answer duplicate lookups on behalf of the database.
+	 *
+	 * @return {@code true} if lookups may be served from the index
+	 */
+	public boolean isAvailable();
+
+	/**
+	 * Adds the biometrics of a newly inserted reference ID.
+	 *
+	 * @param referenceId   the reference ID
+	 * @param biometricList the biometric records persisted for it
+	 */
+	public void add(String referenceId, List<BiometricData> biometricList);
+
+	/**
+	 * Removes every digest posting held for the reference ID.
+	 *
+	 * @param referenceId the reference ID that was deleted
+	 */
+	public void remove(String referenceId);
+
+	/**
+	 * Drops all entries from the index.
+	 */
+	public void clear();
+
+	/**
+	 * Reloads the index from the database.
+	 */
+	public void rebuild();
+
+	/**
+	 * Finds the biometric records of other reference IDs that share at least one
+	 * digest with the given reference ID. The result mirrors
+	 * {@code ProxyAbisBioDataRepository.fetchDuplicatesForReferenceId}: one
+	 * detached {@link BiometricData} per matching record, ordered by reference ID.
+	 *
+	 * @param referenceId         the probe reference ID
+	 * @param galleryReferenceIds restricts candidates to these reference IDs, or
+	 *                            {@code null} to search the whole index
+	 * @return the matching records, never {@code null}
+	 */
+	public List<BiometricData> findDuplicates(String referenceId, Collection<String> galleryReferenceIds);
+
+	/**
+	 * Resolves gallery reference IDs to their interned ordinals, counting those
+	 * that are not indexed. Duplicate IDs in the gallery are counted once.
+	 *
+	 * @param galleryReferenceIds the gallery reference IDs
+	 * @return the gallery scope
+	 */
+	public GalleryScope scopeOf(Collection<String> galleryReferenceIds);
+
+	/**
+	 * Finds the biometric records of other reference IDs in the gallery that
+	 * share at least one digest with the given reference ID, with the same
+	 * result shape as {@link #findDuplicates(String, Collection)}.
+	 *
+	 * @param referenceId the probe reference ID
+	 * @param gallery     the gallery scope from {@link #scopeOf(Collection)}
+	 * @return the matching records, never {@code null}
+	 */
+	public List<BiometricData> findDuplicatesInGallery(String referenceId, GalleryScope gallery);
+
+	/**
+	 * Finds the distinct reference IDs in the gallery holding the given digest,
+	 * mirroring {@code ProxyAbisBioDataRepository.fetchByReferenceId}.
+	 *
+	 * @param bioData the hexadecimal digest
+	 * @param gallery the gallery scope from {@link #scopeOf(Collection)}, or
+	 *                {@code null} to search the whole index
+	 * @return the matching reference IDs, never {@code null}
+	 */
+	public List<String> findReferenceIds(String bioData, GalleryScope gallery);
+
+	/**
+	 * Indicates whether the index holds a digest for the reference ID.
+	 *
+	 * @param referenceId the reference ID
+	 * @return {@code true} if the reference ID is indexed
+	 */
+	public boolean contains(String referenceId);
+
+	/**
+	 * Returns the distinct digests held for a reference ID, mirroring
+	 * {@code ProxyAbisBioDataRepository.fetchBioDataByRefId}.
+	 *
+	 * @param referenceId the reference ID
+	 * @return the hexadecimal digests, never {@code null}
+	 */
+	public List<String> findDigests(String referenceId);
+
+	/**
+	 * Passes a page of the indexed reference IDs to the sink, each with one
+	 * detached {@link BiometricData} per indexed record holding its type and
+	 * binary digest. Reference IDs indexed or removed while paging may or may
+	 * not be passed.
+	 *
+	 * @param position where to start, {@code 0} for the first page
+	 * @param limit    the maximum number of reference IDs passed
+	 * @param sink     receives the reference IDs and their records
+	 * @return the position of the next page, or {@code -1} after the last one
+	 */
+	public int export(int position, int limit, BiConsumer<String, List<BiometricData>> sink);
+
+	/**
+	 * Returns the number of reference IDs currently indexed.
+	 *
+	 * @return the indexed reference ID count
+	 */
+	public int size();
+}
@@ -0,0 +1,116 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import io.mosip.proxy.abis.entity.BiometricData;
+
+/**
+ * Approximate matcher over the biometrics stored in {@code Biometric_Data},
+ * returning ranked, scored candidates the way a real ABIS does instead of the
+ * exact digest matches of {@link BiometricIndex}.
+ * <p>
+ * Each biometric is reduced to a {@link io.mosip.proxy.abis.utility.BdbSignature}
+ * at insert. A search compares the signatures of the probe with those of the
+ * other reference IDs holding the same biometric type and keeps the candidates
+ * scoring above the threshold that meets the requested false positive
+ * identification rate.
+ * </p>
+ * <p>
+ * As with the index, the database stays the system of record; the matcher is
+ * rebuilt from it on startup and kept in step with inserts and deletes.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public interface BiometricMatcher {
+
+	/**
+	 * Indicates whether the matcher is switched on by configuration.
+	 *
+	 * @return {@code true} if {@code abis.matcher.enabled} is set
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Indicates whether the matcher is enabled and fully loaded, and can therefore
+	 * answer identify requests.
+	 *
+	 * @return {@code true} if searches may be served by the matcher
+	 */
+	public boolean isAvailable();
+
+	/**
+	 * Adds the biometrics of a newly inserted reference ID, replacing any held
+	 * for it before.
+	 *
+	 * @param referenceId   the reference ID
+	 * @param biometricList the biometric records persisted for it
+	 */
+	public void add(String referenceId, List<BiometricData> biometricList);
+
+	/**
+	 * Removes every signature held for the reference ID.
+	 *
+	 * @param referenceId the reference ID that was deleted
+	 */
+	public void remove(String referenceId);
+
+	/**
+	 * Drops all entries from the matcher.
+	 */
+	public void clear();
+
+	/**
+	 * Reloads the matcher from the database.
+	 */
+	public void rebuild();
+
+	/**
+	 * Finds the reference IDs whose biometrics resemble those of the given
+	 * reference ID.
+	 *
+	 * @param referenceId         the probe reference ID
+	 * @param galleryReferenceIds restricts candidates to these reference IDs, or
+	 *                            {@code null} to search every reference ID
+	 * @param maxResults          the maximum number of candidates returned, or
+	 *                            {@code 0} or less for the configured default
+	 * @param targetFPIR          the false positive identification rate to meet,
+	 *                            as {@code -10 log10(FPIR)}, or {@code 0} or less
+	 *                            for the configured default
+	 * @return the candidates, best first, never {@code null}
+	 */
+	public List<Candidate> search(String referenceId, Collection<String> galleryReferenceIds, int maxResults,
+			int targetFPIR);
+
+	/**
+	 * Returns the number of reference IDs currently held.
+	 *
+	 * @return the reference ID count
+	 */
+	public int size();
+
+	/**
+	 * A reference ID matching the probe.
+	 *
+	 * @param referenceId the reference ID
+	 * @param score       the best similarity of its biometrics to the probe, from
+	 *                    {@code 0} to {@code 1}
+	 * @param confidence  how unlikely the score is for an impostor, as
+	 *                    {@code -10 log10} of the chance of an impostor scoring as
+	 *                    high in this search, from {@code 0} to {@code 100}
+	 * @param modalities  the best match per biometric type, best first
+	 */
+	public record Candidate(String referenceId, double score, int confidence, List<ModalityScore> modalities) {
+	}
+
+	/**
+	 * The best match of one biometric type of a candidate.
+	 *
+	 * @param biometricType the biometric type, e.g. {@code Finger}
+	 * @param score         the similarity, from {@code 0} to {@code 1}
+	 * @param confidence    the confidence, as for {@link Candidate#confidence()}
+	 */
+	public record ModalityScore(String biometricType, double score, int confidence) {
+	}
+}
@@ -0,0 +1,61 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.List;
+
+/**
+ * The share of the gallery stored by this node in cluster mode.
+ * <p>
+ * Each node answers these queries from its own database only. The
+ * {@link ClusterRouter} asks every node and merges the answers, so a query
+ * covers the whole gallery.
+ * </p>
+ */
+public interface ClusterPartition {
+
+	/**
+	 * A stored biometric sharing a digest with the searched biometrics.
+	 *
+	 * @param referenceId The reference ID holding the biometric.
+	 * @param type        The biometric type.
+	 */
+	public record Match(String referenceId, String type) {
+	}
+
+	/**
+	 * Returns the hexadecimal digests stored for a reference ID.
+	 *
+	 * @param referenceId the reference ID
+	 * @return the digests, empty if the reference ID is not stored here
+	 */
+	public List<String> fetchDigests(String referenceId);
+
+	/**
+	 * Counts the given reference IDs stored here.
+	 *
+	 * @param referenceIds the distinct reference IDs
+	 * @return the number of them stored here
+	 */
+	public int countPresent(List<String> referenceIds);
+
+	/**
+	 * Finds the stored biometrics sharing any of the given digests.
+	 *
+	 * @param digests            the hexadecimal digests searched for
+	 * @param excludeReferenceId the reference ID being identified, which is not
+	 *                           reported
+	 * @param galleryIds         the gallery reference IDs to limit the search to,
+	 *                           or {@code null} to search everything stored here
+	 * @return the matches ordered by reference ID
+	 */
+	public List<Match> findDuplicates(List<String> digests, String excludeReferenceId, List<String> galleryIds);
+
+	/**
+	 * Finds the reference IDs holding a digest.
+	 *
+	 * @param digest     the hexadecimal digest
+	 * @param galleryIds the gallery reference IDs to limit the search to, or
+	 *                   {@code null} to search everything stored here
+	 * @return the distinct reference IDs
+	 */
+	public List<String> findReferenceIds(String digest, List<String> galleryIds);
+}
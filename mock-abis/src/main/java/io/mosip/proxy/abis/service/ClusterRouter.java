@@ -0,0 +1,101 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.List;
+
+import io.mosip.proxy.abis.dto.InsertRequestMO;
+
+/**
+ * Spreads the gallery over several mock ABIS nodes in cluster mode.
+ * <p>
+ * Every reference ID is owned by one node, chosen by consistent hashing, which
+ * stores its biometrics. Inserts and deletes are handled by the owning node,
+ * and identify requests are answered by the node receiving them, which asks
+ * every node for its local matches and merges them into one response.
+ * </p>
+ */
+public interface ClusterRouter {
+
+	/**
+	 * Indicates whether cluster mode is on.
+	 *
+	 * @return {@code true} if {@code abis.cluster.enabled} is set
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Returns the ID of this node.
+	 *
+	 * @return the node ID
+	 */
+	public String getLocalNodeId();
+
+	/**
+	 * Returns the node owning a reference ID.
+	 *
+	 * @param referenceId the reference ID
+	 * @return the owning node ID
+	 */
+	public String ownerOf(String referenceId);
+
+	/**
+	 * Indicates whether this node owns a reference ID. Always {@code true} when
+	 * cluster mode is off.
+	 *
+	 * @param referenceId the reference ID
+	 * @return {@code true} if the reference ID is stored on this node
+	 */
+	public boolean isLocal(String referenceId);
+
+	/**
+	 * Inserts a reference ID on the node owning it.
+	 *
+	 * @param request the insert request
+	 * @return the response delay set by an expectation
+	 */
+	public int forwardInsert(InsertRequestMO request);
+
+	/**
+	 * Deletes a reference ID on the node owning it.
+	 *
+	 * @param referenceId the reference ID
+	 */
+	public void forwardDelete(String referenceId);
+
+	/**
+	 * Returns the hexadecimal digests stored for a reference ID by its owner.
+	 *
+	 * @param referenceId the reference ID
+	 * @return the digests
+	 */
+	public List<String> fetchDigests(String referenceId);
+
+	/**
+	 * Counts the given reference IDs stored across the cluster.
+	 *
+	 * @param referenceIds the distinct reference IDs
+	 * @return the number of them stored
+	 */
+	public int countPresent(List<String> referenceIds);
+
+	/**
+	 * Finds the biometrics sharing any of the given digests across the cluster.
+	 *
+	 * @param digests            the hexadecimal digests searched for
+	 * @param excludeReferenceId the reference ID being identified
+	 * @param galleryIds         the gallery reference IDs, or {@code null} for the
+	 *                           whole cluster
+	 * @return the merged matches ordered by reference ID
+	 */
+	public List<ClusterPartition.Match> findDuplicates(List<String> digests, String excludeReferenceId,
+			List<String> galleryIds);
+
+	/**
+	 * Finds the reference IDs holding a digest across the cluster.
+	 *
+	 * @param digest     the hexadecimal digest
+	 * @param galleryIds the gallery reference IDs, or {@code null} for the whole
+	 *                   cluster
+	 * @return the distinct reference IDs
+	 */
+	public List<String> findReferenceIds(String digest, List<String> galleryIds);
+}
@@ -0,0 +1,67 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.List;
+
+import io.mosip.proxy.abis.dto.InsertRequestMO;
+import io.mosip.proxy.abis.exception.RequestException;
+
+/**
+ * Carries cluster requests from the coordinating node to another node.
+ * <p>
+ * Implementations decide how nodes are reached, for example over HTTP between
+ * separate processes or by direct calls between nodes in one JVM. Failures
+ * reaching a node are reported as unchecked exceptions; a request rejected by
+ * the node itself is reported as a {@link RequestException}.
+ * </p>
+ */
+public interface ClusterTransport {
+
+	/**
+	 * Result of an insert processed by another node.
+	 *
+	 * @param delayResponse The response delay set by an expectation.
+	 * @param failureReason The failure reason if the insert was rejected,
+	 *                      otherwise {@code null}.
+	 */
+	public record InsertOutcome(int delayResponse, String failureReason) {
+	}
+
+	/**
+	 * Inserts a reference ID on the node owning it.
+	 *
+	 * @param nodeId  the owning node
+	 * @param request the insert request
+	 * @return the response delay set by an expectation
+	 * @throws RequestException if the node rejected the insert
+	 */
+	public int insert(String nodeId, InsertRequestMO request);
+
+	/**
+	 * Deletes a reference ID on the node owning it.
+	 *
+	 * @param nodeId      the owning node
+	 * @param referenceId the reference ID
+	 */
+	public void delete(String nodeId, String referenceId);
+
+	/**
+	 * @see ClusterPartition#fetchDigests(String)
+	 */
+	public List<String> fetchDigests(String nodeId, String referenceId);
+
+	/**
+	 * @see ClusterPartition#countPresent(List)
+	 */
+	public int countPresent(String nodeId, List<String> referenceIds);
+
+	/**
+	 * @see ClusterPartition#findDuplicates(List, String, List)
+	 */
+	public List<ClusterPartition.Match> findDuplicates(String nodeId, List<String> digests,
+			String excludeReferenceId, List<String> galleryIds);
+
+	/**
+	 * @see ClusterPartition#findReferenceIds(String, List)
+	 */
+	public List<String> findReferenceIds(String nodeId, String digest, List<String> galleryIds);
+}
@@ -0,0 +1,36 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * Downloads CBEFF data from the data share service without holding the
+ * calling thread for the download.
+ * <p>
+ * A fetch completes on a thread of the client, so callers chain the rest of
+ * their processing onto the returned future instead of waiting for it. An
+ * error status completes the future with an {@link HttpClientErrorException}
+ * or {@link HttpServerErrorException}, as the {@code RestTemplate} fetch would
+ * throw; a fetch that cannot be queued or sent completes it with another
+ * exception.
+ * </p>
+ */
+public interface DataShareClient {
+
+	/**
+	 * Returns whether inserts fetch their CBEFF data through this client.
+	 *
+	 * @return {@code true} if asynchronous fetching is enabled
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Starts downloading the body of a data share URL.
+	 *
+	 * @param url the data share URL
+	 * @return a future completed with the response body
+	 */
+	public CompletableFuture<byte[]> fetch(String url);
+}
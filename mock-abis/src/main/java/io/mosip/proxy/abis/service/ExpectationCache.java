@@ -2,6 +2,7 @@ package io.mosip.proxy.abis.service;
 
 import io.mosip.proxy.abis.dto.Expectation;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -10,6 +11,12 @@ import java.util.Map;
  * deleting expectations from the cache.
  */
 public interface ExpectationCache {
+	/** Action of expectations interfering with insert requests. */
+	public static final String INSERT = "Insert";
+
+	/** Action of expectations interfering with identify requests. */
+	public static final String IDENTIFY = "Identify";
+
 	/**
 	 * Deletes a specific expectation from the cache.
 	 *
@@ -41,6 +48,18 @@ public interface ExpectationCache {
 	 */
 	public Expectation get(String id);
 
+	/**
+	 * Looks up the expectation set for a biometric hash that interferes with the
+	 * given action. Requests check every biometric they carry, and most have no
+	 * expectation, so a miss neither allocates nor compares actions.
+	 *
+	 * @param id     The biometric hash the expectation is set for.
+	 * @param action The action interfered with, {@link #INSERT} or
+	 *               {@link #IDENTIFY}.
+	 * @return The matching {@link Expectation}, or {@code null} if there is none.
+	 */
+	public Expectation find(String id, String action);
+
 	/**
 	 * Retrieves all expectations from the cache.
 	 *
@@ -48,4 +67,31 @@ public interface ExpectationCache {
 	 *         values are {@link Expectation} objects.
 	 */
 	public Map<String, Expectation> get();
+
+	/**
+	 * Returns a copy of every expectation, in the form {@link #restore(List)}
+	 * takes.
+	 *
+	 * @return The expectations currently set.
+	 */
+	public List<Expectation> snapshot();
+
+	/**
+	 * Replaces every expectation with the given ones at once, so requests see
+	 * either the old or the new set and the version changes only once.
+	 *
+	 * @param expectations The expectations to set; a later one replaces an
+	 *                     earlier one with the same identifier.
+	 * @throws IllegalArgumentException if an expectation has no identifier
+	 */
+	public void restore(List<Expectation> expectations);
+
+	/**
+	 * Returns a counter that changes whenever an expectation is inserted or
+	 * deleted, so results derived from the expectations can tell whether they
+	 * are still current.
+	 *
+	 * @return The current version of the expectation set.
+	 */
+	public long getVersion();
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.List;
+
+import io.mosip.proxy.abis.entity.InsertEntity;
+
+/**
+ * Writes many insert requests and their biometric data straight to the
+ * database, bypassing the entity manager. Used to load a gallery restored or
+ * generated outside the insert API, where per-entity persistence would
+ * dominate the load time.
+ * <p>
+ * Loaded rows are not added to the in-memory index or the identify cache;
+ * callers load before those are built or clear them afterwards.
+ * </p>
+ */
+public interface GalleryBulkLoader {
+
+	/**
+	 * Inserts the requests and their biometric data in one transaction. Each
+	 * biometric record must already hold its digest in the configured column.
+	 *
+	 * @param entities the insert requests, each with its biometric list
+	 * @return the number of biometric records written
+	 * @throws org.springframework.dao.DataAccessException if the rows cannot be
+	 *                                                     written; none of them
+	 *                                                     are then committed
+	 */
+	public int load(List<InsertEntity> entities);
+
+	/**
+	 * Names the write path used for the configured database, for reporting.
+	 *
+	 * @return the write path, such as {@code jdbc-batch} or {@code copy}
+	 */
+	public String getMethod();
+}
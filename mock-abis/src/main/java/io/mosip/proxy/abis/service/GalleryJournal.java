@@ -0,0 +1,56 @@
+package io.mosip.proxy.abis.service;
+
+import io.mosip.proxy.abis.entity.InsertEntity;
+
+/**
+ * Durable record of the gallery kept next to the database, so a gallery held
+ * in an in-memory database survives a restart without inserting every
+ * reference ID again.
+ * <p>
+ * Inserts, deletes and clears are appended to a log as they commit. The log
+ * is periodically compacted into a snapshot of the reference IDs still live,
+ * and on startup the snapshot and the log are replayed into an empty
+ * database.
+ * </p>
+ */
+public interface GalleryJournal {
+
+	/**
+	 * Indicates whether the journal is switched on by configuration.
+	 *
+	 * @return {@code true} if {@code abis.journal.enabled} is set
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Records a committed insert.
+	 *
+	 * @param insertEntity the insert request with its biometric data
+	 */
+	public void recordInsert(InsertEntity insertEntity);
+
+	/**
+	 * Records a committed delete.
+	 *
+	 * @param referenceId the reference ID that was deleted
+	 */
+	public void recordDelete(String referenceId);
+
+	/**
+	 * Records that every reference ID was deleted.
+	 */
+	public void recordClear();
+
+	/**
+	 * Loads the journaled gallery into the database, unless the database
+	 * already holds insert requests.
+	 *
+	 * @return the number of reference IDs loaded
+	 */
+	public long restore();
+
+	/**
+	 * Folds the log into the snapshot and starts a new log.
+	 */
+	public void compact();
+}
@@ -0,0 +1,61 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.List;
+
+import io.mosip.proxy.abis.entity.BiometricData;
+
+/**
+ * Keeps the in-memory index of every mock ABIS node sharing the same queues in
+ * step with the inserts and deletes consumed by the other nodes.
+ * <p>
+ * Each node publishes its inserts, deletes and clears as compact events, the
+ * reference ID and the digests of its biometrics, and applies the events of
+ * the other nodes to its {@link BiometricIndex}. A node joining late first
+ * loads a snapshot of the index of a running node. The index of every node
+ * then holds the whole gallery, so identify requests are answered locally
+ * whichever node consumes them.
+ * </p>
+ * <p>
+ * Events only update the index; the database of a node keeps the reference IDs
+ * it consumed itself.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public interface GalleryReplicator {
+
+	/**
+	 * Indicates whether replication is switched on by configuration.
+	 *
+	 * @return {@code true} if {@code abis.replication.enabled} is set
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Indicates whether replication is running and the index has caught up, so
+	 * identify requests may be answered from the index alone.
+	 *
+	 * @return {@code true} if the replicated index can be used
+	 */
+	public boolean isAvailable();
+
+	/**
+	 * Publishes an insert committed on this node.
+	 *
+	 * @param referenceId   the reference ID
+	 * @param biometricList the biometric records persisted for it
+	 */
+	public void publishInsert(String referenceId, List<BiometricData> biometricList);
+
+	/**
+	 * Publishes a delete committed on this node.
+	 *
+	 * @param referenceId the reference ID that was deleted
+	 */
+	public void publishDelete(String referenceId);
+
+	/**
+	 * Publishes that every reference ID was deleted on this node.
+	 */
+	public void publishClear();
+}
@@ -0,0 +1,88 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The reference IDs of an identify gallery, resolved against the
+ * {@link BiometricIndex}.
+ * <p>
+ * Each gallery reference ID known to the index is recorded as a bit at its
+ * interned ordinal, so candidates are filtered with a bit test instead of a
+ * string lookup, and the gallery never has to be bound into SQL. The IDs that
+ * are not indexed are counted while the scope is built, which answers the
+ * "every gallery reference ID exists" check in the same pass.
+ * </p>
+ * <p>
+ * Ordinals are reused after deletes, so a scope is tied to the index epoch it
+ * was built in; the index rebuilds the bit set from {@link #getReferenceIds()}
+ * if reference IDs were removed in between.
+ * </p>
+ */
+public final class GalleryScope {
+
+	private final List<String> referenceIds;
+	private final BitSet members;
+	private final int missing;
+	private final long epoch;
+
+	/**
+	 * Creates a gallery scope.
+	 *
+	 * @param referenceIds The distinct gallery reference IDs.
+	 * @param members      The ordinals of the indexed gallery reference IDs.
+	 * @param missing      The number of gallery reference IDs not indexed.
+	 * @param epoch        The index epoch the ordinals belong to.
+	 */
+	public GalleryScope(List<String> referenceIds, BitSet members, int missing, long epoch) {
+		this.referenceIds = referenceIds;
+		this.members = members;
+		this.missing = missing;
+		this.epoch = epoch;
+	}
+
+	/**
+	 * Returns the distinct gallery reference IDs.
+	 *
+	 * @return The reference IDs in request order.
+	 */
+	public List<String> getReferenceIds() {
+		return referenceIds;
+	}
+
+	/**
+	 * Returns the ordinals of the gallery reference IDs present in the index.
+	 *
+	 * @return The member ordinals; not to be modified.
+	 */
+	public BitSet getMembers() {
+		return members;
+	}
+
+	/**
+	 * Returns the number of gallery reference IDs present in the index.
+	 *
+	 * @return The present reference ID count.
+	 */
+	public int getPresentCount() {
+		return referenceIds.size() - missing;
+	}
+
+	/**
+	 * Indicates whether every gallery reference ID is present in the index.
+	 *
+	 * @return {@code true} if no gallery reference ID is missing.
+	 */
+	public boolean isComplete() {
+		return missing == 0;
+	}
+
+	/**
+	 * Returns the index epoch the member ordinals were resolved in.
+	 *
+	 * @return The epoch.
+	 */
+	public long getEpoch() {
+		return epoch;
+	}
+}
@@ -0,0 +1,38 @@
+package io.mosip.proxy.abis.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import io.mosip.proxy.abis.dto.SeedRequest;
+import io.mosip.proxy.abis.dto.SeedResult;
+
+/**
+ * Fills the gallery with reference IDs that do not come through the insert
+ * API, for benchmarking duplicate checks at scale. No CBEFF is fetched; only
+ * digests are written, through the {@link GalleryBulkLoader}.
+ */
+public interface GallerySeeder {
+
+	/**
+	 * Generates and writes a synthetic gallery.
+	 *
+	 * @param request the gallery to generate
+	 * @return the rows written and the load rate
+	 * @throws IllegalArgumentException if the request is invalid
+	 */
+	public SeedResult generate(SeedRequest request);
+
+	/**
+	 * Writes the gallery read from CSV lines of
+	 * {@code referenceId,type,subtype,digest}, one biometric per line with the
+	 * lines of a reference ID next to each other. The digest is the hexadecimal
+	 * SHA-256 of the biometric, the subtype may be empty, and a header line
+	 * starting with {@code referenceId} is skipped.
+	 *
+	 * @param csv the CSV lines
+	 * @return the rows written and the load rate
+	 * @throws IOException              if the lines cannot be read
+	 * @throws IllegalArgumentException if a line is malformed
+	 */
+	public SeedResult importCsv(InputStream csv) throws IOException;
+}
@@ -0,0 +1,111 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import io.mosip.proxy.abis.dto.IdentifyDelayResponse;
+import io.mosip.proxy.abis.dto.IdentityRequest;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.utility.BioDigest;
+
+/**
+ * Cache of identify results, so that a retried {@code mosip.abis.identify} for
+ * the same reference ID is answered without repeating the expectation scan and
+ * the duplicate search.
+ * <p>
+ * A result is keyed by the probe reference ID, a fingerprint of its gallery and
+ * the configuration it was computed under. It is dropped when an insert or
+ * delete could change it: an insert holding a digest the result depended on, or
+ * the insert or delete of the probe, a gallery member or a candidate.
+ * </p>
+ */
+public interface IdentifyResultCache {
+
+	/**
+	 * Identifies an identify result.
+	 *
+	 * @param referenceId        The probe reference ID.
+	 * @param galleryFingerprint The fingerprint of the distinct gallery reference
+	 *                           IDs, or {@code null} for a search of the whole
+	 *                           database.
+	 * @param findDuplicate      The {@code abis.return.duplicate} setting.
+	 * @param forceDuplicate     The {@code abis.force.return.duplicate} setting.
+	 * @param expectationVersion The version of the expectation set.
+	 */
+	public record Key(String referenceId, BioDigest galleryFingerprint, boolean findDuplicate,
+			boolean forceDuplicate, long expectationVersion) {
+	}
+
+	/**
+	 * Indicates whether caching is switched on by configuration.
+	 *
+	 * @return {@code true} if {@code abis.identify.cache.enabled} is set
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Builds the key of an identify request.
+	 *
+	 * @param referenceId         the probe reference ID
+	 * @param galleryReferenceIds the distinct gallery reference IDs, or
+	 *                            {@code null} for a search of the whole database
+	 * @param findDuplicate       the {@code abis.return.duplicate} setting
+	 * @param forceDuplicate      the {@code abis.force.return.duplicate} setting
+	 * @param expectationVersion  the version of the expectation set
+	 * @return the key
+	 */
+	public Key keyOf(String referenceId, Collection<String> galleryReferenceIds, boolean findDuplicate,
+			boolean forceDuplicate, long expectationVersion);
+
+	/**
+	 * Returns the invalidation generation, to be read before computing a result
+	 * and handed to {@link #put}.
+	 *
+	 * @return the current generation
+	 */
+	public long generation();
+
+	/**
+	 * Looks up a cached result and readdresses it to the given request.
+	 *
+	 * @param key     the key of the request
+	 * @param request the request being answered
+	 * @return a copy of the cached result carrying the id, request ID and time of
+	 *         {@code request}, or {@code null} if none is cached
+	 */
+	public IdentifyDelayResponse get(Key key, IdentityRequest request);
+
+	/**
+	 * Caches a computed result. The result is discarded if an insert or delete
+	 * happened since {@code generation} was read, as it may already be stale.
+	 *
+	 * @param key                 the key of the request
+	 * @param generation          the generation read before computing the result
+	 * @param response            the computed result
+	 * @param digests             the hexadecimal digests the result was derived
+	 *                            from
+	 * @param galleryReferenceIds the gallery reference IDs, or {@code null}
+	 */
+	public void put(Key key, long generation, IdentifyDelayResponse response, Collection<String> digests,
+			Collection<String> galleryReferenceIds);
+
+	/**
+	 * Drops the results an insert could change.
+	 *
+	 * @param referenceId   the inserted reference ID
+	 * @param biometricList the biometric records persisted for it
+	 */
+	public void invalidateInsert(String referenceId, List<BiometricData> biometricList);
+
+	/**
+	 * Drops the results a delete could change.
+	 *
+	 * @param referenceId the deleted reference ID
+	 */
+	public void invalidateDelete(String referenceId);
+
+	/**
+	 * Drops all cached results.
+	 */
+	public void clear();
+}
@@ -0,0 +1,30 @@
+package io.mosip.proxy.abis.service;
+
+import io.mosip.proxy.abis.entity.InsertEntity;
+
+/**
+ * Writes insert requests and their biometric data to the database. When
+ * batching is enabled, concurrent inserts are grouped and committed together
+ * in a single transaction, so each insert costs one JDBC batch entry instead of
+ * one transaction.
+ */
+public interface InsertBatchWriter {
+
+	/**
+	 * Returns whether inserts are grouped into batches.
+	 *
+	 * @return {@code true} if batching is enabled.
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Persists the insert request together with its biometric data and returns
+	 * once the transaction holding it has committed. When batching is enabled
+	 * the caller waits until the batch it joined is written.
+	 *
+	 * @param insertEntity The insert request to persist.
+	 * @throws RuntimeException if the insert could not be committed; other
+	 *                          inserts of the same batch are not affected.
+	 */
+	public void write(InsertEntity insertEntity);
+}
@@ -0,0 +1,54 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs inbound ABIS requests in separate work lanes per operation, so that a
+ * backlog of one kind of request, typically a bulk of inserts, does not hold
+ * up the others.
+ * <p>
+ * Every lane has its own bounded queue, a cap on the workers it may occupy and
+ * a scheduling weight deciding its share of the workers when several lanes
+ * have work waiting.
+ * </p>
+ */
+public interface LaneScheduler {
+
+	/**
+	 * The work lanes, one per ABIS operation.
+	 */
+	public enum Lane {
+		/** {@code mosip.abis.insert} requests. */
+		INSERT,
+		/** {@code mosip.abis.identify} requests. */
+		IDENTIFY,
+		/** {@code mosip.abis.delete} requests. */
+		DELETE
+	}
+
+	/**
+	 * Indicates whether requests are run in work lanes.
+	 *
+	 * @return {@code true} if {@code abis.lanes.enabled} is set
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Queues a request on its lane. When the lane is full the caller is blocked
+	 * until room frees up, which holds further messages back on the broker.
+	 *
+	 * @param lane the lane of the request
+	 * @param task the task processing the request
+	 * @throws InterruptedException       if interrupted while waiting for room
+	 * @throws RejectedExecutionException if the scheduler is shutting down
+	 */
+	public void submit(Lane lane, Runnable task) throws InterruptedException;
+
+	/**
+	 * Returns the number of requests waiting on a lane.
+	 *
+	 * @param lane the lane
+	 * @return the queued request count
+	 */
+	public int getQueued(Lane lane);
+}
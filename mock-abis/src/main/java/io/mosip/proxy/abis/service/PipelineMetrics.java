@@ -0,0 +1,201 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.concurrent.CompletionException;
+
+import io.mosip.proxy.abis.constant.FailureReasonsConstants;
+import io.mosip.proxy.abis.exception.RequestException;
+
+/**
+ * Records how long each stage of processing an ABIS request takes, so the time
+ * of a slow request can be attributed to a stage without a profiler.
+ * <p>
+ * Every measurement is tagged with its {@link Stage}, the {@link Operation} of
+ * the request, and an outcome: {@link #SUCCESS}, or the failure reason
+ * constant the request reports when the stage fails.
+ * </p>
+ */
+public interface PipelineMetrics {
+	/** Outcome of a stage that completed. */
+	public static final String SUCCESS = "success";
+
+	/**
+	 * The stages of processing a request.
+	 */
+	public enum Stage {
+		/** From receiving a message to having decoded it. */
+		RECEIVE("receive"),
+		/** Downloading the CBEFF data from the data share. */
+		FETCH("fetch"),
+		/** Decrypting the CBEFF data. */
+		DECRYPT("decrypt"),
+		/** Parsing and validating the CBEFF data. */
+		PARSE("parse"),
+		/** Hashing the BDBs of the CBEFF data. */
+		HASH("hash"),
+		/** Writing an insert or delete to the database. */
+		PERSIST("persist"),
+		/** Checking the biometrics of a request against the expectations. */
+		EXPECTATION("expectation"),
+		/** Querying the gallery for duplicates. */
+		DUPLICATE_QUERY("duplicate_query"),
+		/** From a response falling due to starting to send it. */
+		SCHEDULE("schedule"),
+		/** Sending a response to the broker. */
+		SEND("send");
+
+		private final String tag;
+
+		Stage(String tag) {
+			this.tag = tag;
+		}
+
+		/**
+		 * Returns the value the stage is tagged with.
+		 *
+		 * @return The tag value.
+		 */
+		public String tag() {
+			return tag;
+		}
+	}
+
+	/**
+	 * The operations a request can ask for.
+	 */
+	public enum Operation {
+		INSERT("insert"), IDENTIFY("identify"), DELETE("delete"), UNKNOWN("unknown");
+
+		private final String tag;
+
+		Operation(String tag) {
+			this.tag = tag;
+		}
+
+		/**
+		 * Returns the value the operation is tagged with.
+		 *
+		 * @return The tag value.
+		 */
+		public String tag() {
+			return tag;
+		}
+
+		/**
+		 * Returns the operation of a request or response {@code id}.
+		 *
+		 * @param id The {@code id}, e.g. {@code mosip.abis.insert}.
+		 * @return The operation, or {@link #UNKNOWN} for any other {@code id}.
+		 */
+		public static Operation of(String id) {
+			if ("mosip.abis.insert".equals(id))
+				return INSERT;
+			if ("mosip.abis.identify".equals(id))
+				return IDENTIFY;
+			if ("mosip.abis.delete".equals(id))
+				return DELETE;
+			return UNKNOWN;
+		}
+	}
+
+	/**
+	 * A stage of processing that may throw a checked exception.
+	 *
+	 * @param <T> The result of the stage.
+	 * @param <E> The checked exception thrown by the stage.
+	 */
+	@FunctionalInterface
+	public interface Task<T, E extends Exception> {
+		/**
+		 * Runs the stage.
+		 *
+		 * @return The result of the stage.
+		 * @throws E If the stage fails.
+		 */
+		T run() throws E;
+	}
+
+	/**
+	 * A stage of processing without a result that may throw a checked exception.
+	 *
+	 * @param <E> The checked exception thrown by the stage.
+	 */
+	@FunctionalInterface
+	public interface Step<E extends Exception> {
+		/**
+		 * Runs the stage.
+		 *
+		 * @throws E If the stage fails.
+		 */
+		void run() throws E;
+	}
+
+	/**
+	 * Records the time taken by a stage.
+	 *
+	 * @param stage     The stage.
+	 * @param operation The operation of the request.
+	 * @param outcome   {@link #SUCCESS}, or the failure reason constant.
+	 * @param nanos     The time taken in nanoseconds.
+	 */
+	public void record(Stage stage, Operation operation, String outcome, long nanos);
+
+	/**
+	 * Runs a stage and records the time it takes, with the outcome of the
+	 * exception it throws if it fails.
+	 *
+	 * @param <T>       The result of the stage.
+	 * @param <E>       The checked exception thrown by the stage.
+	 * @param stage     The stage.
+	 * @param operation The operation of the request.
+	 * @param task      The stage to run.
+	 * @return The result of the stage.
+	 * @throws E If the stage fails.
+	 */
+	public default <T, E extends Exception> T time(Stage stage, Operation operation, Task<T, E> task) throws E {
+		long start = System.nanoTime();
+		try {
+			T result = task.run();
+			record(stage, operation, SUCCESS, System.nanoTime() - start);
+			return result;
+		} catch (Exception e) {
+			record(stage, operation, outcomeOf(e), System.nanoTime() - start);
+			throw e;
+		}
+	}
+
+	/**
+	 * Runs a stage without a result and records the time it takes, with the
+	 * outcome of the exception it throws if it fails.
+	 *
+	 * @param <E>       The checked exception thrown by the stage.
+	 * @param stage     The stage.
+	 * @param operation The operation of the request.
+	 * @param step      The stage to run.
+	 * @throws E If the stage fails.
+	 */
+	public default <E extends Exception> void time(Stage stage, Operation operation, Step<E> step) throws E {
+		long start = System.nanoTime();
+		try {
+			step.run();
+			record(stage, operation, SUCCESS, System.nanoTime() - start);
+		} catch (Exception e) {
+			record(stage, operation, outcomeOf(e), System.nanoTime() - start);
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the outcome of a stage that failed with the given error.
+	 *
+	 * @param error The error.
+	 * @return The failure reason constant of a {@link RequestException}, or
+	 *         {@link FailureReasonsConstants#INTERNAL_ERROR_UNKNOWN}.
+	 */
+	public static String outcomeOf(Throwable error) {
+		Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause()
+				: error;
+		if (cause instanceof RequestException requestException && requestException.getReasonConstant() != null)
+			return requestException.getReasonConstant();
+		return FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN;
+	}
+}
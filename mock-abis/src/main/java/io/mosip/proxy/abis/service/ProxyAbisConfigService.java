@@ -65,6 +65,20 @@ public interface ProxyAbisConfigService {
 	 */
 	public void deleteExpectations();
 
+	/**
+	 * Retrieves every expectation in a form that can be restored later.
+	 *
+	 * @return A {@link List} of the {@link Expectation} objects currently set.
+	 */
+	public List<Expectation> getExpectationSnapshot();
+
+	/**
+	 * Replaces every expectation with the given ones at once.
+	 *
+	 * @param expectations The {@link Expectation} objects to set.
+	 */
+	public void restoreExpectations(List<Expectation> expectations);
+
 	/**
 	 * Retrieves a list of cached biometric data hashes.
 	 *
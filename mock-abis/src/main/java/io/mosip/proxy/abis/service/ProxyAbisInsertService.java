@@ -1,5 +1,7 @@
 package io.mosip.proxy.abis.service;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.web.multipart.MultipartFile;
 
 import io.mosip.proxy.abis.dto.IdentifyDelayResponse;
@@ -30,6 +32,26 @@ public interface ProxyAbisInsertService {
 	 */
 	public int insertData(InsertRequestMO ie);
 
+	/**
+	 * Inserts new biometric data like {@link #insertData(InsertRequestMO)}, but
+	 * without holding the calling thread while the CBEFF data is downloaded. The
+	 * rest of the insert runs when the download completes.
+	 *
+	 * @param insertRequest The InsertRequestMO object containing the data to be
+	 *                      inserted.
+	 * @return A future completed with the response delay, or with a
+	 *         RequestException if the insert failed.
+	 */
+	public CompletableFuture<Integer> insertDataAsync(InsertRequestMO ie);
+
+	/**
+	 * Returns whether {@link #insertDataAsync(InsertRequestMO)} downloads CBEFF
+	 * data without blocking; otherwise it inserts on the calling thread.
+	 *
+	 * @return {@code true} if asynchronous data share fetching is enabled
+	 */
+	public boolean isAsyncInsertEnabled();
+
 	/**
 	 * Searches for potential duplicate biometric data based on the information
 	 * provided in the IdentityRequest object.
@@ -0,0 +1,71 @@
+package io.mosip.proxy.abis.service;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Recognises ABIS requests that the broker delivers more than once, typically
+ * when the failover transport reconnects and redelivers unacknowledged
+ * messages.
+ * <p>
+ * Requests are tracked by {@code requestId} for a bounded time window. A
+ * consumer claims a request before processing it and records the response it
+ * produced, so a redelivered copy can be answered with that response instead
+ * of fetching, decrypting and storing the biometrics again.
+ * </p>
+ */
+public interface RequestDeduplicator {
+
+	/**
+	 * State of a request ID when it is claimed.
+	 */
+	public enum Status {
+		/** Not seen within the window; the caller now owns the request. */
+		NEW,
+		/** Being processed by another consumer. */
+		IN_FLIGHT,
+		/** Already processed; the response is available for replay. */
+		COMPLETED
+	}
+
+	/**
+	 * Result of claiming a request ID.
+	 *
+	 * @param status   The state of the request ID.
+	 * @param response The recorded response when {@code status} is
+	 *                 {@link Status#COMPLETED}, otherwise {@code null}.
+	 */
+	public record Claim(Status status, ResponseEntity<Object> response) {
+	}
+
+	/**
+	 * Indicates whether redelivered requests are detected.
+	 *
+	 * @return {@code true} if {@code abis.dedup.enabled} is set
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Claims a request ID for processing. Only a {@link Status#NEW} claim must be
+	 * followed by {@link #complete} or {@link #release}.
+	 *
+	 * @param requestId the request ID of the received message
+	 * @return the claim
+	 */
+	public Claim claim(String requestId);
+
+	/**
+	 * Records the response of a claimed request for the rest of the window.
+	 *
+	 * @param requestId the request ID
+	 * @param response  the response sent for it
+	 */
+	public void complete(String requestId, ResponseEntity<Object> response);
+
+	/**
+	 * Gives up a claimed request without a response, so a redelivery is
+	 * processed again.
+	 *
+	 * @param requestId the request ID
+	 */
+	public void release(String requestId);
+}
@@ -0,0 +1,202 @@
+package io.mosip.proxy.abis.service;
+
+/**
+ * Records spans tracing an ABIS request from the message that carried it to
+ * the response sent for it.
+ * <p>
+ * Spans form one trace per request ID: a span started while another span is
+ * current on the thread becomes its child, and a span started with none
+ * becomes a root of the trace of its request ID, whose trace ID is derived
+ * from the request ID. Spans recorded on either side of a hop that does not
+ * carry the context, such as a response scheduled by an insert completing on
+ * a download thread, so still land in the same trace. Context is carried
+ * across threads with {@link #wrap(Runnable)} or {@link Span#activate()}, and
+ * across processes in a W3C {@code traceparent} value.
+ * </p>
+ */
+public interface RequestTracer {
+
+	/**
+	 * Name of the JMS property and HTTP header carrying the trace context.
+	 */
+	public static final String TRACEPARENT = "traceparent";
+
+	/**
+	 * The kind of a span, as defined by OpenTelemetry.
+	 */
+	public enum Kind {
+		INTERNAL, SERVER, CLIENT, PRODUCER, CONSUMER
+	}
+
+	/**
+	 * A span that is timed from when it is started until it is ended.
+	 */
+	public interface Span {
+
+		/**
+		 * Returns the trace context of this span.
+		 *
+		 * @return The W3C {@code traceparent} value, or {@code null} if the span is
+		 *         not recorded.
+		 */
+		public String traceparent();
+
+		/**
+		 * Sets the kind of this span; spans are {@link Kind#INTERNAL} by default.
+		 *
+		 * @param kind The kind.
+		 * @return This span.
+		 */
+		public Span kind(Kind kind);
+
+		/**
+		 * Adds an attribute to this span.
+		 *
+		 * @param key   The attribute name.
+		 * @param value The attribute value; {@code null} values are ignored.
+		 * @return This span.
+		 */
+		public Span tag(String key, String value);
+
+		/**
+		 * Makes this span current on the calling thread until the returned scope is
+		 * closed.
+		 *
+		 * @return The scope restoring the previously current span.
+		 */
+		public Scope activate();
+
+		/**
+		 * Ends this span successfully.
+		 */
+		public void end();
+
+		/**
+		 * Ends this span with the given outcome. Only the first end is recorded.
+		 *
+		 * @param outcome {@link PipelineMetrics#SUCCESS}, or the failure reason.
+		 */
+		public void end(String outcome);
+	}
+
+	/**
+	 * The period during which a span is current on a thread.
+	 */
+	public interface Scope extends AutoCloseable {
+
+		/**
+		 * Restores the span that was current before.
+		 */
+		@Override
+		public void close();
+	}
+
+	/**
+	 * A span that records nothing, returned while tracing is disabled or when a
+	 * span belongs to no request.
+	 */
+	public static final Span NOOP = new Span() {
+		@Override
+		public String traceparent() {
+			return null;
+		}
+
+		@Override
+		public Span kind(Kind kind) {
+			return this;
+		}
+
+		@Override
+		public Span tag(String key, String value) {
+			return this;
+		}
+
+		@Override
+		public Scope activate() {
+			return () -> {
+			};
+		}
+
+		@Override
+		public void end() {
+			// nothing is recorded
+		}
+
+		@Override
+		public void end(String outcome) {
+			// nothing is recorded
+		}
+	};
+
+	/**
+	 * Returns whether spans are recorded.
+	 *
+	 * @return {@code true} if tracing is enabled
+	 */
+	public boolean isEnabled();
+
+	/**
+	 * Starts a span as a child of the current span, or as a root of the trace of
+	 * the given request ID when no span is current. The span is not made current.
+	 *
+	 * @param name      The name of the span.
+	 * @param requestId The request ID, or {@code null} to record the span only
+	 *                  under a current span.
+	 * @return The span, or {@link #NOOP} if it is not recorded.
+	 */
+	public Span start(String name, String requestId);
+
+	/**
+	 * Starts a span as a child of a span of another process. The span is not made
+	 * current.
+	 *
+	 * @param name        The name of the span.
+	 * @param requestId   The request ID.
+	 * @param traceparent The W3C {@code traceparent} value of the parent span; a
+	 *                    missing or malformed value starts the span as by
+	 *                    {@link #start(String, String)}.
+	 * @return The span, or {@link #NOOP} if it is not recorded.
+	 */
+	public Span start(String name, String requestId, String traceparent);
+
+	/**
+	 * Returns the span current on the calling thread.
+	 *
+	 * @return The current span, or {@link #NOOP} if none is current.
+	 */
+	public Span current();
+
+	/**
+	 * Returns a task that runs with the span current on the calling thread made
+	 * current, so spans it starts on another thread join the same trace.
+	 *
+	 * @param task The task.
+	 * @return The wrapped task, or the task itself if no span is current.
+	 */
+	public Runnable wrap(Runnable task);
+
+	/**
+	 * Runs a task in a new span made current for its duration, ending the span
+	 * with the outcome of the task.
+	 *
+	 * @param <T>       The result type.
+	 * @param <E>       The exception type.
+	 * @param name      The name of the span.
+	 * @param requestId The request ID, as for {@link #start(String, String)}.
+	 * @param task      The task.
+	 * @return The result of the task.
+	 * @throws E If the task fails.
+	 */
+	public default <T, E extends Exception> T trace(String name, String requestId, PipelineMetrics.Task<T, E> task)
+			throws E {
+		Span span = start(name, requestId);
+		try (Scope scope = span.activate()) {
+			T result = task.run();
+			span.end();
+			return result;
+		} catch (Exception e) {
+			span.end(PipelineMetrics.outcomeOf(e));
+			throw e;
+		}
+	}
+}
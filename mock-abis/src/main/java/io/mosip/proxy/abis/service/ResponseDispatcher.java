@@ -0,0 +1,40 @@
+package io.mosip.proxy.abis.service;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules outbound ABIS responses for delivery after a delay. Responses are
+ * held until their delay elapses and are then sent by a pool of workers, so a
+ * slow send does not hold up responses that fall due after it.
+ */
+public interface ResponseDispatcher {
+
+	/**
+	 * Schedules a response to be sent once the delay has elapsed. When the
+	 * dispatcher is at capacity the caller is blocked until room frees up, which
+	 * slows down the consumers producing responses.
+	 *
+	 * @param task  The task sending the response.
+	 * @param delay The delay before sending; zero or less sends as soon as a
+	 *              worker is free.
+	 * @param unit  The unit of {@code delay}.
+	 * @throws RejectedExecutionException if the dispatcher stays at capacity for
+	 *                                    longer than its offer timeout, or is
+	 *                                    shutting down.
+	 */
+	public void schedule(Runnable task, long delay, TimeUnit unit);
+
+	/**
+	 * Returns the number of responses accepted but not yet sent.
+	 *
+	 * @return The pending response count.
+	 */
+	public int getPending();
+
+	/**
+	 * Stops accepting responses and sends the ones still pending straight away.
+	 * Calling it again has no effect.
+	 */
+	public void shutdown();
+}
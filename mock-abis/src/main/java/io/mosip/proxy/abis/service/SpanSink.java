@@ -0,0 +1,33 @@
+package io.mosip.proxy.abis.service;
+
+import java.io.IOException;
+import java.util.List;
+
+import io.mosip.proxy.abis.dto.SpanRecord;
+
+/**
+ * Receives the finished spans of request traces, in batches, from the thread
+ * exporting them; spans are never exported on the thread processing a
+ * request.
+ * <p>
+ * The sink used is the one whose {@link #getName()} matches
+ * {@code abis.tracing.sink}.
+ * </p>
+ */
+public interface SpanSink {
+
+	/**
+	 * Returns the name {@code abis.tracing.sink} selects this sink by.
+	 *
+	 * @return The name of the sink.
+	 */
+	public String getName();
+
+	/**
+	 * Writes a batch of finished spans.
+	 *
+	 * @param spans The spans.
+	 * @throws IOException If the spans cannot be written; they are dropped.
+	 */
+	public void export(List<SpanRecord> spans) throws IOException;
+}
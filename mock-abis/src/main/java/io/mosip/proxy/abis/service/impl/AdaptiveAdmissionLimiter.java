@@ -0,0 +1,384 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.proxy.abis.constant.FailureReasonsConstants;
+import io.mosip.proxy.abis.dto.RequestMO;
+import io.mosip.proxy.abis.exception.AdmissionRejectedException;
+import io.mosip.proxy.abis.service.AdmissionLimiter;
+import io.mosip.proxy.abis.service.PipelineMetrics.Operation;
+import io.mosip.proxy.abis.service.PipelineMetrics.Stage;
+
+/**
+ * {@link AdmissionLimiter} with a concurrency limit and a FIFO wait queue per
+ * endpoint, the limit optionally following the latency of the data share and
+ * the database.
+ * <p>
+ * Each endpoint is configured with {@code abis.admission.<endpoint>.limit} and
+ * {@code abis.admission.<endpoint>.queue}, where {@code <endpoint>} is
+ * {@code insert} or {@code identify}. A request waits at most
+ * {@code abis.admission.queue.timeout.ms} for a slot; rejected requests are
+ * told to retry after {@code abis.admission.retry.after.seconds}.
+ * </p>
+ * <p>
+ * With {@code abis.admission.adaptive.enabled} the configured limit is the
+ * ceiling of a limit that follows the {@code fetch}, {@code persist} and
+ * {@code duplicate_query} stages of requests of the endpoint's operation,
+ * whether they arrived over REST or JMS. For every stage a fast and a slow
+ * moving average of its latency are kept; as long as the fast average stays
+ * within {@code abis.admission.adaptive.tolerance} times the slow one the
+ * limit grows, and once a stage slows down beyond that it shrinks in
+ * proportion, never below {@code abis.admission.adaptive.min.limit}. The slow
+ * average of a slowed down stage moves ten times slower still, so the limit
+ * stays down through an overload but a lasting change in latency is
+ * eventually taken as the new normal.
+ * </p>
+ * <p>
+ * The following meters are published, tagged with {@code endpoint}:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.admission.limit}: requests processed at once at
+ * most.</li>
+ * <li>{@code mock.abis.admission.inflight}: requests being processed.</li>
+ * <li>{@code mock.abis.admission.queued}: requests waiting for a slot.</li>
+ * <li>{@code mock.abis.admission.wait}: time admitted requests waited for a
+ * slot.</li>
+ * <li>{@code mock.abis.admission.requests}: requests arriving, tagged with
+ * {@code outcome} {@code admitted}, {@code queue_full} or
+ * {@code timeout}.</li>
+ * </ul>
+ */
+@Component
+public class AdaptiveAdmissionLimiter implements AdmissionLimiter {
+	private static final Logger logger = LoggerFactory.getLogger(AdaptiveAdmissionLimiter.class);
+
+	/** Weight of a new sample in the fast latency average. */
+	private static final double FAST_ALPHA = 0.2;
+	/** Weight of a new sample in the slow latency average. */
+	private static final double SLOW_ALPHA = 0.01;
+	/** Weight of a new sample in the slow latency average of a slowed down stage. */
+	private static final double CONGESTED_SLOW_ALPHA = 0.001;
+	/** Weight of a new estimate in the limit. */
+	private static final double SMOOTHING = 0.2;
+	/** The most the limit shrinks by on a single sample. */
+	private static final double MIN_GRADIENT = 0.5;
+
+	/**
+	 * Settings of a single endpoint.
+	 *
+	 * @param limit The maximum number of requests processed at once.
+	 * @param queue The maximum number of requests waiting for a slot.
+	 */
+	public record EndpointSettings(int limit, int queue) {
+	}
+
+	/**
+	 * Settings of the adaptive limit.
+	 *
+	 * @param enabled   Whether the limit adapts to latency.
+	 * @param minLimit  The lowest the limit may shrink to.
+	 * @param tolerance How many times its usual latency a stage may take before
+	 *                  the limit shrinks.
+	 */
+	public record AdaptiveSettings(boolean enabled, int minLimit, double tolerance) {
+	}
+
+	private final boolean enabled;
+	private final long queueTimeoutNanos;
+	private final long retryAfterSeconds;
+	private final AdaptiveSettings adaptive;
+	private final Map<Endpoint, EndpointState> endpoints = new EnumMap<>(Endpoint.class);
+
+	/**
+	 * Creates the limiter from configuration.
+	 *
+	 * @param meterRegistry     The registry to publish meters to; the global
+	 *                          registry is used when none is configured.
+	 * @param env               The environment holding the endpoint settings.
+	 * @param enabled           Whether admission is controlled.
+	 * @param queueTimeoutMs    How long a request waits for a slot.
+	 * @param retryAfterSeconds Seconds rejected requests are told to wait.
+	 * @param adaptiveEnabled   Whether the limit adapts to latency.
+	 * @param minLimit          The lowest the adaptive limit may shrink to.
+	 * @param tolerance         How many times its usual latency a stage may take
+	 *                          before the adaptive limit shrinks.
+	 */
+	@Autowired
+	public AdaptiveAdmissionLimiter(ObjectProvider<MeterRegistry> meterRegistry, Environment env,
+			@Value("${abis.admission.enabled:false}") boolean enabled,
+			@Value("${abis.admission.queue.timeout.ms:1000}") long queueTimeoutMs,
+			@Value("${abis.admission.retry.after.seconds:1}") long retryAfterSeconds,
+			@Value("${abis.admission.adaptive.enabled:false}") boolean adaptiveEnabled,
+			@Value("${abis.admission.adaptive.min.limit:2}") int minLimit,
+			@Value("${abis.admission.adaptive.tolerance:2.0}") double tolerance) {
+		this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), enabled, settingsFrom(env), queueTimeoutMs,
+				retryAfterSeconds, new AdaptiveSettings(adaptiveEnabled, minLimit, tolerance));
+	}
+
+	/**
+	 * Creates the limiter with explicit settings.
+	 *
+	 * @param meterRegistry     The registry to publish meters to.
+	 * @param enabled           Whether admission is controlled.
+	 * @param settings          The settings of every endpoint.
+	 * @param queueTimeoutMs    How long a request waits for a slot.
+	 * @param retryAfterSeconds Seconds rejected requests are told to wait.
+	 * @param adaptive          The settings of the adaptive limit.
+	 */
+	public AdaptiveAdmissionLimiter(MeterRegistry meterRegistry, boolean enabled,
+			Map<Endpoint, EndpointSettings> settings, long queueTimeoutMs, long retryAfterSeconds,
+			AdaptiveSettings adaptive) {
+		this.enabled = enabled;
+		this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, queueTimeoutMs));
+		this.retryAfterSeconds = Math.max(1, retryAfterSeconds);
+		this.adaptive = adaptive;
+		for (Endpoint endpoint : Endpoint.values()) {
+			EndpointState state = new EndpointState(endpoint, settings.get(endpoint), adaptive, meterRegistry);
+			endpoints.put(endpoint, state);
+			Gauge.builder("mock.abis.admission.limit", this, l -> l.getLimit(endpoint)).tag("endpoint", state.tag)
+					.description("Requests processed at once at most").register(meterRegistry);
+			Gauge.builder("mock.abis.admission.inflight", this, l -> l.getInflight(endpoint))
+					.tag("endpoint", state.tag).description("Requests being processed").register(meterRegistry);
+			Gauge.builder("mock.abis.admission.queued", this, l -> l.getQueued(endpoint)).tag("endpoint", state.tag)
+					.description("Requests waiting for a slot").register(meterRegistry);
+		}
+		if (enabled)
+			logger.info("Controlling admission with endpoints {} and adaptive limit {}", settings, adaptive);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public Permit acquire(Endpoint endpoint, RequestMO request) {
+		if (!enabled)
+			return UNLIMITED;
+		EndpointState state = endpoints.get(endpoint);
+		long start = System.nanoTime();
+		state.lock.lock();
+		try {
+			if (state.inflight < state.limit() && state.queued == 0)
+				return admitLocked(state, start);
+			if (state.queued >= state.queueCapacity) {
+				state.queueFullCounter.increment();
+				throw rejection(request, HttpStatus.TOO_MANY_REQUESTS);
+			}
+			state.queued++;
+			try {
+				long remaining = queueTimeoutNanos;
+				while (state.inflight >= state.limit()) {
+					if (remaining <= 0) {
+						state.timeoutCounter.increment();
+						throw rejection(request, HttpStatus.SERVICE_UNAVAILABLE);
+					}
+					remaining = state.slotFree.awaitNanos(remaining);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				state.timeoutCounter.increment();
+				throw rejection(request, HttpStatus.SERVICE_UNAVAILABLE);
+			} finally {
+				state.queued--;
+			}
+			return admitLocked(state, start);
+		} finally {
+			state.lock.unlock();
+		}
+	}
+
+	private Permit admitLocked(EndpointState state, long start) {
+		state.inflight++;
+		state.admittedCounter.increment();
+		state.waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		AtomicBoolean released = new AtomicBoolean();
+		return () -> {
+			if (released.compareAndSet(false, true))
+				state.release();
+		};
+	}
+
+	private AdmissionRejectedException rejection(RequestMO request, HttpStatus status) {
+		return new AdmissionRejectedException(request, FailureReasonsConstants.ABORTED, status, retryAfterSeconds);
+	}
+
+	@Override
+	public void observe(Operation operation, Stage stage, long nanos) {
+		if (!enabled || !adaptive.enabled() || nanos <= 0)
+			return;
+		Endpoint endpoint;
+		if (operation == Operation.INSERT)
+			endpoint = Endpoint.INSERT;
+		else if (operation == Operation.IDENTIFY)
+			endpoint = Endpoint.IDENTIFY;
+		else
+			return;
+		if (stage == Stage.FETCH || stage == Stage.PERSIST || stage == Stage.DUPLICATE_QUERY)
+			endpoints.get(endpoint).observe(stage, nanos);
+	}
+
+	@Override
+	public int getLimit(Endpoint endpoint) {
+		EndpointState state = endpoints.get(endpoint);
+		state.lock.lock();
+		try {
+			return state.limit();
+		} finally {
+			state.lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of requests of an endpoint being processed.
+	 *
+	 * @param endpoint the endpoint
+	 * @return the admitted request count
+	 */
+	public int getInflight(Endpoint endpoint) {
+		EndpointState state = endpoints.get(endpoint);
+		state.lock.lock();
+		try {
+			return state.inflight;
+		} finally {
+			state.lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of requests waiting for a slot on an endpoint.
+	 *
+	 * @param endpoint the endpoint
+	 * @return the queued request count
+	 */
+	public int getQueued(Endpoint endpoint) {
+		EndpointState state = endpoints.get(endpoint);
+		state.lock.lock();
+		try {
+			return state.queued;
+		} finally {
+			state.lock.unlock();
+		}
+	}
+
+	private static Map<Endpoint, EndpointSettings> settingsFrom(Environment env) {
+		Map<Endpoint, EndpointSettings> settings = new EnumMap<>(Endpoint.class);
+		settings.put(Endpoint.INSERT, settingsFrom(env, Endpoint.INSERT, 16, 32));
+		settings.put(Endpoint.IDENTIFY, settingsFrom(env, Endpoint.IDENTIFY, 32, 64));
+		return settings;
+	}
+
+	private static EndpointSettings settingsFrom(Environment env, Endpoint endpoint, int limit, int queue) {
+		String prefix = "abis.admission." + endpoint.name().toLowerCase(Locale.ROOT) + ".";
+		return new EndpointSettings(env.getProperty(prefix + "limit", Integer.class, limit),
+				env.getProperty(prefix + "queue", Integer.class, queue));
+	}
+
+	private static final class EndpointState {
+		private final String tag;
+		private final int maxLimit;
+		private final int minLimit;
+		private final int queueCapacity;
+		private final double tolerance;
+		private final ReentrantLock lock = new ReentrantLock();
+		/** Signalled when a request releases its slot or the limit grows. */
+		private final Condition slotFree = lock.newCondition();
+		private final Map<Stage, double[]> latencies = new EnumMap<>(Stage.class);
+		private final Counter admittedCounter;
+		private final Counter queueFullCounter;
+		private final Counter timeoutCounter;
+		private final Timer waitTimer;
+		private double estimatedLimit;
+		private int inflight;
+		private int queued;
+
+		private EndpointState(Endpoint endpoint, EndpointSettings settings, AdaptiveSettings adaptive,
+				MeterRegistry meterRegistry) {
+			this.tag = endpoint.tag();
+			this.maxLimit = Math.max(1, settings.limit());
+			this.minLimit = Math.clamp(adaptive.minLimit(), 1, maxLimit);
+			this.queueCapacity = Math.max(0, settings.queue());
+			this.tolerance = Math.max(1.0, adaptive.tolerance());
+			this.estimatedLimit = maxLimit;
+			this.admittedCounter = requestsCounter(meterRegistry, "admitted");
+			this.queueFullCounter = requestsCounter(meterRegistry, "queue_full");
+			this.timeoutCounter = requestsCounter(meterRegistry, "timeout");
+			this.waitTimer = Timer.builder("mock.abis.admission.wait").tag("endpoint", tag)
+					.description("Time admitted requests waited for a slot").register(meterRegistry);
+		}
+
+		private Counter requestsCounter(MeterRegistry meterRegistry, String outcome) {
+			return Counter.builder("mock.abis.admission.requests").tag("endpoint", tag).tag("outcome", outcome)
+					.description("Requests arriving at the endpoint").register(meterRegistry);
+		}
+
+		private int limit() {
+			return (int) estimatedLimit;
+		}
+
+		private void release() {
+			lock.lock();
+			try {
+				inflight--;
+				slotFree.signal();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		/**
+		 * Updates the latency averages of a stage and moves the limit by the ratio
+		 * of its slow to its fast average, the slowest stage deciding.
+		 */
+		private void observe(Stage stage, long nanos) {
+			lock.lock();
+			try {
+				double[] averages = latencies.get(stage);
+				if (averages == null) {
+					latencies.put(stage, new double[] { nanos, nanos });
+					return;
+				}
+				averages[0] += FAST_ALPHA * (nanos - averages[0]);
+				double slowAlpha = averages[0] > tolerance * averages[1] ? CONGESTED_SLOW_ALPHA : SLOW_ALPHA;
+				averages[1] += slowAlpha * (nanos - averages[1]);
+
+				double gradient = 1.0;
+				for (double[] average : latencies.values())
+					gradient = Math.min(gradient, tolerance * average[1] / average[0]);
+				gradient = Math.max(MIN_GRADIENT, gradient);
+				// only grow while the limit is being used, or it drifts up unchecked
+				if (gradient >= 1.0 && inflight < estimatedLimit / 2)
+					return;
+
+				int before = limit();
+				double estimate = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+				estimatedLimit = Math.clamp(estimatedLimit * (1 - SMOOTHING) + estimate * SMOOTHING, minLimit,
+						maxLimit);
+				if (limit() > before)
+					slotFree.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+}
@@ -0,0 +1,430 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.proxy.abis.service.DataShareClient;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * {@link DataShareClient} built on the JDK {@link HttpClient}, enabled with
+ * {@code abis.datashare.async.enabled}.
+ * <p>
+ * Requests use HTTP/1.1 with keep-alive, so each host is served over at most
+ * {@code abis.datashare.async.max.per.host} connections that are reused
+ * between fetches; further fetches to the host wait in a queue of up to
+ * {@code abis.datashare.async.max.pending.per.host} and are rejected beyond
+ * it. How long idle connections are kept open is a JVM-wide setting of the JDK
+ * client, given at launch as {@code -Djdk.httpclient.keepalive.timeout}.
+ * </p>
+ * <p>
+ * Responses complete on a pool of {@code abis.datashare.async.threads}
+ * threads, which also run the processing chained onto the returned futures.
+ * Authentication headers are produced by the interceptors of
+ * {@code selfTokenRestTemplate}, so fetches carry the same token as the
+ * blocking fetch.
+ * </p>
+ * <p>
+ * The following meters are published:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.datashare.fetch}: time from sending a fetch to its
+ * response, tagged with the {@code outcome}.</li>
+ * <li>{@code mock.abis.datashare.wait}: time fetches waited for a connection
+ * to their host.</li>
+ * <li>{@code mock.abis.datashare.rejected}: fetches refused because the wait
+ * queue of their host was full.</li>
+ * <li>{@code mock.abis.datashare.active}: fetches in progress.</li>
+ * <li>{@code mock.abis.datashare.waiting}: fetches waiting for a
+ * connection.</li>
+ * <li>{@code mock.abis.datashare.saturation}: share of the connections of the
+ * busiest host in use, between 0 and 1.</li>
+ * </ul>
+ */
+@Component
+public class AsyncDataShareClient implements DataShareClient {
+	private static final Logger logger = LoggerFactory.getLogger(AsyncDataShareClient.class);
+
+	private static final SimpleClientHttpRequestFactory PROBE_FACTORY = new SimpleClientHttpRequestFactory();
+
+	/** Headers the JDK client sets itself and refuses from callers. */
+	private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+			"upgrade");
+
+	private final boolean enabled;
+	private final RestTemplate restTemplate;
+	private final int maxPerHost;
+	private final int maxPendingPerHost;
+	private final Duration readTimeout;
+	private final ThreadPoolExecutor executor;
+	private final HttpClient httpClient;
+	private final Map<String, HostLimit> hosts = new ConcurrentHashMap<>();
+	private final AtomicInteger active = new AtomicInteger();
+	private final AtomicInteger waiting = new AtomicInteger();
+
+	private final MeterRegistry meterRegistry;
+	private final Timer waitTimer;
+	private final Counter rejectedCounter;
+
+	/**
+	 * Creates the client from configuration.
+	 *
+	 * @param restTemplate          The template whose interceptors authenticate
+	 *                              data share requests.
+	 * @param meterRegistry         The registry to publish meters to; the global
+	 *                              registry is used when none is configured.
+	 * @param enabled               Whether inserts fetch through this client.
+	 * @param threads               The number of threads completing fetches.
+	 * @param maxPerHost            The maximum number of concurrent fetches, and
+	 *                              so connections, per host.
+	 * @param maxPendingPerHost     The maximum number of fetches waiting for a
+	 *                              connection per host.
+	 * @param connectTimeoutMillis  How long opening a connection may take.
+	 * @param readTimeoutMillis     How long a response may take once sent.
+	 */
+	@Autowired
+	public AsyncDataShareClient(@Qualifier("selfTokenRestTemplate") RestTemplate restTemplate,
+			ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${abis.datashare.async.enabled:false}") boolean enabled,
+			@Value("${abis.datashare.async.threads:8}") int threads,
+			@Value("${abis.datashare.async.max.per.host:32}") int maxPerHost,
+			@Value("${abis.datashare.async.max.pending.per.host:1000}") int maxPendingPerHost,
+			@Value("${abis.datashare.async.connect.timeout.ms:5000}") long connectTimeoutMillis,
+			@Value("${abis.datashare.async.read.timeout.ms:30000}") long readTimeoutMillis) {
+		this(restTemplate, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), enabled, threads, maxPerHost,
+				maxPendingPerHost, connectTimeoutMillis, readTimeoutMillis);
+	}
+
+	/**
+	 * Creates the client with explicit settings.
+	 *
+	 * @param restTemplate          The template whose interceptors authenticate
+	 *                              data share requests.
+	 * @param meterRegistry         The registry to publish meters to.
+	 * @param enabled               Whether inserts fetch through this client.
+	 * @param threads               The number of threads completing fetches.
+	 * @param maxPerHost            The maximum number of concurrent fetches, and
+	 *                              so connections, per host.
+	 * @param maxPendingPerHost     The maximum number of fetches waiting for a
+	 *                              connection per host.
+	 * @param connectTimeoutMillis  How long opening a connection may take.
+	 * @param readTimeoutMillis     How long a response may take once sent.
+	 */
+	public AsyncDataShareClient(RestTemplate restTemplate, MeterRegistry meterRegistry, boolean enabled, int threads,
+			int maxPerHost, int maxPendingPerHost, long connectTimeoutMillis, long readTimeoutMillis) {
+		this.enabled = enabled;
+		this.restTemplate = restTemplate;
+		this.maxPerHost = Math.max(1, maxPerHost);
+		this.maxPendingPerHost = Math.max(0, maxPendingPerHost);
+		this.readTimeout = Duration.ofMillis(readTimeoutMillis);
+		this.meterRegistry = meterRegistry;
+
+		if (enabled) {
+			int count = Math.max(1, threads);
+			this.executor = new ThreadPoolExecutor(count, count, 0L, TimeUnit.MILLISECONDS,
+					new LinkedBlockingQueue<>(), Thread.ofPlatform().daemon(true).name("abis-datashare-", 0).factory());
+			this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+					.connectTimeout(Duration.ofMillis(connectTimeoutMillis)).followRedirects(HttpClient.Redirect.NORMAL)
+					.executor(executor).build();
+		} else {
+			this.executor = null;
+			this.httpClient = null;
+		}
+
+		this.waitTimer = Timer.builder("mock.abis.datashare.wait")
+				.description("Time data share fetches waited for a connection").register(meterRegistry);
+		this.rejectedCounter = Counter.builder("mock.abis.datashare.rejected")
+				.description("Data share fetches rejected because the wait queue was full").register(meterRegistry);
+		Gauge.builder("mock.abis.datashare.active", active, AtomicInteger::get)
+				.description("Data share fetches in progress").register(meterRegistry);
+		Gauge.builder("mock.abis.datashare.waiting", waiting, AtomicInteger::get)
+				.description("Data share fetches waiting for a connection").register(meterRegistry);
+		Gauge.builder("mock.abis.datashare.saturation", this, AsyncDataShareClient::getSaturation)
+				.description("Share of the connections of the busiest data share host in use")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public CompletableFuture<byte[]> fetch(String url) {
+		if (!enabled)
+			return CompletableFuture
+					.failedFuture(new IllegalStateException("Asynchronous data share fetching is disabled"));
+		HttpRequest request;
+		HostLimit limit;
+		try {
+			URI uri = URI.create(url);
+			HttpRequest.Builder builder = HttpRequest.newBuilder(uri).timeout(readTimeout).GET();
+			authHeaders(uri).forEach((name, values) -> {
+				if (!RESTRICTED_HEADERS.contains(name.toLowerCase(Locale.ROOT)))
+					values.forEach(value -> builder.header(name, value));
+			});
+			request = builder.build();
+			limit = hosts.computeIfAbsent(uri.getScheme() + "://" + uri.getAuthority(), key -> new HostLimit());
+		} catch (IOException | RuntimeException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+
+		CompletableFuture<byte[]> result = new CompletableFuture<>();
+		long queuedAt = System.nanoTime();
+		if (!limit.acquire(() -> send(request, limit, result, queuedAt), result)) {
+			rejectedCounter.increment();
+			return CompletableFuture.failedFuture(new RejectedExecutionException(
+					"Data share host " + request.uri().getAuthority() + " has " + maxPendingPerHost + " fetches waiting"));
+		}
+		return result;
+	}
+
+	/**
+	 * Sends a fetch holding a connection slot of its host, and releases the slot
+	 * when the response arrives.
+	 */
+	private void send(HttpRequest request, HostLimit limit, CompletableFuture<byte[]> result, long queuedAt) {
+		long sentAt = System.nanoTime();
+		waitTimer.record(sentAt - queuedAt, TimeUnit.NANOSECONDS);
+		active.incrementAndGet();
+		try {
+			httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+					.whenComplete((response, error) -> complete(response, error, limit, result, sentAt));
+		} catch (RuntimeException e) {
+			complete(null, e, limit, result, sentAt);
+		}
+	}
+
+	/**
+	 * Completes a fetch with its response body, or with the exception the
+	 * {@code RestTemplate} fetch would throw, and records its outcome.
+	 */
+	private void complete(HttpResponse<byte[]> response, Throwable error, HostLimit limit,
+			CompletableFuture<byte[]> result, long sentAt) {
+		active.decrementAndGet();
+		limit.release();
+		String outcome;
+		if (error != null) {
+			outcome = "error";
+			result.completeExceptionally(
+					error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+		} else if (response.statusCode() >= 400) {
+			HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+			outcome = status.is4xxClientError() ? "client_error" : "server_error";
+			HttpHeaders headers = new HttpHeaders();
+			response.headers().map().forEach(headers::addAll);
+			result.completeExceptionally(status.is4xxClientError()
+					? HttpClientErrorException.create(status, "", headers, response.body(), StandardCharsets.UTF_8)
+					: HttpServerErrorException.create(status, "", headers, response.body(), StandardCharsets.UTF_8));
+		} else {
+			outcome = "success";
+			result.complete(response.body());
+		}
+		Timer.builder("mock.abis.datashare.fetch").description("Time from sending a data share fetch to its response")
+				.tag("outcome", outcome).register(meterRegistry).record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Runs the interceptors of the template on a request that is never sent, and
+	 * returns the headers they set.
+	 */
+	private HttpHeaders authHeaders(URI uri) throws IOException {
+		List<ClientHttpRequestInterceptor> interceptors = restTemplate.getInterceptors();
+		HttpHeaders headers = new HttpHeaders();
+		if (interceptors.isEmpty())
+			return headers;
+		ClientHttpRequestExecution chain = new ClientHttpRequestExecution() {
+			private int next;
+
+			@Override
+			public ClientHttpResponse execute(org.springframework.http.HttpRequest request, byte[] body)
+					throws IOException {
+				if (next < interceptors.size())
+					return interceptors.get(next++).intercept(request, body, this);
+				headers.putAll(request.getHeaders());
+				return new EmptyResponse();
+			}
+		};
+		// opening the connection of an unsent request does not connect
+		chain.execute(PROBE_FACTORY.createRequest(uri, HttpMethod.GET), new byte[0]).close();
+		return headers;
+	}
+
+	private double getSaturation() {
+		int busiest = 0;
+		for (HostLimit limit : hosts.values())
+			busiest = Math.max(busiest, limit.getActive());
+		return (double) busiest / maxPerHost;
+	}
+
+	/**
+	 * Stops the threads completing fetches; fetches in progress are abandoned and
+	 * fetches waiting for a connection fail.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		if (httpClient != null) {
+			// failed first, so a fetch finishing during shutdown does not start one of them
+			RejectedExecutionException stopped = new RejectedExecutionException("Data share client shut down");
+			hosts.values().forEach(limit -> limit.failWaiting(stopped));
+			httpClient.shutdownNow();
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Connection slots of one host and the fetches waiting for them.
+	 */
+	private final class HostLimit {
+		private final Queue<Waiting> queue = new ArrayDeque<>();
+		private int running;
+
+		/**
+		 * Runs the fetch now if a slot is free, or queues it.
+		 *
+		 * @param fetch  sends the fetch
+		 * @param result the future of the fetch, failed if it is dropped
+		 * @return {@code false} if the queue is full
+		 */
+		boolean acquire(Runnable fetch, CompletableFuture<byte[]> result) {
+			synchronized (this) {
+				if (running >= maxPerHost) {
+					if (queue.size() >= maxPendingPerHost)
+						return false;
+					queue.add(new Waiting(fetch, result));
+					waiting.incrementAndGet();
+					return true;
+				}
+				running++;
+			}
+			fetch.run();
+			return true;
+		}
+
+		/**
+		 * Hands the slot of a finished fetch to the next waiting one. The next
+		 * fetch is started on the executor, so a run of fetches failing at once
+		 * does not start each other recursively. When the executor has shut down
+		 * the next fetch and those queued behind it fail, so their inserts
+		 * complete.
+		 */
+		void release() {
+			Waiting next;
+			synchronized (this) {
+				next = queue.poll();
+				if (next == null) {
+					running--;
+					return;
+				}
+			}
+			waiting.decrementAndGet();
+			try {
+				executor.execute(next.fetch());
+			} catch (RejectedExecutionException e) {
+				logger.warn("Data share fetch dropped during shutdown");
+				next.result().completeExceptionally(e);
+				failWaiting(e);
+			}
+		}
+
+		/**
+		 * Fails every fetch waiting for a connection.
+		 *
+		 * @param error the exception the fetches complete with
+		 */
+		void failWaiting(RejectedExecutionException error) {
+			List<Waiting> dropped;
+			synchronized (this) {
+				dropped = List.copyOf(queue);
+				queue.clear();
+			}
+			waiting.addAndGet(-dropped.size());
+			dropped.forEach(fetch -> fetch.result().completeExceptionally(error));
+		}
+
+		synchronized int getActive() {
+			return running;
+		}
+	}
+
+	/**
+	 * A fetch waiting for a connection slot, with the future it completes.
+	 */
+	private record Waiting(Runnable fetch, CompletableFuture<byte[]> result) {
+	}
+
+	/**
+	 * Successful response without a body, ending the interceptor chain.
+	 */
+	private static final class EmptyResponse implements ClientHttpResponse {
+		@Override
+		public HttpStatusCode getStatusCode() {
+			return HttpStatus.OK;
+		}
+
+		@Override
+		public String getStatusText() {
+			return HttpStatus.OK.getReasonPhrase();
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			return new HttpHeaders();
+		}
+
+		@Override
+		public InputStream getBody() {
+			return new ByteArrayInputStream(new byte[0]);
+		}
+
+		@Override
+		public void close() {
+			// nothing to release
+		}
+	}
+}
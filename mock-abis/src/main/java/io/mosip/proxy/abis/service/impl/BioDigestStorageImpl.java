@@ -0,0 +1,119 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.List;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import io.mosip.proxy.abis.dao.ProxyAbisBioDataRepository;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.service.BioDigestStorage;
+import io.mosip.proxy.abis.utility.BioDigest;
+
+/**
+ * Implementation of {@link BioDigestStorage} configured by
+ * {@code abis.bio.digest.storage} ({@code hex} or {@code binary}).
+ * <p>
+ * Once the application is ready, and before the in-memory index loads, records
+ * persisted in the other form are converted in pages, so switching the setting
+ * on an existing database needs no manual migration. Records whose
+ * {@code bio_data} is not a SHA-256 digest are left as they are.
+ * </p>
+ */
+@Component
+public class BioDigestStorageImpl implements BioDigestStorage {
+	private static final Logger logger = LoggerFactory.getLogger(BioDigestStorageImpl.class);
+
+	private static final String BINARY = "binary";
+
+	private ProxyAbisBioDataRepository proxyAbisBioDataRepository;
+
+	/**
+	 * Form in which digests are persisted, {@code hex} or {@code binary}.
+	 */
+	@Value("${abis.bio.digest.storage:hex}")
+	private String storage = "hex";
+
+	/**
+	 * Number of records converted per page on startup.
+	 */
+	@Value("${abis.bio.digest.convert.page.size:1000}")
+	private int convertPageSize = 1000;
+
+	@Autowired
+	public BioDigestStorageImpl(ProxyAbisBioDataRepository proxyAbisBioDataRepository) {
+		this.proxyAbisBioDataRepository = proxyAbisBioDataRepository;
+	}
+
+	@Override
+	public boolean isBinary() {
+		return BINARY.equalsIgnoreCase(storage);
+	}
+
+	@Override
+	public void prepare(BiometricData biometricData) {
+		if (isBinary()) {
+			if (Objects.nonNull(biometricData.getBioDigest()))
+				return;
+			BioDigest digest = BioDigest.fromHex(biometricData.getBioData());
+			if (Objects.isNull(digest)) {
+				logger.warn("Keeping biometric that is not a SHA-256 digest in hexadecimal form");
+				return;
+			}
+			biometricData.setBioDigest(digest.toBytes());
+			biometricData.setBioData(null);
+		} else if (Objects.nonNull(biometricData.getBioDigest())) {
+			biometricData.setBioData(biometricData.getBioData());
+			biometricData.setBioDigest(null);
+		}
+	}
+
+	/**
+	 * Converts existing records once the application context is ready. Runs
+	 * ahead of the other ready listeners so the index loads converted data.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void onApplicationReady() {
+		convert();
+	}
+
+	@Override
+	public long convert() {
+		long start = System.currentTimeMillis();
+		long converted = 0;
+		long lastId = 0;
+		PageRequest page = PageRequest.of(0, Math.max(1, convertPageSize));
+		try {
+			while (true) {
+				List<BiometricData> records = isBinary() ? proxyAbisBioDataRepository.fetchHexDigestsAfter(lastId, page)
+						: proxyAbisBioDataRepository.fetchBinaryDigestsAfter(lastId, page);
+				if (Objects.isNull(records) || records.isEmpty())
+					break;
+				for (BiometricData biometricData : records) {
+					prepare(biometricData);
+					if (isBinary() == Objects.nonNull(biometricData.getBioDigest()))
+						converted++;
+					lastId = biometricData.getId();
+				}
+				proxyAbisBioDataRepository.saveAll(records);
+			}
+		} catch (RuntimeException e) {
+			logger.error("Converting stored biometric digests failed after {} records", converted, e);
+			return converted;
+		}
+		if (converted > 0)
+			logger.info("Converted {} biometric digests to {} form in {} ms", converted, isBinary() ? BINARY : "hex",
+					System.currentTimeMillis() - start);
+		return converted;
+	}
+}
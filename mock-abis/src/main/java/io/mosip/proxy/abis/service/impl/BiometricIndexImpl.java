@@ -0,0 +1,560 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import io.mosip.proxy.abis.dao.ProxyAbisBioDataRepository;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.entity.InsertEntity;
+import io.mosip.proxy.abis.service.BiometricIndex;
+import io.mosip.proxy.abis.service.GalleryScope;
+import io.mosip.proxy.abis.utility.BioDigest;
+
+/**
+ * Implementation of {@link BiometricIndex} backed by a hash map from
+ * {@link BioDigest} to compact postings.
+ * <p>
+ * Reference IDs are interned to {@code int} ordinals and biometric types to
+ * small codes, and every posting is a single {@code long} holding both, so the
+ * per-record overhead stays a few bytes regardless of the reference ID length.
+ * A read/write lock lets identify requests proceed in parallel while inserts and
+ * deletes update the index.
+ * </p>
+ * <p>
+ * Gallery identifies are resolved to a {@link GalleryScope}: a bit set over
+ * the same ordinals, checked per candidate, so gallery size costs one hash
+ * lookup per gallery reference ID and nothing per SQL parameter.
+ * </p>
+ * <p>
+ * The index is only used when {@code abis.index.enabled} is {@code true}. It is
+ * loaded from {@code Biometric_Data} once the application is ready; until the
+ * load completes, or if it fails, {@link #isAvailable()} returns {@code false}
+ * and callers keep querying the database.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+@Component
+public class BiometricIndexImpl implements BiometricIndex {
+	private static final Logger logger = LoggerFactory.getLogger(BiometricIndexImpl.class);
+
+	private ProxyAbisBioDataRepository proxyAbisBioDataRepository;
+
+	/**
+	 * Flag for serving duplicate lookups from the in-memory index.
+	 */
+	@Value("${abis.index.enabled:false}")
+	private boolean enabled;
+
+	/**
+	 * Number of rows fetched per page while loading the index.
+	 */
+	@Value("${abis.index.rebuild.page.size:10000}")
+	private int rebuildPageSize = 10000;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** Postings per digest; guarded by {@link #lock}. */
+	private final Map<BioDigest, Postings> postings = new HashMap<>();
+	/** Reference ID to ordinal; guarded by {@link #lock}. */
+	private final Map<String, Integer> ordinals = new HashMap<>();
+	/** Ordinal to reference ID, {@code null} for free slots. */
+	private final List<String> referenceIds = new ArrayList<>();
+	/** Ordinal to the distinct digests held for that reference ID. */
+	private final List<BioDigest[]> referenceDigests = new ArrayList<>();
+	/** Ordinals released by deletes, reused by later inserts. */
+	private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+	/** Biometric type to code and back. */
+	private final Map<String, Integer> typeCodes = new HashMap<>();
+	private final List<String> typeNames = new ArrayList<>();
+
+	/** Reference IDs inserted or deleted while a rebuild is running. */
+	private final Set<String> touchedDuringRebuild = new HashSet<>();
+	private boolean rebuilding;
+	private long generation;
+	/** Bumped whenever ordinals are released, invalidating gallery scopes. */
+	private long epoch;
+
+	private volatile boolean ready;
+
+	@Autowired
+	public BiometricIndexImpl(ProxyAbisBioDataRepository proxyAbisBioDataRepository) {
+		this.proxyAbisBioDataRepository = proxyAbisBioDataRepository;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return enabled && ready;
+	}
+
+	/**
+	 * Loads the index once the application context is ready, before the ABIS
+	 * queues start consuming and before the replicator catches up with the
+	 * other nodes.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.LOWEST_PRECEDENCE - 1)
+	public void onApplicationReady() {
+		rebuild();
+	}
+
+	@Override
+	public void add(String referenceId, List<BiometricData> biometricList) {
+		if (!enabled || Objects.isNull(referenceId) || Objects.isNull(biometricList))
+			return;
+		lock.writeLock().lock();
+		try {
+			if (rebuilding)
+				touchedDuringRebuild.add(referenceId);
+			removeLocked(referenceId);
+			for (BiometricData bd : biometricList) {
+				addRowLocked(referenceId, bd.getType(), digestOf(bd.getBioData(), bd.getBioDigest()));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void remove(String referenceId) {
+		if (!enabled || Objects.isNull(referenceId))
+			return;
+		lock.writeLock().lock();
+		try {
+			if (rebuilding)
+				touchedDuringRebuild.add(referenceId);
+			removeLocked(referenceId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		if (!enabled)
+			return;
+		lock.writeLock().lock();
+		try {
+			clearLocked();
+			generation++;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void rebuild() {
+		if (!enabled)
+			return;
+		ready = false;
+		long startGeneration;
+		lock.writeLock().lock();
+		try {
+			clearLocked();
+			rebuilding = true;
+			touchedDuringRebuild.clear();
+			startGeneration = ++generation;
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		long start = System.currentTimeMillis();
+		long rows = 0;
+		boolean completed = false;
+		try {
+			long lastId = 0;
+			PageRequest page = PageRequest.of(0, Math.max(1, rebuildPageSize));
+			while (true) {
+				List<Object[]> entries = proxyAbisBioDataRepository.fetchIndexEntriesAfter(lastId, page);
+				if (Objects.isNull(entries) || entries.isEmpty())
+					break;
+				lock.writeLock().lock();
+				try {
+					if (generation != startGeneration) {
+						// cache was cleared meanwhile, everything read so far is gone from the DB
+						logger.info("Biometric index cleared while loading, stopping load");
+						break;
+					}
+					for (Object[] row : entries) {
+						String referenceId = (String) row[1];
+						if (!touchedDuringRebuild.contains(referenceId))
+							addRowLocked(referenceId, (String) row[2], digestOf((String) row[3], (byte[]) row[4]));
+					}
+				} finally {
+					lock.writeLock().unlock();
+				}
+				rows += entries.size();
+				lastId = ((Number) entries.get(entries.size() - 1)[0]).longValue();
+				if (entries.size() < page.getPageSize())
+					break;
+			}
+			completed = true;
+		} catch (Exception ex) {
+			logger.error("Error while loading biometric index, duplicate search will use the database", ex);
+		} finally {
+			lock.writeLock().lock();
+			try {
+				rebuilding = false;
+				touchedDuringRebuild.clear();
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+		if (completed) {
+			ready = true;
+			logger.info("Biometric index loaded {} rows for {} reference IDs in {} ms", rows, size(),
+					System.currentTimeMillis() - start);
+		}
+	}
+
+	@Override
+	public List<BiometricData> findDuplicates(String referenceId, Collection<String> galleryReferenceIds) {
+		if (!Objects.isNull(galleryReferenceIds))
+			return findDuplicatesInGallery(referenceId, scopeOf(galleryReferenceIds));
+
+		List<String[]> matches;
+		lock.readLock().lock();
+		try {
+			matches = matchesLocked(referenceId, null);
+		} finally {
+			lock.readLock().unlock();
+		}
+		return toDuplicates(matches);
+	}
+
+	@Override
+	public GalleryScope scopeOf(Collection<String> galleryReferenceIds) {
+		List<String> distinct = new ArrayList<>(new LinkedHashSet<>(galleryReferenceIds));
+		lock.readLock().lock();
+		try {
+			return scopeLocked(distinct);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<BiometricData> findDuplicatesInGallery(String referenceId, GalleryScope gallery) {
+		List<String[]> matches;
+		lock.readLock().lock();
+		try {
+			matches = matchesLocked(referenceId, currentLocked(gallery).getMembers());
+		} finally {
+			lock.readLock().unlock();
+		}
+		return toDuplicates(matches);
+	}
+
+	@Override
+	public List<String> findReferenceIds(String bioData, GalleryScope gallery) {
+		BioDigest digest = BioDigest.fromHex(bioData);
+		if (Objects.isNull(digest))
+			return new ArrayList<>();
+		Set<String> found = new LinkedHashSet<>();
+		lock.readLock().lock();
+		try {
+			BitSet members = Objects.isNull(gallery) ? null : currentLocked(gallery).getMembers();
+			Postings p = postings.get(digest);
+			if (!Objects.isNull(p)) {
+				for (int i = 0; i < p.size; i++) {
+					int ordinal = ordinalOf(p.entries[i]);
+					if (Objects.isNull(members) || members.get(ordinal))
+						found.add(referenceIds.get(ordinal));
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return new ArrayList<>(found);
+	}
+
+	@Override
+	public boolean contains(String referenceId) {
+		lock.readLock().lock();
+		try {
+			return ordinals.containsKey(referenceId);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public List<String> findDigests(String referenceId) {
+		List<String> digests = new ArrayList<>();
+		lock.readLock().lock();
+		try {
+			Integer ordinal = ordinals.get(referenceId);
+			if (!Objects.isNull(ordinal)) {
+				for (BioDigest digest : referenceDigests.get(ordinal)) {
+					digests.add(digest.toHex());
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		return digests;
+	}
+
+	@Override
+	public int export(int position, int limit, BiConsumer<String, List<BiometricData>> sink) {
+		Map<String, List<BiometricData>> page = new LinkedHashMap<>();
+		int next;
+		lock.readLock().lock();
+		try {
+			next = Math.max(0, position);
+			while (next < referenceIds.size() && page.size() < limit) {
+				String referenceId = referenceIds.get(next);
+				if (!Objects.isNull(referenceId))
+					page.put(referenceId, recordsLocked(next));
+				next++;
+			}
+			if (next >= referenceIds.size())
+				next = -1;
+		} finally {
+			lock.readLock().unlock();
+		}
+		// handed over outside the lock, so a slow sink does not hold up inserts
+		page.forEach(sink);
+		return next;
+	}
+
+	/**
+	 * Rebuilds the records of a reference ID from the postings of its digests.
+	 */
+	private List<BiometricData> recordsLocked(int ordinal) {
+		List<BiometricData> records = new ArrayList<>();
+		for (BioDigest digest : referenceDigests.get(ordinal)) {
+			Postings p = postings.get(digest);
+			for (int i = 0; i < p.size; i++) {
+				if (ordinalOf(p.entries[i]) == ordinal) {
+					BiometricData bd = new BiometricData(null, typeNames.get(typeOf(p.entries[i])), null, null, null);
+					bd.setBioDigest(digest.toBytes());
+					records.add(bd);
+				}
+			}
+		}
+		return records;
+	}
+
+	/**
+	 * Collects {@code [referenceId, type, hex digest]} for every record sharing a
+	 * digest with the probe.
+	 *
+	 * @param members the ordinals candidates must belong to, or {@code null} for
+	 *                no restriction
+	 */
+	private List<String[]> matchesLocked(String referenceId, BitSet members) {
+		List<String[]> matches = new ArrayList<>();
+		Integer probe = ordinals.get(referenceId);
+		if (Objects.isNull(probe))
+			return matches;
+		for (BioDigest digest : referenceDigests.get(probe)) {
+			Postings p = postings.get(digest);
+			if (Objects.isNull(p))
+				continue;
+			String hex = null;
+			for (int i = 0; i < p.size; i++) {
+				int ordinal = ordinalOf(p.entries[i]);
+				if (ordinal == probe || (!Objects.isNull(members) && !members.get(ordinal)))
+					continue;
+				if (hex == null)
+					hex = digest.toHex();
+				matches.add(new String[] { referenceIds.get(ordinal), typeNames.get(typeOf(p.entries[i])), hex });
+			}
+		}
+		return matches;
+	}
+
+	/**
+	 * Turns matches into detached records ordered by reference ID, sharing one
+	 * {@link InsertEntity} per reference ID.
+	 */
+	private static List<BiometricData> toDuplicates(List<String[]> matches) {
+		matches.sort(Comparator.comparing(m -> m[0]));
+		List<BiometricData> duplicates = new ArrayList<>(matches.size());
+		InsertEntity entity = null;
+		for (String[] m : matches) {
+			if (entity == null || !entity.getReferenceId().equals(m[0])) {
+				entity = new InsertEntity();
+				entity.setReferenceId(m[0]);
+			}
+			duplicates.add(new BiometricData(null, m[1], null, m[2], entity));
+		}
+		return duplicates;
+	}
+
+	private GalleryScope scopeLocked(List<String> distinctReferenceIds) {
+		BitSet members = new BitSet(referenceIds.size());
+		int missing = 0;
+		for (String referenceId : distinctReferenceIds) {
+			Integer ordinal = ordinals.get(referenceId);
+			if (Objects.isNull(ordinal))
+				missing++;
+			else
+				members.set(ordinal);
+		}
+		return new GalleryScope(distinctReferenceIds, members, missing, epoch);
+	}
+
+	/**
+	 * Returns the scope itself, or a fresh one if ordinals were released since
+	 * it was built and some of its bits may now name other reference IDs.
+	 */
+	private GalleryScope currentLocked(GalleryScope gallery) {
+		return gallery.getEpoch() == epoch ? gallery : scopeLocked(gallery.getReferenceIds());
+	}
+
+	@Override
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return ordinals.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the digest of a record from whichever column holds it.
+	 *
+	 * @return the digest, or {@code null} if neither column holds a SHA-256
+	 *         digest
+	 */
+	private static BioDigest digestOf(String bioData, byte[] bioDigest) {
+		if (Objects.nonNull(bioDigest) && bioDigest.length == BioDigest.LENGTH)
+			return BioDigest.fromBytes(bioDigest);
+		return BioDigest.fromHex(bioData);
+	}
+
+	private void addRowLocked(String referenceId, String type, BioDigest digest) {
+		if (Objects.isNull(digest)) {
+			logger.warn("Skipping biometric that is not a SHA-256 digest while indexing");
+			return;
+		}
+		int ordinal = ordinalFor(referenceId);
+		BioDigest[] held = referenceDigests.get(ordinal);
+		if (Arrays.asList(held).indexOf(digest) < 0) {
+			held = Arrays.copyOf(held, held.length + 1);
+			held[held.length - 1] = digest;
+			referenceDigests.set(ordinal, held);
+		}
+		postings.computeIfAbsent(digest, d -> new Postings()).add(entry(ordinal, typeCodeFor(type)));
+	}
+
+	private void removeLocked(String referenceId) {
+		Integer ordinal = ordinals.remove(referenceId);
+		if (Objects.isNull(ordinal))
+			return;
+		for (BioDigest digest : referenceDigests.get(ordinal)) {
+			Postings p = postings.get(digest);
+			if (!Objects.isNull(p) && p.removeOrdinal(ordinal) == 0)
+				postings.remove(digest);
+		}
+		referenceIds.set(ordinal, null);
+		referenceDigests.set(ordinal, null);
+		freeOrdinals.push(ordinal);
+		epoch++;
+	}
+
+	private void clearLocked() {
+		postings.clear();
+		ordinals.clear();
+		referenceIds.clear();
+		referenceDigests.clear();
+		freeOrdinals.clear();
+		epoch++;
+	}
+
+	private int ordinalFor(String referenceId) {
+		Integer existing = ordinals.get(referenceId);
+		if (!Objects.isNull(existing))
+			return existing;
+		int ordinal;
+		if (freeOrdinals.isEmpty()) {
+			ordinal = referenceIds.size();
+			referenceIds.add(referenceId);
+			referenceDigests.add(new BioDigest[0]);
+		} else {
+			ordinal = freeOrdinals.pop();
+			referenceIds.set(ordinal, referenceId);
+			referenceDigests.set(ordinal, new BioDigest[0]);
+		}
+		ordinals.put(referenceId, ordinal);
+		return ordinal;
+	}
+
+	private int typeCodeFor(String type) {
+		return typeCodes.computeIfAbsent(type, t -> {
+			typeNames.add(t);
+			return typeNames.size() - 1;
+		});
+	}
+
+	private static long entry(int ordinal, int typeCode) {
+		return ((long) ordinal << 32) | (typeCode & 0xFFFFFFFFL);
+	}
+
+	private static int ordinalOf(long entry) {
+		return (int) (entry >>> 32);
+	}
+
+	private static int typeOf(long entry) {
+		return (int) entry;
+	}
+
+	/**
+	 * Growable array of packed {@code (ordinal, type)} entries for one digest.
+	 */
+	private static final class Postings {
+		private long[] entries = new long[2];
+		private int size;
+
+		void add(long entry) {
+			if (size == entries.length)
+				entries = Arrays.copyOf(entries, size * 2);
+			entries[size++] = entry;
+		}
+
+		int removeOrdinal(int ordinal) {
+			int kept = 0;
+			for (int i = 0; i < size; i++) {
+				if (ordinalOf(entries[i]) != ordinal)
+					entries[kept++] = entries[i];
+			}
+			size = kept;
+			return size;
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.mosip.proxy.abis.dao.ProxyAbisBioDataRepository;
+import io.mosip.proxy.abis.dao.ProxyAbisInsertRepository;
+import io.mosip.proxy.abis.service.BioDigestStorage;
+import io.mosip.proxy.abis.service.ClusterPartition;
+import io.mosip.proxy.abis.utility.BioDigest;
+
+/**
+ * {@link ClusterPartition} answering from the local database.
+ * <p>
+ * Digests are looked up in the column selected by
+ * {@code abis.bio.digest.storage}. Gallery limits are applied in memory rather
+ * than bound into SQL, as a node only holds its share of any gallery.
+ * </p>
+ */
+@Service
+public class ClusterPartitionImpl implements ClusterPartition {
+	private static final HexFormat HEX = HexFormat.of();
+
+	private final ProxyAbisInsertRepository proxyabis;
+	private final ProxyAbisBioDataRepository proxyAbisBioDataRepository;
+	private final BioDigestStorage bioDigestStorage;
+	private final int chunkSize;
+
+	/**
+	 * Creates the partition over the local repositories.
+	 *
+	 * @param proxyabis                  The insert request repository.
+	 * @param proxyAbisBioDataRepository The biometric data repository.
+	 * @param bioDigestStorage           The digest storage mode.
+	 * @param chunkSize                  The maximum number of reference IDs
+	 *                                   bound into one SQL {@code IN} list.
+	 */
+	@Autowired
+	public ClusterPartitionImpl(ProxyAbisInsertRepository proxyabis,
+			ProxyAbisBioDataRepository proxyAbisBioDataRepository, BioDigestStorage bioDigestStorage,
+			@Value("${abis.gallery.query.chunk.size:1000}") int chunkSize) {
+		this.proxyabis = proxyabis;
+		this.proxyAbisBioDataRepository = proxyAbisBioDataRepository;
+		this.bioDigestStorage = bioDigestStorage;
+		this.chunkSize = Math.max(1, chunkSize);
+	}
+
+	@Override
+	public List<String> fetchDigests(String referenceId) {
+		if (!bioDigestStorage.isBinary())
+			return proxyAbisBioDataRepository.fetchBioDataByRefId(referenceId);
+		List<String> digests = new ArrayList<>();
+		for (byte[] digest : proxyAbisBioDataRepository.fetchBioDigestByRefId(referenceId)) {
+			if (digest != null)
+				digests.add(HEX.formatHex(digest));
+		}
+		return digests;
+	}
+
+	@Override
+	public int countPresent(List<String> referenceIds) {
+		int count = 0;
+		for (int from = 0; from < referenceIds.size(); from += chunkSize) {
+			count += proxyabis.fetchCountForReferenceIdPresentInGallery(
+					referenceIds.subList(from, Math.min(from + chunkSize, referenceIds.size())));
+		}
+		return count;
+	}
+
+	@Override
+	public List<Match> findDuplicates(List<String> digests, String excludeReferenceId, List<String> galleryIds) {
+		Set<String> gallery = galleryIds != null ? new HashSet<>(galleryIds) : null;
+		Set<Match> matches = new LinkedHashSet<>();
+		for (String digest : new LinkedHashSet<>(digests)) {
+			for (Object[] row : fetchTypedReferenceIds(digest)) {
+				String referenceId = (String) row[0];
+				if (!Objects.equals(referenceId, excludeReferenceId)
+						&& (gallery == null || gallery.contains(referenceId)))
+					matches.add(new Match(referenceId, (String) row[1]));
+			}
+		}
+		List<Match> sorted = new ArrayList<>(matches);
+		sorted.sort(Comparator.comparing(Match::referenceId));
+		return sorted;
+	}
+
+	@Override
+	public List<String> findReferenceIds(String digest, List<String> galleryIds) {
+		Set<String> gallery = galleryIds != null ? new HashSet<>(galleryIds) : null;
+		Set<String> referenceIds = new LinkedHashSet<>();
+		for (Object[] row : fetchTypedReferenceIds(digest)) {
+			String referenceId = (String) row[0];
+			if (gallery == null || gallery.contains(referenceId))
+				referenceIds.add(referenceId);
+		}
+		return new ArrayList<>(referenceIds);
+	}
+
+	private List<Object[]> fetchTypedReferenceIds(String digest) {
+		if (!bioDigestStorage.isBinary())
+			return proxyAbisBioDataRepository.fetchTypedReferenceIds(digest);
+		BioDigest parsed = BioDigest.fromHex(digest);
+		return parsed == null ? List.of() : proxyAbisBioDataRepository.fetchTypedReferenceIdsByDigest(parsed.toBytes());
+	}
+}
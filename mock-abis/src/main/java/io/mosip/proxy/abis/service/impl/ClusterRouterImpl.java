@@ -0,0 +1,291 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.proxy.abis.constant.FailureReasonsConstants;
+import io.mosip.proxy.abis.dto.InsertRequestMO;
+import io.mosip.proxy.abis.exception.RequestException;
+import io.mosip.proxy.abis.service.ClusterPartition;
+import io.mosip.proxy.abis.service.ClusterRouter;
+import io.mosip.proxy.abis.service.ClusterTransport;
+import io.mosip.proxy.abis.utility.ConsistentHashRing;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * {@link ClusterRouter} placing reference IDs on a {@link ConsistentHashRing}
+ * of the nodes listed in {@code abis.cluster.nodes}.
+ * <p>
+ * {@code abis.cluster.nodes} lists every node, including this one, as
+ * comma-separated {@code id=url} pairs, and {@code abis.cluster.node.id} names
+ * this node. All nodes must be configured with the same list so that they
+ * agree on the owner of every reference ID. Queries run on this node's
+ * {@link ClusterPartition} directly and on the other nodes through the
+ * {@link ClusterTransport}, all at once; a node that fails or does not answer
+ * within {@code abis.cluster.request.timeout.ms} fails the request, as the
+ * merged result would be incomplete. Queries run on at most
+ * {@code abis.cluster.threads} threads, with as many more waiting for one; a
+ * query beyond that fails at once.
+ * </p>
+ * <p>
+ * The following meters are published:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.cluster.forwarded}: inserts and deletes forwarded to
+ * their owning node, tagged {@code operation}.</li>
+ * <li>{@code mock.abis.cluster.scatter}: time taken to query every node,
+ * tagged {@code operation}.</li>
+ * </ul>
+ */
+@Component
+public class ClusterRouterImpl implements ClusterRouter {
+	private static final Logger logger = LoggerFactory.getLogger(ClusterRouterImpl.class);
+
+	private final ClusterPartition partition;
+	private final ClusterTransport transport;
+	private final MeterRegistry meterRegistry;
+	private final boolean enabled;
+	private final String localNodeId;
+	private final ConsistentHashRing ring;
+	private final long timeoutMillis;
+	private final ThreadPoolExecutor executor;
+
+	private final Counter forwardedInserts;
+	private final Counter forwardedDeletes;
+
+	/**
+	 * Creates the router from configuration.
+	 *
+	 * @param partition     The share of the gallery stored on this node.
+	 * @param transport     Reaches the other nodes.
+	 * @param meterRegistry The registry to publish meters to; the global registry
+	 *                      is used when none is configured.
+	 * @param enabled       Whether cluster mode is on.
+	 * @param localNodeId   The ID of this node.
+	 * @param nodes         Every node as comma-separated {@code id=url} pairs.
+	 * @param virtualNodes  The number of ring points per node.
+	 * @param timeoutMillis How long a node may take to answer.
+	 * @param threads       The number of threads querying the nodes.
+	 */
+	@Autowired
+	public ClusterRouterImpl(ClusterPartition partition, ClusterTransport transport,
+			ObjectProvider<MeterRegistry> meterRegistry, @Value("${abis.cluster.enabled:false}") boolean enabled,
+			@Value("${abis.cluster.node.id:}") String localNodeId, @Value("${abis.cluster.nodes:}") String nodes,
+			@Value("${abis.cluster.virtual.nodes:128}") int virtualNodes,
+			@Value("${abis.cluster.request.timeout.ms:5000}") long timeoutMillis,
+			@Value("${abis.cluster.threads:32}") int threads) {
+		this(partition, transport, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), enabled,
+				localNodeId, new ArrayList<>(parseNodes(nodes).keySet()), virtualNodes, timeoutMillis, threads);
+	}
+
+	/**
+	 * Creates the router with explicit settings.
+	 *
+	 * @param partition     The share of the gallery stored on this node.
+	 * @param transport     Reaches the other nodes.
+	 * @param meterRegistry The registry to publish meters to.
+	 * @param enabled       Whether cluster mode is on.
+	 * @param localNodeId   The ID of this node.
+	 * @param nodeIds       The IDs of every node, including this one.
+	 * @param virtualNodes  The number of ring points per node.
+	 * @param timeoutMillis How long a node may take to answer.
+	 * @param threads       The number of threads querying the nodes.
+	 * @throws IllegalArgumentException if cluster mode is on and this node is not
+	 *                                  one of the nodes
+	 */
+	public ClusterRouterImpl(ClusterPartition partition, ClusterTransport transport, MeterRegistry meterRegistry,
+			boolean enabled, String localNodeId, List<String> nodeIds, int virtualNodes, long timeoutMillis,
+			int threads) {
+		this.partition = partition;
+		this.transport = transport;
+		this.meterRegistry = meterRegistry;
+		this.enabled = enabled;
+		this.localNodeId = localNodeId;
+		this.timeoutMillis = timeoutMillis;
+		if (enabled) {
+			if (!nodeIds.contains(localNodeId))
+				throw new IllegalArgumentException(
+						"abis.cluster.node.id " + localNodeId + " is not listed in abis.cluster.nodes " + nodeIds);
+			this.ring = new ConsistentHashRing(nodeIds, virtualNodes);
+			int count = Math.max(1, threads);
+			this.executor = new ThreadPoolExecutor(count, count, 0L, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<>(count), Thread.ofPlatform().daemon(true).name("abis-cluster-", 0).factory());
+			logger.info("Cluster mode on as node {} of {}", localNodeId, nodeIds);
+		} else {
+			this.ring = null;
+			this.executor = null;
+		}
+
+		this.forwardedInserts = Counter.builder("mock.abis.cluster.forwarded").tag("operation", "insert")
+				.description("Requests forwarded to the node owning the reference ID").register(meterRegistry);
+		this.forwardedDeletes = Counter.builder("mock.abis.cluster.forwarded").tag("operation", "delete")
+				.description("Requests forwarded to the node owning the reference ID").register(meterRegistry);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public String getLocalNodeId() {
+		return localNodeId;
+	}
+
+	@Override
+	public String ownerOf(String referenceId) {
+		return enabled ? ring.ownerOf(Objects.toString(referenceId, "")) : localNodeId;
+	}
+
+	@Override
+	public boolean isLocal(String referenceId) {
+		return !enabled || localNodeId.equals(ownerOf(referenceId));
+	}
+
+	@Override
+	public int forwardInsert(InsertRequestMO request) {
+		String owner = ownerOf(request.getReferenceId());
+		logger.info("Forwarding insert to node {}", owner);
+		forwardedInserts.increment();
+		return transport.insert(owner, request);
+	}
+
+	@Override
+	public void forwardDelete(String referenceId) {
+		String owner = ownerOf(referenceId);
+		logger.info("Forwarding delete to node {}", owner);
+		forwardedDeletes.increment();
+		transport.delete(owner, referenceId);
+	}
+
+	@Override
+	public List<String> fetchDigests(String referenceId) {
+		String owner = ownerOf(referenceId);
+		if (owner.equals(localNodeId))
+			return partition.fetchDigests(referenceId);
+		return transport.fetchDigests(owner, referenceId);
+	}
+
+	@Override
+	public int countPresent(List<String> referenceIds) {
+		int count = 0;
+		for (int present : scatter("count", node -> node.equals(localNodeId) ? partition.countPresent(referenceIds)
+				: transport.countPresent(node, referenceIds))) {
+			count += present;
+		}
+		return count;
+	}
+
+	@Override
+	public List<ClusterPartition.Match> findDuplicates(List<String> digests, String excludeReferenceId,
+			List<String> galleryIds) {
+		List<ClusterPartition.Match> merged = new ArrayList<>();
+		for (List<ClusterPartition.Match> matches : scatter("duplicates",
+				node -> node.equals(localNodeId) ? partition.findDuplicates(digests, excludeReferenceId, galleryIds)
+						: transport.findDuplicates(node, digests, excludeReferenceId, galleryIds))) {
+			merged.addAll(matches);
+		}
+		merged.sort((a, b) -> a.referenceId().compareTo(b.referenceId()));
+		return merged;
+	}
+
+	@Override
+	public List<String> findReferenceIds(String digest, List<String> galleryIds) {
+		Set<String> merged = new LinkedHashSet<>();
+		for (List<String> referenceIds : scatter("reference_ids",
+				node -> node.equals(localNodeId) ? partition.findReferenceIds(digest, galleryIds)
+						: transport.findReferenceIds(node, digest, galleryIds))) {
+			merged.addAll(referenceIds);
+		}
+		return new ArrayList<>(merged);
+	}
+
+	/**
+	 * Runs a query on every node at once and collects the answers in node order.
+	 *
+	 * @throws RequestException if a node fails or does not answer in time, or too
+	 *                          many queries are in flight
+	 */
+	private <T> List<T> scatter(String operation, Function<String, T> query) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		List<String> nodes = ring.getNodes();
+		Map<String, CompletableFuture<T>> futures = new LinkedHashMap<>();
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+		List<T> results = new ArrayList<>(nodes.size());
+		try {
+			for (String node : nodes) {
+				futures.put(node, CompletableFuture.supplyAsync(() -> query.apply(node), executor));
+			}
+			for (Map.Entry<String, CompletableFuture<T>> future : futures.entrySet()) {
+				try {
+					results.add(future.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+				} catch (ExecutionException | TimeoutException e) {
+					logger.error("Cluster node {} failed to answer {}", future.getKey(), operation, e);
+					throw new RequestException(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN);
+				}
+			}
+			return results;
+		} catch (RejectedExecutionException e) {
+			logger.error("Too many cluster queries in flight to answer {}", operation);
+			throw new RequestException(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RequestException(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN);
+		} finally {
+			futures.values().forEach(f -> f.cancel(true));
+			sample.stop(Timer.builder("mock.abis.cluster.scatter").tag("operation", operation)
+					.description("Time taken to query every cluster node").register(meterRegistry));
+		}
+	}
+
+	/**
+	 * Stops the threads querying the other nodes.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		if (executor != null)
+			executor.shutdownNow();
+	}
+
+	/**
+	 * Parses comma-separated {@code id=url} pairs.
+	 *
+	 * @param nodes the pairs
+	 * @return the URLs by node ID, in the order listed
+	 */
+	static Map<String, String> parseNodes(String nodes) {
+		Map<String, String> parsed = new LinkedHashMap<>();
+		if (Objects.isNull(nodes) || nodes.isBlank())
+			return parsed;
+		for (String node : nodes.split(",")) {
+			String[] pair = node.trim().split("=", 2);
+			if (!pair[0].isBlank())
+				parsed.put(pair[0].trim(), pair.length > 1 ? pair[1].trim() : "");
+		}
+		return parsed;
+	}
+}
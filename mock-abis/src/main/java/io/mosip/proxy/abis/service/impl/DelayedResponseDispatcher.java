@@ -0,0 +1,230 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.proxy.abis.service.ResponseDispatcher;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * {@link ResponseDispatcher} built on a {@link ScheduledThreadPoolExecutor}
+ * that only keeps time, and a separate worker pool that performs the sends.
+ * <p>
+ * The scheduler thread never sends anything itself: when a response falls due
+ * it is handed to the workers, so one slow {@code sendToQueue} delays only the
+ * worker running it. The number of accepted but unsent responses is bounded by
+ * {@code abis.dispatch.capacity}; once reached, {@link #schedule} blocks for up
+ * to {@code abis.dispatch.offer.timeout.ms} before rejecting.
+ * </p>
+ * <p>
+ * The following meters are published:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.dispatch.scheduled}: responses accepted.</li>
+ * <li>{@code mock.abis.dispatch.sent}: responses sent, including failed
+ * sends.</li>
+ * <li>{@code mock.abis.dispatch.overdue}: responses that started sending more
+ * than {@code abis.dispatch.overdue.threshold.ms} after they fell due.</li>
+ * <li>{@code mock.abis.dispatch.rejected}: responses refused at capacity or
+ * during shutdown.</li>
+ * <li>{@code mock.abis.dispatch.lag}: time between falling due and starting to
+ * send.</li>
+ * <li>{@code mock.abis.dispatch.pending}: responses currently waiting.</li>
+ * </ul>
+ * <p>
+ * On shutdown, responses still waiting for their delay are sent straight away
+ * and the workers are given {@code abis.dispatch.shutdown.timeout.seconds} to
+ * drain.
+ * </p>
+ */
+@Component
+public class DelayedResponseDispatcher implements ResponseDispatcher {
+	private static final Logger logger = LoggerFactory.getLogger(DelayedResponseDispatcher.class);
+
+	private final ScheduledThreadPoolExecutor scheduler;
+	private final ThreadPoolExecutor workers;
+	private final Semaphore capacity;
+	private final int maxPending;
+	private final long offerTimeoutMillis;
+	private final long overdueThresholdNanos;
+	private final long shutdownTimeoutSeconds;
+
+	private final Counter scheduledCounter;
+	private final Counter sentCounter;
+	private final Counter overdueCounter;
+	private final Counter rejectedCounter;
+	private final Timer lagTimer;
+
+	private volatile boolean shuttingDown;
+
+	/**
+	 * Creates the dispatcher from configuration.
+	 *
+	 * @param meterRegistry          The registry to publish meters to; the global
+	 *                               registry is used when none is configured.
+	 * @param workerCount            The number of threads sending responses.
+	 * @param maxPending             The maximum number of accepted, unsent
+	 *                               responses.
+	 * @param offerTimeoutMillis     How long {@link #schedule} waits for capacity.
+	 * @param overdueThresholdMillis The lateness after which a response counts as
+	 *                               overdue.
+	 * @param shutdownTimeoutSeconds How long shutdown waits for sends to finish.
+	 */
+	@Autowired
+	public DelayedResponseDispatcher(ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${abis.dispatch.workers:4}") int workerCount,
+			@Value("${abis.dispatch.capacity:10000}") int maxPending,
+			@Value("${abis.dispatch.offer.timeout.ms:30000}") long offerTimeoutMillis,
+			@Value("${abis.dispatch.overdue.threshold.ms:1000}") long overdueThresholdMillis,
+			@Value("${abis.dispatch.shutdown.timeout.seconds:30}") long shutdownTimeoutSeconds) {
+		this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), workerCount, maxPending, offerTimeoutMillis,
+				overdueThresholdMillis, shutdownTimeoutSeconds);
+	}
+
+	/**
+	 * Creates the dispatcher with explicit settings.
+	 *
+	 * @param meterRegistry          The registry to publish meters to.
+	 * @param workerCount            The number of threads sending responses.
+	 * @param maxPending             The maximum number of accepted, unsent
+	 *                               responses.
+	 * @param offerTimeoutMillis     How long {@link #schedule} waits for capacity.
+	 * @param overdueThresholdMillis The lateness after which a response counts as
+	 *                               overdue.
+	 * @param shutdownTimeoutSeconds How long shutdown waits for sends to finish.
+	 */
+	public DelayedResponseDispatcher(MeterRegistry meterRegistry, int workerCount, int maxPending,
+			long offerTimeoutMillis, long overdueThresholdMillis, long shutdownTimeoutSeconds) {
+		this.maxPending = Math.max(1, maxPending);
+		this.capacity = new Semaphore(this.maxPending);
+		this.offerTimeoutMillis = offerTimeoutMillis;
+		this.overdueThresholdNanos = TimeUnit.MILLISECONDS.toNanos(overdueThresholdMillis);
+		this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+
+		this.scheduler = new ScheduledThreadPoolExecutor(1,
+				Thread.ofPlatform().daemon(true).name("abis-dispatch-timer").factory());
+		this.scheduler.setRemoveOnCancelPolicy(true);
+		int threads = Math.max(1, workerCount);
+		// the queue is bounded in practice by the capacity semaphore
+		this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(), Thread.ofPlatform().daemon(true).name("abis-dispatch-", 0).factory());
+
+		this.scheduledCounter = Counter.builder("mock.abis.dispatch.scheduled")
+				.description("Responses accepted for delayed dispatch").register(meterRegistry);
+		this.sentCounter = Counter.builder("mock.abis.dispatch.sent").description("Responses dispatched")
+				.register(meterRegistry);
+		this.overdueCounter = Counter.builder("mock.abis.dispatch.overdue")
+				.description("Responses dispatched later than the overdue threshold").register(meterRegistry);
+		this.rejectedCounter = Counter.builder("mock.abis.dispatch.rejected")
+				.description("Responses rejected at capacity or during shutdown").register(meterRegistry);
+		this.lagTimer = Timer.builder("mock.abis.dispatch.lag")
+				.description("Delay between a response falling due and its dispatch starting").register(meterRegistry);
+		Gauge.builder("mock.abis.dispatch.pending", this, DelayedResponseDispatcher::getPending)
+				.description("Responses accepted but not yet dispatched").register(meterRegistry);
+	}
+
+	@Override
+	public void schedule(Runnable task, long delay, TimeUnit unit) {
+		if (shuttingDown) {
+			rejectedCounter.increment();
+			throw new RejectedExecutionException("Response dispatcher is shutting down");
+		}
+		try {
+			if (!capacity.tryAcquire(offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				rejectedCounter.increment();
+				throw new RejectedExecutionException(
+						"Response dispatcher at capacity of " + maxPending + " pending responses");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			rejectedCounter.increment();
+			throw new RejectedExecutionException("Interrupted while waiting for dispatcher capacity", e);
+		}
+
+		long delayNanos = Math.max(0, unit.toNanos(delay));
+		long dueAt = System.nanoTime() + delayNanos;
+		Runnable dispatch = () -> dispatch(task, dueAt);
+		try {
+			if (delayNanos == 0)
+				dispatch.run();
+			else
+				scheduler.schedule(dispatch, delayNanos, TimeUnit.NANOSECONDS);
+			scheduledCounter.increment();
+		} catch (RejectedExecutionException e) {
+			capacity.release();
+			rejectedCounter.increment();
+			throw e;
+		}
+	}
+
+	/**
+	 * Hands a due response to the workers.
+	 *
+	 * @param task  The task sending the response.
+	 * @param dueAt The {@link System#nanoTime()} at which the response fell due.
+	 */
+	private void dispatch(Runnable task, long dueAt) {
+		workers.execute(() -> {
+			long lag = Math.max(0, System.nanoTime() - dueAt);
+			lagTimer.record(lag, TimeUnit.NANOSECONDS);
+			if (lag > overdueThresholdNanos)
+				overdueCounter.increment();
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				logger.error("Error while dispatching response", e);
+			} finally {
+				sentCounter.increment();
+				capacity.release();
+			}
+		});
+	}
+
+	@Override
+	public int getPending() {
+		return maxPending - capacity.availablePermits();
+	}
+
+	/**
+	 * Stops accepting responses, sends the ones still waiting for their delay
+	 * immediately and waits for the workers to finish. The listener calls this
+	 * before closing its producers, so the call made on destruction finds nothing
+	 * left to do.
+	 */
+	@Override
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (shuttingDown)
+			return;
+		shuttingDown = true;
+		List<Runnable> waiting = scheduler.shutdownNow();
+		logger.info("Dispatching {} delayed responses early for shutdown", waiting.size());
+		for (Runnable r : waiting) {
+			r.run();
+		}
+		workers.shutdown();
+		try {
+			if (!workers.awaitTermination(shutdownTimeoutSeconds, TimeUnit.SECONDS))
+				logger.warn("Response dispatcher stopped with {} responses not sent", getPending());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
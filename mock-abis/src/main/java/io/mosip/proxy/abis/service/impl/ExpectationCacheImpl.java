@@ -1,9 +1,14 @@
 package io.mosip.proxy.abis.service.impl;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import io.mosip.proxy.abis.dto.Expectation;
@@ -18,6 +23,14 @@ import io.mosip.proxy.abis.service.ExpectationCache;
  * unique identifiers.
  * </p>
  * <p>
+ * Besides the map of every expectation, the insert and identify expectations
+ * are kept in a map per action, so the check of each biometric of a request is
+ * a single lookup in the map of its action. Optionally a Bloom filter over the
+ * identifiers answers most misses before any map is consulted. Changes are
+ * serialized, while lookups read the current maps without locking; a restore
+ * builds new maps and switches to them at once.
+ * </p>
+ * <p>
  * Use this implementation to handle caching and retrieval of
  * {@link Expectation} objects, facilitating efficient management of
  * expectations in ABIS (Automated Biometric Identification System) or similar
@@ -28,8 +41,40 @@ import io.mosip.proxy.abis.service.ExpectationCache;
  */
 @Component
 public class ExpectationCacheImpl implements ExpectationCache {
-	/** Map to store expectations, keyed by their unique identifier. */
-	private Map<String, Expectation> expectationMap = new ConcurrentHashMap<>();
+	/** The expectations and their indexes; replaced as a whole by a restore. */
+	private volatile Store store;
+
+	/** Bumped on every change to the expectation set. */
+	private final AtomicLong version = new AtomicLong();
+
+	private final boolean bloomEnabled;
+	private final int bloomBits;
+	private final int bloomHashes;
+
+	/**
+	 * Constructs a cache without a Bloom filter.
+	 */
+	public ExpectationCacheImpl() {
+		this(false, 0, 0);
+	}
+
+	/**
+	 * Constructs a cache, optionally checking lookups against a Bloom filter
+	 * first.
+	 *
+	 * @param bloomEnabled whether lookups are checked against a Bloom filter
+	 * @param bloomBits    the number of bits of the Bloom filter
+	 * @param bloomHashes  the number of bits set per expectation
+	 */
+	@Autowired
+	public ExpectationCacheImpl(@Value("${abis.expectation.bloom.enabled:false}") boolean bloomEnabled,
+			@Value("${abis.expectation.bloom.bits:1048576}") int bloomBits,
+			@Value("${abis.expectation.bloom.hashes:3}") int bloomHashes) {
+		this.bloomEnabled = bloomEnabled;
+		this.bloomBits = Math.max(64, bloomBits);
+		this.bloomHashes = Math.max(1, bloomHashes);
+		this.store = newStore();
+	}
 
 	/**
 	 * Deletes the expectation associated with the given identifier.
@@ -37,18 +82,17 @@ public class ExpectationCacheImpl implements ExpectationCache {
 	 * @param id The unique identifier of the expectation to delete.
 	 * @return {@code true} if an expectation was removed, {@code false} otherwise.
 	 */
-	public boolean delete(String id) {
-		return expectationMap.remove(id) != null;
+	public synchronized boolean delete(String id) {
+		version.incrementAndGet();
+		return store.remove(id) != null;
 	}
 
 	/**
 	 * Clears all expectations from the cache.
 	 */
-	public void deleteAll() {
-		if (!Objects.isNull(expectationMap))
-			expectationMap.clear();
-		else
-			expectationMap = new ConcurrentHashMap<>();
+	public synchronized void deleteAll() {
+		version.incrementAndGet();
+		store = newStore();
 	}
 
 	/**
@@ -56,8 +100,9 @@ public class ExpectationCacheImpl implements ExpectationCache {
 	 * 
 	 * @param expectation The expectation to insert or update.
 	 */
-	public void insert(Expectation expectation) {
-		expectationMap.put(expectation.getId(), expectation);
+	public synchronized void insert(Expectation expectation) {
+		store.put(expectation);
+		version.incrementAndGet();
 	}
 
 	/**
@@ -69,7 +114,24 @@ public class ExpectationCacheImpl implements ExpectationCache {
 	 *         default object if not found.
 	 */
 	public Expectation get(String id) {
-		return expectationMap.getOrDefault(id, new Expectation());
+		Expectation expectation = store.all.get(id);
+		return expectation != null ? expectation : new Expectation();
+	}
+
+	/**
+	 * Looks up the expectation for a biometric hash in the index of the given
+	 * action.
+	 * 
+	 * @param id     The biometric hash the expectation is set for.
+	 * @param action The action interfered with.
+	 * @return The matching expectation, or {@code null} if there is none.
+	 */
+	public Expectation find(String id, String action) {
+		Store current = store;
+		if (current.bloom != null && !current.bloom.mightContain(id))
+			return null;
+		Map<String, Expectation> index = current.indexOf(action);
+		return index != null ? index.get(id) : null;
 	}
 
 	/**
@@ -79,6 +141,138 @@ public class ExpectationCacheImpl implements ExpectationCache {
 	 *         identifiers.
 	 */
 	public Map<String, Expectation> get() {
-		return expectationMap;
+		return store.all;
+	}
+
+	/**
+	 * Returns a copy of every expectation.
+	 * 
+	 * @return The expectations currently set.
+	 */
+	public List<Expectation> snapshot() {
+		return new ArrayList<>(store.all.values());
+	}
+
+	/**
+	 * Replaces every expectation with the given ones. The new maps are built
+	 * before the switch, so lookups are not held up while a large set loads.
+	 * 
+	 * @param expectations The expectations to set.
+	 * @throws IllegalArgumentException if an expectation has no identifier
+	 */
+	public void restore(List<Expectation> expectations) {
+		Store restored = newStore();
+		for (Expectation expectation : expectations) {
+			if (expectation.getId() == null || expectation.getId().isEmpty())
+				throw new IllegalArgumentException("Expectation without id");
+			restored.put(expectation);
+		}
+		synchronized (this) {
+			store = restored;
+			version.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns the version of the expectation set.
+	 * 
+	 * @return A counter incremented by every insert and delete.
+	 */
+	public long getVersion() {
+		return version.get();
+	}
+
+	private Store newStore() {
+		return new Store(bloomEnabled ? new BloomFilter(bloomBits, bloomHashes) : null);
+	}
+
+	/**
+	 * The expectations, indexed by action, with the optional Bloom filter over
+	 * their identifiers.
+	 */
+	private static final class Store {
+		private final Map<String, Expectation> all = new ConcurrentHashMap<>();
+		private final Map<String, Expectation> insert = new ConcurrentHashMap<>();
+		private final Map<String, Expectation> identify = new ConcurrentHashMap<>();
+		private final BloomFilter bloom;
+
+		private Store(BloomFilter bloom) {
+			this.bloom = bloom;
+		}
+
+		private Map<String, Expectation> indexOf(String action) {
+			if (INSERT.equals(action))
+				return insert;
+			if (IDENTIFY.equals(action))
+				return identify;
+			return null;
+		}
+
+		private void put(Expectation expectation) {
+			Expectation previous = all.put(expectation.getId(), expectation);
+			if (previous != null)
+				unindex(previous);
+			Map<String, Expectation> index = indexOf(expectation.getActionToInterfere());
+			if (index != null)
+				index.put(expectation.getId(), expectation);
+			// bits of removed expectations stay set and only cost a map lookup
+			if (bloom != null)
+				bloom.add(expectation.getId());
+		}
+
+		private Expectation remove(String id) {
+			Expectation previous = all.remove(id);
+			if (previous != null)
+				unindex(previous);
+			return previous;
+		}
+
+		private void unindex(Expectation expectation) {
+			Map<String, Expectation> index = indexOf(expectation.getActionToInterfere());
+			if (index != null)
+				index.remove(expectation.getId(), expectation);
+		}
+	}
+
+	/**
+	 * A Bloom filter over strings, deriving its bit positions from the string
+	 * hash code so a lookup neither allocates nor hashes the string twice.
+	 */
+	private static final class BloomFilter {
+		private final AtomicLongArray words;
+		private final int bits;
+		private final int hashes;
+
+		private BloomFilter(int bits, int hashes) {
+			this.words = new AtomicLongArray((bits + 63) / 64);
+			this.bits = this.words.length() * 64;
+			this.hashes = hashes;
+		}
+
+		private void add(String value) {
+			int h1 = value.hashCode();
+			int h2 = spread(h1);
+			for (int i = 0; i < hashes; i++) {
+				int bit = Math.floorMod(h1 + i * h2, bits);
+				// writers are serialized by the cache, so only lookups run alongside
+				words.set(bit >>> 6, words.get(bit >>> 6) | (1L << bit));
+			}
+		}
+
+		private boolean mightContain(String value) {
+			int h1 = value.hashCode();
+			int h2 = spread(h1);
+			for (int i = 0; i < hashes; i++) {
+				int bit = Math.floorMod(h1 + i * h2, bits);
+				if ((words.get(bit >>> 6) & (1L << bit)) == 0)
+					return false;
+			}
+			return true;
+		}
+
+		private static int spread(int hash) {
+			int h = hash * 0x9E3779B9;
+			return (h ^ (h >>> 16)) | 1;
+		}
 	}
-}
\ No newline at end of file
+}
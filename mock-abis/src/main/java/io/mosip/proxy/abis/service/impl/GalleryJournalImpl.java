@@ -0,0 +1,555 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.proxy.abis.dao.ProxyAbisInsertRepository;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.entity.InsertEntity;
+import io.mosip.proxy.abis.service.BioDigestStorage;
+import io.mosip.proxy.abis.service.GalleryBulkLoader;
+import io.mosip.proxy.abis.service.GalleryJournal;
+import io.mosip.proxy.abis.utility.BdbSignature;
+import io.mosip.proxy.abis.utility.BioDigest;
+import io.mosip.proxy.abis.utility.RecordLog;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * {@link GalleryJournal} kept as binary files in {@code abis.journal.dir}.
+ * <p>
+ * {@code gallery.log} holds one {@link RecordLog} record per insert, delete or
+ * clear. An insert record carries the reference ID and the type, subtype and
+ * digest of each biometric, with digests stored as 32 raw bytes, followed by
+ * its {@link BdbSignature} when it has one; the other insert request fields
+ * are not journaled. Once the log reaches
+ * {@code abis.journal.compact.threshold.bytes} it is renamed to
+ * {@code gallery.log.compacting}, a new log is started, and a background
+ * thread merges the old snapshot with the renamed log into a new
+ * {@code gallery.snapshot} holding one insert record per live reference ID.
+ * </p>
+ * <p>
+ * Restoring and compacting both read the logs into memory first and then
+ * stream the snapshot through a memory-mapped reader, skipping the reference
+ * IDs the logs changed, so memory use is bounded by the log size rather than
+ * the gallery size. Restored rows are written through the
+ * {@link GalleryBulkLoader} in batches of {@code abis.journal.restore.batch.size}.
+ * A crash at any point leaves files that restore the same gallery: a torn log
+ * tail is truncated, and a compaction that did not finish is redone.
+ * </p>
+ * <p>
+ * Records are handed to the operating system as each request commits; with
+ * {@code abis.journal.sync} they are also forced to the storage device, so they
+ * survive a power failure at the cost of one sync per request.
+ * </p>
+ * <p>
+ * The following meters are published:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.journal.appended}: records appended, tagged
+ * {@code operation}.</li>
+ * <li>{@code mock.abis.journal.failed}: records that could not be
+ * appended.</li>
+ * <li>{@code mock.abis.journal.log.size}: current size of the log in
+ * bytes.</li>
+ * <li>{@code mock.abis.journal.compaction}: time taken to write a
+ * snapshot.</li>
+ * </ul>
+ */
+@Component
+public class GalleryJournalImpl implements GalleryJournal {
+	private static final Logger logger = LoggerFactory.getLogger(GalleryJournalImpl.class);
+
+	static final String LOG = "gallery.log";
+	static final String COMPACTING = "gallery.log.compacting";
+	static final String SNAPSHOT = "gallery.snapshot";
+	private static final String SNAPSHOT_TMP = "gallery.snapshot.tmp";
+
+	private static final byte INSERT = 1;
+	private static final byte DELETE = 2;
+	private static final byte CLEAR = 3;
+
+	private static final byte DIGEST = 0;
+	private static final byte TEXT = 1;
+	private static final byte SIGNED_DIGEST = 2;
+
+	private final ProxyAbisInsertRepository proxyabis;
+	private final GalleryBulkLoader bulkLoader;
+	private final BioDigestStorage bioDigestStorage;
+	private final MeterRegistry meterRegistry;
+	private final boolean enabled;
+	private final Path directory;
+	private final boolean sync;
+	private final long compactThresholdBytes;
+	private final int restoreBatchSize;
+
+	private final Object lock = new Object();
+	private final AtomicBoolean compacting = new AtomicBoolean();
+	private final AtomicLong logSize = new AtomicLong();
+	private final ExecutorService compactor;
+	private RecordLog.Writer writer;
+
+	private final Counter insertsAppended;
+	private final Counter deletesAppended;
+	private final Counter clearsAppended;
+	private final Counter failedCounter;
+
+	/**
+	 * Creates the journal from configuration.
+	 *
+	 * @param proxyabis             The insert request repository, checked for
+	 *                              existing rows before restoring.
+	 * @param bulkLoader            Writes restored rows to the database.
+	 * @param bioDigestStorage      The digest storage mode of restored rows.
+	 * @param meterRegistry         The registry to publish meters to; the global
+	 *                              registry is used when none is configured.
+	 * @param enabled               Whether the journal is kept.
+	 * @param directory             The directory holding the journal files.
+	 * @param sync                  Whether every record is forced to the storage
+	 *                              device.
+	 * @param compactThresholdBytes The log size that triggers a compaction.
+	 * @param restoreBatchSize      The number of reference IDs loaded per
+	 *                              transaction on restore.
+	 */
+	@Autowired
+	public GalleryJournalImpl(ProxyAbisInsertRepository proxyabis, GalleryBulkLoader bulkLoader,
+			BioDigestStorage bioDigestStorage, ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${abis.journal.enabled:false}") boolean enabled,
+			@Value("${abis.journal.dir:journal}") String directory,
+			@Value("${abis.journal.sync:false}") boolean sync,
+			@Value("${abis.journal.compact.threshold.bytes:67108864}") long compactThresholdBytes,
+			@Value("${abis.journal.restore.batch.size:1000}") int restoreBatchSize) {
+		this(proxyabis, bulkLoader, bioDigestStorage, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+				enabled, Paths.get(directory), sync, compactThresholdBytes, restoreBatchSize);
+	}
+
+	/**
+	 * Creates the journal with explicit settings.
+	 *
+	 * @param proxyabis             The insert request repository, checked for
+	 *                              existing rows before restoring.
+	 * @param bulkLoader            Writes restored rows to the database.
+	 * @param bioDigestStorage      The digest storage mode of restored rows.
+	 * @param meterRegistry         The registry to publish meters to.
+	 * @param enabled               Whether the journal is kept.
+	 * @param directory             The directory holding the journal files.
+	 * @param sync                  Whether every record is forced to the storage
+	 *                              device.
+	 * @param compactThresholdBytes The log size that triggers a compaction.
+	 * @param restoreBatchSize      The number of reference IDs loaded per
+	 *                              transaction on restore.
+	 */
+	public GalleryJournalImpl(ProxyAbisInsertRepository proxyabis, GalleryBulkLoader bulkLoader,
+			BioDigestStorage bioDigestStorage, MeterRegistry meterRegistry, boolean enabled, Path directory,
+			boolean sync, long compactThresholdBytes, int restoreBatchSize) {
+		this.proxyabis = proxyabis;
+		this.bulkLoader = bulkLoader;
+		this.bioDigestStorage = bioDigestStorage;
+		this.meterRegistry = meterRegistry;
+		this.enabled = enabled;
+		this.directory = directory;
+		this.sync = sync;
+		this.compactThresholdBytes = Math.max(1, compactThresholdBytes);
+		this.restoreBatchSize = Math.max(1, restoreBatchSize);
+		this.compactor = enabled
+				? Executors.newSingleThreadExecutor(Thread.ofPlatform().daemon(true).name("abis-journal-compactor").factory())
+				: null;
+
+		this.insertsAppended = appendedCounter("insert");
+		this.deletesAppended = appendedCounter("delete");
+		this.clearsAppended = appendedCounter("clear");
+		this.failedCounter = Counter.builder("mock.abis.journal.failed")
+				.description("Gallery journal records that could not be appended").register(meterRegistry);
+		Gauge.builder("mock.abis.journal.log.size", logSize, AtomicLong::get).baseUnit("bytes")
+				.description("Size of the gallery journal log").register(meterRegistry);
+	}
+
+	private Counter appendedCounter(String operation) {
+		return Counter.builder("mock.abis.journal.appended").tag("operation", operation)
+				.description("Gallery journal records appended").register(meterRegistry);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Restores the gallery once the application context is ready. Runs after
+	 * stored digests are converted and before the index is rebuilt, so the index
+	 * loads the restored gallery.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+	public void onApplicationReady() {
+		restore();
+	}
+
+	@Override
+	public void recordInsert(InsertEntity insertEntity) {
+		if (!enabled)
+			return;
+		try {
+			append(encodeInsert(insertEntity), insertsAppended);
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	@Override
+	public void recordDelete(String referenceId) {
+		if (!enabled)
+			return;
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeByte(DELETE);
+			out.writeUTF(referenceId);
+			append(bytes.toByteArray(), deletesAppended);
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	@Override
+	public void recordClear() {
+		if (!enabled)
+			return;
+		try {
+			append(new byte[] { CLEAR }, clearsAppended);
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	@Override
+	public long restore() {
+		if (!enabled)
+			return 0;
+		long start = System.currentTimeMillis();
+		long restored = 0;
+		synchronized (lock) {
+			try {
+				Files.createDirectories(directory);
+				if (proxyabis.count() > 0) {
+					logger.info("Database already holds insert requests, gallery journal not restored");
+				} else {
+					List<InsertEntity> batch = new ArrayList<>(restoreBatchSize);
+					restored = replay(List.of(COMPACTING, LOG), entity -> {
+						entity.getBiometricList().forEach(bioDigestStorage::prepare);
+						batch.add(entity);
+						if (batch.size() >= restoreBatchSize) {
+							bulkLoader.load(batch);
+							batch.clear();
+						}
+					});
+					if (!batch.isEmpty())
+						bulkLoader.load(batch);
+					logger.info("Restored {} reference IDs from the gallery journal in {} ms", restored,
+							System.currentTimeMillis() - start);
+				}
+				if (writer == null)
+					writer = openLog();
+			} catch (IOException e) {
+				throw new UncheckedIOException("Restoring the gallery journal failed", e);
+			}
+		}
+		if (Files.exists(directory.resolve(COMPACTING)))
+			scheduleCompaction();
+		return restored;
+	}
+
+	@Override
+	public void compact() {
+		if (!enabled || !compacting.compareAndSet(false, true))
+			return;
+		Path compactingLog = directory.resolve(COMPACTING);
+		Path snapshot = directory.resolve(SNAPSHOT);
+		Path tmp = directory.resolve(SNAPSHOT_TMP);
+		try {
+			synchronized (lock) {
+				// a compaction that did not finish is redone before the log is rotated again
+				if (!Files.exists(compactingLog)) {
+					Path log = directory.resolve(LOG);
+					if (!Files.exists(log))
+						return;
+					closeLog();
+					Files.move(log, compactingLog, StandardCopyOption.ATOMIC_MOVE);
+				}
+			}
+			Timer.Sample sample = Timer.start(meterRegistry);
+			Files.deleteIfExists(tmp);
+			long live;
+			try (RecordLog.Writer out = new RecordLog.Writer(tmp)) {
+				live = replay(List.of(COMPACTING), entity -> out.append(encodeInsert(entity), false));
+				out.sync();
+			}
+			Files.move(tmp, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			Files.delete(compactingLog);
+			long nanos = sample.stop(Timer.builder("mock.abis.journal.compaction")
+					.description("Time taken to write a gallery journal snapshot").register(meterRegistry));
+			logger.info("Compacted the gallery journal into a snapshot of {} reference IDs in {} ms", live,
+					nanos / 1_000_000);
+		} catch (IOException e) {
+			logger.error("Compacting the gallery journal failed", e);
+		} finally {
+			compacting.set(false);
+		}
+	}
+
+	/**
+	 * Appends a record, starting a compaction when the log has grown past the
+	 * threshold.
+	 */
+	private void append(byte[] record, Counter counter) throws IOException {
+		boolean full;
+		synchronized (lock) {
+			if (writer == null)
+				writer = openLog();
+			writer.append(record, sync);
+			logSize.set(writer.size());
+			full = writer.size() >= compactThresholdBytes;
+		}
+		counter.increment();
+		if (full && !compacting.get())
+			scheduleCompaction();
+	}
+
+	private void scheduleCompaction() {
+		try {
+			compactor.execute(this::compact);
+		} catch (RejectedExecutionException e) {
+			// shutting down; the log is compacted after the next restart
+		}
+	}
+
+	private void fail(IOException e) {
+		logger.error("Appending to the gallery journal failed", e);
+		failedCounter.increment();
+	}
+
+	/**
+	 * Opens the log for appending, first truncating a record torn by a crash.
+	 */
+	private RecordLog.Writer openLog() throws IOException {
+		Files.createDirectories(directory);
+		Path log = directory.resolve(LOG);
+		if (Files.exists(log)) {
+			long valid;
+			try (RecordLog.Reader reader = new RecordLog.Reader(log)) {
+				while (reader.next() != null) {
+					// only the length of the valid records is needed
+				}
+				valid = reader.validLength();
+			}
+			if (valid < Files.size(log)) {
+				logger.warn("Truncating torn gallery journal record at byte {}", valid);
+				try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+					channel.truncate(valid);
+				}
+			}
+		}
+		RecordLog.Writer opened = new RecordLog.Writer(log);
+		logSize.set(opened.size());
+		return opened;
+	}
+
+	private void closeLog() throws IOException {
+		if (writer != null) {
+			writer.sync();
+			writer.close();
+			writer = null;
+		}
+		logSize.set(0);
+	}
+
+	/**
+	 * Replays the snapshot and the given logs, passing every live reference ID
+	 * to the sink once. The logs are read into memory first; the snapshot is
+	 * streamed and its reference IDs changed by the logs are skipped.
+	 *
+	 * @param logs the logs to apply, oldest first
+	 * @param sink receives the live reference IDs
+	 * @return the number of reference IDs passed to the sink
+	 */
+	private long replay(List<String> logs, InsertSink sink) throws IOException {
+		Map<String, InsertEntity> changed = new HashMap<>();
+		boolean cleared = false;
+		for (String name : logs) {
+			Path log = directory.resolve(name);
+			if (!Files.exists(log))
+				continue;
+			try (RecordLog.Reader reader = new RecordLog.Reader(log)) {
+				byte[] record;
+				while ((record = reader.next()) != null) {
+					DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+					byte operation = in.readByte();
+					if (operation == INSERT) {
+						InsertEntity entity = decodeInsert(in);
+						changed.put(entity.getReferenceId(), entity);
+					} else if (operation == DELETE) {
+						// kept as a tombstone so the snapshot entry is skipped
+						changed.put(in.readUTF(), null);
+					} else if (operation == CLEAR) {
+						changed.clear();
+						cleared = true;
+					} else {
+						throw new IOException("Unknown gallery journal record " + operation + " in " + name);
+					}
+				}
+			}
+		}
+
+		long count = 0;
+		Path snapshot = directory.resolve(SNAPSHOT);
+		if (!cleared && Files.exists(snapshot)) {
+			try (RecordLog.Reader reader = new RecordLog.Reader(snapshot)) {
+				byte[] record;
+				while ((record = reader.next()) != null) {
+					DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+					in.readByte();
+					InsertEntity entity = decodeInsert(in);
+					if (!changed.containsKey(entity.getReferenceId())) {
+						sink.accept(entity);
+						count++;
+					}
+				}
+			}
+		}
+		for (InsertEntity entity : changed.values()) {
+			if (entity != null) {
+				sink.accept(entity);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private static byte[] encodeInsert(InsertEntity entity) throws IOException {
+		List<BiometricData> biometrics = Objects.requireNonNullElse(entity.getBiometricList(), List.of());
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 48 * biometrics.size());
+		DataOutputStream out = new DataOutputStream(bytes);
+		out.writeByte(INSERT);
+		out.writeUTF(entity.getReferenceId());
+		out.writeInt(biometrics.size());
+		for (BiometricData bd : biometrics) {
+			writeNullable(out, bd.getType());
+			writeNullable(out, bd.getSubtype());
+			byte[] digest = bd.getBioDigest();
+			if (digest == null || digest.length != BioDigest.LENGTH) {
+				BioDigest parsed = BioDigest.fromHex(bd.getBioData());
+				digest = parsed != null ? parsed.toBytes() : null;
+			}
+			byte[] signature = bd.getBioSignature();
+			if (digest != null && signature != null && signature.length == BdbSignature.LENGTH) {
+				out.writeByte(SIGNED_DIGEST);
+				out.write(digest);
+				out.write(signature);
+			} else if (digest != null) {
+				out.writeByte(DIGEST);
+				out.write(digest);
+			} else {
+				out.writeByte(TEXT);
+				writeNullable(out, bd.getBioData());
+			}
+		}
+		return bytes.toByteArray();
+	}
+
+	private static InsertEntity decodeInsert(DataInputStream in) throws IOException {
+		InsertEntity entity = new InsertEntity();
+		entity.setReferenceId(in.readUTF());
+		int size = in.readInt();
+		List<BiometricData> biometrics = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			String type = readNullable(in);
+			String subtype = readNullable(in);
+			BiometricData bd = new BiometricData(null, type, subtype, null, entity);
+			byte format = in.readByte();
+			if (format == DIGEST || format == SIGNED_DIGEST) {
+				byte[] digest = new byte[BioDigest.LENGTH];
+				in.readFully(digest);
+				bd.setBioDigest(digest);
+				if (format == SIGNED_DIGEST) {
+					byte[] signature = new byte[BdbSignature.LENGTH];
+					in.readFully(signature);
+					bd.setBioSignature(signature);
+				}
+			} else {
+				bd.setBioData(readNullable(in));
+			}
+			biometrics.add(bd);
+		}
+		entity.setBiometricList(biometrics);
+		return entity;
+	}
+
+	private static void writeNullable(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null)
+			out.writeUTF(value);
+	}
+
+	private static String readNullable(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	/**
+	 * Stops compacting and closes the log.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		if (compactor != null)
+			compactor.shutdownNow();
+		synchronized (lock) {
+			try {
+				closeLog();
+			} catch (IOException e) {
+				logger.warn("Closing the gallery journal failed", e);
+			}
+		}
+	}
+
+	/**
+	 * Receives the live reference IDs of a replay.
+	 */
+	@FunctionalInterface
+	private interface InsertSink {
+		void accept(InsertEntity entity) throws IOException;
+	}
+}
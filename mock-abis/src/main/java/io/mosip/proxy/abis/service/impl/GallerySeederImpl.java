@@ -0,0 +1,250 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.mosip.proxy.abis.dto.SeedRequest;
+import io.mosip.proxy.abis.dto.SeedResult;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.entity.InsertEntity;
+import io.mosip.proxy.abis.service.BioDigestStorage;
+import io.mosip.proxy.abis.service.BiometricIndex;
+import io.mosip.proxy.abis.service.BiometricMatcher;
+import io.mosip.proxy.abis.service.ClusterRouter;
+import io.mosip.proxy.abis.service.GalleryBulkLoader;
+import io.mosip.proxy.abis.service.GalleryJournal;
+import io.mosip.proxy.abis.service.GalleryReplicator;
+import io.mosip.proxy.abis.service.GallerySeeder;
+import io.mosip.proxy.abis.service.IdentifyResultCache;
+import io.mosip.proxy.abis.utility.BioDigest;
+
+/**
+ * {@link GallerySeeder} writing {@code abis.seed.batch.size} reference IDs per
+ * transaction.
+ * <p>
+ * Generated biometrics use the types and subtypes a CBEFF insert would store,
+ * ten fingers, two irises and one face per reference ID. Seeded reference IDs
+ * are journaled like inserted ones, and the in-memory index is rebuilt and the
+ * identify cache cleared once seeding ends. In cluster mode only the reference
+ * IDs owned by this node are written, so seeding every node with the same
+ * request builds one partitioned gallery. In replication mode seeded reference
+ * IDs are added to the index and published batch by batch instead, as a
+ * rebuild would drop those of the other nodes.
+ * </p>
+ * <p>
+ * Batches are committed as they fill; if one fails, for instance because a
+ * reference ID already exists, the batches before it stay written.
+ * </p>
+ */
+@Service
+public class GallerySeederImpl implements GallerySeeder {
+	private static final Logger logger = LoggerFactory.getLogger(GallerySeederImpl.class);
+
+	private static final Map<String, List<String>> SUBTYPES = Map.of("Finger",
+			List.of("[Left, Thumb]", "[Left, IndexFinger]", "[Left, MiddleFinger]", "[Left, RingFinger]",
+					"[Left, LittleFinger]", "[Right, Thumb]", "[Right, IndexFinger]", "[Right, MiddleFinger]",
+					"[Right, RingFinger]", "[Right, LittleFinger]"),
+			"Iris", List.of("[Left]", "[Right]"), "Face", Collections.singletonList(null));
+
+	/** Number of recently generated reference IDs a duplicate is copied from. */
+	private static final int RECENT = 1024;
+
+	private final GalleryBulkLoader bulkLoader;
+	private final BioDigestStorage bioDigestStorage;
+	private final BiometricIndex biometricIndex;
+	private final BiometricMatcher biometricMatcher;
+	private final IdentifyResultCache identifyResultCache;
+	private final GalleryJournal galleryJournal;
+	private final ClusterRouter clusterRouter;
+	private final GalleryReplicator galleryReplicator;
+	private final int batchSize;
+
+	/**
+	 * Creates the seeder.
+	 *
+	 * @param bulkLoader          Writes the seeded rows.
+	 * @param bioDigestStorage    The digest storage mode of seeded rows.
+	 * @param biometricIndex      The in-memory index, rebuilt after seeding.
+	 * @param biometricMatcher    The approximate matcher, rebuilt after seeding.
+	 * @param identifyResultCache The cache of identify results, cleared after
+	 *                            seeding.
+	 * @param galleryJournal      The durable record of the gallery.
+	 * @param clusterRouter       Decides which reference IDs this node owns.
+	 * @param galleryReplicator   Replicates seeded reference IDs to the other
+	 *                            nodes.
+	 * @param batchSize           The number of reference IDs written per
+	 *                            transaction.
+	 */
+	@Autowired
+	public GallerySeederImpl(GalleryBulkLoader bulkLoader, BioDigestStorage bioDigestStorage,
+			BiometricIndex biometricIndex, BiometricMatcher biometricMatcher, IdentifyResultCache identifyResultCache,
+			GalleryJournal galleryJournal, ClusterRouter clusterRouter, GalleryReplicator galleryReplicator,
+			@Value("${abis.seed.batch.size:5000}") int batchSize) {
+		this.bulkLoader = bulkLoader;
+		this.bioDigestStorage = bioDigestStorage;
+		this.biometricIndex = biometricIndex;
+		this.biometricMatcher = biometricMatcher;
+		this.identifyResultCache = identifyResultCache;
+		this.galleryJournal = galleryJournal;
+		this.clusterRouter = clusterRouter;
+		this.galleryReplicator = galleryReplicator;
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+	@Override
+	public SeedResult generate(SeedRequest request) {
+		if (request.getCount() <= 0)
+			throw new IllegalArgumentException("count must be positive");
+		if (request.getDuplicateRate() < 0 || request.getDuplicateRate() > 1)
+			throw new IllegalArgumentException("duplicateRate must be between 0 and 1");
+		if (Objects.isNull(request.getModalities()) || request.getModalities().isEmpty()
+				|| !SUBTYPES.keySet().containsAll(request.getModalities()))
+			throw new IllegalArgumentException("modalities must be some of " + SUBTYPES.keySet());
+
+		SplittableRandom random = new SplittableRandom(request.getRandomSeed());
+		String prefix = Objects.toString(request.getReferenceIdPrefix(), "");
+		List<byte[][]> recent = new ArrayList<>(RECENT);
+		Batch batch = new Batch();
+		for (long i = 0; i < request.getCount(); i++) {
+			String referenceId = prefix + (request.getStartIndex() + i);
+			// drawn for every reference ID, owned or not, so all cluster nodes generate the same gallery
+			byte[][] source = !recent.isEmpty() && random.nextDouble() < request.getDuplicateRate()
+					? recent.get(random.nextInt(recent.size()))
+					: null;
+			InsertEntity entity = batch.newEntity(referenceId);
+			List<byte[]> digests = new ArrayList<>();
+			for (String modality : request.getModalities()) {
+				for (String subtype : SUBTYPES.get(modality)) {
+					byte[] digest = new byte[BioDigest.LENGTH];
+					if (source != null)
+						System.arraycopy(source[digests.size()], 0, digest, 0, BioDigest.LENGTH);
+					else
+						random.nextBytes(digest);
+					digests.add(digest);
+					entity.getBiometricList().add(biometric(entity, modality, subtype, digest.clone()));
+				}
+			}
+			byte[][] template = digests.toArray(new byte[0][]);
+			if (recent.size() < RECENT)
+				recent.add(template);
+			else
+				recent.set((int) (i % RECENT), template);
+			batch.add(entity);
+		}
+		return batch.finish();
+	}
+
+	@Override
+	public SeedResult importCsv(InputStream csv) throws IOException {
+		Batch batch = new Batch();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+		InsertEntity current = null;
+		String line;
+		int lineNumber = 0;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.isBlank() || (lineNumber == 1 && line.startsWith("referenceId")))
+				continue;
+			// the subtype may itself hold commas, such as [Left, Thumb]
+			int first = line.indexOf(',');
+			int second = line.indexOf(',', first + 1);
+			int last = line.lastIndexOf(',');
+			if (first <= 0 || second < 0 || last <= second)
+				throw new IllegalArgumentException("Malformed seed line " + lineNumber);
+			String referenceId = line.substring(0, first).trim();
+			String subtype = line.substring(second + 1, last).trim();
+			BioDigest digest = BioDigest.fromHex(line.substring(last + 1).trim());
+			if (digest == null)
+				throw new IllegalArgumentException("Malformed digest on seed line " + lineNumber);
+			if (current == null || !current.getReferenceId().equals(referenceId)) {
+				if (current != null)
+					batch.add(current);
+				current = batch.newEntity(referenceId);
+			}
+			current.getBiometricList().add(biometric(current, line.substring(first + 1, second).trim(),
+					subtype.isEmpty() ? null : subtype, digest.toBytes()));
+		}
+		if (current != null)
+			batch.add(current);
+		return batch.finish();
+	}
+
+	private static BiometricData biometric(InsertEntity entity, String type, String subtype, byte[] digest) {
+		BiometricData bd = new BiometricData(null, type, subtype, null, entity);
+		bd.setBioDigest(digest);
+		return bd;
+	}
+
+	/**
+	 * Collects seeded reference IDs and writes them a batch at a time.
+	 */
+	private final class Batch {
+		private final long start = System.nanoTime();
+		private final LocalDateTime requesttime = LocalDateTime.now();
+		private final List<InsertEntity> entities = new ArrayList<>(batchSize);
+		private long referenceIds;
+		private long biometrics;
+
+		InsertEntity newEntity(String referenceId) {
+			InsertEntity entity = new InsertEntity("mosip.abis.insert", "1.1", null, requesttime, referenceId);
+			entity.setBiometricList(new ArrayList<>());
+			return entity;
+		}
+
+		void add(InsertEntity entity) {
+			if (clusterRouter.isEnabled() && !clusterRouter.isLocal(entity.getReferenceId()))
+				return;
+			entity.getBiometricList().forEach(bioDigestStorage::prepare);
+			entities.add(entity);
+			if (entities.size() >= batchSize)
+				flush();
+		}
+
+		SeedResult finish() {
+			flush();
+			if (!galleryReplicator.isEnabled())
+				biometricIndex.rebuild();
+			biometricMatcher.rebuild();
+			identifyResultCache.clear();
+			long elapsedNanos = Math.max(1, System.nanoTime() - start);
+			long rowsPerSecond = (referenceIds + biometrics) * TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+			logger.info("Seeded {} reference IDs with {} biometrics through {} at {} rows per second", referenceIds,
+					biometrics, bulkLoader.getMethod(), rowsPerSecond);
+			return new SeedResult(referenceIds, biometrics, bulkLoader.getMethod(),
+					TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rowsPerSecond);
+		}
+
+		private void flush() {
+			if (entities.isEmpty())
+				return;
+			biometrics += bulkLoader.load(entities);
+			referenceIds += entities.size();
+			entities.forEach(galleryJournal::recordInsert);
+			if (galleryReplicator.isEnabled()) {
+				// the index also holds the reference IDs of other nodes, so it is added to rather than rebuilt
+				for (InsertEntity entity : entities) {
+					biometricIndex.add(entity.getReferenceId(), entity.getBiometricList());
+					galleryReplicator.publishInsert(entity.getReferenceId(), entity.getBiometricList());
+				}
+			}
+			entities.clear();
+		}
+	}
+}
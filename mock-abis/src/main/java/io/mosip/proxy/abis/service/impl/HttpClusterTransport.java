@@ -0,0 +1,119 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import io.mosip.proxy.abis.dto.ClusterQuery;
+import io.mosip.proxy.abis.dto.InsertRequestMO;
+import io.mosip.proxy.abis.exception.RequestException;
+import io.mosip.proxy.abis.service.ClusterPartition;
+import io.mosip.proxy.abis.service.ClusterTransport;
+
+/**
+ * {@link ClusterTransport} calling the {@code cluster/} endpoints of the other
+ * nodes over HTTP, at the URLs listed in {@code abis.cluster.nodes}, for
+ * example {@code node-1=http://localhost:8081/v1/mock-abis-service}. Connecting
+ * to a node and waiting for its answer are each bounded by
+ * {@code abis.cluster.request.timeout.ms}, so a hung node fails the call
+ * instead of holding the calling thread.
+ */
+@Component
+public class HttpClusterTransport implements ClusterTransport {
+	private static final ParameterizedTypeReference<List<ClusterPartition.Match>> MATCHES = new ParameterizedTypeReference<>() {
+	};
+
+	private final Map<String, String> nodeUrls;
+	private final RestTemplate restTemplate;
+
+	/**
+	 * Creates the transport from configuration.
+	 *
+	 * @param nodes         Every node as comma-separated {@code id=url} pairs.
+	 * @param timeoutMillis How long connecting to a node, and then reading its
+	 *                      answer, may each take.
+	 */
+	@Autowired
+	public HttpClusterTransport(@Value("${abis.cluster.nodes:}") String nodes,
+			@Value("${abis.cluster.request.timeout.ms:5000}") long timeoutMillis) {
+		this(ClusterRouterImpl.parseNodes(nodes), restTemplate(timeoutMillis));
+	}
+
+	/**
+	 * Creates the transport with explicit settings.
+	 *
+	 * @param nodeUrls     The base URL of every node by node ID.
+	 * @param restTemplate The client used to call the nodes.
+	 */
+	public HttpClusterTransport(Map<String, String> nodeUrls, RestTemplate restTemplate) {
+		this.nodeUrls = nodeUrls;
+		this.restTemplate = restTemplate;
+	}
+
+	@Override
+	public int insert(String nodeId, InsertRequestMO request) {
+		InsertOutcome outcome = restTemplate.postForObject(url(nodeId, "insert"), request, InsertOutcome.class);
+		if (outcome == null)
+			throw new IllegalStateException("Empty insert response from cluster node " + nodeId);
+		if (outcome.failureReason() != null)
+			throw new RequestException(outcome.failureReason(), outcome.delayResponse());
+		return outcome.delayResponse();
+	}
+
+	@Override
+	public void delete(String nodeId, String referenceId) {
+		restTemplate.delete(url(nodeId, "referenceId/{referenceId}"), referenceId);
+	}
+
+	@Override
+	public List<String> fetchDigests(String nodeId, String referenceId) {
+		return Arrays.asList(Objects.requireNonNull(
+				restTemplate.getForObject(url(nodeId, "digests/{referenceId}"), String[].class, referenceId)));
+	}
+
+	@Override
+	public int countPresent(String nodeId, List<String> referenceIds) {
+		return Objects.requireNonNull(restTemplate.postForObject(url(nodeId, "count"), referenceIds, Integer.class));
+	}
+
+	@Override
+	public List<ClusterPartition.Match> findDuplicates(String nodeId, List<String> digests,
+			String excludeReferenceId, List<String> galleryIds) {
+		return restTemplate.exchange(url(nodeId, "duplicates"), HttpMethod.POST,
+				new HttpEntity<>(new ClusterQuery(digests, excludeReferenceId, galleryIds)), MATCHES).getBody();
+	}
+
+	@Override
+	public List<String> findReferenceIds(String nodeId, String digest, List<String> galleryIds) {
+		return Arrays.asList(Objects.requireNonNull(restTemplate.postForObject(url(nodeId, "referenceIds"),
+				new ClusterQuery(List.of(digest), null, galleryIds), String[].class)));
+	}
+
+	/**
+	 * Creates a client whose connect and read timeouts are both the given time.
+	 */
+	static RestTemplate restTemplate(long timeoutMillis) {
+		SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+		int timeout = Math.toIntExact(timeoutMillis);
+		requestFactory.setConnectTimeout(timeout);
+		requestFactory.setReadTimeout(timeout);
+		return new RestTemplate(requestFactory);
+	}
+
+	private String url(String nodeId, String path) {
+		String base = nodeUrls.get(nodeId);
+		if (Objects.isNull(base) || base.isBlank())
+			throw new IllegalStateException("No URL configured for cluster node " + nodeId);
+		return (base.endsWith("/") ? base : base + "/") + "cluster/" + path;
+	}
+}
@@ -0,0 +1,362 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.proxy.abis.dto.IdentifyDelayResponse;
+import io.mosip.proxy.abis.dto.IdentityRequest;
+import io.mosip.proxy.abis.dto.IdentityResponse;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.service.IdentifyResultCache;
+import io.mosip.proxy.abis.utility.BioDigest;
+
+/**
+ * {@link IdentifyResultCache} holding up to {@code abis.identify.cache.max.entries}
+ * results for {@code abis.identify.cache.ttl.seconds} each, evicting the least
+ * recently used result first.
+ * <p>
+ * Every result is registered under the digests it was derived from (the probe
+ * biometrics and the digests named by an applied expectation) and under the
+ * reference IDs it depends on (the probe, the gallery and the candidates). An
+ * insert drops the results registered under any of its digests or its
+ * reference ID; a delete drops those registered under its reference ID, which
+ * covers every result listing it as a candidate without reading its digests
+ * back from the database.
+ * </p>
+ * <p>
+ * A result computed while an insert or delete was running could miss it, so
+ * {@link #put} discards results computed across any invalidation.
+ * </p>
+ * <p>
+ * The following meters are published:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.identify.cache.hits}: identifies answered from the
+ * cache.</li>
+ * <li>{@code mock.abis.identify.cache.misses}: identifies that had to be
+ * computed.</li>
+ * <li>{@code mock.abis.identify.cache.evictions}: results dropped for size or
+ * age.</li>
+ * <li>{@code mock.abis.identify.cache.invalidations}: results dropped by inserts
+ * and deletes.</li>
+ * <li>{@code mock.abis.identify.cache.size}: results currently cached.</li>
+ * </ul>
+ */
+@Component
+public class IdentifyResultCacheImpl implements IdentifyResultCache {
+
+	private final boolean enabled;
+	private final int maxEntries;
+	private final long ttlNanos;
+	private final LongSupplier ticker;
+
+	private final Object lock = new Object();
+	/** Results in access order; guarded by {@link #lock}. */
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+	/** Results per digest they depend on; guarded by {@link #lock}. */
+	private final Map<BioDigest, Set<Key>> byDigest = new HashMap<>();
+	/** Results per reference ID they depend on; guarded by {@link #lock}. */
+	private final Map<String, Set<Key>> byReferenceId = new HashMap<>();
+	private long generation;
+
+	private final Counter hitCounter;
+	private final Counter missCounter;
+	private final Counter evictionCounter;
+	private final Counter invalidationCounter;
+
+	/**
+	 * Creates the cache from configuration.
+	 *
+	 * @param meterRegistry The registry to publish meters to; the global registry
+	 *                      is used when none is configured.
+	 * @param enabled       Whether identify results are cached.
+	 * @param maxEntries    The maximum number of cached results.
+	 * @param ttlSeconds    How long a result may be served.
+	 */
+	@Autowired
+	public IdentifyResultCacheImpl(ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${abis.identify.cache.enabled:false}") boolean enabled,
+			@Value("${abis.identify.cache.max.entries:10000}") int maxEntries,
+			@Value("${abis.identify.cache.ttl.seconds:300}") long ttlSeconds) {
+		this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), enabled, maxEntries, ttlSeconds,
+				System::nanoTime);
+	}
+
+	/**
+	 * Creates the cache with explicit settings.
+	 *
+	 * @param meterRegistry The registry to publish meters to.
+	 * @param enabled       Whether identify results are cached.
+	 * @param maxEntries    The maximum number of cached results.
+	 * @param ttlSeconds    How long a result may be served.
+	 * @param ticker        The source of the current time in nanoseconds.
+	 */
+	IdentifyResultCacheImpl(MeterRegistry meterRegistry, boolean enabled, int maxEntries, long ttlSeconds,
+			LongSupplier ticker) {
+		this.enabled = enabled;
+		this.maxEntries = Math.max(1, maxEntries);
+		this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, ttlSeconds));
+		this.ticker = ticker;
+
+		this.hitCounter = Counter.builder("mock.abis.identify.cache.hits")
+				.description("Identify requests answered from the cache").register(meterRegistry);
+		this.missCounter = Counter.builder("mock.abis.identify.cache.misses")
+				.description("Identify requests not found in the cache").register(meterRegistry);
+		this.evictionCounter = Counter.builder("mock.abis.identify.cache.evictions")
+				.description("Identify results evicted for size or age").register(meterRegistry);
+		this.invalidationCounter = Counter.builder("mock.abis.identify.cache.invalidations")
+				.description("Identify results invalidated by inserts and deletes").register(meterRegistry);
+		Gauge.builder("mock.abis.identify.cache.size", this, IdentifyResultCacheImpl::size)
+				.description("Identify results currently cached").register(meterRegistry);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public Key keyOf(String referenceId, Collection<String> galleryReferenceIds, boolean findDuplicate,
+			boolean forceDuplicate, long expectationVersion) {
+		return new Key(referenceId, fingerprint(galleryReferenceIds), findDuplicate, forceDuplicate,
+				expectationVersion);
+	}
+
+	@Override
+	public long generation() {
+		synchronized (lock) {
+			return generation;
+		}
+	}
+
+	@Override
+	public IdentifyDelayResponse get(Key key, IdentityRequest request) {
+		if (!enabled)
+			return null;
+		IdentifyDelayResponse cached = null;
+		synchronized (lock) {
+			Entry entry = entries.get(key);
+			if (entry != null && ticker.getAsLong() - entry.expiresAt >= 0) {
+				removeLocked(key);
+				evictionCounter.increment();
+			} else if (entry != null) {
+				cached = entry.response;
+			}
+		}
+		if (cached == null) {
+			missCounter.increment();
+			return null;
+		}
+		hitCounter.increment();
+		return addressedTo(cached, request);
+	}
+
+	@Override
+	public void put(Key key, long generation, IdentifyDelayResponse response, Collection<String> digests,
+			Collection<String> galleryReferenceIds) {
+		if (!enabled || Objects.isNull(response) || Objects.isNull(response.getIdentityResponse()))
+			return;
+		Set<BioDigest> dependentDigests = new HashSet<>();
+		for (String digest : digests) {
+			BioDigest parsed = BioDigest.fromHex(digest);
+			if (parsed != null)
+				dependentDigests.add(parsed);
+		}
+		Set<String> dependentIds = new HashSet<>();
+		dependentIds.add(key.referenceId());
+		if (galleryReferenceIds != null)
+			dependentIds.addAll(galleryReferenceIds);
+		IdentityResponse.CandidateList candidateList = response.getIdentityResponse().getCandidateList();
+		if (candidateList != null && candidateList.getCandidates() != null)
+			candidateList.getCandidates().forEach(candidate -> dependentIds.add(candidate.getReferenceId()));
+
+		synchronized (lock) {
+			if (generation != this.generation)
+				return;
+			removeLocked(key);
+			Entry entry = new Entry(response, ticker.getAsLong() + ttlNanos, dependentDigests, dependentIds);
+			entries.put(key, entry);
+			for (BioDigest digest : dependentDigests)
+				byDigest.computeIfAbsent(digest, d -> new HashSet<>()).add(key);
+			for (String referenceId : dependentIds)
+				byReferenceId.computeIfAbsent(referenceId, id -> new HashSet<>()).add(key);
+			evictLocked();
+		}
+	}
+
+	@Override
+	public void invalidateInsert(String referenceId, List<BiometricData> biometricList) {
+		if (!enabled)
+			return;
+		List<BioDigest> digests = new ArrayList<>();
+		if (biometricList != null) {
+			for (BiometricData bd : biometricList) {
+				BioDigest digest = digestOf(bd.getBioData(), bd.getBioDigest());
+				if (digest != null)
+					digests.add(digest);
+			}
+		}
+		synchronized (lock) {
+			generation++;
+			Set<Key> affected = new HashSet<>(byReferenceId.getOrDefault(referenceId, Set.of()));
+			for (BioDigest digest : digests)
+				affected.addAll(byDigest.getOrDefault(digest, Set.of()));
+			invalidateLocked(affected);
+		}
+	}
+
+	@Override
+	public void invalidateDelete(String referenceId) {
+		if (!enabled)
+			return;
+		synchronized (lock) {
+			generation++;
+			invalidateLocked(new HashSet<>(byReferenceId.getOrDefault(referenceId, Set.of())));
+		}
+	}
+
+	@Override
+	public void clear() {
+		synchronized (lock) {
+			generation++;
+			entries.clear();
+			byDigest.clear();
+			byReferenceId.clear();
+		}
+	}
+
+	/**
+	 * Returns the number of cached results, including expired ones not yet
+	 * evicted.
+	 *
+	 * @return the cached result count
+	 */
+	public int size() {
+		synchronized (lock) {
+			return entries.size();
+		}
+	}
+
+	private void invalidateLocked(Set<Key> affected) {
+		for (Key key : affected) {
+			if (removeLocked(key))
+				invalidationCounter.increment();
+		}
+	}
+
+	/**
+	 * Evicts least recently used results beyond the size cap, and expired results
+	 * at the head of the access order.
+	 */
+	private void evictLocked() {
+		long now = ticker.getAsLong();
+		Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+		while (eldest.hasNext()) {
+			Map.Entry<Key, Entry> e = eldest.next();
+			if (entries.size() <= maxEntries && now - e.getValue().expiresAt < 0)
+				break;
+			eldest.remove();
+			unlinkLocked(e.getKey(), e.getValue());
+			evictionCounter.increment();
+		}
+	}
+
+	private boolean removeLocked(Key key) {
+		Entry entry = entries.remove(key);
+		if (entry == null)
+			return false;
+		unlinkLocked(key, entry);
+		return true;
+	}
+
+	private void unlinkLocked(Key key, Entry entry) {
+		for (BioDigest digest : entry.digests)
+			unlink(byDigest, digest, key);
+		for (String referenceId : entry.referenceIds)
+			unlink(byReferenceId, referenceId, key);
+	}
+
+	private static <T> void unlink(Map<T, Set<Key>> dependents, T dependency, Key key) {
+		Set<Key> keys = dependents.get(dependency);
+		if (keys != null && keys.remove(key) && keys.isEmpty())
+			dependents.remove(dependency);
+	}
+
+	/**
+	 * Copies a cached result with the envelope of the request it now answers; the
+	 * candidate list is shared as it is never modified once built.
+	 */
+	private static IdentifyDelayResponse addressedTo(IdentifyDelayResponse cached, IdentityRequest request) {
+		IdentityResponse response = cached.getIdentityResponse();
+		IdentityResponse copy = new IdentityResponse(request.getId(), request.getRequestId(),
+				request.getRequesttime(), response.getReturnValue(), response.getCandidateList(),
+				response.getAnalytics());
+		return new IdentifyDelayResponse(copy, cached.getDelayResponse());
+	}
+
+	/**
+	 * Hashes the sorted, distinct gallery reference IDs, each prefixed with its
+	 * length, so galleries with the same members share a key whatever their
+	 * order.
+	 */
+	private static BioDigest fingerprint(Collection<String> galleryReferenceIds) {
+		if (galleryReferenceIds == null)
+			return null;
+		try {
+			MessageDigest md = MessageDigest.getInstance("SHA-256");
+			for (String referenceId : new TreeSet<>(galleryReferenceIds)) {
+				byte[] bytes = referenceId.getBytes(StandardCharsets.UTF_8);
+				md.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+				md.update(bytes);
+			}
+			return BioDigest.fromBytes(md.digest());
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	private static BioDigest digestOf(String bioData, byte[] bioDigest) {
+		if (bioDigest != null && bioDigest.length == BioDigest.LENGTH)
+			return BioDigest.fromBytes(bioDigest);
+		return BioDigest.fromHex(bioData);
+	}
+
+	private static final class Entry {
+		private final IdentifyDelayResponse response;
+		private final long expiresAt;
+		private final Set<BioDigest> digests;
+		private final Set<String> referenceIds;
+
+		private Entry(IdentifyDelayResponse response, long expiresAt, Set<BioDigest> digests,
+				Set<String> referenceIds) {
+			this.response = response;
+			this.expiresAt = expiresAt;
+			this.digests = digests;
+			this.referenceIds = referenceIds;
+		}
+	}
+}
@@ -0,0 +1,290 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.entity.InsertEntity;
+import io.mosip.proxy.abis.service.InsertBatchWriter;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+
+/**
+ * {@link InsertBatchWriter} that groups inserts on a single writer thread.
+ * <p>
+ * Consumer threads queue their insert and wait for it. The writer takes up to
+ * {@code abis.insert.batch.size} queued inserts, waiting at most
+ * {@code abis.insert.batch.max.wait.ms} after the first one for the batch to
+ * fill, persists them in one transaction and then releases every waiting
+ * caller. Combined with {@code hibernate.jdbc.batch_size} and pooled sequence
+ * ids for {@link BiometricData}, a batch is written with a handful of JDBC
+ * batches and a single commit.
+ * </p>
+ * <p>
+ * If a batch fails, for instance because two requests raced on the same
+ * reference ID, it is rolled back and its inserts are retried one per
+ * transaction, so only the offending insert reports the failure.
+ * </p>
+ * <p>
+ * With batching disabled, {@link #write} persists the insert in its own
+ * transaction on the calling thread.
+ * </p>
+ * <p>
+ * The following meters are published:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.insert.batch.size}: inserts committed per batch.</li>
+ * <li>{@code mock.abis.insert.batch.retried}: batches that failed and were
+ * retried one insert at a time.</li>
+ * </ul>
+ */
+@Component
+public class InsertBatchWriterImpl implements InsertBatchWriter {
+	private static final Logger logger = LoggerFactory.getLogger(InsertBatchWriterImpl.class);
+
+	private static final long IDLE_POLL_MILLIS = 100;
+
+	private final EntityManager entityManager;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean enabled;
+	private final int batchSize;
+	private final long maxWaitNanos;
+	private final long shutdownTimeoutSeconds;
+	private final BlockingQueue<PendingInsert> queue = new LinkedBlockingQueue<>();
+	private final Thread writer;
+
+	private final DistributionSummary batchSizeSummary;
+	private final Counter retriedCounter;
+
+	private volatile boolean running;
+
+	/**
+	 * Creates the writer from configuration.
+	 *
+	 * @param entityManager          The shared entity manager.
+	 * @param transactionManager     The transaction manager of the entity manager.
+	 * @param meterRegistry          The registry to publish meters to; the global
+	 *                               registry is used when none is configured.
+	 * @param enabled                Whether inserts are grouped into batches.
+	 * @param batchSize              The maximum number of inserts per batch.
+	 * @param maxWaitMillis          How long a batch waits to fill after its
+	 *                               first insert.
+	 * @param shutdownTimeoutSeconds How long shutdown waits for queued inserts.
+	 */
+	@Autowired
+	public InsertBatchWriterImpl(EntityManager entityManager, PlatformTransactionManager transactionManager,
+			ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${abis.insert.batch.enabled:false}") boolean enabled,
+			@Value("${abis.insert.batch.size:50}") int batchSize,
+			@Value("${abis.insert.batch.max.wait.ms:20}") long maxWaitMillis,
+			@Value("${abis.insert.batch.shutdown.timeout.seconds:30}") long shutdownTimeoutSeconds) {
+		this(entityManager, transactionManager, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), enabled,
+				batchSize, maxWaitMillis, shutdownTimeoutSeconds);
+	}
+
+	/**
+	 * Creates the writer with explicit settings.
+	 *
+	 * @param entityManager          The shared entity manager.
+	 * @param transactionManager     The transaction manager of the entity manager.
+	 * @param meterRegistry          The registry to publish meters to.
+	 * @param enabled                Whether inserts are grouped into batches.
+	 * @param batchSize              The maximum number of inserts per batch.
+	 * @param maxWaitMillis          How long a batch waits to fill after its
+	 *                               first insert.
+	 * @param shutdownTimeoutSeconds How long shutdown waits for queued inserts.
+	 */
+	public InsertBatchWriterImpl(EntityManager entityManager, PlatformTransactionManager transactionManager,
+			MeterRegistry meterRegistry, boolean enabled, int batchSize, long maxWaitMillis,
+			long shutdownTimeoutSeconds) {
+		this.entityManager = entityManager;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.enabled = enabled;
+		this.batchSize = Math.max(1, batchSize);
+		this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+		this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+
+		this.batchSizeSummary = DistributionSummary.builder("mock.abis.insert.batch.size")
+				.description("Inserts committed per batch").register(meterRegistry);
+		this.retriedCounter = Counter.builder("mock.abis.insert.batch.retried")
+				.description("Insert batches retried one insert at a time").register(meterRegistry);
+
+		this.running = enabled;
+		this.writer = enabled ? Thread.ofPlatform().daemon(true).name("abis-insert-writer").start(this::run) : null;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void write(InsertEntity insertEntity) {
+		if (!enabled) {
+			persist(List.of(insertEntity));
+			return;
+		}
+		if (!running)
+			throw new RejectedExecutionException("Insert writer is shutting down");
+
+		PendingInsert pending = new PendingInsert(insertEntity);
+		queue.add(pending);
+		// shutdown may have drained the queue after the check above; an insert still
+		// queued then would never be taken, while one already taken is completed
+		if (!running && queue.remove(pending))
+			throw new RejectedExecutionException("Insert writer has shut down");
+		try {
+			// not interruptible: the caller must learn whether its insert committed
+			pending.result().join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException cause)
+				throw cause;
+			throw e;
+		}
+	}
+
+	/**
+	 * Collects and writes batches until shutdown, then writes whatever is still
+	 * queued.
+	 */
+	private void run() {
+		List<PendingInsert> batch = new ArrayList<>(batchSize);
+		while (running || !queue.isEmpty()) {
+			try {
+				collect(batch);
+			} catch (InterruptedException e) {
+				// the flag is not restored so the inserts still queued can be written
+				running = false;
+			}
+			if (!batch.isEmpty()) {
+				flush(batch);
+				batch.clear();
+			}
+		}
+	}
+
+	/**
+	 * Waits for the first insert of a batch, then takes further inserts until
+	 * the batch is full or the maximum wait has elapsed.
+	 *
+	 * @param batch The list to add the inserts to.
+	 * @throws InterruptedException if the writer is interrupted while waiting;
+	 *                              inserts already taken stay in {@code batch}.
+	 */
+	private void collect(List<PendingInsert> batch) throws InterruptedException {
+		PendingInsert first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+		if (first == null)
+			return;
+		batch.add(first);
+		long deadline = System.nanoTime() + maxWaitNanos;
+		while (batch.size() < batchSize) {
+			queue.drainTo(batch, batchSize - batch.size());
+			long remaining = deadline - System.nanoTime();
+			if (batch.size() >= batchSize || remaining <= 0)
+				return;
+			PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+			if (next == null)
+				return;
+			batch.add(next);
+		}
+	}
+
+	/**
+	 * Persists a batch and completes its inserts, retrying them one at a time if
+	 * the batch as a whole fails.
+	 *
+	 * @param batch The inserts to write.
+	 */
+	private void flush(List<PendingInsert> batch) {
+		try {
+			persist(batch.stream().map(PendingInsert::entity).toList());
+			batchSizeSummary.record(batch.size());
+			batch.forEach(p -> p.result().complete(null));
+			return;
+		} catch (RuntimeException e) {
+			if (batch.size() == 1) {
+				batch.get(0).result().completeExceptionally(e);
+				return;
+			}
+			logger.warn("Insert batch of {} failed, retrying one insert at a time", batch.size(), e);
+			retriedCounter.increment();
+		}
+		for (PendingInsert pending : batch) {
+			try {
+				persist(List.of(pending.entity()));
+				batchSizeSummary.record(1);
+				pending.result().complete(null);
+			} catch (RuntimeException e) {
+				pending.result().completeExceptionally(e);
+			}
+		}
+	}
+
+	/**
+	 * Persists the inserts in one transaction. Insert requests have assigned
+	 * reference IDs, so {@code persist} is used to avoid the lookup
+	 * {@code save} performs before inserting.
+	 *
+	 * @param entities The inserts to persist.
+	 */
+	private void persist(List<InsertEntity> entities) {
+		transactionTemplate.executeWithoutResult(status -> {
+			for (InsertEntity entity : entities) {
+				// ids drawn by a rolled back attempt would make the rows look detached
+				if (entity.getBiometricList() != null)
+					entity.getBiometricList().forEach(bd -> bd.setId(null));
+				entityManager.persist(entity);
+			}
+			entityManager.flush();
+		});
+	}
+
+	/**
+	 * Stops accepting inserts and waits for the queued ones to be written.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		if (writer == null)
+			return;
+		running = false;
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (writer.isAlive())
+			logger.warn("Insert writer stopped with {} inserts queued", queue.size());
+		PendingInsert pending;
+		while ((pending = queue.poll()) != null) {
+			pending.result().completeExceptionally(new RejectedExecutionException("Insert writer has shut down"));
+		}
+	}
+
+	/**
+	 * An insert waiting to be written, with the future its caller waits on.
+	 */
+	private record PendingInsert(InsertEntity entity, CompletableFuture<Void> result) {
+		private PendingInsert(InsertEntity entity) {
+			this(entity, new CompletableFuture<>());
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.entity.InsertEntity;
+import io.mosip.proxy.abis.service.GalleryBulkLoader;
+
+/**
+ * {@link GalleryBulkLoader} writing rows through the fastest path of the
+ * configured database: {@code COPY ... FROM STDIN} on PostgreSQL, and JDBC
+ * batch inserts of {@code abis.bulk.load.jdbc.batch.size} rows otherwise.
+ * <p>
+ * {@code Biometric_Data} ids are drawn from the same sequence Hibernate uses,
+ * one sequence value per row. Hibernate reserves a block below each value it
+ * draws, so the ids never collide with rows inserted through the entity
+ * manager.
+ * </p>
+ */
+@Component
+public class JdbcGalleryBulkLoader implements GalleryBulkLoader {
+	static final String JDBC_BATCH = "jdbc-batch";
+	static final String COPY = "copy";
+
+	private static final String INSERT_REQUEST_SQL = "insert into insert_request (reference_id, id, version, request_id, requesttime) values (?, ?, ?, ?, ?)";
+	private static final String BIOMETRIC_DATA_SQL = "insert into biometric_data (id, type, sub_type, bio_data, bio_digest, bio_signature, reference_id) values (next value for biometric_data_seq, ?, ?, ?, ?, ?, ?)";
+	private static final String COPY_INSERT_REQUEST_SQL = "COPY insert_request (reference_id, id, version, request_id, requesttime) FROM STDIN WITH (FORMAT csv)";
+	private static final String COPY_BIOMETRIC_DATA_SQL = "COPY biometric_data (id, type, sub_type, bio_data, bio_digest, bio_signature, reference_id) FROM STDIN WITH (FORMAT csv)";
+	private static final String NEXT_IDS_SQL = "select nextval('biometric_data_seq') from generate_series(1, ?)";
+	private static final HexFormat HEX = HexFormat.of();
+
+	private final DataSource dataSource;
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final int batchSize;
+	private volatile String method;
+
+	/**
+	 * Creates the loader.
+	 *
+	 * @param dataSource         The database to load into.
+	 * @param transactionManager The transaction manager of the database.
+	 * @param batchSize          The number of rows sent per JDBC batch.
+	 */
+	@Autowired
+	public JdbcGalleryBulkLoader(DataSource dataSource, PlatformTransactionManager transactionManager,
+			@Value("${abis.bulk.load.jdbc.batch.size:1000}") int batchSize) {
+		this.dataSource = dataSource;
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.batchSize = Math.max(1, batchSize);
+	}
+
+	@Override
+	public int load(List<InsertEntity> entities) {
+		List<BiometricData> biometrics = new ArrayList<>();
+		for (InsertEntity entity : entities) {
+			if (entity.getBiometricList() != null)
+				biometrics.addAll(entity.getBiometricList());
+		}
+		boolean copy = COPY.equals(getMethod());
+		transactionTemplate.executeWithoutResult(status -> {
+			if (copy)
+				copy(entities, biometrics);
+			else
+				batchInsert(entities, biometrics);
+		});
+		return biometrics.size();
+	}
+
+	@Override
+	public String getMethod() {
+		String resolved = method;
+		if (resolved == null) {
+			resolved = isPostgres() ? COPY : JDBC_BATCH;
+			method = resolved;
+		}
+		return resolved;
+	}
+
+	private void batchInsert(List<InsertEntity> entities, List<BiometricData> biometrics) {
+		jdbcTemplate.batchUpdate(INSERT_REQUEST_SQL, entities, batchSize, (ps, entity) -> {
+			ps.setString(1, entity.getReferenceId());
+			ps.setString(2, entity.getId());
+			ps.setString(3, entity.getVersion());
+			ps.setString(4, entity.getRequestId());
+			ps.setObject(5, entity.getRequesttime());
+		});
+		jdbcTemplate.batchUpdate(BIOMETRIC_DATA_SQL, biometrics, batchSize, (ps, bd) -> {
+			ps.setString(1, bd.getType());
+			ps.setString(2, bd.getSubtype());
+			ps.setString(3, hexColumn(bd));
+			ps.setBytes(4, bd.getBioDigest());
+			ps.setBytes(5, bd.getBioSignature());
+			ps.setString(6, bd.getInsertEntity().getReferenceId());
+		});
+	}
+
+	/**
+	 * Streams the rows as CSV through the PostgreSQL copy protocol on the
+	 * connection of the current transaction.
+	 */
+	private void copy(List<InsertEntity> entities, List<BiometricData> biometrics) {
+		List<Long> ids = biometrics.isEmpty() ? List.of()
+				: jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, biometrics.size());
+		StringBuilder requests = new StringBuilder(entities.size() * 64);
+		for (InsertEntity entity : entities) {
+			requests.append(csv(entity.getReferenceId())).append(',').append(csv(entity.getId())).append(',')
+					.append(csv(entity.getVersion())).append(',').append(csv(entity.getRequestId())).append(',')
+					.append(entity.getRequesttime() != null ? entity.getRequesttime().toString() : "").append('\n');
+		}
+		StringBuilder rows = new StringBuilder(biometrics.size() * 128);
+		for (int i = 0; i < biometrics.size(); i++) {
+			BiometricData bd = biometrics.get(i);
+			rows.append(ids.get(i)).append(',').append(csv(bd.getType())).append(',').append(csv(bd.getSubtype()))
+					.append(',').append(csv(hexColumn(bd))).append(',')
+					.append(bd.getBioDigest() != null ? "\\x" + HEX.formatHex(bd.getBioDigest()) : "").append(',')
+					.append(bd.getBioSignature() != null ? "\\x" + HEX.formatHex(bd.getBioSignature()) : "").append(',')
+					.append(csv(bd.getInsertEntity().getReferenceId())).append('\n');
+		}
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+			try {
+				copyManager.copyIn(COPY_INSERT_REQUEST_SQL, new StringReader(requests.toString()));
+				copyManager.copyIn(COPY_BIOMETRIC_DATA_SQL, new StringReader(rows.toString()));
+			} catch (IOException e) {
+				throw new SQLException("Copying gallery rows failed", e);
+			}
+			return null;
+		});
+	}
+
+	/**
+	 * Returns the value of the {@code bio_data} column; the getter would render
+	 * a binary digest as hex.
+	 */
+	private static String hexColumn(BiometricData bd) {
+		return Objects.nonNull(bd.getBioDigest()) ? null : bd.getBioData();
+	}
+
+	/**
+	 * Quotes a CSV field; {@code null} becomes an unquoted empty field, which
+	 * copy reads as SQL null.
+	 */
+	private static String csv(String value) {
+		return value == null ? "" : '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	private boolean isPostgres() {
+		try {
+			String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+			return "PostgreSQL".equalsIgnoreCase(product);
+		} catch (MetaDataAccessException e) {
+			throw new IllegalStateException("Cannot determine the database product", e);
+		}
+	}
+}
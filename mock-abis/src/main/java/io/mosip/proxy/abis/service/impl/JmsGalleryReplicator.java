@@ -0,0 +1,662 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.apache.activemq.ActiveMQConnection;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.transport.DefaultTransportListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.service.BiometricIndex;
+import io.mosip.proxy.abis.service.GalleryReplicator;
+import io.mosip.proxy.abis.service.IdentifyResultCache;
+import io.mosip.proxy.abis.utility.BioDigest;
+import jakarta.annotation.PreDestroy;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.TemporaryQueue;
+import jakarta.jms.Topic;
+
+/**
+ * {@link GalleryReplicator} exchanging events over the ActiveMQ broker of the
+ * first configured ABIS.
+ * <p>
+ * Events are published to the topic {@code abis.replication.topic} as bytes
+ * messages tagged with the ID of the publishing node, and every node applies
+ * the events of the others in the order the broker delivers them. An insert
+ * event holds the reference ID and the type and 32 byte digest of each
+ * biometric, a delete event only the reference ID. Events are sent
+ * non-persistent to a non-durable subscription, so a node that is down misses
+ * them and catches up again when it comes back.
+ * </p>
+ * <p>
+ * Catching up starts once the index is loaded from the database. The node
+ * subscribes to the topic, then sends a snapshot request to the queue
+ * {@code abis.replication.snapshot.queue}. The running node taking the request
+ * pages through its index and replies with batches of
+ * {@code abis.replication.snapshot.batch.size} reference IDs followed by an end
+ * message. The snapshot replaces the index, and the events received while it
+ * loaded are applied after it; as events only ever set or remove whole
+ * reference IDs, applying one already in the snapshot again changes nothing.
+ * If no node answers within {@code abis.replication.snapshot.timeout.ms}, the
+ * node is taken to be the first one and keeps the index loaded from its
+ * database; if a snapshot stops halfway, the index is loaded from the database
+ * again. Only once caught up does a node serve snapshot requests itself.
+ * </p>
+ * <p>
+ * The subscription does not keep the events published while the broker
+ * connection is interrupted. Identify requests therefore stop using the index
+ * when the connection drops, and once the failover transport has reconnected
+ * the node catches up from a snapshot again, as on startup.
+ * </p>
+ * <p>
+ * Replication needs {@code abis.index.enabled}, and is not meant to be used
+ * together with cluster mode.
+ * </p>
+ * <p>
+ * The following meters are published:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.replication.published}: events published, tagged
+ * {@code operation}.</li>
+ * <li>{@code mock.abis.replication.publish.failed}: events that could not be
+ * published.</li>
+ * <li>{@code mock.abis.replication.applied}: events of other nodes applied,
+ * tagged {@code operation}.</li>
+ * <li>{@code mock.abis.replication.catchup}: time taken to load a
+ * snapshot.</li>
+ * </ul>
+ *
+ * @since 1.3.0
+ */
+@Component
+public class JmsGalleryReplicator implements GalleryReplicator {
+	private static final Logger logger = LoggerFactory.getLogger(JmsGalleryReplicator.class);
+
+	/** Message property holding the ID of the node an event or request is from. */
+	static final String NODE_PROPERTY = "abisReplicationNode";
+
+	private static final byte INSERT = 1;
+	private static final byte DELETE = 2;
+	private static final byte CLEAR = 3;
+	private static final byte SNAPSHOT = 4;
+	private static final byte SNAPSHOT_END = 5;
+
+	private final BiometricIndex biometricIndex;
+	private final IdentifyResultCache identifyResultCache;
+	private final ConnectionFactory connectionFactory;
+	private final MeterRegistry meterRegistry;
+	private final boolean enabled;
+	private final String nodeId;
+	private final String topicName;
+	private final String snapshotQueueName;
+	private final long snapshotTimeoutMillis;
+	private final int snapshotBatchSize;
+
+	/** Guards the publishing session, which is shared by all request threads. */
+	private final Object publishLock = new Object();
+	private Session publishSession;
+	private MessageProducer publisher;
+	private Topic topic;
+
+	/** Guards {@link #pending} and {@link #catchingUp}. */
+	private final Object applyLock = new Object();
+	/** Events received while catching up, applied once the snapshot is loaded. */
+	private final List<byte[]> pending = new ArrayList<>();
+	private boolean catchingUp;
+
+	/** Serializes catching up again after the broker connection resumes. */
+	private final Object resumeLock = new Object();
+
+	private Connection connection;
+	private volatile boolean ready;
+	/** Whether replication started and has not been shut down. */
+	private volatile boolean started;
+	/** Whether events may have been missed while the connection was interrupted. */
+	private volatile boolean stale;
+
+	private final Counter insertsPublished;
+	private final Counter deletesPublished;
+	private final Counter clearsPublished;
+	private final Counter publishFailed;
+	private final Counter insertsApplied;
+	private final Counter deletesApplied;
+	private final Counter clearsApplied;
+
+	/**
+	 * Creates the replicator from configuration.
+	 *
+	 * @param biometricIndex        The index events and snapshots are applied to.
+	 * @param identifyResultCache   The cache of identify results, invalidated by
+	 *                              the events of other nodes.
+	 * @param connectionFactory     The connection factory of the broker.
+	 * @param meterRegistry         The registry to publish meters to; the global
+	 *                              registry is used when none is configured.
+	 * @param enabled               Whether replication is on.
+	 * @param nodeId                The ID of this node; a random ID is used when
+	 *                              blank.
+	 * @param topicName             The topic events are published to.
+	 * @param snapshotQueueName     The queue snapshot requests are sent to.
+	 * @param snapshotTimeoutMillis How long to wait for the next snapshot
+	 *                              message.
+	 * @param snapshotBatchSize     The number of reference IDs per snapshot
+	 *                              message.
+	 */
+	@Autowired
+	public JmsGalleryReplicator(BiometricIndex biometricIndex, IdentifyResultCache identifyResultCache,
+			ObjectProvider<ActiveMQConnectionFactory> connectionFactory, ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${abis.replication.enabled:false}") boolean enabled,
+			@Value("${abis.replication.node.id:}") String nodeId,
+			@Value("${abis.replication.topic:mock-abis-replication}") String topicName,
+			@Value("${abis.replication.snapshot.queue:mock-abis-replication-snapshot}") String snapshotQueueName,
+			@Value("${abis.replication.snapshot.timeout.ms:10000}") long snapshotTimeoutMillis,
+			@Value("${abis.replication.snapshot.batch.size:1000}") int snapshotBatchSize) {
+		this(biometricIndex, identifyResultCache, enabled ? connectionFactory.getIfAvailable() : null,
+				meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), enabled, nodeId, topicName,
+				snapshotQueueName, snapshotTimeoutMillis, snapshotBatchSize);
+	}
+
+	/**
+	 * Creates the replicator with explicit settings.
+	 *
+	 * @param biometricIndex        The index events and snapshots are applied to.
+	 * @param identifyResultCache   The cache of identify results, invalidated by
+	 *                              the events of other nodes.
+	 * @param connectionFactory     The connection factory of the broker.
+	 * @param meterRegistry         The registry to publish meters to.
+	 * @param enabled               Whether replication is on.
+	 * @param nodeId                The ID of this node; a random ID is used when
+	 *                              blank.
+	 * @param topicName             The topic events are published to.
+	 * @param snapshotQueueName     The queue snapshot requests are sent to.
+	 * @param snapshotTimeoutMillis How long to wait for the next snapshot
+	 *                              message.
+	 * @param snapshotBatchSize     The number of reference IDs per snapshot
+	 *                              message.
+	 * @throws IllegalArgumentException if replication is on and the index is not
+	 */
+	public JmsGalleryReplicator(BiometricIndex biometricIndex, IdentifyResultCache identifyResultCache,
+			ConnectionFactory connectionFactory, MeterRegistry meterRegistry, boolean enabled, String nodeId,
+			String topicName, String snapshotQueueName, long snapshotTimeoutMillis, int snapshotBatchSize) {
+		if (enabled && !biometricIndex.isEnabled())
+			throw new IllegalArgumentException("abis.replication.enabled needs abis.index.enabled");
+		this.biometricIndex = biometricIndex;
+		this.identifyResultCache = identifyResultCache;
+		this.connectionFactory = connectionFactory;
+		this.meterRegistry = meterRegistry;
+		this.enabled = enabled;
+		this.nodeId = Objects.isNull(nodeId) || nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+		this.topicName = topicName;
+		this.snapshotQueueName = snapshotQueueName;
+		this.snapshotTimeoutMillis = Math.max(1, snapshotTimeoutMillis);
+		this.snapshotBatchSize = Math.max(1, snapshotBatchSize);
+
+		this.insertsPublished = counter("mock.abis.replication.published", "insert", "Replication events published");
+		this.deletesPublished = counter("mock.abis.replication.published", "delete", "Replication events published");
+		this.clearsPublished = counter("mock.abis.replication.published", "clear", "Replication events published");
+		this.publishFailed = Counter.builder("mock.abis.replication.publish.failed")
+				.description("Replication events that could not be published").register(meterRegistry);
+		this.insertsApplied = counter("mock.abis.replication.applied", "insert",
+				"Replication events of other nodes applied");
+		this.deletesApplied = counter("mock.abis.replication.applied", "delete",
+				"Replication events of other nodes applied");
+		this.clearsApplied = counter("mock.abis.replication.applied", "clear",
+				"Replication events of other nodes applied");
+	}
+
+	private Counter counter(String name, String operation, String description) {
+		return Counter.builder(name).tag("operation", operation).description(description).register(meterRegistry);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return enabled && ready && biometricIndex.isAvailable();
+	}
+
+	/**
+	 * Starts replicating once the index is loaded, before the ABIS queues start
+	 * consuming.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		start();
+	}
+
+	/**
+	 * Subscribes to the events of the other nodes, catches up from a snapshot
+	 * and starts serving snapshot requests.
+	 */
+	public void start() {
+		if (!enabled || ready)
+			return;
+		if (Objects.isNull(connectionFactory)) {
+			logger.error("No broker connection factory, gallery replication not started");
+			return;
+		}
+		try {
+			connection = connectionFactory.createConnection();
+			if (connection instanceof ActiveMQConnection activeMQConnection)
+				activeMQConnection.addTransportListener(new DefaultTransportListener() {
+					@Override
+					public void transportInterupted() {
+						onInterrupted();
+					}
+
+					@Override
+					public void transportResumed() {
+						// catching up waits for replies on this connection, so not on the transport thread
+						Thread.ofPlatform().daemon(true).name("abis-replication-resume")
+								.start(JmsGalleryReplicator.this::onResumed);
+					}
+
+					@Override
+					public void onException(IOException error) {
+						logger.error("Gallery replication lost the broker connection, identify requests will use the "
+								+ "database", error);
+						ready = false;
+					}
+				});
+			connection.start();
+			synchronized (publishLock) {
+				publishSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+				topic = publishSession.createTopic(topicName);
+				publisher = publishSession.createProducer(null);
+				publisher.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+			}
+			synchronized (applyLock) {
+				catchingUp = true;
+			}
+			Session subscribeSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			subscribeSession.createConsumer(topic).setMessageListener(this::onEvent);
+			catchUp();
+
+			Session serveSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			MessageProducer replier = serveSession.createProducer(null);
+			replier.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+			serveSession.createConsumer(serveSession.createQueue(snapshotQueueName))
+					.setMessageListener(request -> serve(serveSession, replier, request));
+			started = true;
+			ready = true;
+			logger.info("Gallery replication started as node {} with {} reference IDs indexed", nodeId,
+					biometricIndex.size());
+		} catch (JMSException | RuntimeException e) {
+			logger.error("Starting gallery replication failed, identify requests will use the database", e);
+			applyPending();
+		}
+	}
+
+	/**
+	 * Stops answering identify requests from the index once events may be lost,
+	 * and keeps the events received from then on until caught up again.
+	 */
+	void onInterrupted() {
+		if (!started)
+			return;
+		logger.warn("Gallery replication interrupted, identify requests will use the database until caught up");
+		ready = false;
+		synchronized (applyLock) {
+			catchingUp = true;
+		}
+		stale = true;
+	}
+
+	/**
+	 * Catches up from a snapshot again after the connection was interrupted.
+	 */
+	void onResumed() {
+		synchronized (resumeLock) {
+			if (!started || !stale)
+				return;
+			stale = false;
+			try {
+				catchUp();
+				ready = true;
+				logger.info("Gallery replication caught up again with {} reference IDs indexed",
+						biometricIndex.size());
+			} catch (JMSException | RuntimeException e) {
+				logger.error("Catching up after the broker connection resumed failed, identify requests will use "
+						+ "the database", e);
+				stale = true;
+				applyPending();
+			}
+		}
+	}
+
+	@Override
+	public void publishInsert(String referenceId, List<BiometricData> biometricList) {
+		if (!enabled || Objects.isNull(referenceId))
+			return;
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeByte(INSERT);
+			writeReferenceId(out, referenceId, Objects.requireNonNullElse(biometricList, List.of()));
+			publish(bytes.toByteArray(), insertsPublished);
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	@Override
+	public void publishDelete(String referenceId) {
+		if (!enabled || Objects.isNull(referenceId))
+			return;
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeByte(DELETE);
+			out.writeUTF(referenceId);
+			publish(bytes.toByteArray(), deletesPublished);
+		} catch (IOException e) {
+			fail(e);
+		}
+	}
+
+	@Override
+	public void publishClear() {
+		if (!enabled)
+			return;
+		publish(new byte[] { CLEAR }, clearsPublished);
+	}
+
+	private void publish(byte[] event, Counter counter) {
+		synchronized (publishLock) {
+			if (Objects.isNull(publisher)) {
+				publishFailed.increment();
+				return;
+			}
+			try {
+				BytesMessage message = publishSession.createBytesMessage();
+				message.writeBytes(event);
+				message.setStringProperty(NODE_PROPERTY, nodeId);
+				publisher.send(topic, message);
+			} catch (JMSException e) {
+				logger.error("Publishing a gallery replication event failed", e);
+				publishFailed.increment();
+				return;
+			}
+		}
+		counter.increment();
+	}
+
+	private void fail(IOException e) {
+		logger.error("Encoding a gallery replication event failed", e);
+		publishFailed.increment();
+	}
+
+	/**
+	 * Applies an event of another node, or keeps it for later while catching
+	 * up. Events published by this node are skipped.
+	 *
+	 * @param message the event
+	 */
+	void onEvent(Message message) {
+		try {
+			if (nodeId.equals(message.getStringProperty(NODE_PROPERTY)))
+				return;
+			byte[] event = bodyOf(message);
+			synchronized (applyLock) {
+				if (catchingUp)
+					pending.add(event);
+				else
+					apply(event);
+			}
+		} catch (JMSException | IOException | RuntimeException e) {
+			logger.error("Applying a gallery replication event failed", e);
+		}
+	}
+
+	private void apply(byte[] event) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(event));
+		byte operation = in.readByte();
+		if (operation == INSERT) {
+			String referenceId = in.readUTF();
+			List<BiometricData> biometricList = readBiometrics(in);
+			biometricIndex.add(referenceId, biometricList);
+			identifyResultCache.invalidateInsert(referenceId, biometricList);
+			insertsApplied.increment();
+		} else if (operation == DELETE) {
+			String referenceId = in.readUTF();
+			biometricIndex.remove(referenceId);
+			identifyResultCache.invalidateDelete(referenceId);
+			deletesApplied.increment();
+		} else if (operation == CLEAR) {
+			biometricIndex.clear();
+			identifyResultCache.clear();
+			clearsApplied.increment();
+		} else {
+			throw new IOException("Unknown gallery replication event " + operation);
+		}
+	}
+
+	/**
+	 * Applies the events received while catching up and switches to applying
+	 * them as they arrive.
+	 */
+	private void applyPending() {
+		synchronized (applyLock) {
+			for (byte[] event : pending) {
+				try {
+					apply(event);
+				} catch (IOException | RuntimeException e) {
+					logger.error("Applying a gallery replication event failed", e);
+				}
+			}
+			pending.clear();
+			catchingUp = false;
+		}
+	}
+
+	/**
+	 * Requests a snapshot from a running node and loads it into the index.
+	 */
+	private void catchUp() throws JMSException {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		long loaded = 0;
+		boolean replaced = false;
+		boolean complete = false;
+		try {
+			TemporaryQueue replies = session.createTemporaryQueue();
+			MessageConsumer consumer = session.createConsumer(replies);
+			BytesMessage request = session.createBytesMessage();
+			request.setStringProperty(NODE_PROPERTY, nodeId);
+			request.setJMSReplyTo(replies);
+			MessageProducer requester = session.createProducer(null);
+			// a request nobody took in time must not be answered later
+			requester.setTimeToLive(snapshotTimeoutMillis);
+			requester.send(session.createQueue(snapshotQueueName), request);
+
+			Message reply;
+			while (!complete && (reply = consumer.receive(snapshotTimeoutMillis)) != null) {
+				DataInputStream in = new DataInputStream(new ByteArrayInputStream(bodyOf(reply)));
+				if (!replaced) {
+					biometricIndex.clear();
+					replaced = true;
+				}
+				byte type = in.readByte();
+				if (type == SNAPSHOT_END) {
+					complete = true;
+				} else if (type == SNAPSHOT) {
+					int count = in.readInt();
+					for (int i = 0; i < count; i++) {
+						biometricIndex.add(in.readUTF(), readBiometrics(in));
+					}
+					loaded += count;
+				} else {
+					throw new IOException("Unknown gallery snapshot message " + type);
+				}
+			}
+		} catch (IOException | JMSException e) {
+			logger.error("Reading the gallery snapshot failed", e);
+		} finally {
+			session.close();
+		}
+
+		if (!replaced) {
+			logger.info("No node answered the gallery snapshot request, keeping the gallery of this node");
+		} else if (complete) {
+			long nanos = sample.stop(Timer.builder("mock.abis.replication.catchup")
+					.description("Time taken to load a gallery snapshot").register(meterRegistry));
+			logger.info("Loaded a gallery snapshot of {} reference IDs in {} ms", loaded, nanos / 1_000_000);
+		} else {
+			logger.warn("Gallery snapshot ended after {} reference IDs, reloading the gallery of this node", loaded);
+			biometricIndex.rebuild();
+		}
+		if (replaced)
+			identifyResultCache.clear();
+		applyPending();
+	}
+
+	/**
+	 * Answers a snapshot request of another node with the whole index.
+	 *
+	 * @param session the session the request was received on
+	 * @param replier the producer replies are sent with
+	 * @param request the snapshot request
+	 */
+	void serve(Session session, MessageProducer replier, Message request) {
+		try {
+			Destination replyTo = request.getJMSReplyTo();
+			String requester = request.getStringProperty(NODE_PROPERTY);
+			if (Objects.isNull(replyTo) || nodeId.equals(requester))
+				return;
+			long start = System.currentTimeMillis();
+			long sent = 0;
+			int position = 0;
+			while (position >= 0) {
+				List<Map.Entry<String, List<BiometricData>>> page = new ArrayList<>(snapshotBatchSize);
+				position = biometricIndex.export(position, snapshotBatchSize,
+						(referenceId, biometricList) -> page.add(Map.entry(referenceId, biometricList)));
+				if (page.isEmpty())
+					continue;
+				ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+				DataOutputStream out = new DataOutputStream(bytes);
+				out.writeByte(SNAPSHOT);
+				out.writeInt(page.size());
+				for (Map.Entry<String, List<BiometricData>> entry : page) {
+					writeReferenceId(out, entry.getKey(), entry.getValue());
+				}
+				send(session, replier, replyTo, bytes.toByteArray());
+				sent += page.size();
+			}
+			send(session, replier, replyTo, new byte[] { SNAPSHOT_END });
+			logger.info("Sent a gallery snapshot of {} reference IDs to node {} in {} ms", sent, requester,
+					System.currentTimeMillis() - start);
+		} catch (JMSException | IOException | RuntimeException e) {
+			logger.error("Serving a gallery snapshot failed", e);
+		}
+	}
+
+	private void send(Session session, MessageProducer replier, Destination replyTo, byte[] payload)
+			throws JMSException {
+		BytesMessage message = session.createBytesMessage();
+		message.writeBytes(payload);
+		message.setStringProperty(NODE_PROPERTY, nodeId);
+		replier.send(replyTo, message);
+	}
+
+	/**
+	 * Writes a reference ID and the type and digest of each of its biometrics;
+	 * biometrics without a SHA-256 digest are left out, as the index skips them.
+	 */
+	private static void writeReferenceId(DataOutputStream out, String referenceId, List<BiometricData> biometricList)
+			throws IOException {
+		List<BiometricData> digested = new ArrayList<>(biometricList.size());
+		List<BioDigest> digests = new ArrayList<>(biometricList.size());
+		for (BiometricData bd : biometricList) {
+			BioDigest digest = digestOf(bd.getBioData(), bd.getBioDigest());
+			if (Objects.nonNull(digest)) {
+				digested.add(bd);
+				digests.add(digest);
+			}
+		}
+		out.writeUTF(referenceId);
+		out.writeInt(digested.size());
+		for (int i = 0; i < digested.size(); i++) {
+			String type = digested.get(i).getType();
+			out.writeBoolean(type != null);
+			if (type != null)
+				out.writeUTF(type);
+			out.write(digests.get(i).toBytes());
+		}
+	}
+
+	private static List<BiometricData> readBiometrics(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		List<BiometricData> biometricList = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			String type = in.readBoolean() ? in.readUTF() : null;
+			byte[] digest = new byte[BioDigest.LENGTH];
+			in.readFully(digest);
+			BiometricData bd = new BiometricData(null, type, null, null, null);
+			bd.setBioDigest(digest);
+			biometricList.add(bd);
+		}
+		return biometricList;
+	}
+
+	private static BioDigest digestOf(String bioData, byte[] bioDigest) {
+		if (Objects.nonNull(bioDigest) && bioDigest.length == BioDigest.LENGTH)
+			return BioDigest.fromBytes(bioDigest);
+		return BioDigest.fromHex(bioData);
+	}
+
+	private static byte[] bodyOf(Message message) throws JMSException, IOException {
+		if (!(message instanceof BytesMessage bytesMessage))
+			throw new IOException("Gallery replication message is not a bytes message");
+		byte[] body = new byte[(int) bytesMessage.getBodyLength()];
+		bytesMessage.readBytes(body);
+		return body;
+	}
+
+	/**
+	 * Stops replicating and closes the broker connection.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		started = false;
+		ready = false;
+		if (connection != null) {
+			try {
+				connection.close();
+			} catch (JMSException e) {
+				logger.warn("Closing the gallery replication connection failed", e);
+			}
+		}
+	}
+}
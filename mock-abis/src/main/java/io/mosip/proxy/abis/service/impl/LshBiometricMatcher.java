@@ -0,0 +1,687 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import io.mosip.proxy.abis.dao.ProxyAbisBioDataRepository;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.service.BiometricMatcher;
+import io.mosip.proxy.abis.utility.BdbSignature;
+import io.mosip.proxy.abis.utility.BioDigest;
+
+/**
+ * Implementation of {@link BiometricMatcher} searching {@link BdbSignature}s
+ * with locality-sensitive hashing.
+ * <p>
+ * The {@value BdbSignature#SLOTS} slots of a signature are cut into
+ * {@code abis.matcher.bands} bands, and each band is hashed together with the
+ * biometric type into a band table mapping band keys to the records holding
+ * them. A search only scores the records sharing at least one band with a
+ * probe biometric, so its cost follows the number of likely matches instead of
+ * the size of the gallery. With the default of 16 bands of 4 slots, a record
+ * with a similarity of 0.7 to the probe is scored with a probability above 98%,
+ * and one with a similarity of 0.1 with a probability of about 0.2%.
+ * </p>
+ * <p>
+ * A scored record is kept when its number of equal slots is unlikely for an
+ * impostor. Impostor slots are taken to agree independently with probability
+ * {@code abis.matcher.impostor.similarity}, so the chance of an impostor record
+ * reaching {@code m} equal slots is a binomial tail, and the threshold is the
+ * smallest {@code m} at which that chance, multiplied by the number of records
+ * searched, meets the target FPIR. The target is given the way the identify
+ * request flags give it, as {@code -10 log10(FPIR)}: 30 asks for at most one
+ * false positive identification in a thousand searches.
+ * </p>
+ * <p>
+ * Signatures are packed into one {@code long} array indexed by record, and the
+ * band table is an open addressing hash table whose chains are linked through
+ * an {@code int} array, so each biometric costs
+ * {@value BdbSignature#LENGTH} bytes plus 4 bytes per band and no objects.
+ * Reference IDs are interned to ordinals as in {@link BiometricIndexImpl}, and
+ * a read/write lock lets searches run in parallel while inserts and deletes
+ * update the matcher.
+ * </p>
+ * <p>
+ * Records stored without a signature, such as seeded ones, get one derived from
+ * their digest: they still match their exact duplicates, but have no near
+ * duplicates. The matcher is loaded from {@code Biometric_Data} once the
+ * application is ready; until the load completes, or if it fails,
+ * {@link #isAvailable()} returns {@code false}.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+@Component
+public class LshBiometricMatcher implements BiometricMatcher {
+	private static final Logger logger = LoggerFactory.getLogger(LshBiometricMatcher.class);
+
+	private static final int WORDS = BdbSignature.WORDS;
+	private static final int INITIAL_RECORDS = 1024;
+	/** Chance that a 16 bit slot of two unrelated values agrees by accident. */
+	private static final double SLOT_COLLISION = 1.0 / 65536;
+
+	private final ProxyAbisBioDataRepository proxyAbisBioDataRepository;
+	private final boolean enabled;
+	private final int bands;
+	private final int rows;
+	private final int defaultMaxResults;
+	private final int defaultTargetFPIR;
+	private final int rebuildPageSize;
+	/** Chance of an impostor record having at least {@code m} equal slots. */
+	private final double[] impostorTail;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** Reference ID to ordinal; guarded by {@link #lock}. */
+	private final Map<String, Integer> ordinals = new HashMap<>();
+	/** Ordinal to reference ID, {@code null} for free slots. */
+	private final List<String> referenceIds = new ArrayList<>();
+	/** Ordinal to the records held for that reference ID. */
+	private final List<int[]> referenceRecords = new ArrayList<>();
+	/** Ordinals released by deletes, reused by later inserts. */
+	private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+	/** Biometric type to code and back. */
+	private final Map<String, Integer> typeCodes = new HashMap<>();
+	private final List<String> typeNames = new ArrayList<>();
+
+	/** Record to the ordinal of its reference ID. */
+	private int[] recordOwners;
+	/** Record to its biometric type code. */
+	private int[] recordTypes;
+	/** Record {@code r} holds its signature at {@code r * WORDS}. */
+	private long[] signatures;
+	/** Posting {@code r * bands + b} links to the next record of band {@code b}. */
+	private int[] nextPostings;
+	private int recordCount;
+	private int liveRecords;
+	/** Records released by deletes, reused by later inserts. */
+	private final Deque<Integer> freeRecords = new ArrayDeque<>();
+	private final BandTable bandTable = new BandTable();
+
+	/** Reference IDs inserted or deleted while a rebuild is running. */
+	private final Set<String> touchedDuringRebuild = new HashSet<>();
+	private boolean rebuilding;
+	private long generation;
+
+	private volatile boolean ready;
+
+	/**
+	 * Creates the matcher from configuration.
+	 *
+	 * @param proxyAbisBioDataRepository The repository the matcher is loaded from.
+	 * @param enabled                    Whether identify requests are answered by
+	 *                                   the matcher.
+	 * @param bands                      The number of bands signatures are cut
+	 *                                   into; must divide
+	 *                                   {@value BdbSignature#SLOTS}.
+	 * @param maxResults                 The number of candidates returned when the
+	 *                                   request does not set {@code maxResults}.
+	 * @param targetFPIR                 The target FPIR, as
+	 *                                   {@code -10 log10(FPIR)}, when the request
+	 *                                   does not set {@code targetFPIR}.
+	 * @param impostorSimilarity         The expected similarity of unrelated
+	 *                                   biometrics of the same type.
+	 * @param rebuildPageSize            The number of rows fetched per page while
+	 *                                   loading.
+	 */
+	@Autowired
+	public LshBiometricMatcher(ProxyAbisBioDataRepository proxyAbisBioDataRepository,
+			@Value("${abis.matcher.enabled:false}") boolean enabled,
+			@Value("${abis.matcher.bands:16}") int bands,
+			@Value("${abis.matcher.max.results:10}") int maxResults,
+			@Value("${abis.matcher.target.fpir:30}") int targetFPIR,
+			@Value("${abis.matcher.impostor.similarity:0.1}") double impostorSimilarity,
+			@Value("${abis.matcher.rebuild.page.size:10000}") int rebuildPageSize) {
+		if (bands <= 0 || BdbSignature.SLOTS % bands != 0)
+			throw new IllegalArgumentException(
+					"abis.matcher.bands must divide " + BdbSignature.SLOTS + ", was " + bands);
+		if (!(impostorSimilarity > 0 && impostorSimilarity < 1))
+			throw new IllegalArgumentException(
+					"abis.matcher.impostor.similarity must be between 0 and 1, was " + impostorSimilarity);
+		this.proxyAbisBioDataRepository = proxyAbisBioDataRepository;
+		this.enabled = enabled;
+		this.bands = bands;
+		this.rows = BdbSignature.SLOTS / bands;
+		this.defaultMaxResults = Math.max(1, maxResults);
+		this.defaultTargetFPIR = Math.max(1, targetFPIR);
+		this.rebuildPageSize = Math.max(1, rebuildPageSize);
+		this.impostorTail = binomialTail(BdbSignature.SLOTS,
+				impostorSimilarity + (1 - impostorSimilarity) * SLOT_COLLISION);
+		allocateRecords(INITIAL_RECORDS);
+	}
+
+	/**
+	 * Returns {@code P[X >= m]} for {@code X ~ Binomial(n, p)} and every
+	 * {@code m} from {@code 0} to {@code n}.
+	 */
+	private static double[] binomialTail(int n, double p) {
+		double[] pmf = new double[n + 1];
+		pmf[0] = Math.pow(1 - p, n);
+		for (int k = 0; k < n; k++) {
+			pmf[k + 1] = pmf[k] * (n - k) / (k + 1) * p / (1 - p);
+		}
+		double[] tail = new double[n + 2];
+		for (int k = n; k >= 0; k--) {
+			tail[k] = tail[k + 1] + pmf[k];
+		}
+		return tail;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return enabled && ready;
+	}
+
+	/**
+	 * Loads the matcher once the application context is ready, before the ABIS
+	 * queues start consuming.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		rebuild();
+	}
+
+	@Override
+	public void add(String referenceId, List<BiometricData> biometricList) {
+		if (!enabled || Objects.isNull(referenceId) || Objects.isNull(biometricList))
+			return;
+		lock.writeLock().lock();
+		try {
+			if (rebuilding)
+				touchedDuringRebuild.add(referenceId);
+			removeLocked(referenceId);
+			for (BiometricData bd : biometricList) {
+				addRowLocked(referenceId, bd.getType(),
+						signatureOf(bd.getBioSignature(), bd.getBioData(), bd.getBioDigest()));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void remove(String referenceId) {
+		if (!enabled || Objects.isNull(referenceId))
+			return;
+		lock.writeLock().lock();
+		try {
+			if (rebuilding)
+				touchedDuringRebuild.add(referenceId);
+			removeLocked(referenceId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void clear() {
+		if (!enabled)
+			return;
+		lock.writeLock().lock();
+		try {
+			clearLocked();
+			generation++;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void rebuild() {
+		if (!enabled)
+			return;
+		ready = false;
+		long startGeneration;
+		lock.writeLock().lock();
+		try {
+			clearLocked();
+			rebuilding = true;
+			touchedDuringRebuild.clear();
+			startGeneration = ++generation;
+		} finally {
+			lock.writeLock().unlock();
+		}
+
+		long start = System.currentTimeMillis();
+		long rowCount = 0;
+		boolean completed = false;
+		try {
+			long lastId = 0;
+			PageRequest page = PageRequest.of(0, rebuildPageSize);
+			while (true) {
+				List<Object[]> entries = proxyAbisBioDataRepository.fetchSignatureEntriesAfter(lastId, page);
+				if (Objects.isNull(entries) || entries.isEmpty())
+					break;
+				lock.writeLock().lock();
+				try {
+					if (generation != startGeneration) {
+						logger.info("Biometric matcher cleared while loading, stopping load");
+						break;
+					}
+					for (Object[] row : entries) {
+						String referenceId = (String) row[1];
+						if (!touchedDuringRebuild.contains(referenceId))
+							addRowLocked(referenceId, (String) row[2],
+									signatureOf((byte[]) row[3], (String) row[4], (byte[]) row[5]));
+					}
+				} finally {
+					lock.writeLock().unlock();
+				}
+				rowCount += entries.size();
+				lastId = ((Number) entries.get(entries.size() - 1)[0]).longValue();
+				if (entries.size() < page.getPageSize())
+					break;
+			}
+			completed = true;
+		} catch (Exception ex) {
+			logger.error("Error while loading biometric matcher, identify will use exact duplicates", ex);
+		} finally {
+			lock.writeLock().lock();
+			try {
+				rebuilding = false;
+				touchedDuringRebuild.clear();
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+		if (completed) {
+			ready = true;
+			logger.info("Biometric matcher loaded {} rows for {} reference IDs in {} ms", rowCount, size(),
+					System.currentTimeMillis() - start);
+		}
+	}
+
+	@Override
+	public List<Candidate> search(String referenceId, Collection<String> galleryReferenceIds, int maxResults,
+			int targetFPIR) {
+		int limit = maxResults > 0 ? maxResults : defaultMaxResults;
+		double fpir = Math.pow(10, -(targetFPIR > 0 ? targetFPIR : defaultTargetFPIR) / 10.0);
+		lock.readLock().lock();
+		try {
+			Integer probe = ordinals.get(referenceId);
+			if (Objects.isNull(probe))
+				return new ArrayList<>();
+			BitSet members = null;
+			long searched = liveRecords - referenceRecords.get(probe).length;
+			if (!Objects.isNull(galleryReferenceIds)) {
+				members = new BitSet(referenceIds.size());
+				searched = 0;
+				for (String galleryReferenceId : galleryReferenceIds) {
+					Integer ordinal = ordinals.get(galleryReferenceId);
+					if (!Objects.isNull(ordinal) && ordinal.intValue() != probe && !members.get(ordinal)) {
+						members.set(ordinal);
+						searched += referenceRecords.get(ordinal).length;
+					}
+				}
+			}
+			int threshold = thresholdFor(Math.max(1, searched), fpir);
+			Map<Integer, int[]> hits = scoreLocked(probe, members, threshold);
+			return rankLocked(hits, Math.max(1, searched), limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the smallest number of equal slots an impostor reaches in at most
+	 * the target fraction of searches over the given number of records.
+	 */
+	private int thresholdFor(long searched, double fpir) {
+		for (int m = 1; m < BdbSignature.SLOTS; m++) {
+			if (searched * impostorTail[m] <= fpir)
+				return m;
+		}
+		return BdbSignature.SLOTS;
+	}
+
+	private int confidenceOf(int matches, long searched) {
+		double chance = searched * impostorTail[matches];
+		if (chance >= 1)
+			return 0;
+		return (int) Math.min(100, Math.round(-10 * Math.log10(chance)));
+	}
+
+	/**
+	 * Scores the records sharing a band with a probe biometric.
+	 *
+	 * @return per candidate ordinal, the most equal slots per type code
+	 */
+	private Map<Integer, int[]> scoreLocked(int probe, BitSet members, int threshold) {
+		Map<Integer, int[]> hits = new HashMap<>();
+		Set<Integer> scored = new HashSet<>();
+		for (int probeRecord : referenceRecords.get(probe)) {
+			int type = recordTypes[probeRecord];
+			int probeOffset = probeRecord * WORDS;
+			scored.clear();
+			for (int band = 0; band < bands; band++) {
+				for (int posting = bandTable.head(bandKey(type, band, probeOffset)); posting >= 0;
+						posting = nextPostings[posting]) {
+					int record = posting / bands;
+					int owner = recordOwners[record];
+					if (owner == probe || recordTypes[record] != type
+							|| (!Objects.isNull(members) && !members.get(owner)) || !scored.add(record))
+						continue;
+					int matches = BdbSignature.matches(signatures, probeOffset, signatures, record * WORDS);
+					if (matches < threshold)
+						continue;
+					int[] best = hits.computeIfAbsent(owner, o -> new int[typeNames.size()]);
+					best[type] = Math.max(best[type], matches);
+				}
+			}
+		}
+		return hits;
+	}
+
+	/**
+	 * Orders the candidates by their best score and turns the first of them into
+	 * results.
+	 */
+	private List<Candidate> rankLocked(Map<Integer, int[]> hits, long searched, int limit) {
+		List<int[]> ranked = new ArrayList<>(hits.size());
+		for (Map.Entry<Integer, int[]> hit : hits.entrySet()) {
+			int best = Arrays.stream(hit.getValue()).max().orElse(0);
+			ranked.add(new int[] { hit.getKey(), best });
+		}
+		ranked.sort(Comparator.<int[]>comparingInt(r -> -r[1]).thenComparing(r -> referenceIds.get(r[0])));
+		List<Candidate> candidates = new ArrayList<>(Math.min(limit, ranked.size()));
+		for (int[] r : ranked.subList(0, Math.min(limit, ranked.size()))) {
+			int[] best = hits.get(r[0]);
+			List<ModalityScore> modalities = new ArrayList<>();
+			for (int type = 0; type < best.length; type++) {
+				if (best[type] > 0)
+					modalities.add(new ModalityScore(typeNames.get(type), scoreOf(best[type]),
+							confidenceOf(best[type], searched)));
+			}
+			modalities.sort(Comparator.comparingDouble(ModalityScore::score).reversed()
+					.thenComparing(ModalityScore::biometricType, Comparator.nullsLast(Comparator.naturalOrder())));
+			candidates.add(new Candidate(referenceIds.get(r[0]), scoreOf(r[1]), confidenceOf(r[1], searched),
+					modalities));
+		}
+		return candidates;
+	}
+
+	private static double scoreOf(int matches) {
+		return (double) matches / BdbSignature.SLOTS;
+	}
+
+	@Override
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return ordinals.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns the signature of a record from its signature column, or derives one
+	 * from whichever column holds its digest.
+	 *
+	 * @return the signature, or {@code null} if the record has neither
+	 */
+	private static BdbSignature signatureOf(byte[] bioSignature, String bioData, byte[] bioDigest) {
+		if (Objects.nonNull(bioSignature) && bioSignature.length == BdbSignature.LENGTH)
+			return BdbSignature.fromBytes(bioSignature);
+		BioDigest digest = Objects.nonNull(bioDigest) && bioDigest.length == BioDigest.LENGTH
+				? BioDigest.fromBytes(bioDigest)
+				: BioDigest.fromHex(bioData);
+		return Objects.isNull(digest) ? null : BdbSignature.fromDigest(digest);
+	}
+
+	private void addRowLocked(String referenceId, String type, BdbSignature signature) {
+		if (Objects.isNull(signature)) {
+			logger.warn("Skipping biometric without a signature or SHA-256 digest while matching");
+			return;
+		}
+		int ordinal = ordinalFor(referenceId);
+		int record = recordFor();
+		recordOwners[record] = ordinal;
+		recordTypes[record] = typeCodeFor(type);
+		signature.copyTo(signatures, record * WORDS);
+		for (int band = 0; band < bands; band++) {
+			bandTable.push(bandKey(recordTypes[record], band, record * WORDS), record * bands + band, nextPostings);
+		}
+		int[] held = referenceRecords.get(ordinal);
+		held = Arrays.copyOf(held, held.length + 1);
+		held[held.length - 1] = record;
+		referenceRecords.set(ordinal, held);
+		liveRecords++;
+	}
+
+	private void removeLocked(String referenceId) {
+		Integer ordinal = ordinals.remove(referenceId);
+		if (Objects.isNull(ordinal))
+			return;
+		for (int record : referenceRecords.get(ordinal)) {
+			for (int band = 0; band < bands; band++) {
+				bandTable.unlink(bandKey(recordTypes[record], band, record * WORDS), record * bands + band,
+						nextPostings);
+			}
+			freeRecords.push(record);
+			liveRecords--;
+		}
+		referenceIds.set(ordinal, null);
+		referenceRecords.set(ordinal, null);
+		freeOrdinals.push(ordinal);
+	}
+
+	private void clearLocked() {
+		ordinals.clear();
+		referenceIds.clear();
+		referenceRecords.clear();
+		freeOrdinals.clear();
+		freeRecords.clear();
+		bandTable.clear();
+		recordCount = 0;
+		liveRecords = 0;
+		allocateRecords(INITIAL_RECORDS);
+	}
+
+	/**
+	 * Hashes one band of a stored signature together with its type, so only
+	 * biometrics of the same type collide.
+	 */
+	private long bandKey(int type, int band, int offset) {
+		long key = ((long) type << 8) | band;
+		for (int slot = band * rows; slot < (band + 1) * rows; slot++) {
+			key = key * 0x100000001B3L ^ BdbSignature.slot(signatures, offset, slot);
+		}
+		return mix64(key);
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	private int ordinalFor(String referenceId) {
+		Integer existing = ordinals.get(referenceId);
+		if (!Objects.isNull(existing))
+			return existing;
+		int ordinal;
+		if (freeOrdinals.isEmpty()) {
+			ordinal = referenceIds.size();
+			referenceIds.add(referenceId);
+			referenceRecords.add(new int[0]);
+		} else {
+			ordinal = freeOrdinals.pop();
+			referenceIds.set(ordinal, referenceId);
+			referenceRecords.set(ordinal, new int[0]);
+		}
+		ordinals.put(referenceId, ordinal);
+		return ordinal;
+	}
+
+	private int recordFor() {
+		if (!freeRecords.isEmpty())
+			return freeRecords.pop();
+		if (recordCount == recordOwners.length)
+			growRecords(recordCount * 2);
+		return recordCount++;
+	}
+
+	private void allocateRecords(int capacity) {
+		recordOwners = new int[capacity];
+		recordTypes = new int[capacity];
+		signatures = new long[capacity * WORDS];
+		nextPostings = new int[capacity * bands];
+	}
+
+	private void growRecords(int capacity) {
+		recordOwners = Arrays.copyOf(recordOwners, capacity);
+		recordTypes = Arrays.copyOf(recordTypes, capacity);
+		signatures = Arrays.copyOf(signatures, capacity * WORDS);
+		nextPostings = Arrays.copyOf(nextPostings, capacity * bands);
+	}
+
+	private int typeCodeFor(String type) {
+		return typeCodes.computeIfAbsent(type, t -> {
+			typeNames.add(t);
+			return typeNames.size() - 1;
+		});
+	}
+
+	/**
+	 * Open addressing hash table from band key to the first posting of its chain,
+	 * with linear probing and backward shift deletion. A posting's successor is
+	 * held in the posting array passed in, so chains cost no objects.
+	 */
+	private static final class BandTable {
+		private static final int INITIAL_CAPACITY = 1024;
+
+		private long[] keys;
+		private int[] heads;
+		private int size;
+
+		BandTable() {
+			allocate(INITIAL_CAPACITY);
+		}
+
+		int head(long key) {
+			int slot = find(key);
+			return slot < 0 ? -1 : heads[slot];
+		}
+
+		void push(long key, int posting, int[] next) {
+			if ((size + 1) * 4L > keys.length * 3L)
+				rehash(keys.length * 2);
+			int mask = keys.length - 1;
+			int slot = home(key, mask);
+			while (heads[slot] >= 0) {
+				if (keys[slot] == key) {
+					next[posting] = heads[slot];
+					heads[slot] = posting;
+					return;
+				}
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = key;
+			heads[slot] = posting;
+			next[posting] = -1;
+			size++;
+		}
+
+		void unlink(long key, int posting, int[] next) {
+			int slot = find(key);
+			if (slot < 0)
+				return;
+			if (heads[slot] == posting) {
+				heads[slot] = next[posting];
+				if (heads[slot] < 0)
+					delete(slot);
+				return;
+			}
+			for (int previous = heads[slot]; previous >= 0; previous = next[previous]) {
+				if (next[previous] == posting) {
+					next[previous] = next[posting];
+					return;
+				}
+			}
+		}
+
+		void clear() {
+			allocate(INITIAL_CAPACITY);
+		}
+
+		private int find(long key) {
+			int mask = keys.length - 1;
+			for (int slot = home(key, mask); heads[slot] >= 0; slot = (slot + 1) & mask) {
+				if (keys[slot] == key)
+					return slot;
+			}
+			return -1;
+		}
+
+		private void delete(int slot) {
+			int mask = keys.length - 1;
+			int hole = slot;
+			for (int next = (slot + 1) & mask; heads[next] >= 0; next = (next + 1) & mask) {
+				// an entry may fill the hole only if the hole lies between its home and it
+				if (((next - home(keys[next], mask)) & mask) >= ((next - hole) & mask)) {
+					keys[hole] = keys[next];
+					heads[hole] = heads[next];
+					hole = next;
+				}
+			}
+			heads[hole] = -1;
+			size--;
+		}
+
+		private void rehash(int capacity) {
+			long[] oldKeys = keys;
+			int[] oldHeads = heads;
+			allocate(capacity);
+			int mask = capacity - 1;
+			for (int i = 0; i < oldKeys.length; i++) {
+				if (oldHeads[i] < 0)
+					continue;
+				int slot = home(oldKeys[i], mask);
+				while (heads[slot] >= 0)
+					slot = (slot + 1) & mask;
+				keys[slot] = oldKeys[i];
+				heads[slot] = oldHeads[i];
+				size++;
+			}
+		}
+
+		private void allocate(int capacity) {
+			keys = new long[capacity];
+			heads = new int[capacity];
+			Arrays.fill(heads, -1);
+			size = 0;
+		}
+
+		private static int home(long key, int mask) {
+			return (int) (key ^ (key >>> 32)) & mask;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.proxy.abis.constant.FailureReasonsConstants;
+import io.mosip.proxy.abis.service.AdmissionLimiter;
+import io.mosip.proxy.abis.service.PipelineMetrics;
+
+/**
+ * {@link PipelineMetrics} publishing a Micrometer timer per stage.
+ * <p>
+ * The following meter is published:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.pipeline.stage}: time taken by a stage of processing a
+ * request, tagged with {@code stage}, {@code operation} and
+ * {@code outcome}.</li>
+ * </ul>
+ * <p>
+ * With {@code abis.metrics.stage.histogram.enabled} the timers also publish
+ * histogram buckets from 10 microseconds to a minute, from which latency
+ * percentiles can be aggregated across nodes. Setting
+ * {@code abis.metrics.stage.enabled} to {@code false} records nothing.
+ * </p>
+ * <p>
+ * Every measurement is also passed to the {@link AdmissionLimiter}, whose
+ * adaptive limit follows the latency of the stages, even when no timers are
+ * recorded.
+ * </p>
+ */
+@Component
+public class MicrometerPipelineMetrics implements PipelineMetrics {
+	private static final Duration MIN_EXPECTED = Duration.ofNanos(10_000);
+	private static final Duration MAX_EXPECTED = Duration.ofMinutes(1);
+
+	private final MeterRegistry meterRegistry;
+	private final boolean enabled;
+	private final boolean histogram;
+	private final AdmissionLimiter admissionLimiter;
+
+	/** Timers of each stage and operation, by outcome; the outer maps are fixed. */
+	private final Map<Stage, Map<Operation, Map<String, Timer>>> timers = new EnumMap<>(Stage.class);
+
+	/**
+	 * Creates the stage timers from configuration.
+	 *
+	 * @param meterRegistry    The registry to publish meters to; the global
+	 *                         registry is used when none is configured.
+	 * @param admissionLimiter The limiter stage times are passed to, if any.
+	 * @param enabled          Whether stages are timed.
+	 * @param histogram        Whether the timers publish histogram buckets.
+	 */
+	@Autowired
+	public MicrometerPipelineMetrics(ObjectProvider<MeterRegistry> meterRegistry,
+			ObjectProvider<AdmissionLimiter> admissionLimiter,
+			@Value("${abis.metrics.stage.enabled:true}") boolean enabled,
+			@Value("${abis.metrics.stage.histogram.enabled:true}") boolean histogram) {
+		this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), enabled, histogram,
+				admissionLimiter.getIfAvailable());
+	}
+
+	/**
+	 * Creates the stage timers with explicit settings.
+	 *
+	 * @param meterRegistry The registry to publish meters to.
+	 * @param enabled       Whether stages are timed.
+	 * @param histogram     Whether the timers publish histogram buckets.
+	 */
+	public MicrometerPipelineMetrics(MeterRegistry meterRegistry, boolean enabled, boolean histogram) {
+		this(meterRegistry, enabled, histogram, null);
+	}
+
+	/**
+	 * Creates the stage timers with explicit settings, passing stage times to an
+	 * admission limiter.
+	 *
+	 * @param meterRegistry    The registry to publish meters to.
+	 * @param enabled          Whether stages are timed.
+	 * @param histogram        Whether the timers publish histogram buckets.
+	 * @param admissionLimiter The limiter stage times are passed to, or
+	 *                         {@code null}.
+	 */
+	public MicrometerPipelineMetrics(MeterRegistry meterRegistry, boolean enabled, boolean histogram,
+			AdmissionLimiter admissionLimiter) {
+		this.meterRegistry = meterRegistry;
+		this.enabled = enabled;
+		this.histogram = histogram;
+		this.admissionLimiter = admissionLimiter;
+		for (Stage stage : Stage.values()) {
+			Map<Operation, Map<String, Timer>> byOperation = new EnumMap<>(Operation.class);
+			for (Operation operation : Operation.values())
+				byOperation.put(operation, new ConcurrentHashMap<>());
+			timers.put(stage, byOperation);
+		}
+	}
+
+	@Override
+	public void record(Stage stage, Operation operation, String outcome, long nanos) {
+		if (admissionLimiter != null)
+			admissionLimiter.observe(operation, stage, nanos);
+		if (!enabled)
+			return;
+		String tag = outcome != null ? outcome : FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN;
+		Map<String, Timer> byOutcome = timers.get(stage).get(operation);
+		Timer timer = byOutcome.get(tag);
+		if (timer == null)
+			timer = byOutcome.computeIfAbsent(tag, o -> register(stage, operation, o));
+		timer.record(Math.max(0, nanos), TimeUnit.NANOSECONDS);
+	}
+
+	private Timer register(Stage stage, Operation operation, String outcome) {
+		Timer.Builder builder = Timer.builder("mock.abis.pipeline.stage").tag("stage", stage.tag())
+				.tag("operation", operation.tag()).tag("outcome", outcome)
+				.description("Time taken by a stage of processing an ABIS request");
+		if (histogram)
+			builder.publishPercentileHistogram().minimumExpectedValue(MIN_EXPECTED)
+					.maximumExpectedValue(MAX_EXPECTED);
+		return builder.register(meterRegistry);
+	}
+}
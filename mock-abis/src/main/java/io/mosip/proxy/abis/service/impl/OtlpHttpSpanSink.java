@@ -0,0 +1,151 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.mosip.proxy.abis.dto.SpanRecord;
+import io.mosip.proxy.abis.service.PipelineMetrics;
+import io.mosip.proxy.abis.service.RequestTracer;
+import io.mosip.proxy.abis.service.SpanSink;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * {@link SpanSink} posting spans to an OpenTelemetry collector over OTLP/HTTP
+ * with the JSON encoding, selected with {@code abis.tracing.sink=otlp}.
+ * <p>
+ * Each batch is sent as one {@code ExportTraceServiceRequest} to
+ * {@code abis.tracing.otlp.endpoint}, with the resource attribute
+ * {@code service.name} set to {@code abis.tracing.service.name}. The request
+ * ID of a span is sent as the attribute {@code abis.request_id}, and a span
+ * that failed has an error status carrying its failure reason. A batch the
+ * collector does not accept within {@code abis.tracing.otlp.timeout.ms} is
+ * dropped.
+ * </p>
+ */
+@Component
+public class OtlpHttpSpanSink implements SpanSink {
+	/** Name selecting this sink. */
+	public static final String OTLP = "otlp";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final int STATUS_OK = 1;
+	private static final int STATUS_ERROR = 2;
+
+	private final URI endpoint;
+	private final String serviceName;
+	private final Duration timeout;
+	private HttpClient httpClient;
+
+	/**
+	 * Creates the sink from configuration.
+	 *
+	 * @param endpoint      The OTLP/HTTP traces endpoint of the collector.
+	 * @param serviceName   The service name spans are reported under.
+	 * @param timeoutMillis How long sending a batch may take.
+	 */
+	@Autowired
+	public OtlpHttpSpanSink(@Value("${abis.tracing.otlp.endpoint:http://localhost:4318/v1/traces}") String endpoint,
+			@Value("${abis.tracing.service.name:mock-abis}") String serviceName,
+			@Value("${abis.tracing.otlp.timeout.ms:5000}") long timeoutMillis) {
+		this.endpoint = URI.create(endpoint);
+		this.serviceName = serviceName;
+		this.timeout = Duration.ofMillis(timeoutMillis);
+	}
+
+	@Override
+	public String getName() {
+		return OTLP;
+	}
+
+	@Override
+	public void export(List<SpanRecord> spans) throws IOException {
+		HttpRequest request = HttpRequest.newBuilder(endpoint).timeout(timeout)
+				.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(toRequest(spans)))).build();
+		HttpResponse<Void> response;
+		try {
+			response = client().send(request, HttpResponse.BodyHandlers.discarding());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while exporting spans", e);
+		}
+		if (response.statusCode() / 100 != 2)
+			throw new IOException("OTLP endpoint " + endpoint + " answered " + response.statusCode());
+	}
+
+	/**
+	 * Builds the OTLP export request for a batch of spans.
+	 *
+	 * @param spans The spans.
+	 * @return The {@code ExportTraceServiceRequest} in its JSON encoding.
+	 */
+	ObjectNode toRequest(List<SpanRecord> spans) {
+		ObjectNode request = MAPPER.createObjectNode();
+		ObjectNode resourceSpans = request.putArray("resourceSpans").addObject();
+		addAttribute(resourceSpans.putObject("resource").putArray("attributes"), "service.name", serviceName);
+		ObjectNode scopeSpans = resourceSpans.putArray("scopeSpans").addObject();
+		scopeSpans.putObject("scope").put("name", "io.mosip.proxy.abis");
+		ArrayNode out = scopeSpans.putArray("spans");
+		for (SpanRecord span : spans) {
+			ObjectNode node = out.addObject();
+			node.put("traceId", span.getTraceId());
+			node.put("spanId", span.getSpanId());
+			if (span.getParentSpanId() != null)
+				node.put("parentSpanId", span.getParentSpanId());
+			node.put("name", span.getName());
+			node.put("kind", RequestTracer.Kind.valueOf(span.getKind()).ordinal() + 1);
+			node.put("startTimeUnixNano", Long.toString(span.getStartEpochNanos()));
+			node.put("endTimeUnixNano", Long.toString(span.getEndEpochNanos()));
+			ArrayNode attributes = node.putArray("attributes");
+			if (span.getRequestId() != null)
+				addAttribute(attributes, "abis.request_id", span.getRequestId());
+			if (span.getAttributes() != null)
+				for (Map.Entry<String, String> attribute : span.getAttributes().entrySet())
+					addAttribute(attributes, attribute.getKey(), attribute.getValue());
+			ObjectNode status = node.putObject("status");
+			if (PipelineMetrics.SUCCESS.equals(span.getOutcome())) {
+				status.put("code", STATUS_OK);
+			} else {
+				status.put("code", STATUS_ERROR);
+				status.put("message", span.getOutcome());
+			}
+		}
+		return request;
+	}
+
+	private static void addAttribute(ArrayNode attributes, String key, String value) {
+		ObjectNode attribute = attributes.addObject();
+		attribute.put("key", key);
+		attribute.putObject("value").put("stringValue", value);
+	}
+
+	private synchronized HttpClient client() {
+		if (httpClient == null)
+			httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+		return httpClient;
+	}
+
+	/**
+	 * Closes the connections to the collector.
+	 */
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (httpClient != null)
+			httpClient.shutdownNow();
+	}
+}
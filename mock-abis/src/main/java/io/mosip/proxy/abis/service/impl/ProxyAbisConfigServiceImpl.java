@@ -3,12 +3,22 @@ package io.mosip.proxy.abis.service.impl;
 import io.mosip.proxy.abis.dao.ProxyAbisBioDataRepository;
 import io.mosip.proxy.abis.dao.ProxyAbisInsertRepository;
 import io.mosip.proxy.abis.dto.Expectation;
+import io.mosip.proxy.abis.service.BioDigestStorage;
+import io.mosip.proxy.abis.service.BiometricIndex;
+import io.mosip.proxy.abis.service.BiometricMatcher;
 import io.mosip.proxy.abis.service.ExpectationCache;
+import io.mosip.proxy.abis.service.GalleryJournal;
+import io.mosip.proxy.abis.service.GalleryReplicator;
+import io.mosip.proxy.abis.service.IdentifyResultCache;
 import io.mosip.proxy.abis.service.ProxyAbisConfigService;
+import io.mosip.proxy.abis.utility.AfterCommit;
+import io.mosip.proxy.abis.utility.BioDigest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -35,6 +45,12 @@ public class ProxyAbisConfigServiceImpl implements ProxyAbisConfigService {
 	private ProxyAbisInsertRepository proxyabis;
 	private ProxyAbisBioDataRepository proxyAbisBioDataRepository;
 	private ExpectationCache expectationCache;
+	private BiometricIndex biometricIndex;
+	private BiometricMatcher biometricMatcher;
+	private BioDigestStorage bioDigestStorage;
+	private IdentifyResultCache identifyResultCache;
+	private GalleryJournal galleryJournal;
+	private GalleryReplicator galleryReplicator;
 
 	/**
 	 * Flag to determine if duplicate biometric data should be returned. Default
@@ -58,13 +74,30 @@ public class ProxyAbisConfigServiceImpl implements ProxyAbisConfigService {
 	 *                                   operations.
 	 * @param proxyAbisBioDataRepository The repository for managing biometric data.
 	 * @param expectationCache           The cache for managing expectations.
+	 * @param biometricIndex             The in-memory index over biometric data.
+	 * @param biometricMatcher           The approximate matcher over biometric
+	 *                                   data.
+	 * @param bioDigestStorage           The storage mode of biometric digests.
+	 * @param identifyResultCache        The cache of identify results.
+	 * @param galleryJournal             The durable record of the gallery.
+	 * @param galleryReplicator          Replicates the gallery to the other
+	 *                                   nodes.
 	 */
 	@Autowired
 	public ProxyAbisConfigServiceImpl(ProxyAbisInsertRepository proxyabis,
-			ProxyAbisBioDataRepository proxyAbisBioDataRepository, ExpectationCache expectationCache) {
+			ProxyAbisBioDataRepository proxyAbisBioDataRepository, ExpectationCache expectationCache,
+			BiometricIndex biometricIndex, BiometricMatcher biometricMatcher, BioDigestStorage bioDigestStorage,
+			IdentifyResultCache identifyResultCache, GalleryJournal galleryJournal,
+			GalleryReplicator galleryReplicator) {
 		this.proxyabis = proxyabis;
 		this.proxyAbisBioDataRepository = proxyAbisBioDataRepository;
 		this.expectationCache = expectationCache;
+		this.biometricIndex = biometricIndex;
+		this.biometricMatcher = biometricMatcher;
+		this.bioDigestStorage = bioDigestStorage;
+		this.identifyResultCache = identifyResultCache;
+		this.galleryJournal = galleryJournal;
+		this.galleryReplicator = galleryReplicator;
 	}
 
 	/**
@@ -132,12 +165,32 @@ public class ProxyAbisConfigServiceImpl implements ProxyAbisConfigService {
 		expectationCache.deleteAll();
 	}
 
+	/**
+	 * Retrieves a copy of every cached expectation.
+	 * 
+	 * @return A list of the cached expectations.
+	 */
+	public List<Expectation> getExpectationSnapshot() {
+		return expectationCache.snapshot();
+	}
+
+	/**
+	 * Replaces every cached expectation with the given ones.
+	 * 
+	 * @param expectations The expectations to set.
+	 */
+	public void restoreExpectations(List<Expectation> expectations) {
+		expectationCache.restore(expectations);
+	}
+
 	/**
 	 * Retrieves all cached biometric data.
 	 * 
 	 * @return A list of strings representing all cached biometric data.
 	 */
 	public List<String> getCachedBiometrics() {
+		if (bioDigestStorage.isBinary())
+			return toHex(proxyAbisBioDataRepository.fetchAllBioDigest());
 		return proxyAbisBioDataRepository.fetchAllBioData();
 	}
 
@@ -149,15 +202,43 @@ public class ProxyAbisConfigServiceImpl implements ProxyAbisConfigService {
 	 *         hash.
 	 */
 	public List<String> getCachedBiometric(String hash) {
+		if (bioDigestStorage.isBinary()) {
+			BioDigest digest = BioDigest.fromHex(hash);
+			if (digest == null)
+				return new ArrayList<>();
+			return toHex(proxyAbisBioDataRepository.fetchByBioDigest(digest.toBytes()));
+		}
 		return proxyAbisBioDataRepository.fetchByBioData(hash);
 	}
 
+	private static List<String> toHex(List<byte[]> digests) {
+		List<String> hashes = new ArrayList<>(digests.size());
+		for (byte[] digest : digests) {
+			hashes.add(BioDigest.fromBytes(digest).toHex());
+		}
+		return hashes;
+	}
+
 	/**
 	 * Deletes all cached biometric data from both the biometric and insert
-	 * repositories.
+	 * repositories, and from the in-memory index, the matcher and the identify
+	 * result cache.
+	 * Each table is emptied with a single statement. The in-memory structures
+	 * are only cleared once the transaction commits, so an identify running
+	 * before the commit cannot cache results under the new generation. The clear
+	 * is then journaled so a restart does not bring the gallery back, and in
+	 * replication mode the other nodes clear their index too.
 	 */
+	@Transactional
 	public void deleteAllCachedBiometrics() {
-		proxyAbisBioDataRepository.deleteAll();
-		proxyabis.deleteAll();
+		proxyAbisBioDataRepository.deleteAllInBulk();
+		proxyabis.deleteAllInBulk();
+		AfterCommit.run(() -> {
+			biometricIndex.clear();
+			biometricMatcher.clear();
+			identifyResultCache.clear();
+			galleryJournal.recordClear();
+			galleryReplicator.publishClear();
+		});
 	}
 }
\ No newline at end of file
@@ -1,7 +1,12 @@
 package io.mosip.proxy.abis.service.impl;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -10,8 +15,12 @@ import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.apache.commons.io.IOUtils;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
@@ -29,6 +38,7 @@ import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.multipart.MultipartFile;
@@ -50,10 +60,29 @@ import io.mosip.proxy.abis.entity.BiometricData;
 import io.mosip.proxy.abis.entity.InsertEntity;
 import io.mosip.proxy.abis.exception.AbisException;
 import io.mosip.proxy.abis.exception.RequestException;
+import io.mosip.proxy.abis.service.BioDigestStorage;
+import io.mosip.proxy.abis.service.BiometricIndex;
+import io.mosip.proxy.abis.service.BiometricMatcher;
+import io.mosip.proxy.abis.service.ClusterPartition;
+import io.mosip.proxy.abis.service.ClusterRouter;
+import io.mosip.proxy.abis.service.DataShareClient;
+import io.mosip.proxy.abis.service.GalleryJournal;
+import io.mosip.proxy.abis.service.GalleryReplicator;
 import io.mosip.proxy.abis.service.ExpectationCache;
+import io.mosip.proxy.abis.service.GalleryScope;
+import io.mosip.proxy.abis.service.IdentifyResultCache;
+import io.mosip.proxy.abis.service.InsertBatchWriter;
+import io.mosip.proxy.abis.service.PipelineMetrics;
+import io.mosip.proxy.abis.service.PipelineMetrics.Operation;
+import io.mosip.proxy.abis.service.PipelineMetrics.Stage;
 import io.mosip.proxy.abis.service.ProxyAbisConfigService;
 import io.mosip.proxy.abis.service.ProxyAbisInsertService;
+import io.mosip.proxy.abis.service.RequestTracer;
+import io.mosip.proxy.abis.utility.AfterCommit;
+import io.mosip.proxy.abis.utility.BdbSignature;
+import io.mosip.proxy.abis.utility.BioDigest;
 import io.mosip.proxy.abis.utility.CryptoCoreUtil;
+import io.mosip.proxy.abis.utility.StreamingBirReader;
 
 /**
  * Service implementation for handling biometric data insertion and duplication
@@ -71,6 +100,8 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 
 	private static final String PROPERTIES_FILE_NAME = "partner.properties";
 
+	private static final HexFormat HEX = HexFormat.of();
+
 	private ProxyAbisInsertRepository proxyabis;
 	private ProxyAbisBioDataRepository proxyAbisBioDataRepository;
 	private ProxyAbisConfigService proxyAbisConfigService;
@@ -82,8 +113,17 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 	private CryptoCoreUtil cryptoUtil;
 	private Environment env;
 	private ExpectationCache expectationCache;
-
-	private String cbeffURL = null;
+	private BiometricIndex biometricIndex;
+	private BiometricMatcher biometricMatcher;
+	private BioDigestStorage bioDigestStorage;
+	private InsertBatchWriter insertBatchWriter;
+	private IdentifyResultCache identifyResultCache;
+	private ClusterRouter clusterRouter;
+	private GalleryReplicator galleryReplicator;
+	private GalleryJournal galleryJournal;
+	private DataShareClient dataShareClient;
+	private PipelineMetrics pipelineMetrics;
+	private RequestTracer requestTracer;
 
 	/**
 	 * Flag for enabling or disabling biometric data encryption.
@@ -91,27 +131,60 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 	@Value("${abis.bio.encryption:true}")
 	private boolean encryption;
 
+	/**
+	 * Flag for reading the CBEFF data as a stream instead of loading it whole.
+	 */
+	@Value("${abis.cbeff.streaming.enabled:false}")
+	private boolean streamingEnabled;
+
 	/**
 	 * MOSIP host URL.
 	 */
 	@Value("${mosip_host:#{null}}")
 	private String mosipHost;
 
+	/**
+	 * Maximum number of gallery reference IDs bound into one SQL {@code IN} list
+	 * when the gallery is evaluated in the database.
+	 */
+	@Value("${abis.gallery.query.chunk.size:1000}")
+	private int galleryQueryChunkSize = 1000;
+
 	@Autowired(required = true)
 	public ProxyAbisInsertServiceImpl(ProxyAbisInsertRepository proxyabis,
 			ProxyAbisBioDataRepository proxyAbisBioDataRepository, ProxyAbisConfigService proxyAbisConfigService,
-			CryptoCoreUtil cryptoUtil, Environment env, ExpectationCache expectationCache) {
+			CryptoCoreUtil cryptoUtil, Environment env, ExpectationCache expectationCache,
+			BiometricIndex biometricIndex, BiometricMatcher biometricMatcher, BioDigestStorage bioDigestStorage,
+			InsertBatchWriter insertBatchWriter, IdentifyResultCache identifyResultCache, ClusterRouter clusterRouter,
+			GalleryReplicator galleryReplicator, GalleryJournal galleryJournal, DataShareClient dataShareClient,
+			PipelineMetrics pipelineMetrics, RequestTracer requestTracer) {
 		this.proxyabis = proxyabis;
 		this.proxyAbisBioDataRepository = proxyAbisBioDataRepository;
 		this.proxyAbisConfigService = proxyAbisConfigService;
 		this.cryptoUtil = cryptoUtil;
 		this.env = env;
 		this.expectationCache = expectationCache;
+		this.biometricIndex = biometricIndex;
+		this.biometricMatcher = biometricMatcher;
+		this.bioDigestStorage = bioDigestStorage;
+		this.insertBatchWriter = insertBatchWriter;
+		this.identifyResultCache = identifyResultCache;
+		this.clusterRouter = clusterRouter;
+		this.galleryReplicator = galleryReplicator;
+		this.galleryJournal = galleryJournal;
+		this.dataShareClient = dataShareClient;
+		this.pipelineMetrics = pipelineMetrics;
+		this.requestTracer = requestTracer;
 	}
 
 	/**
 	 * Inserts biometric data into the database.
 	 *
+	 * When insert batching is enabled the request is committed together with
+	 * other concurrent inserts, and this method returns once that batch has
+	 * committed. In cluster mode a reference ID owned by another node is inserted
+	 * by that node.
+	 *
 	 * @param ire the insertion request object containing reference ID and other
 	 *            details
 	 * @return the delay response time
@@ -119,66 +192,255 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 	@Override
 	@SuppressWarnings({ "java:S1192", "java:S2139", "java:S3776" })
 	public int insertData(InsertRequestMO ire) {
+		if (clusterRouter.isEnabled() && !clusterRouter.isLocal(ire.getReferenceId()))
+			return clusterRouter.forwardInsert(ire);
 		int delayResponse = 0;
 		try {
-			java.util.Optional<InsertEntity> op = proxyabis.findById(ire.getReferenceId());
-			if (!op.isEmpty()) {
-				// Logs a masked version of the reference ID to avoid exposing sensitive information.
-				// Only the last 4 characters are shown, and the rest are replaced with asterisks.
-				logger.error("Reference Id already exists ending with ****{}", ire.getReferenceId().substring(Math.max(ire.getReferenceId().length() - 4, 0)));
-				RequestMO re = new RequestMO(ire.getId(), ire.getVersion(), ire.getRequestId(), ire.getRequesttime(),
-						ire.getReferenceId());
-				throw new RequestException(re, FailureReasonsConstants.REFERENCEID_ALREADY_EXISTS);
+			InsertEntity ie = newInsertEntity(ire);
+			String cbeffURL = ire.getReferenceURL();
+			List<BiometricData> lst = streamingEnabled ? fetchCBEFFStreaming(ie, cbeffURL) : fetchCBEFF(ie, cbeffURL);
+			delayResponse = stage(Stage.EXPECTATION, Operation.INSERT,
+					() -> checkInsertExpectations(lst));
+			stage(Stage.PERSIST, Operation.INSERT, () -> store(ie, lst));
+			return delayResponse;
+		} catch (Exception exp) {
+			throw insertFailure(exp, delayResponse);
+		}
+	}
+
+	/**
+	 * Inserts biometric data into the database, fetching the CBEFF data through
+	 * the {@link DataShareClient} when it is enabled.
+	 *
+	 * The reference ID is checked on the calling thread; parsing, expectations and
+	 * the database write run on the thread completing the download. Requests
+	 * forwarded to another cluster node, and all requests when the client is
+	 * disabled, are inserted on the calling thread by
+	 * {@link #insertData(InsertRequestMO)}.
+	 *
+	 * @param ire the insertion request object containing reference ID and other
+	 *            details
+	 * @return a future completed with the delay response time
+	 */
+	@Override
+	public CompletableFuture<Integer> insertDataAsync(InsertRequestMO ire) {
+		if (!dataShareClient.isEnabled() || (clusterRouter.isEnabled() && !clusterRouter.isLocal(ire.getReferenceId()))) {
+			try {
+				return CompletableFuture.completedFuture(insertData(ire));
+			} catch (RuntimeException exp) {
+				return CompletableFuture.failedFuture(exp);
+			}
+		}
+		InsertEntity ie;
+		try {
+			ie = newInsertEntity(ire);
+		} catch (Exception exp) {
+			return CompletableFuture.failedFuture(insertFailure(exp, 0));
+		}
+		logger.info("Fetching CBEFF asynchronously for reference URL-" + ire.getReferenceURL());
+		long fetchStart = System.nanoTime();
+		RequestTracer.Span request = requestTracer.current();
+		RequestTracer.Span fetch = requestTracer.start(Stage.FETCH.tag(), null);
+		CompletableFuture<byte[]> download;
+		// the client reads the traceparent header on this thread
+		try (RequestTracer.Scope scope = fetch.activate()) {
+			download = dataShareClient.fetch(ire.getReferenceURL());
+		}
+		return download.handle((body, error) -> {
+			int delayResponse = 0;
+			try (RequestTracer.Scope scope = request.activate()) {
+				if (error != null) {
+					RequestException failure = fetchFailure(error);
+					String outcome = PipelineMetrics.outcomeOf(failure);
+					pipelineMetrics.record(Stage.FETCH, Operation.INSERT, outcome, System.nanoTime() - fetchStart);
+					fetch.end(outcome);
+					throw failure;
+				}
+				pipelineMetrics.record(Stage.FETCH, Operation.INSERT, PipelineMetrics.SUCCESS,
+						System.nanoTime() - fetchStart);
+				fetch.end();
+				List<BiometricData> lst = streamingEnabled
+						? toBiometricData(ie, stage(Stage.PARSE, Operation.INSERT,
+								() -> readBdbRecords(new ByteArrayInputStream(body))))
+						: readCBEFF(ie, () -> new String(body, StandardCharsets.UTF_8));
+				delayResponse = stage(Stage.EXPECTATION, Operation.INSERT,
+						() -> checkInsertExpectations(lst));
+				stage(Stage.PERSIST, Operation.INSERT, () -> store(ie, lst));
+				return delayResponse;
+			} catch (Exception exp) {
+				throw insertFailure(exp, delayResponse);
 			}
-			cbeffURL = ire.getReferenceURL();
-			InsertEntity ie = new InsertEntity(ire.getId(), ire.getVersion(), ire.getRequestId(), ire.getRequesttime(),
+		});
+	}
+
+	@Override
+	public boolean isAsyncInsertEnabled() {
+		return dataShareClient.isEnabled();
+	}
+
+	/**
+	 * Runs a stage in a span of the trace of the request being processed and
+	 * records the time it takes.
+	 */
+	private <T, E extends Exception> T stage(Stage stage, Operation operation, PipelineMetrics.Task<T, E> task)
+			throws E {
+		return requestTracer.trace(stage.tag(), null, () -> pipelineMetrics.time(stage, operation, task));
+	}
+
+	/**
+	 * Runs a stage without a result in a span of the trace of the request being
+	 * processed and records the time it takes.
+	 */
+	private <E extends Exception> void stage(Stage stage, Operation operation, PipelineMetrics.Step<E> step)
+			throws E {
+		stage(stage, operation, () -> {
+			step.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Creates the entity of an insert request whose reference ID is not in the
+	 * gallery yet. In replication mode the replicated index is checked as well,
+	 * since it also holds the reference IDs inserted on the other nodes.
+	 *
+	 * @param ire the insertion request
+	 * @return the insertion entity, without biometric data
+	 * @throws RequestException if the reference ID already exists
+	 */
+	private InsertEntity newInsertEntity(InsertRequestMO ire) {
+		if (proxyabis.existsById(ire.getReferenceId())
+				|| (galleryReplicator.isAvailable() && biometricIndex.contains(ire.getReferenceId()))) {
+			// Logs a masked version of the reference ID to avoid exposing sensitive information.
+			// Only the last 4 characters are shown, and the rest are replaced with asterisks.
+			logger.error("Reference Id already exists ending with ****{}", ire.getReferenceId().substring(Math.max(ire.getReferenceId().length() - 4, 0)));
+			RequestMO re = new RequestMO(ire.getId(), ire.getVersion(), ire.getRequestId(), ire.getRequesttime(),
 					ire.getReferenceId());
-			List<BiometricData> lst = fetchCBEFF(ie);
-			if (null == lst || lst.isEmpty())
-				throw new RequestException(FailureReasonsConstants.INVALID_CBEFF_FORMAT);
+			throw new RequestException(re, FailureReasonsConstants.REFERENCEID_ALREADY_EXISTS);
+		}
+		return new InsertEntity(ire.getId(), ire.getVersion(), ire.getRequestId(), ire.getRequesttime(),
+				ire.getReferenceId());
+	}
 
-			for (BiometricData bdt : lst) {
-				Expectation exp = expectationCache.get(bdt.getBioData());
-				if (exp.getId() != null && !exp.getId().isEmpty() && exp.getActionToInterfere().equals("Insert")) {
-					logger.info("Expectation found for {}", exp.getId());
-					if (exp.getDelayInExecution() != null && !exp.getDelayInExecution().isEmpty()) {
-						delayResponse = Integer.parseInt(exp.getDelayInExecution());
-					}
-					if (exp.getForcedResponse().equals("Error")) {
-						throw new RequestException(exp.getErrorCode(), delayResponse);
-					}
+	/**
+	 * Applies the insert expectations set for the fetched biometric data.
+	 *
+	 * @param lst the biometric data of the insert
+	 * @return the delay response time set by an expectation
+	 * @throws RequestException if there is no biometric data, or an expectation
+	 *                          forces an error
+	 */
+	private int checkInsertExpectations(List<BiometricData> lst) {
+		if (null == lst || lst.isEmpty())
+			throw new RequestException(FailureReasonsConstants.INVALID_CBEFF_FORMAT);
+
+		int delayResponse = 0;
+		for (BiometricData bdt : lst) {
+			Expectation exp = expectationCache.find(bdt.getBioData(), ExpectationCache.INSERT);
+			if (exp != null) {
+				logger.info("Expectation found for {}", exp.getId());
+				if (exp.getDelayInExecution() != null && !exp.getDelayInExecution().isEmpty()) {
+					delayResponse = Integer.parseInt(exp.getDelayInExecution());
+				}
+				if (exp.getForcedResponse().equals("Error")) {
+					throw new RequestException(exp.getErrorCode(), delayResponse);
 				}
 			}
-			ie.setBiometricList(lst);
+		}
+		return delayResponse;
+	}
+
+	/**
+	 * Writes an insert to the database and the gallery structures kept beside it.
+	 *
+	 * @param ie  the insertion entity
+	 * @param lst the biometric data of the insert
+	 */
+	private void store(InsertEntity ie, List<BiometricData> lst) {
+		lst.forEach(bioDigestStorage::prepare);
+		ie.setBiometricList(lst);
+		if (insertBatchWriter.isEnabled())
+			insertBatchWriter.write(ie);
+		else
 			proxyabis.save(ie);
-			return delayResponse;
-		} catch (CbeffException cbef) {
+		biometricIndex.add(ie.getReferenceId(), lst);
+		biometricMatcher.add(ie.getReferenceId(), lst);
+		identifyResultCache.invalidateInsert(ie.getReferenceId(), lst);
+		galleryJournal.recordInsert(ie);
+		galleryReplicator.publishInsert(ie.getReferenceId(), lst);
+	}
+
+	/**
+	 * Maps an error of an insert to the RequestException reported for it.
+	 *
+	 * @param exp           the error
+	 * @param delayResponse the delay response time set so far
+	 * @return the exception to throw
+	 */
+	private static RequestException insertFailure(Exception exp, int delayResponse) {
+		if (exp instanceof CbeffException cbef) {
 			logger.error("CBEFF error While inserting data ", cbef);
-			throw new RequestException(cbef.getMessage(), delayResponse);
-		} catch (RequestException rex) {
+			return new RequestException(cbef.getMessage(), delayResponse);
+		}
+		if (exp instanceof RequestException rex) {
 			logger.error("Error While inserting data ", rex);
-			throw new RequestException(rex.getEntity(), rex.getReasonConstant(), rex.getDelayResponse());
-		} catch (Exception exp) {
-			logger.error("Error While inserting data ", exp);
-			throw new RequestException(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN, delayResponse);
+			return new RequestException(rex.getEntity(), rex.getReasonConstant(), rex.getDelayResponse());
 		}
+		logger.error("Error While inserting data ", exp);
+		return new RequestException(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN, delayResponse);
+	}
+
+	/**
+	 * Maps an error of an asynchronous download to the RequestException the
+	 * blocking download reports for it.
+	 *
+	 * @param error the download error
+	 * @return the exception to throw
+	 */
+	private static RequestException fetchFailure(Throwable error) {
+		if (error instanceof HttpClientErrorException || error instanceof IllegalArgumentException) {
+			logger.error("issue with httpclient URL ", error);
+			return new RequestException(FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS);
+		}
+		logger.error("Issue while getting Cbeff", error);
+		return new RequestException(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN);
 	}
 
 	/**
 	 * Fetches CBEFF data from the given URL and parses it.
 	 *
-	 * @param ie the insertion entity
+	 * @param ie       the insertion entity
+	 * @param cbeffURL the data share URL of the CBEFF data
+	 * @return a list of biometric data
+	 * @throws Exception if an error occurs while fetching or parsing CBEFF data
+	 */
+	private List<BiometricData> fetchCBEFF(InsertEntity ie, String cbeffURL) throws Exception {
+		return readCBEFF(ie, () -> stage(Stage.FETCH, Operation.INSERT, () -> {
+			logger.info("Fetching CBEFF for reference URL-" + cbeffURL);
+			ResponseEntity<String> cbeffResp;
+			try {
+				cbeffResp = restTemplate.exchange(cbeffURL, HttpMethod.GET, null, String.class);
+			} catch (HttpClientErrorException | IllegalArgumentException ex) {
+				throw fetchFailure(ex);
+			}
+			logger.info("CBEFF response-" + cbeffResp);
+			return cbeffResp.getBody();
+		}));
+	}
+
+	/**
+	 * Downloads CBEFF data and parses it.
+	 *
+	 * @param ie       the insertion entity
+	 * @param download returns the data share response body
 	 * @return a list of biometric data
 	 * @throws Exception if an error occurs while fetching or parsing CBEFF data
 	 */
 	@SuppressWarnings({ "java:S1141" })
-	private List<BiometricData> fetchCBEFF(InsertEntity ie) throws Exception {
+	private List<BiometricData> readCBEFF(InsertEntity ie, Callable<String> download) throws Exception {
 		List<BiometricData> lst = new ArrayList();
 		try {
-			logger.info("Fetching CBEFF for reference URL-" + cbeffURL);
-			ResponseEntity<String> cbeffResp = restTemplate.exchange(cbeffURL, HttpMethod.GET, null, String.class);
-			logger.info("CBEFF response-" + cbeffResp);
-			String cbeff = cbeffResp.getBody();
+			String cbeff = download.call();
 			logger.info("CBEFF Data-" + cbeff);
 
 			try {
@@ -216,7 +478,8 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 			}
 
 			if (encryption) {
-				cbeff = cryptoUtil.decryptCbeff(cbeff);
+				String encrypted = cbeff;
+				cbeff = stage(Stage.DECRYPT, Operation.INSERT, () -> cryptoUtil.decryptCbeff(encrypted));
 			}
 
 			logger.info("CBEFF Data- {}", cbeff);
@@ -225,33 +488,12 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 				throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
 			}
 
-			BIR birType = null;
-			try {
-				birType = CbeffValidator.getBIRFromXML(IOUtils.toByteArray(cbeff));
-				birType.setBirs(
-						birType.getBirs().stream().filter(b -> b.getBdb() != null).collect(Collectors.toList()));
-			} catch (Exception ex) {
-				logger.error("Error while validating CBEFF", ex);
-				throw new RequestException(FailureReasonsConstants.INVALID_CBEFF_FORMAT);
-			}
-
-			logger.info("Validating CBEFF data");
-			try {
-				if (!CbeffValidator.validateXML(birType)) {
-					logger.error("Error while validating CBEFF");
-					throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
-				}
-
-				if (birType == null || birType.getBirs().size() == 0)
-					throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
-			} catch (Exception ex) {
-				logger.error("Error while validating CBEFF Data", ex);
-				throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
-			}
-
-			logger.info("Valid CBEFF data");
+			String decrypted = cbeff;
+			BIR birType = stage(Stage.PARSE, Operation.INSERT, () -> parseCBEFF(decrypted));
 			logger.info("Inserting biometric details to concerned table {} ", birType.getBirs().size());
 
+			long hashNanos = 0;
+
 			for (BIR bir : birType.getBirs()) {
 				if (bir.getBdb() != null && bir.getBdb().length > 0) {
 					BiometricData bd = new BiometricData();
@@ -265,8 +507,12 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 					if ((bir.getBdb() == null || bir.getBdb().length <= 0))
 						throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
 
+					long hashStart = System.nanoTime();
 					String hash = getSHAFromBytes(bir.getBdb());
+					hashNanos += System.nanoTime() - hashStart;
 					bd.setBioData(hash);
+					if (biometricMatcher.isEnabled())
+						bd.setBioSignature(BdbSignature.of(bir.getBdb()).toBytes());
 					bd.setInsertEntity(ie);
 
 					lst.add(bd);
@@ -274,6 +520,7 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 					throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
 				}
 			}
+			pipelineMetrics.record(Stage.HASH, Operation.INSERT, PipelineMetrics.SUCCESS, hashNanos);
 		} catch (HttpClientErrorException ex) {
 			logger.error("issue with httpclient URL ", ex);
 			throw new RequestException(FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS);
@@ -290,6 +537,161 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 		return lst;
 	}
 
+	/**
+	 * Parses CBEFF data and validates that it holds biometrics.
+	 *
+	 * @param cbeff the decrypted CBEFF data
+	 * @return the BIR holding the BIRs with a BDB
+	 * @throws RequestException if the data is not CBEFF, or holds no biometrics
+	 */
+	private static BIR parseCBEFF(String cbeff) {
+		BIR birType = null;
+		try {
+			birType = CbeffValidator.getBIRFromXML(IOUtils.toByteArray(cbeff));
+			birType.setBirs(birType.getBirs().stream().filter(b -> b.getBdb() != null).collect(Collectors.toList()));
+		} catch (Exception ex) {
+			logger.error("Error while validating CBEFF", ex);
+			throw new RequestException(FailureReasonsConstants.INVALID_CBEFF_FORMAT);
+		}
+
+		logger.info("Validating CBEFF data");
+		try {
+			if (!CbeffValidator.validateXML(birType)) {
+				logger.error("Error while validating CBEFF");
+				throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
+			}
+
+			if (birType == null || birType.getBirs().size() == 0)
+				throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
+		} catch (Exception ex) {
+			logger.error("Error while validating CBEFF Data", ex);
+			throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
+		}
+
+		logger.info("Valid CBEFF data");
+		return birType;
+	}
+
+	/**
+	 * Fetches CBEFF data from the given URL and reads it as a stream.
+	 *
+	 * The response body is decrypted and parsed while it is downloaded, and only
+	 * the type, subtype and hash of each BDB are kept, so the memory used per
+	 * insert does not grow with the size of the CBEFF. Data share errors and
+	 * CBEFF data without biometrics are reported with the same failure reasons as
+	 * {@link #fetchCBEFF(InsertEntity, String)}.
+	 *
+	 * @param ie       the insertion entity
+	 * @param cbeffURL the data share URL of the CBEFF data
+	 * @return a list of biometric data
+	 */
+	private List<BiometricData> fetchCBEFFStreaming(InsertEntity ie, String cbeffURL) {
+		logger.info("Streaming CBEFF for reference URL-" + cbeffURL);
+		List<StreamingBirReader.BdbRecord> records = stage(Stage.FETCH, Operation.INSERT, () -> {
+			try {
+				return restTemplate.execute(cbeffURL, HttpMethod.GET, null,
+						response -> readBdbRecords(response.getBody()));
+			} catch (HttpClientErrorException | IllegalArgumentException ex) {
+				logger.error("issue with httpclient URL ", ex);
+				throw new RequestException(FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS);
+			}
+		});
+		return toBiometricData(ie, records);
+	}
+
+	/**
+	 * Converts the BDB records read from CBEFF data into biometric data.
+	 *
+	 * @param ie      the insertion entity
+	 * @param records the BDB records
+	 * @return a list of biometric data
+	 * @throws RequestException if there are no records, or a record has no type
+	 *                          or data
+	 */
+	private List<BiometricData> toBiometricData(InsertEntity ie, List<StreamingBirReader.BdbRecord> records) {
+		if (records == null || records.isEmpty())
+			throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
+
+		logger.info("Inserting biometric details to concerned table {} ", records.size());
+		List<BiometricData> lst = new ArrayList<>();
+		for (StreamingBirReader.BdbRecord bdbRecord : records) {
+			if (bdbRecord.type() == null || bdbRecord.bdbLength() <= 0)
+				throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
+			BiometricData bd = new BiometricData();
+			bd.setType(bdbRecord.type());
+			bd.setSubtype(bdbRecord.subtype());
+			bd.setBioData(bdbRecord.bdbHash());
+			bd.setBioSignature(bdbRecord.signature());
+			bd.setInsertEntity(ie);
+			lst.add(bd);
+		}
+		return lst;
+	}
+
+	/**
+	 * Reads the BDB records from a data share response body.
+	 *
+	 * A body starting with an opening brace is a data share error response; it is
+	 * small and is read whole to extract the error. Anything else is decrypted, when
+	 * encryption is enabled, and parsed as it is read.
+	 *
+	 * @param body the response body
+	 * @return the BDB records of the CBEFF data
+	 * @throws IOException if the body cannot be read
+	 */
+	private List<StreamingBirReader.BdbRecord> readBdbRecords(InputStream body) throws IOException {
+		PushbackInputStream in = new PushbackInputStream(new BufferedInputStream(body), 1);
+		int first = peekContent(in);
+		if (first == -1) {
+			logger.error("Error while validating CBEFF null of blank");
+			throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
+		}
+
+		InputStream cbeff = in;
+		if (first == '{') {
+			byte[] response = in.readAllBytes();
+			try {
+				validateCBEFFData(new String(response, StandardCharsets.UTF_8));
+			} catch (ParseException ex) {
+				throw new RequestException(FailureReasonsConstants.UNEXPECTED_ERROR);
+			}
+			cbeff = new ByteArrayInputStream(response);
+		}
+
+		if (encryption) {
+			PushbackInputStream decrypted = new PushbackInputStream(cryptoUtil.decryptCbeffStream(cbeff), 1);
+			if (peekContent(decrypted) == -1) {
+				logger.error("Error while validating CBEFF null of blank");
+				throw new RequestException(FailureReasonsConstants.CBEFF_HAS_NO_DATA);
+			}
+			cbeff = decrypted;
+		}
+
+		try (InputStream xml = cbeff) {
+			return StreamingBirReader.read(xml, biometricMatcher.isEnabled());
+		} catch (XMLStreamException ex) {
+			logger.error("Error while validating CBEFF", ex);
+			throw new RequestException(FailureReasonsConstants.INVALID_CBEFF_FORMAT);
+		}
+	}
+
+	/**
+	 * Skips leading whitespace and returns the next byte without consuming it.
+	 *
+	 * @param in the stream to peek into
+	 * @return the first non-whitespace byte, or -1 at the end of the stream
+	 * @throws IOException if the stream cannot be read
+	 */
+	private static int peekContent(PushbackInputStream in) throws IOException {
+		int b;
+		do {
+			b = in.read();
+		} while (b != -1 && Character.isWhitespace(b));
+		if (b != -1)
+			in.unread(b);
+		return b;
+	}
+
 	/**
 	 * Processes BIR information and adds corresponding BiometricData entries to the
 	 * provided list.
@@ -424,10 +826,13 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 	/**
 	 * Deletes an InsertEntity record identified by the provided reference ID.
 	 *
-	 * This method attempts to delete the InsertEntity record from the underlying
-	 * data store using the `proxyabis.deleteById` method. It logs informative
-	 * messages about the deletion attempt and throws a relevant exception if an
-	 * error occurs.
+	 * This method deletes the biometric data and then the InsertEntity record with
+	 * one bulk statement each, in a single transaction, without loading the
+	 * entities first. Once the transaction commits, the reference ID is removed
+	 * from the index and the matcher, the identify results it may change are
+	 * dropped, and the delete is journaled and published to the other nodes. It
+	 * logs informative messages about the deletion attempt and throws a relevant
+	 * exception if an error occurs.
 	 *
 	 * @param referenceId The unique identifier of the InsertEntity record to be
 	 *                    deleted.
@@ -436,10 +841,25 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 	 *                             related reason.
 	 */
 	@Override
+	@Transactional
 	public void deleteData(String referenceId) {
 		logger.info("Deleting reference Id {}", referenceId);
+		if (clusterRouter.isEnabled() && !clusterRouter.isLocal(referenceId)) {
+			clusterRouter.forwardDelete(referenceId);
+			return;
+		}
 		try {
-			proxyabis.deleteById(referenceId);
+			stage(Stage.PERSIST, Operation.DELETE, () -> {
+				proxyAbisBioDataRepository.deleteByReferenceId(referenceId);
+				proxyabis.deleteByReferenceId(referenceId);
+			});
+			AfterCommit.run(() -> {
+				biometricIndex.remove(referenceId);
+				biometricMatcher.remove(referenceId);
+				identifyResultCache.invalidateDelete(referenceId);
+				galleryJournal.recordDelete(referenceId);
+				galleryReplicator.publishDelete(referenceId);
+			});
 		} catch (Exception e) {
 			logger.error("Error while deleting record with reference Id {}", referenceId);
 			logger.error("deleteData", e);
@@ -487,24 +907,14 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 	/**
 	 * Converts a byte array to a hexadecimal string representation.
 	 *
-	 * This method iterates through each byte in the provided byte array and
-	 * converts it to its corresponding two-digit hexadecimal representation with
-	 * leading zeros for single-digit values. The individual hexadecimal strings are
-	 * then appended to a StringBuilder and returned as a String.
+	 * Each byte becomes two lower case hexadecimal digits, so single-digit values
+	 * keep their leading zero.
 	 *
 	 * @param data The byte array to be converted to a hexadecimal string.
 	 * @return The hexadecimal string representation of the input byte array.
 	 */
 	private static String bytesToHex(byte[] data) {
-		StringBuilder hexString = new StringBuilder();
-		for (int i = 0; i < data.length; i++) {
-			String hex = Integer.toHexString(0xff & data[i]);
-			if (hex.length() == 1) {
-				hexString.append('0');
-			}
-			hexString.append(hex);
-		}
-		return hexString.toString();
+		return HEX.formatHex(data);
 	}
 
 	/**
@@ -517,6 +927,25 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 	 * also checks for expectations associated with the found biometric data and
 	 * applies any delay configured in the expectation.
 	 *
+	 * When {@code abis.identify.cache.enabled} is set, a repeated request for the
+	 * same reference ID, gallery and configuration is answered from the
+	 * {@link IdentifyResultCache} until an insert or delete affects its result.
+	 *
+	 * In cluster mode the digests of the reference ID are fetched from the node
+	 * owning it, and the gallery check and duplicate search are answered by every
+	 * node for its share of the gallery. The cache is not used then, as inserts
+	 * on other nodes do not invalidate it.
+	 *
+	 * In replication mode the index holds the reference IDs inserted on every
+	 * node, so the digests of the reference ID, the gallery check and the
+	 * duplicate search are all answered from it without querying the database.
+	 *
+	 * When {@code abis.matcher.enabled} is set, duplicates are searched by the
+	 * {@link BiometricMatcher}, which returns near duplicates too, ranked and
+	 * scored, honouring the {@code maxResults} and {@code targetFPIR} flags of
+	 * the request. The cache is not used then either, as inserting a near
+	 * duplicate does not invalidate it.
+	 *
 	 * @param ir The IdentityRequest object containing reference ID and other
 	 *           details.
 	 * @return An IdentifyDelayResponse object containing potential matches and any
@@ -524,8 +953,56 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 	 * @throws AbisException If an error occurs during data access or processing.
 	 */
 	@Override
-	@SuppressWarnings({ "java:S2139", "java:S3776", "java:S6541","java:S5145" })
 	public IdentifyDelayResponse findDuplication(IdentityRequest ir) {
+		List<String> referenceIds = galleryReferenceIds(ir);
+		if (!identifyResultCache.isEnabled() || clusterRouter.isEnabled() || biometricMatcher.isAvailable())
+			return findDuplication(ir, referenceIds, new HashSet<>());
+
+		IdentifyResultCache.Key key = identifyResultCache.keyOf(ir.getReferenceId(), referenceIds,
+				proxyAbisConfigService.getDuplicate(), proxyAbisConfigService.isForceDuplicate(),
+				expectationCache.getVersion());
+		IdentifyDelayResponse cached = identifyResultCache.get(key, ir);
+		if (cached != null) {
+			logger.info("Identify result served from cache");
+			return cached;
+		}
+		long generation = identifyResultCache.generation();
+		Set<String> digests = new HashSet<>();
+		IdentifyDelayResponse response = findDuplication(ir, referenceIds, digests);
+		identifyResultCache.put(key, generation, response, digests, referenceIds);
+		return response;
+	}
+
+	/**
+	 * Returns the distinct gallery reference IDs of an identify request.
+	 *
+	 * @param ir the identify request
+	 * @return the gallery reference IDs in request order, or {@code null} if the
+	 *         request searches the entire database
+	 */
+	private static List<String> galleryReferenceIds(IdentityRequest ir) {
+		if (ir.getGallery() != null && !ir.getGallery().getReferenceIds().isEmpty()
+				&& ir.getGallery().getReferenceIds().get(0).getReferenceId() != null
+				&& !ir.getGallery().getReferenceIds().get(0).getReferenceId().isEmpty()) {
+			Set<String> galleryIds = new LinkedHashSet<>();
+			ir.getGallery().getReferenceIds().stream().forEach(ref -> galleryIds.add(ref.getReferenceId()));
+			return new ArrayList<>(galleryIds);
+		}
+		return null;
+	}
+
+	/**
+	 * Runs the duplication check of an identify request.
+	 *
+	 * @param ir           the identify request
+	 * @param referenceIds the distinct gallery reference IDs, or {@code null} to
+	 *                     search the entire database
+	 * @param digests      receives the digests the result is derived from
+	 * @return the identify response and any delay from expectations
+	 */
+	@SuppressWarnings({ "java:S2139", "java:S3776", "java:S6541","java:S5145" })
+	private IdentifyDelayResponse findDuplication(IdentityRequest ir, List<String> referenceIds,
+			Set<String> digests) {
 		int delayResponse = 0;
 		try {
 			String refId = ir.getReferenceId();
@@ -533,57 +1010,62 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 			List<BiometricData> lst = null;
 			logger.info("find duplicate property set to {}", proxyAbisConfigService.getDuplicate());
 			logger.info("force duplicate property set to {}", proxyAbisConfigService.isForceDuplicate());
-			if (ir.getGallery() != null && !ir.getGallery().getReferenceIds().isEmpty()
-					&& ir.getGallery().getReferenceIds().get(0).getReferenceId() != null
-					&& !ir.getGallery().getReferenceIds().get(0).getReferenceId().isEmpty()) {
-				List<String> referenceIds = new ArrayList<>();
-				ir.getGallery().getReferenceIds().stream().forEach(ref -> referenceIds.add(ref.getReferenceId()));
-
-				logger.info("checking for duplication of reference Id against {}", referenceIds);
+			if (referenceIds != null) {
+				logger.info("checking for duplication of reference Id against {} gallery reference Ids",
+						referenceIds.size());
 
-				int galleryRefIdCountInDB = proxyabis.fetchCountForReferenceIdPresentInGallery(referenceIds);
+				// resolved in memory when the index is loaded, so the gallery is never bound into SQL
+				GalleryScope gallery = !clusterRouter.isEnabled() && biometricIndex.isAvailable()
+						? biometricIndex.scopeOf(referenceIds)
+						: null;
+				int galleryRefIdCountInDB = gallery != null ? gallery.getPresentCount()
+						: countGalleryReferenceIds(referenceIds);
 				if (galleryRefIdCountInDB != referenceIds.size()) {
 					logger.info("checking for reference Id Present in DB {}, Gallery reference Id list size {} ",
 							galleryRefIdCountInDB, referenceIds.size());
 					throw new RequestException(FailureReasonsConstants.REFERENCEID_NOT_FOUND);
 				}
-				List<String> bioValues = proxyAbisBioDataRepository.fetchBioDataByRefId(refId);
-				if (!bioValues.isEmpty()) {
-					for (String bioValue : bioValues) {
-						Expectation exp = expectationCache.get(bioValue);
-						if (exp.getId() != null && !exp.getId().isEmpty()
-								&& exp.getActionToInterfere().equals("Identify")) {
-							logger.info("Expectation found for {}", exp.getId());
-							if (exp.getDelayInExecution() != null && !exp.getDelayInExecution().isEmpty()) {
-								delayResponse = Integer.parseInt(exp.getDelayInExecution());
-							}
-							return new IdentifyDelayResponse(processExpectation(ir, exp, referenceIds), delayResponse);
-						}
+				List<String> bioValues = fetchBioDataByRefId(refId);
+				digests.addAll(bioValues);
+				Expectation exp = stage(Stage.EXPECTATION, Operation.IDENTIFY,
+						() -> findIdentifyExpectation(bioValues));
+				if (exp != null) {
+					logger.info("Expectation found for {}", exp.getId());
+					if (exp.getDelayInExecution() != null && !exp.getDelayInExecution().isEmpty()) {
+						delayResponse = Integer.parseInt(exp.getDelayInExecution());
 					}
+					addExpectationDigests(exp, digests);
+					return new IdentifyDelayResponse(processExpectation(ir, exp, referenceIds, gallery),
+							delayResponse);
 				}
 
 				if (proxyAbisConfigService.isForceDuplicate() || proxyAbisConfigService.getDuplicate()) {
-					lst = proxyAbisBioDataRepository.fetchDuplicatesForReferenceIdBasedOnGalleryIds(refId,
-							referenceIds);
+					if (usesMatcher())
+						return new IdentifyDelayResponse(stage(Stage.DUPLICATE_QUERY, Operation.IDENTIFY,
+								() -> matchCandidates(ir, referenceIds)), delayResponse);
+					lst = stage(Stage.DUPLICATE_QUERY, Operation.IDENTIFY,
+							() -> queryDuplicates(refId, bioValues, referenceIds, gallery));
 				}
 			} else {
 				logger.info("checking for duplication in entire DB");
-				List<String> bioValues = proxyAbisBioDataRepository.fetchBioDataByRefId(refId);
-				if (!bioValues.isEmpty()) {
-					for (String bioValue : bioValues) {
-						Expectation exp = expectationCache.get(bioValue);
-						if (exp.getId() != null && !exp.getId().isEmpty()
-								&& exp.getActionToInterfere().equals("Identify")) {
-							logger.info("Expectation found for {}", exp.getId());
-							if (exp.getDelayInExecution() != null && !exp.getDelayInExecution().isEmpty()) {
-								delayResponse = Integer.parseInt(exp.getDelayInExecution());
-							}
-							return new IdentifyDelayResponse(processExpectation(ir, exp, null), delayResponse);
-						}
+				List<String> bioValues = fetchBioDataByRefId(refId);
+				digests.addAll(bioValues);
+				Expectation exp = stage(Stage.EXPECTATION, Operation.IDENTIFY,
+						() -> findIdentifyExpectation(bioValues));
+				if (exp != null) {
+					logger.info("Expectation found for {}", exp.getId());
+					if (exp.getDelayInExecution() != null && !exp.getDelayInExecution().isEmpty()) {
+						delayResponse = Integer.parseInt(exp.getDelayInExecution());
 					}
+					addExpectationDigests(exp, digests);
+					return new IdentifyDelayResponse(processExpectation(ir, exp, null, null), delayResponse);
 				}
 				if (proxyAbisConfigService.isForceDuplicate() || proxyAbisConfigService.getDuplicate()) {
-					lst = proxyAbisBioDataRepository.fetchDuplicatesForReferenceId(refId);
+					if (usesMatcher())
+						return new IdentifyDelayResponse(stage(Stage.DUPLICATE_QUERY, Operation.IDENTIFY,
+								() -> matchCandidates(ir, null)), delayResponse);
+					lst = stage(Stage.DUPLICATE_QUERY, Operation.IDENTIFY,
+							() -> queryDuplicates(refId, bioValues, null, null));
 				}
 			}
 			if (lst != null)
@@ -595,6 +1077,274 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 		}
 	}
 
+	/**
+	 * Returns the first identify expectation set for one of the given digests.
+	 *
+	 * @param bioValues the digests of the probe
+	 * @return the expectation, or {@code null} if none is set
+	 */
+	private Expectation findIdentifyExpectation(List<String> bioValues) {
+		for (String bioValue : bioValues) {
+			Expectation exp = expectationCache.find(bioValue, ExpectationCache.IDENTIFY);
+			if (exp != null)
+				return exp;
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the duplicates of a probe, through the cluster nodes, the in-memory
+	 * index or the database.
+	 *
+	 * @param refId        the reference ID of the probe
+	 * @param bioValues    the digests of the probe
+	 * @param referenceIds the gallery reference IDs, or {@code null} to search the
+	 *                     entire database
+	 * @param gallery      the gallery resolved by the index, or {@code null}
+	 * @return the duplicates found
+	 */
+	private List<BiometricData> queryDuplicates(String refId, List<String> bioValues, List<String> referenceIds,
+			GalleryScope gallery) {
+		if (clusterRouter.isEnabled())
+			return findClusterDuplicates(refId, bioValues, referenceIds);
+		if (referenceIds == null)
+			return biometricIndex.isAvailable() ? biometricIndex.findDuplicates(refId, null)
+					: fetchDuplicates(refId, null);
+		return gallery != null && biometricIndex.isAvailable() ? biometricIndex.findDuplicatesInGallery(refId, gallery)
+				: fetchDuplicates(refId, referenceIds);
+	}
+
+	/**
+	 * Indicates whether duplicates are searched by the approximate matcher. The
+	 * matcher only holds the local gallery, so it is not used in cluster or
+	 * replication mode.
+	 *
+	 * @return {@code true} if the matcher is loaded and the cluster and
+	 *         replication are disabled
+	 */
+	private boolean usesMatcher() {
+		return !clusterRouter.isEnabled() && !galleryReplicator.isEnabled() && biometricMatcher.isAvailable();
+	}
+
+	/**
+	 * Searches the approximate matcher for the candidates of a probe and builds
+	 * the identify response from them, best candidate first.
+	 *
+	 * @param ir           the identify request
+	 * @param referenceIds the gallery reference IDs, or {@code null} to search the
+	 *                     entire database
+	 * @return the identify response
+	 */
+	private IdentityResponse matchCandidates(IdentityRequest ir, List<String> referenceIds) {
+		IdentityRequest.Flags flags = ir.getFlags();
+		List<BiometricMatcher.Candidate> candidates = biometricMatcher.search(ir.getReferenceId(), referenceIds,
+				flagValue(flags != null ? flags.getMaxResults() : null),
+				flagValue(flags != null ? flags.getTargetFPIR() : null));
+		logger.info("Number of matched candidates are {}", candidates.size());
+
+		IdentityResponse response = new IdentityResponse();
+		response.setId(ir.getId());
+		response.setRequestId(ir.getRequestId());
+		response.setReturnValue(1 + "");
+		response.setResponsetime(ir.getRequesttime());
+		IdentityResponse.CandidateList cl = new IdentityResponse.CandidateList();
+		cl.setCount(candidates.size() + "");
+		if (!candidates.isEmpty()) {
+			List<IdentityResponse.Candidates> clst = new ArrayList<>(candidates.size());
+			for (BiometricMatcher.Candidate candidate : candidates) {
+				List<Modalities> modlst = new ArrayList<>(candidate.modalities().size());
+				for (BiometricMatcher.ModalityScore modality : candidate.modalities())
+					modlst.add(new Modalities(modality.biometricType(),
+							getAnalytics(modality.score(), modality.confidence())));
+				clst.add(new IdentityResponse.Candidates(candidate.referenceId(),
+						getAnalytics(candidate.score(), candidate.confidence()), modlst));
+			}
+			cl.setCandidates(clst);
+		}
+		response.setCandidateList(cl);
+		return response;
+	}
+
+	/**
+	 * Parses a numeric identify request flag.
+	 *
+	 * @param value the flag value
+	 * @return the value, or {@code 0} if it is missing or not a number
+	 */
+	private static int flagValue(String value) {
+		if (value == null || value.isBlank())
+			return 0;
+		try {
+			return Integer.parseInt(value.trim());
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Collects the digests whose holders an applied expectation returns as
+	 * candidates.
+	 *
+	 * @param expectation the applied expectation
+	 * @param digests     receives the digests
+	 */
+	private static void addExpectationDigests(Expectation expectation, Set<String> digests) {
+		if (expectation.getGallery() != null && expectation.getGallery().getReferenceIds() != null)
+			expectation.getGallery().getReferenceIds().forEach(rd -> digests.add(rd.getReferenceId()));
+	}
+
+	/**
+	 * Fetches the hexadecimal digests stored for a reference ID from the column
+	 * selected by the digest storage mode, or from the replicated index.
+	 *
+	 * @param referenceId the reference ID
+	 * @return the hexadecimal digests of its biometrics
+	 */
+	private List<String> fetchBioDataByRefId(String referenceId) {
+		if (clusterRouter.isEnabled())
+			return clusterRouter.fetchDigests(referenceId);
+		if (galleryReplicator.isAvailable())
+			return biometricIndex.findDigests(referenceId);
+		if (!bioDigestStorage.isBinary())
+			return proxyAbisBioDataRepository.fetchBioDataByRefId(referenceId);
+		List<String> bioValues = new ArrayList<>();
+		for (byte[] digest : proxyAbisBioDataRepository.fetchBioDigestByRefId(referenceId)) {
+			if (digest != null)
+				bioValues.add(bytesToHex(digest));
+		}
+		return bioValues;
+	}
+
+	/**
+	 * Fetches the biometric records sharing a digest with the given reference ID,
+	 * optionally limited to a gallery.
+	 *
+	 * @param referenceId  the reference ID being identified
+	 * @param referenceIds the gallery reference IDs, or {@code null} for the whole
+	 *                     database
+	 * @return the matching biometric records ordered by reference ID
+	 */
+	private List<BiometricData> fetchDuplicates(String referenceId, List<String> referenceIds) {
+		if (referenceIds == null)
+			return bioDigestStorage.isBinary()
+					? proxyAbisBioDataRepository.fetchDuplicatesForReferenceIdByDigest(referenceId)
+					: proxyAbisBioDataRepository.fetchDuplicatesForReferenceId(referenceId);
+		List<List<String>> chunks = galleryChunks(referenceIds);
+		if (chunks.size() == 1)
+			return fetchDuplicatesInChunk(referenceId, chunks.get(0));
+		List<BiometricData> duplicates = new ArrayList<>();
+		for (List<String> chunk : chunks) {
+			duplicates.addAll(fetchDuplicatesInChunk(referenceId, chunk));
+		}
+		duplicates.sort(Comparator.comparing(bd -> bd.getInsertEntity().getReferenceId()));
+		return duplicates;
+	}
+
+	/**
+	 * Gathers the biometrics sharing a digest with the given reference ID from
+	 * every cluster node.
+	 *
+	 * @param referenceId  the reference ID being identified
+	 * @param digests      its hexadecimal digests
+	 * @param referenceIds the gallery reference IDs, or {@code null} for the whole
+	 *                     cluster
+	 * @return the matching biometric records ordered by reference ID, holding
+	 *         only their type and reference ID
+	 */
+	private List<BiometricData> findClusterDuplicates(String referenceId, List<String> digests,
+			List<String> referenceIds) {
+		if (digests.isEmpty())
+			return new ArrayList<>();
+		List<BiometricData> duplicates = new ArrayList<>();
+		for (ClusterPartition.Match match : clusterRouter.findDuplicates(digests, referenceId, referenceIds)) {
+			InsertEntity holder = new InsertEntity();
+			holder.setReferenceId(match.referenceId());
+			duplicates.add(new BiometricData(null, match.type(), null, null, holder));
+		}
+		return duplicates;
+	}
+
+	private List<BiometricData> fetchDuplicatesInChunk(String referenceId, List<String> referenceIds) {
+		return bioDigestStorage.isBinary()
+				? proxyAbisBioDataRepository.fetchDuplicatesForReferenceIdBasedOnGalleryIdsByDigest(referenceId,
+						referenceIds)
+				: proxyAbisBioDataRepository.fetchDuplicatesForReferenceIdBasedOnGalleryIds(referenceId, referenceIds);
+	}
+
+	/**
+	 * Counts the gallery reference IDs present in the database, binding at most
+	 * {@code abis.gallery.query.chunk.size} IDs per query.
+	 *
+	 * @param referenceIds the distinct gallery reference IDs
+	 * @return the number of them that exist
+	 */
+	private int countGalleryReferenceIds(List<String> referenceIds) {
+		if (clusterRouter.isEnabled())
+			return clusterRouter.countPresent(referenceIds);
+		int count = 0;
+		for (List<String> chunk : galleryChunks(referenceIds)) {
+			count += proxyabis.fetchCountForReferenceIdPresentInGallery(chunk);
+		}
+		return count;
+	}
+
+	/**
+	 * Splits gallery reference IDs into lists small enough to bind as one SQL
+	 * {@code IN} list.
+	 *
+	 * @param referenceIds the distinct gallery reference IDs
+	 * @return the chunks; a single chunk when the gallery is small enough
+	 */
+	private List<List<String>> galleryChunks(List<String> referenceIds) {
+		int size = Math.max(1, galleryQueryChunkSize);
+		if (referenceIds.size() <= size)
+			return List.of(referenceIds);
+		List<List<String>> chunks = new ArrayList<>();
+		for (int from = 0; from < referenceIds.size(); from += size) {
+			chunks.add(referenceIds.subList(from, Math.min(from + size, referenceIds.size())));
+		}
+		return chunks;
+	}
+
+	/**
+	 * Fetches the reference IDs holding the given digest, optionally limited to a
+	 * gallery.
+	 *
+	 * @param bioData      the hexadecimal digest
+	 * @param referenceIds the gallery reference IDs, or {@code null} for the whole
+	 *                     database
+	 * @param gallery      the gallery resolved against the in-memory index, or
+	 *                     {@code null} to query the database
+	 * @return the matching reference IDs
+	 */
+	private List<String> fetchReferenceIds(String bioData, List<String> referenceIds, GalleryScope gallery) {
+		if (clusterRouter.isEnabled())
+			return clusterRouter.findReferenceIds(bioData, referenceIds);
+		if (referenceIds != null && gallery != null && biometricIndex.isAvailable())
+			return biometricIndex.findReferenceIds(bioData, gallery);
+		if (referenceIds == null && galleryReplicator.isAvailable())
+			return biometricIndex.findReferenceIds(bioData, null);
+		if (referenceIds == null)
+			return fetchReferenceIdsInChunk(bioData, null);
+		List<String> found = new ArrayList<>();
+		for (List<String> chunk : galleryChunks(referenceIds)) {
+			found.addAll(fetchReferenceIdsInChunk(bioData, chunk));
+		}
+		return found;
+	}
+
+	private List<String> fetchReferenceIdsInChunk(String bioData, List<String> referenceIds) {
+		if (bioDigestStorage.isBinary()) {
+			BioDigest digest = BioDigest.fromHex(bioData);
+			if (digest == null)
+				return new ArrayList<>();
+			return referenceIds == null ? proxyAbisBioDataRepository.fetchReferenceIdByDigest(digest.toBytes())
+					: proxyAbisBioDataRepository.fetchByReferenceIdByDigest(digest.toBytes(), referenceIds);
+		}
+		return referenceIds == null ? proxyAbisBioDataRepository.fetchReferenceId(bioData)
+				: proxyAbisBioDataRepository.fetchByReferenceId(bioData, referenceIds);
+	}
+
 	/**
 	 * Processes expectations associated with an IdentityRequest.
 	 *
@@ -608,12 +1358,14 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 	 *                            data.
 	 * @param galleryReferenceIds Optional list of gallery reference IDs (if
 	 *                            applicable).
+	 * @param gallery             The gallery resolved against the in-memory
+	 *                            index, or {@code null} to query the database.
 	 * @return An IdentityResponse object containing the constructed response data.
 	 * @throws RequestException If the expectation forces an "Error" response.
 	 */
 	@SuppressWarnings({ "java:S3776" })
 	private IdentityResponse processExpectation(IdentityRequest ir, Expectation expectation,
-			List<String> galleryReferenceIds) {
+			List<String> galleryReferenceIds, GalleryScope gallery) {
 		logger.info("processExpectation {}", ir.getReferenceId());
 		IdentityResponse response = new IdentityResponse();
 		response.setId(ir.getId());
@@ -635,13 +1387,7 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 			if (expectation.getGallery() != null && !expectation.getGallery().getReferenceIds().isEmpty()) {
 				for (Expectation.ReferenceIds rd : expectation.getGallery().getReferenceIds()) {
 					logger.info("rd.getReferenceId {}", rd.getReferenceId());
-					List<String> refIds;
-					if (galleryReferenceIds != null) {
-						refIds = proxyAbisBioDataRepository.fetchByReferenceId(rd.getReferenceId(),
-								galleryReferenceIds);
-					} else {
-						refIds = proxyAbisBioDataRepository.fetchReferenceId(rd.getReferenceId());
-					}
+					List<String> refIds = fetchReferenceIds(rd.getReferenceId(), galleryReferenceIds, gallery);
 					logger.info("expectation.refIds {}", refIds);
 					if (!refIds.isEmpty()) {
 						for (String refId : refIds) {
@@ -757,6 +1503,21 @@ public class ProxyAbisInsertServiceImpl implements ProxyAbisInsertService {
 		return a;
 	}
 
+	/**
+	 * Builds the analytics of a matched candidate or modality: the configured
+	 * analytics, with the confidence and internal score reported by the matcher.
+	 *
+	 * @param score      the similarity, from {@code 0} to {@code 1}
+	 * @param confidence the confidence, from {@code 0} to {@code 100}
+	 * @return the analytics
+	 */
+	private IdentityResponse.Analytics getAnalytics(double score, int confidence) {
+		IdentityResponse.Analytics a = getAnalytics();
+		a.setConfidence(Integer.toString(confidence));
+		a.setInternalScore(Long.toString(Math.round(score * 100)));
+		return a;
+	}
+
 	/**
 	 * Saves a uploaded certificate file along with its metadata.
 	 *
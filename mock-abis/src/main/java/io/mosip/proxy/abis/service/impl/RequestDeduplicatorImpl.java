@@ -0,0 +1,185 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.proxy.abis.service.RequestDeduplicator;
+
+/**
+ * {@link RequestDeduplicator} remembering up to {@code abis.dedup.max.entries}
+ * request IDs for {@code abis.dedup.window.seconds} after they were last
+ * claimed or completed.
+ * <p>
+ * Entries are kept in the order they were last updated, which is also the
+ * order in which they expire, so expired entries are always found at the head
+ * and removed as new requests arrive. When the table is full the oldest entry
+ * is dropped even if it is still within the window.
+ * </p>
+ * <p>
+ * The following meter is published:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.dedup.suppressed}: redelivered requests that were not
+ * processed again, tagged {@code outcome=replayed} when the recorded response
+ * was re-sent and {@code outcome=in_flight} when the original was still being
+ * processed.</li>
+ * </ul>
+ */
+@Component
+public class RequestDeduplicatorImpl implements RequestDeduplicator {
+
+	private static final Claim NEW = new Claim(Status.NEW, null);
+	private static final Claim IN_FLIGHT = new Claim(Status.IN_FLIGHT, null);
+
+	private final boolean enabled;
+	private final int maxEntries;
+	private final long windowNanos;
+	private final LongSupplier ticker;
+
+	/** Request IDs in the order they were last updated; guarded by itself. */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+	private final Counter replayedCounter;
+	private final Counter inFlightCounter;
+
+	/**
+	 * Creates the deduplicator from configuration.
+	 *
+	 * @param meterRegistry The registry to publish meters to; the global registry
+	 *                      is used when none is configured.
+	 * @param enabled       Whether redelivered requests are detected.
+	 * @param maxEntries    The maximum number of remembered request IDs.
+	 * @param windowSeconds How long a request ID is remembered.
+	 */
+	@Autowired
+	public RequestDeduplicatorImpl(ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${abis.dedup.enabled:false}") boolean enabled,
+			@Value("${abis.dedup.max.entries:10000}") int maxEntries,
+			@Value("${abis.dedup.window.seconds:600}") long windowSeconds) {
+		this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), enabled, maxEntries, windowSeconds,
+				System::nanoTime);
+	}
+
+	/**
+	 * Creates the deduplicator with explicit settings.
+	 *
+	 * @param meterRegistry The registry to publish meters to.
+	 * @param enabled       Whether redelivered requests are detected.
+	 * @param maxEntries    The maximum number of remembered request IDs.
+	 * @param windowSeconds How long a request ID is remembered.
+	 * @param ticker        The source of the current time in nanoseconds.
+	 */
+	RequestDeduplicatorImpl(MeterRegistry meterRegistry, boolean enabled, int maxEntries, long windowSeconds,
+			LongSupplier ticker) {
+		this.enabled = enabled;
+		this.maxEntries = Math.max(1, maxEntries);
+		this.windowNanos = TimeUnit.SECONDS.toNanos(Math.max(0, windowSeconds));
+		this.ticker = ticker;
+
+		this.replayedCounter = Counter.builder("mock.abis.dedup.suppressed").tag("outcome", "replayed")
+				.description("Redelivered requests answered with the recorded response").register(meterRegistry);
+		this.inFlightCounter = Counter.builder("mock.abis.dedup.suppressed").tag("outcome", "in_flight")
+				.description("Redelivered requests dropped while the original was processed")
+				.register(meterRegistry);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public Claim claim(String requestId) {
+		if (!enabled || Objects.isNull(requestId))
+			return NEW;
+		synchronized (entries) {
+			long now = ticker.getAsLong();
+			expireLocked(now);
+			Entry entry = entries.get(requestId);
+			if (entry == null) {
+				updateLocked(requestId, new Entry(null, now + windowNanos));
+				return NEW;
+			}
+			if (entry.response == null) {
+				inFlightCounter.increment();
+				return IN_FLIGHT;
+			}
+			replayedCounter.increment();
+			return new Claim(Status.COMPLETED, entry.response);
+		}
+	}
+
+	@Override
+	public void complete(String requestId, ResponseEntity<Object> response) {
+		if (!enabled || Objects.isNull(requestId) || Objects.isNull(response))
+			return;
+		synchronized (entries) {
+			updateLocked(requestId, new Entry(response, ticker.getAsLong() + windowNanos));
+		}
+	}
+
+	@Override
+	public void release(String requestId) {
+		if (!enabled || Objects.isNull(requestId))
+			return;
+		synchronized (entries) {
+			Entry entry = entries.get(requestId);
+			if (entry != null && entry.response == null)
+				entries.remove(requestId);
+		}
+	}
+
+	/**
+	 * Returns the number of remembered request IDs.
+	 *
+	 * @return the entry count
+	 */
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Stores an entry at the tail, keeping the table in expiry order, and drops
+	 * the oldest entries beyond the size cap.
+	 */
+	private void updateLocked(String requestId, Entry entry) {
+		entries.remove(requestId);
+		entries.put(requestId, entry);
+		Iterator<String> eldest = entries.keySet().iterator();
+		while (entries.size() > maxEntries && eldest.hasNext()) {
+			eldest.next();
+			eldest.remove();
+		}
+	}
+
+	private void expireLocked(long now) {
+		Iterator<Entry> eldest = entries.values().iterator();
+		while (eldest.hasNext() && now - eldest.next().expiresAt >= 0)
+			eldest.remove();
+	}
+
+	private static final class Entry {
+		private final ResponseEntity<Object> response;
+		private final long expiresAt;
+
+		private Entry(ResponseEntity<Object> response, long expiresAt) {
+			this.response = response;
+			this.expiresAt = expiresAt;
+		}
+	}
+}
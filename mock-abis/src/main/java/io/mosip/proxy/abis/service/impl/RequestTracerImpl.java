@@ -0,0 +1,336 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.mosip.proxy.abis.dto.SpanRecord;
+import io.mosip.proxy.abis.service.PipelineMetrics;
+import io.mosip.proxy.abis.service.RequestTracer;
+import io.mosip.proxy.abis.service.SpanSink;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * {@link RequestTracer} keeping the current span in a thread local and
+ * exporting finished spans to the {@link SpanSink} named by
+ * {@code abis.tracing.sink}.
+ * <p>
+ * The trace ID of a request is the first 16 bytes of the SHA-256 hash of its
+ * request ID, so every node and every restart derives the same trace for the
+ * same request. Ending a span only queues it; a background thread hands the
+ * queue to the sink every {@code abis.tracing.flush.interval.ms}, in batches
+ * of {@code abis.tracing.batch.size}. When {@code abis.tracing.queue.size}
+ * spans are waiting, further spans are dropped rather than slowing requests
+ * down.
+ * </p>
+ * <p>
+ * The following meters are published:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.tracing.spans}: spans finished, tagged with
+ * {@code outcome} {@code exported}, {@code dropped} when the queue was full,
+ * or {@code failed} when the sink could not write them.</li>
+ * <li>{@code mock.abis.tracing.queued}: spans waiting to be exported.</li>
+ * </ul>
+ */
+@Component
+public class RequestTracerImpl implements RequestTracer {
+	private static final Logger logger = LoggerFactory.getLogger(RequestTracerImpl.class);
+
+	private static final HexFormat HEX = HexFormat.of();
+	private static final String INVALID_TRACE_ID = "0".repeat(32);
+	private static final String INVALID_SPAN_ID = "0".repeat(16);
+
+	private static final ThreadLocal<RecordingSpan> CURRENT = new ThreadLocal<>();
+
+	private final boolean enabled;
+	private final SpanSink sink;
+	private final int batchSize;
+	private final BlockingQueue<SpanRecord> queue;
+	private final ScheduledExecutorService exporter;
+
+	private final Counter exportedCounter;
+	private final Counter droppedCounter;
+	private final Counter failedCounter;
+
+	/**
+	 * Creates the tracer from configuration.
+	 *
+	 * @param sinks               The available sinks.
+	 * @param meterRegistry       The registry to publish meters to; the global
+	 *                            registry is used when none is configured.
+	 * @param enabled             Whether spans are recorded.
+	 * @param sinkName            The name of the sink spans are exported to.
+	 * @param queueSize           The maximum number of spans waiting to be
+	 *                            exported.
+	 * @param batchSize           The maximum number of spans exported at once.
+	 * @param flushIntervalMillis How often waiting spans are exported.
+	 */
+	@Autowired
+	public RequestTracerImpl(List<SpanSink> sinks, ObjectProvider<MeterRegistry> meterRegistry,
+			@Value("${abis.tracing.enabled:false}") boolean enabled,
+			@Value("${abis.tracing.sink:file}") String sinkName,
+			@Value("${abis.tracing.queue.size:10000}") int queueSize,
+			@Value("${abis.tracing.batch.size:512}") int batchSize,
+			@Value("${abis.tracing.flush.interval.ms:1000}") long flushIntervalMillis) {
+		this(enabled ? sinkNamed(sinks, sinkName) : null, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry),
+				enabled, queueSize, batchSize, flushIntervalMillis);
+	}
+
+	/**
+	 * Creates the tracer with explicit settings.
+	 *
+	 * @param sink                The sink spans are exported to.
+	 * @param meterRegistry       The registry to publish meters to.
+	 * @param enabled             Whether spans are recorded.
+	 * @param queueSize           The maximum number of spans waiting to be
+	 *                            exported.
+	 * @param batchSize           The maximum number of spans exported at once.
+	 * @param flushIntervalMillis How often waiting spans are exported.
+	 */
+	public RequestTracerImpl(SpanSink sink, MeterRegistry meterRegistry, boolean enabled, int queueSize,
+			int batchSize, long flushIntervalMillis) {
+		this.enabled = enabled;
+		this.sink = sink;
+		this.batchSize = Math.max(1, batchSize);
+		this.queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+
+		this.exportedCounter = spansCounter(meterRegistry, "exported");
+		this.droppedCounter = spansCounter(meterRegistry, "dropped");
+		this.failedCounter = spansCounter(meterRegistry, "failed");
+		Gauge.builder("mock.abis.tracing.queued", queue, BlockingQueue::size)
+				.description("Spans waiting to be exported").register(meterRegistry);
+
+		if (enabled) {
+			long interval = Math.max(1, flushIntervalMillis);
+			this.exporter = Executors.newSingleThreadScheduledExecutor(
+					Thread.ofPlatform().daemon(true).name("abis-trace-export").factory());
+			this.exporter.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+			logger.info("Exporting request traces to the {} sink", sink.getName());
+		} else {
+			this.exporter = null;
+		}
+	}
+
+	private static SpanSink sinkNamed(List<SpanSink> sinks, String name) {
+		for (SpanSink candidate : sinks)
+			if (candidate.getName().equalsIgnoreCase(name))
+				return candidate;
+		throw new IllegalArgumentException("Unknown abis.tracing.sink " + name);
+	}
+
+	private static Counter spansCounter(MeterRegistry meterRegistry, String outcome) {
+		return Counter.builder("mock.abis.tracing.spans").tag("outcome", outcome)
+				.description("Spans of request traces finished").register(meterRegistry);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public Span start(String name, String requestId) {
+		if (!enabled)
+			return NOOP;
+		RecordingSpan parent = CURRENT.get();
+		if (parent != null)
+			return new RecordingSpan(name, parent.traceId, parent.spanId, parent.requestId);
+		if (requestId == null || requestId.isEmpty())
+			return NOOP;
+		return new RecordingSpan(name, traceIdOf(requestId), null, requestId);
+	}
+
+	@Override
+	public Span start(String name, String requestId, String traceparent) {
+		if (!enabled)
+			return NOOP;
+		String[] parts = traceparent == null ? null : traceparent.trim().split("-");
+		if (parts == null || parts.length < 4 || !isHex(parts[0], 2) || "ff".equals(parts[0])
+				|| !isHex(parts[1], 32) || INVALID_TRACE_ID.equals(parts[1]) || !isHex(parts[2], 16)
+				|| INVALID_SPAN_ID.equals(parts[2]))
+			return start(name, requestId);
+		return new RecordingSpan(name, parts[1], parts[2], requestId);
+	}
+
+	@Override
+	public Span current() {
+		RecordingSpan span = CURRENT.get();
+		return span != null ? span : NOOP;
+	}
+
+	@Override
+	public Runnable wrap(Runnable task) {
+		RecordingSpan span = CURRENT.get();
+		if (span == null)
+			return task;
+		return () -> {
+			try (Scope scope = span.activate()) {
+				task.run();
+			}
+		};
+	}
+
+	/**
+	 * Returns the trace ID of the trace of a request.
+	 *
+	 * @param requestId The request ID.
+	 * @return The trace ID, 32 hex digits.
+	 */
+	public static String traceIdOf(String requestId) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(requestId.getBytes(StandardCharsets.UTF_8));
+			return HEX.formatHex(hash, 0, 16);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static boolean isHex(String value, int length) {
+		if (value.length() != length)
+			return false;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			if ((c < '0' || c > '9') && (c < 'a' || c > 'f'))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Hands the waiting spans to the sink, in batches.
+	 */
+	void flush() {
+		List<SpanRecord> batch = new ArrayList<>(batchSize);
+		while (queue.drainTo(batch, batchSize) > 0) {
+			try {
+				sink.export(batch);
+				exportedCounter.increment(batch.size());
+			} catch (Exception e) {
+				failedCounter.increment(batch.size());
+				logger.warn("Dropped {} spans the {} sink could not write: {}", batch.size(), sink.getName(),
+						e.getMessage());
+			}
+			batch.clear();
+		}
+	}
+
+	/**
+	 * Stops the export thread after exporting the spans still waiting.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		if (exporter == null)
+			return;
+		exporter.shutdown();
+		try {
+			if (!exporter.awaitTermination(5, TimeUnit.SECONDS))
+				exporter.shutdownNow();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+	}
+
+	/**
+	 * A span being timed, queued for export when it ends.
+	 */
+	private final class RecordingSpan implements Span {
+		private final String name;
+		private final String traceId;
+		private final String spanId;
+		private final String parentSpanId;
+		private final String requestId;
+		private final long startEpochNanos;
+		private final long startNanos;
+		private final Map<String, String> attributes = new ConcurrentHashMap<>();
+		private final AtomicBoolean ended = new AtomicBoolean();
+		private volatile Kind kind = Kind.INTERNAL;
+
+		RecordingSpan(String name, String traceId, String parentSpanId, String requestId) {
+			Instant now = Instant.now();
+			this.startNanos = System.nanoTime();
+			this.startEpochNanos = TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+			this.name = name != null ? name : "unknown";
+			this.traceId = traceId;
+			this.parentSpanId = parentSpanId;
+			this.requestId = requestId;
+			long id;
+			do {
+				id = ThreadLocalRandom.current().nextLong();
+			} while (id == 0);
+			this.spanId = HEX.toHexDigits(id);
+		}
+
+		@Override
+		public String traceparent() {
+			return "00-" + traceId + "-" + spanId + "-01";
+		}
+
+		@Override
+		public Span kind(Kind kind) {
+			this.kind = kind;
+			return this;
+		}
+
+		@Override
+		public Span tag(String key, String value) {
+			if (value != null)
+				attributes.put(key, value);
+			return this;
+		}
+
+		@Override
+		public Scope activate() {
+			RecordingSpan previous = CURRENT.get();
+			CURRENT.set(this);
+			return () -> {
+				if (previous != null)
+					CURRENT.set(previous);
+				else
+					CURRENT.remove();
+			};
+		}
+
+		@Override
+		public void end() {
+			end(PipelineMetrics.SUCCESS);
+		}
+
+		@Override
+		public void end(String outcome) {
+			if (!ended.compareAndSet(false, true))
+				return;
+			SpanRecord span = new SpanRecord(traceId, spanId, parentSpanId, name, kind.name(), requestId,
+					startEpochNanos, startEpochNanos + (System.nanoTime() - startNanos),
+					outcome != null ? outcome : PipelineMetrics.SUCCESS, new HashMap<>(attributes));
+			if (!queue.offer(span))
+				droppedCounter.increment();
+		}
+	}
+}
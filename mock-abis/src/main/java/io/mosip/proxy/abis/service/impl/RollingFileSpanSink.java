@@ -0,0 +1,109 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mosip.proxy.abis.dto.SpanRecord;
+import io.mosip.proxy.abis.service.SpanSink;
+
+/**
+ * {@link SpanSink} appending spans as JSON lines to
+ * {@code abis.tracing.file.path}, selected with {@code abis.tracing.sink=file}.
+ * <p>
+ * Once the file reaches {@code abis.tracing.file.max.bytes} it is renamed with
+ * the suffix {@code .1}, older files moving up by one, and a new file is
+ * started; at most {@code abis.tracing.file.max.files} files are kept,
+ * counting the one being written. The spans of a request are found by
+ * searching the files for its {@code requestId} or trace ID.
+ * </p>
+ */
+@Component
+public class RollingFileSpanSink implements SpanSink {
+	/** Name selecting this sink. */
+	public static final String FILE = "file";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final Path path;
+	private final long maxBytes;
+	private final int maxFiles;
+
+	/**
+	 * Creates the sink from configuration.
+	 *
+	 * @param path     The file spans are written to.
+	 * @param maxBytes The size at which the file is rolled over.
+	 * @param maxFiles The number of files kept.
+	 */
+	@Autowired
+	public RollingFileSpanSink(@Value("${abis.tracing.file.path:traces/spans.jsonl}") String path,
+			@Value("${abis.tracing.file.max.bytes:10485760}") long maxBytes,
+			@Value("${abis.tracing.file.max.files:5}") int maxFiles) {
+		this(Paths.get(path), maxBytes, maxFiles);
+	}
+
+	/**
+	 * Creates the sink with explicit settings.
+	 *
+	 * @param path     The file spans are written to.
+	 * @param maxBytes The size at which the file is rolled over.
+	 * @param maxFiles The number of files kept.
+	 */
+	public RollingFileSpanSink(Path path, long maxBytes, int maxFiles) {
+		this.path = path;
+		this.maxBytes = Math.max(1, maxBytes);
+		this.maxFiles = Math.max(1, maxFiles);
+	}
+
+	@Override
+	public String getName() {
+		return FILE;
+	}
+
+	@Override
+	public synchronized void export(List<SpanRecord> spans) throws IOException {
+		Path parent = path.toAbsolutePath().getParent();
+		if (parent != null)
+			Files.createDirectories(parent);
+		if (Files.exists(path) && Files.size(path) >= maxBytes)
+			roll();
+		try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+			for (SpanRecord span : spans) {
+				writer.write(MAPPER.writeValueAsString(span));
+				writer.newLine();
+			}
+		}
+	}
+
+	private void roll() throws IOException {
+		if (maxFiles == 1) {
+			Files.delete(path);
+			return;
+		}
+		Files.deleteIfExists(rolled(maxFiles - 1));
+		for (int i = maxFiles - 2; i >= 1; i--) {
+			Path older = rolled(i);
+			if (Files.exists(older))
+				Files.move(older, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+		}
+		Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private Path rolled(int index) {
+		return path.resolveSibling(path.getFileName() + "." + index);
+	}
+}
@@ -0,0 +1,330 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.mosip.proxy.abis.service.LaneScheduler;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * {@link LaneScheduler} sharing {@code abis.lanes.workers} threads between the
+ * lanes with smooth weighted round-robin.
+ * <p>
+ * Each lane is configured with {@code abis.lanes.<lane>.capacity},
+ * {@code abis.lanes.<lane>.max.workers} and {@code abis.lanes.<lane>.weight},
+ * where {@code <lane>} is {@code insert}, {@code identify} or {@code delete}.
+ * A free worker takes the next request from the lanes that have work waiting
+ * and are below their worker cap, in proportion to their weights, so identify
+ * requests keep being served at their share while inserts pile up, and the
+ * cap keeps inserts from occupying every worker.
+ * </p>
+ * <p>
+ * The following meters are published, tagged with {@code lane}:
+ * </p>
+ * <ul>
+ * <li>{@code mock.abis.lane.queue.depth}: requests waiting on the lane.</li>
+ * <li>{@code mock.abis.lane.active}: requests of the lane being processed.</li>
+ * <li>{@code mock.abis.lane.wait}: time a request waited on its lane.</li>
+ * <li>{@code mock.abis.lane.processing}: time taken to process a request.</li>
+ * </ul>
+ * <p>
+ * On shutdown, queued requests are still processed for up to
+ * {@code abis.lanes.shutdown.timeout.seconds}.
+ * </p>
+ */
+@Component
+public class WeightedLaneScheduler implements LaneScheduler {
+	private static final Logger logger = LoggerFactory.getLogger(WeightedLaneScheduler.class);
+
+	/**
+	 * Settings of a single lane.
+	 *
+	 * @param capacity   The maximum number of queued requests.
+	 * @param maxWorkers The maximum number of workers processing the lane at once.
+	 * @param weight     The share of the workers the lane gets when others have
+	 *                   work waiting too.
+	 */
+	public record LaneSettings(int capacity, int maxWorkers, int weight) {
+	}
+
+	private final boolean enabled;
+	private final long shutdownTimeoutSeconds;
+	private final Map<Lane, LaneState> lanes = new EnumMap<>(Lane.class);
+	private final List<Thread> workers = new ArrayList<>();
+
+	private final ReentrantLock lock = new ReentrantLock();
+	/** Signalled when a request is queued or a lane drops below its cap. */
+	private final Condition workAvailable = lock.newCondition();
+
+	private volatile boolean running;
+
+	/**
+	 * Creates the scheduler from configuration.
+	 *
+	 * @param meterRegistry          The registry to publish meters to; the global
+	 *                               registry is used when none is configured.
+	 * @param env                    The environment holding the lane settings.
+	 * @param enabled                Whether requests are run in work lanes.
+	 * @param workerCount            The number of workers shared by the lanes.
+	 * @param shutdownTimeoutSeconds How long shutdown waits for queued requests.
+	 */
+	@Autowired
+	public WeightedLaneScheduler(ObjectProvider<MeterRegistry> meterRegistry, Environment env,
+			@Value("${abis.lanes.enabled:false}") boolean enabled,
+			@Value("${abis.lanes.workers:4}") int workerCount,
+			@Value("${abis.lanes.shutdown.timeout.seconds:30}") long shutdownTimeoutSeconds) {
+		this(meterRegistry.getIfAvailable(() -> Metrics.globalRegistry), enabled, workerCount,
+				settingsFrom(env), shutdownTimeoutSeconds);
+	}
+
+	/**
+	 * Creates the scheduler with explicit settings.
+	 *
+	 * @param meterRegistry          The registry to publish meters to.
+	 * @param enabled                Whether requests are run in work lanes.
+	 * @param workerCount            The number of workers shared by the lanes.
+	 * @param settings               The settings of every lane.
+	 * @param shutdownTimeoutSeconds How long shutdown waits for queued requests.
+	 */
+	public WeightedLaneScheduler(MeterRegistry meterRegistry, boolean enabled, int workerCount,
+			Map<Lane, LaneSettings> settings, long shutdownTimeoutSeconds) {
+		this.enabled = enabled;
+		this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+		for (Lane lane : Lane.values()) {
+			LaneState state = new LaneState(lane, settings.get(lane), lock.newCondition(), meterRegistry);
+			lanes.put(lane, state);
+			Gauge.builder("mock.abis.lane.queue.depth", this, s -> s.getQueued(lane)).tag("lane", state.tag)
+					.description("Requests waiting on the lane").register(meterRegistry);
+			Gauge.builder("mock.abis.lane.active", this, s -> s.getActive(lane)).tag("lane", state.tag)
+					.description("Requests of the lane being processed").register(meterRegistry);
+		}
+
+		this.running = enabled;
+		if (enabled) {
+			int threads = Math.max(1, workerCount);
+			for (int i = 0; i < threads; i++) {
+				Thread worker = Thread.ofPlatform().daemon(true).name("abis-lane-worker-" + i).start(this::run);
+				workers.add(worker);
+			}
+			logger.info("Started {} lane workers with lanes {}", threads, settings);
+		}
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	@Override
+	public void submit(Lane lane, Runnable task) throws InterruptedException {
+		if (!enabled) {
+			task.run();
+			return;
+		}
+		LaneState state = lanes.get(lane);
+		lock.lockInterruptibly();
+		try {
+			while (running && state.queue.size() >= state.capacity)
+				state.notFull.await();
+			if (!running)
+				throw new RejectedExecutionException("Lane scheduler is shutting down");
+			state.queue.add(new QueuedTask(task, System.nanoTime()));
+			workAvailable.signal();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public int getQueued(Lane lane) {
+		lock.lock();
+		try {
+			return lanes.get(lane).queue.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Returns the number of requests of a lane being processed.
+	 *
+	 * @param lane the lane
+	 * @return the active request count
+	 */
+	public int getActive(Lane lane) {
+		lock.lock();
+		try {
+			return lanes.get(lane).active;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Takes requests from the lanes until shutdown, and then until the lanes are
+	 * empty.
+	 */
+	private void run() {
+		while (true) {
+			LaneState state;
+			QueuedTask task;
+			lock.lock();
+			try {
+				while ((state = nextLaneLocked()) == null) {
+					if (!running && queuedLocked() == 0)
+						return;
+					workAvailable.await();
+				}
+				task = state.queue.poll();
+				state.active++;
+				state.notFull.signal();
+			} catch (InterruptedException e) {
+				// only interrupted once the shutdown grace period is over
+				return;
+			} finally {
+				lock.unlock();
+			}
+
+			state.waitTimer.record(System.nanoTime() - task.queuedAt, TimeUnit.NANOSECONDS);
+			try {
+				state.processingTimer.record(task.task);
+			} catch (RuntimeException e) {
+				logger.error("Error while processing {} request", state.tag, e);
+			} finally {
+				lock.lock();
+				try {
+					state.active--;
+					// the freed slot may make a lane at its cap eligible for an idle worker
+					workAvailable.signalAll();
+				} finally {
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Picks the lane to serve next among those with queued requests and a free
+	 * worker slot: each eligible lane gains its weight, the lane with the most
+	 * credit is served and pays back the total weight of the eligible lanes.
+	 * Ties go to the heavier lane.
+	 */
+	private LaneState nextLaneLocked() {
+		LaneState best = null;
+		int totalWeight = 0;
+		for (LaneState state : lanes.values()) {
+			if (state.queue.isEmpty() || state.active >= state.maxWorkers)
+				continue;
+			state.credit += state.weight;
+			totalWeight += state.weight;
+			if (best == null || state.credit > best.credit
+					|| (state.credit == best.credit && state.weight > best.weight))
+				best = state;
+		}
+		if (best != null)
+			best.credit -= totalWeight;
+		return best;
+	}
+
+	private int queuedLocked() {
+		int queued = 0;
+		for (LaneState state : lanes.values())
+			queued += state.queue.size();
+		return queued;
+	}
+
+	/**
+	 * Stops accepting requests and gives the workers the shutdown timeout to
+	 * finish the queued ones.
+	 */
+	@PreDestroy
+	public void shutdown() {
+		lock.lock();
+		try {
+			running = false;
+			workAvailable.signalAll();
+			for (LaneState state : lanes.values())
+				state.notFull.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(shutdownTimeoutSeconds);
+		for (Thread worker : workers) {
+			try {
+				worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		for (Thread worker : workers) {
+			if (worker.isAlive()) {
+				logger.warn("Lane worker {} did not finish within the shutdown timeout", worker.getName());
+				worker.interrupt();
+			}
+		}
+	}
+
+	private static Map<Lane, LaneSettings> settingsFrom(Environment env) {
+		Map<Lane, LaneSettings> settings = new EnumMap<>(Lane.class);
+		settings.put(Lane.INSERT, settingsFrom(env, Lane.INSERT, 1000, 2, 1));
+		settings.put(Lane.IDENTIFY, settingsFrom(env, Lane.IDENTIFY, 1000, 4, 8));
+		settings.put(Lane.DELETE, settingsFrom(env, Lane.DELETE, 1000, 1, 1));
+		return settings;
+	}
+
+	private static LaneSettings settingsFrom(Environment env, Lane lane, int capacity, int maxWorkers, int weight) {
+		String prefix = "abis.lanes." + lane.name().toLowerCase(Locale.ROOT) + ".";
+		return new LaneSettings(env.getProperty(prefix + "capacity", Integer.class, capacity),
+				env.getProperty(prefix + "max.workers", Integer.class, maxWorkers),
+				env.getProperty(prefix + "weight", Integer.class, weight));
+	}
+
+	private static final class LaneState {
+		private final String tag;
+		private final int capacity;
+		private final int maxWorkers;
+		private final int weight;
+		private final Condition notFull;
+		private final ArrayDeque<QueuedTask> queue = new ArrayDeque<>();
+		private final Timer waitTimer;
+		private final Timer processingTimer;
+		private int active;
+		private long credit;
+
+		private LaneState(Lane lane, LaneSettings settings, Condition notFull, MeterRegistry meterRegistry) {
+			this.tag = lane.name().toLowerCase(Locale.ROOT);
+			this.capacity = Math.max(1, settings.capacity());
+			this.maxWorkers = Math.max(1, settings.maxWorkers());
+			this.weight = Math.max(1, settings.weight());
+			this.notFull = notFull;
+			this.waitTimer = Timer.builder("mock.abis.lane.wait").tag("lane", tag)
+					.description("Time requests waited on their lane").register(meterRegistry);
+			this.processingTimer = Timer.builder("mock.abis.lane.processing").tag("lane", tag)
+					.description("Time taken to process requests").register(meterRegistry);
+		}
+	}
+
+	private record QueuedTask(Runnable task, long queuedAt) {
+	}
+}
@@ -0,0 +1,37 @@
+package io.mosip.proxy.abis.utility;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs work that must only happen once a database change is committed, such
+ * as recording it in the gallery journal.
+ *
+ * @since 1.3.0
+ */
+public class AfterCommit {
+	// Private constructor to prevent instantiation of the class
+	private AfterCommit() {
+		throw new IllegalStateException("AfterCommit class");
+	}
+
+	/**
+	 * Runs an action after the transaction of the current thread commits. The
+	 * action is dropped if the transaction rolls back, and runs at once when no
+	 * transaction is active.
+	 *
+	 * @param action the action to run
+	 */
+	public static void run(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+}
@@ -0,0 +1,286 @@
+package io.mosip.proxy.abis.utility;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Compact, fixed-length similarity signature of a biometric data block.
+ * <p>
+ * The signature is a one-permutation MinHash over the overlapping 4 byte
+ * shingles of the BDB: every shingle is hashed into one of {@value #SLOTS}
+ * bins, each bin keeps its smallest hash, and empty bins borrow the value of
+ * the next filled bin. Each slot is then reduced to 16 bits, so a signature is
+ * {@value #LENGTH} bytes whatever the size of the BDB. The fraction of equal
+ * slots of two signatures estimates the Jaccard similarity of their shingle
+ * sets, so BDBs differing in a few bytes keep most of their slots while
+ * unrelated BDBs share almost none.
+ * </p>
+ * <p>
+ * The slots are held four to a {@code long} word, which lets
+ * {@link #matches(long[], int, long[], int)} compare two signatures without
+ * allocating, straight from the packed arrays the matcher keeps them in.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public final class BdbSignature {
+	/** Number of slots in a signature. */
+	public static final int SLOTS = 64;
+	/** Number of bytes in a serialized signature. */
+	public static final int LENGTH = SLOTS * 2;
+	/** Number of {@code long} words holding a signature. */
+	public static final int WORDS = SLOTS / 4;
+
+	private static final int SHINGLE = 4;
+	private static final int BIN_SHIFT = 64 - Integer.numberOfTrailingZeros(SLOTS);
+	private static final long VALUE_MASK = (1L << BIN_SHIFT) - 1;
+	private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+	private static final long LOW_15 = 0x7FFF7FFF7FFF7FFFL;
+
+	private final long[] words;
+
+	private BdbSignature(long[] words) {
+		this.words = words;
+	}
+
+	/**
+	 * Computes the signature of a whole BDB.
+	 *
+	 * @param bdb the decoded BDB
+	 * @return the signature
+	 */
+	public static BdbSignature of(byte[] bdb) {
+		return new Builder().update(bdb, 0, bdb.length).build();
+	}
+
+	/**
+	 * Returns a builder computing a signature from a BDB read in chunks.
+	 *
+	 * @return a new builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Derives a signature from the SHA-256 digest of a BDB, for records whose
+	 * BDB is no longer available. Records with the same digest get the same
+	 * signature and therefore still match exactly, but no near duplicates can
+	 * be found for them.
+	 *
+	 * @param digest the digest
+	 * @return the signature
+	 */
+	public static BdbSignature fromDigest(BioDigest digest) {
+		byte[] bytes = digest.toBytes();
+		long[] seeds = new long[BioDigest.LENGTH / 8];
+		for (int i = 0; i < seeds.length; i++) {
+			for (int b = 0; b < 8; b++) {
+				seeds[i] = (seeds[i] << 8) | (bytes[i * 8 + b] & 0xFFL);
+			}
+		}
+		long[] words = new long[WORDS];
+		for (int slot = 0; slot < SLOTS; slot++) {
+			long value = mix64(seeds[slot % seeds.length] + (slot + 1) * GOLDEN) >>> 48;
+			words[slot >>> 2] |= value << (48 - 16 * (slot & 3));
+		}
+		return new BdbSignature(words);
+	}
+
+	/**
+	 * Creates a signature from its serialized form.
+	 *
+	 * @param bytes the {@value #LENGTH} signature bytes
+	 * @return the signature
+	 * @throws IllegalArgumentException if {@code bytes} is not {@value #LENGTH}
+	 *                                  bytes long
+	 */
+	public static BdbSignature fromBytes(byte[] bytes) {
+		if (Objects.isNull(bytes) || bytes.length != LENGTH)
+			throw new IllegalArgumentException("BDB signature must be " + LENGTH + " bytes");
+		long[] words = new long[WORDS];
+		for (int i = 0; i < LENGTH; i++) {
+			words[i >>> 3] = (words[i >>> 3] << 8) | (bytes[i] & 0xFFL);
+		}
+		return new BdbSignature(words);
+	}
+
+	/**
+	 * Returns the serialized signature, as stored in {@code bio_signature}.
+	 *
+	 * @return a new {@value #LENGTH} byte array
+	 */
+	public byte[] toBytes() {
+		byte[] bytes = new byte[LENGTH];
+		for (int i = 0; i < LENGTH; i++) {
+			bytes[i] = (byte) (words[i >>> 3] >>> (56 - 8 * (i & 7)));
+		}
+		return bytes;
+	}
+
+	/**
+	 * Copies the packed slots into an array.
+	 *
+	 * @param target the array
+	 * @param offset where the {@value #WORDS} words are written
+	 */
+	public void copyTo(long[] target, int offset) {
+		System.arraycopy(words, 0, target, offset, WORDS);
+	}
+
+	/**
+	 * Returns the 16 bit value of a slot.
+	 *
+	 * @param slot the slot, from {@code 0} to {@value #SLOTS} exclusive
+	 * @return the slot value
+	 */
+	public int slot(int slot) {
+		return slot(words, 0, slot);
+	}
+
+	/**
+	 * Returns the 16 bit value of a slot of a packed signature.
+	 *
+	 * @param words  the array holding the signature
+	 * @param offset the index of its first word
+	 * @param slot   the slot, from {@code 0} to {@value #SLOTS} exclusive
+	 * @return the slot value
+	 */
+	public static int slot(long[] words, int offset, int slot) {
+		return (int) (words[offset + (slot >>> 2)] >>> (48 - 16 * (slot & 3))) & 0xFFFF;
+	}
+
+	/**
+	 * Counts the slots this signature shares with another.
+	 *
+	 * @param other the other signature
+	 * @return the number of equal slots, from {@code 0} to {@value #SLOTS}
+	 */
+	public int matches(BdbSignature other) {
+		return matches(words, 0, other.words, 0);
+	}
+
+	/**
+	 * Counts the equal slots of two packed signatures.
+	 *
+	 * @param a       the array holding the first signature
+	 * @param aOffset the index of its first word
+	 * @param b       the array holding the second signature
+	 * @param bOffset the index of its first word
+	 * @return the number of equal slots, from {@code 0} to {@value #SLOTS}
+	 */
+	public static int matches(long[] a, int aOffset, long[] b, int bOffset) {
+		int equal = 0;
+		for (int i = 0; i < WORDS; i++) {
+			long x = a[aOffset + i] ^ b[bOffset + i];
+			// the top bit of each 16 bit lane ends up set only when the lane is zero
+			long nonZero = ((x & LOW_15) + LOW_15) | x;
+			equal += Long.bitCount(~(nonZero | LOW_15));
+		}
+		return equal;
+	}
+
+	/**
+	 * Estimates the similarity of this signature to another.
+	 *
+	 * @param other the other signature
+	 * @return the fraction of equal slots, from {@code 0} to {@code 1}
+	 */
+	public double similarity(BdbSignature other) {
+		return (double) matches(other) / SLOTS;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof BdbSignature))
+			return false;
+		return Arrays.equals(words, ((BdbSignature) o).words);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(words);
+	}
+
+	/**
+	 * Computes a signature from a BDB fed to it in chunks, so that it can run
+	 * beside the digest while the BDB streams past.
+	 */
+	public static final class Builder {
+		private final long[] mins = new long[SLOTS];
+		private int window;
+		private long length;
+
+		private Builder() {
+			Arrays.fill(mins, Long.MAX_VALUE);
+		}
+
+		/**
+		 * Adds the next bytes of the BDB.
+		 *
+		 * @param bytes  the array holding the bytes
+		 * @param offset the index of the first byte
+		 * @param count  the number of bytes
+		 * @return this builder
+		 */
+		public Builder update(byte[] bytes, int offset, int count) {
+			for (int i = offset; i < offset + count; i++) {
+				update(bytes[i]);
+			}
+			return this;
+		}
+
+		/**
+		 * Adds the next byte of the BDB.
+		 *
+		 * @param b the byte
+		 * @return this builder
+		 */
+		public Builder update(byte b) {
+			window = (window << 8) | (b & 0xFF);
+			if (++length >= SHINGLE)
+				add(window);
+			return this;
+		}
+
+		private void add(long shingle) {
+			long hash = mix64(shingle + GOLDEN);
+			int bin = (int) (hash >>> BIN_SHIFT);
+			long value = hash & VALUE_MASK;
+			if (value < mins[bin])
+				mins[bin] = value;
+		}
+
+		/**
+		 * Completes the signature.
+		 *
+		 * @return the signature of the bytes added so far
+		 */
+		public BdbSignature build() {
+			if (length > 0 && length < SHINGLE)
+				add((length << 32) | (window & 0xFFFFFFFFL));
+			long[] words = new long[WORDS];
+			if (length == 0)
+				return new BdbSignature(words);
+			for (int slot = 0; slot < SLOTS; slot++) {
+				long value = mins[slot];
+				// an empty bin borrows from the next filled one, offset by the distance
+				for (int distance = 1; value == Long.MAX_VALUE; distance++) {
+					long borrowed = mins[(slot + distance) % SLOTS];
+					if (borrowed != Long.MAX_VALUE)
+						value = borrowed + distance * GOLDEN;
+				}
+				words[slot >>> 2] |= (mix64(value) >>> 48) << (48 - 16 * (slot & 3));
+			}
+			return new BdbSignature(words);
+		}
+	}
+}
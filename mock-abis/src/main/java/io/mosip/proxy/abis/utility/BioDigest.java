@@ -0,0 +1,134 @@
+package io.mosip.proxy.abis.utility;
+
+import java.util.Objects;
+
+/**
+ * Compact, immutable representation of a SHA-256 biometric digest.
+ * <p>
+ * The 32 digest bytes are held in four primitive {@code long} words instead of
+ * the 64 character hexadecimal {@link String} stored in {@code Biometric_Data},
+ * which keeps in-memory structures keyed by digest small and makes
+ * {@link #equals(Object)} and {@link #hashCode()} allocation free.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public final class BioDigest {
+	/** Number of bytes in a SHA-256 digest. */
+	public static final int LENGTH = 32;
+
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+	private final long w0;
+	private final long w1;
+	private final long w2;
+	private final long w3;
+
+	private BioDigest(long w0, long w1, long w2, long w3) {
+		this.w0 = w0;
+		this.w1 = w1;
+		this.w2 = w2;
+		this.w3 = w3;
+	}
+
+	/**
+	 * Creates a digest from its 32 raw bytes.
+	 *
+	 * @param bytes the digest bytes
+	 * @return the digest
+	 * @throws IllegalArgumentException if {@code bytes} is not 32 bytes long
+	 */
+	public static BioDigest fromBytes(byte[] bytes) {
+		if (Objects.isNull(bytes) || bytes.length != LENGTH)
+			throw new IllegalArgumentException("SHA-256 digest must be " + LENGTH + " bytes");
+		return new BioDigest(word(bytes, 0), word(bytes, 8), word(bytes, 16), word(bytes, 24));
+	}
+
+	/**
+	 * Parses a 64 character hexadecimal digest, as produced by the insert flow.
+	 *
+	 * @param hex the hexadecimal digest (either case)
+	 * @return the digest, or {@code null} if {@code hex} is not a well formed
+	 *         SHA-256 hexadecimal string
+	 */
+	public static BioDigest fromHex(String hex) {
+		if (Objects.isNull(hex) || hex.length() != LENGTH * 2)
+			return null;
+		long[] words = new long[4];
+		for (int i = 0; i < LENGTH * 2; i++) {
+			int nibble = Character.digit(hex.charAt(i), 16);
+			if (nibble < 0)
+				return null;
+			words[i >>> 4] = (words[i >>> 4] << 4) | nibble;
+		}
+		return new BioDigest(words[0], words[1], words[2], words[3]);
+	}
+
+	/**
+	 * Returns the raw digest bytes.
+	 *
+	 * @return a new 32 byte array
+	 */
+	public byte[] toBytes() {
+		byte[] bytes = new byte[LENGTH];
+		putWord(bytes, 0, w0);
+		putWord(bytes, 8, w1);
+		putWord(bytes, 16, w2);
+		putWord(bytes, 24, w3);
+		return bytes;
+	}
+
+	/**
+	 * Returns the lower case hexadecimal form of the digest, identical to the value
+	 * persisted in the {@code bio_data} column.
+	 *
+	 * @return the hexadecimal digest
+	 */
+	public String toHex() {
+		char[] out = new char[LENGTH * 2];
+		long[] words = { w0, w1, w2, w3 };
+		int pos = 0;
+		for (long w : words) {
+			for (int shift = 60; shift >= 0; shift -= 4) {
+				out[pos++] = HEX[(int) (w >>> shift) & 0xF];
+			}
+		}
+		return new String(out);
+	}
+
+	private static long word(byte[] b, int off) {
+		long w = 0;
+		for (int i = 0; i < 8; i++) {
+			w = (w << 8) | (b[off + i] & 0xFFL);
+		}
+		return w;
+	}
+
+	private static void putWord(byte[] b, int off, long w) {
+		for (int i = 7; i >= 0; i--) {
+			b[off + i] = (byte) w;
+			w >>>= 8;
+		}
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o)
+			return true;
+		if (!(o instanceof BioDigest))
+			return false;
+		BioDigest other = (BioDigest) o;
+		return w0 == other.w0 && w1 == other.w1 && w2 == other.w2 && w3 == other.w3;
+	}
+
+	@Override
+	public int hashCode() {
+		// digest bits are already uniformly distributed, folding one word is enough
+		return (int) (w0 ^ (w0 >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		return toHex();
+	}
+}
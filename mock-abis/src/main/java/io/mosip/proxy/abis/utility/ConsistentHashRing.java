@@ -0,0 +1,84 @@
+package io.mosip.proxy.abis.utility;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Consistent hash ring assigning keys, such as reference IDs, to nodes.
+ * <p>
+ * Every node is placed on the ring at a number of virtual points, and a key
+ * belongs to the node owning the first point at or after the key's hash. Adding
+ * or removing a node therefore only moves the keys next to its points, and the
+ * virtual points spread the keys evenly over the nodes.
+ * </p>
+ * <p>
+ * Positions are the first eight bytes of the SHA-256 hash of the key, so every
+ * node computes the same owner for a key. Instances are immutable.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public final class ConsistentHashRing {
+
+	private final NavigableMap<Long, String> ring = new TreeMap<>();
+	private final List<String> nodes;
+
+	/**
+	 * Creates a ring of the given nodes.
+	 *
+	 * @param nodes        the node IDs
+	 * @param virtualNodes the number of points each node is placed at
+	 * @throws IllegalArgumentException if no nodes are given
+	 */
+	public ConsistentHashRing(Collection<String> nodes, int virtualNodes) {
+		if (Objects.isNull(nodes) || nodes.isEmpty())
+			throw new IllegalArgumentException("Hash ring needs at least one node");
+		this.nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+		int points = Math.max(1, virtualNodes);
+		for (String node : this.nodes) {
+			for (int i = 0; i < points; i++) {
+				// on a collision the lower node ID wins, so the ring is independent of node order
+				ring.merge(hash(node + "#" + i), node, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+			}
+		}
+	}
+
+	/**
+	 * Returns the node owning a key.
+	 *
+	 * @param key the key
+	 * @return the owning node ID
+	 */
+	public String ownerOf(String key) {
+		Map.Entry<Long, String> entry = ring.ceilingEntry(hash(key));
+		return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+	}
+
+	/**
+	 * Returns the node IDs in the order they were given.
+	 *
+	 * @return the node IDs
+	 */
+	public List<String> getNodes() {
+		return nodes;
+	}
+
+	private static long hash(String key) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+			return ByteBuffer.wrap(digest).getLong();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package io.mosip.proxy.abis.utility;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.security.InvalidAlgorithmParameterException;
@@ -15,9 +17,12 @@ import java.security.cert.CertificateException;
 import java.security.spec.MGF1ParameterSpec;
 import java.util.Arrays;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
+import javax.crypto.CipherInputStream;
 import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.SecretKey;
@@ -27,6 +32,7 @@ import javax.crypto.spec.PSource;
 import javax.crypto.spec.SecretKeySpec;
 
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Base64InputStream;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -57,6 +63,8 @@ import io.mosip.proxy.abis.exception.AbisException;
  * <ul>
  * <li>{@link #decryptCbeff(String)}: Decrypts Base64-encoded CBEFF data using
  * the configured private key.</li>
+ * <li>{@link #decryptCbeffStream(InputStream)}: Decrypts a Base64-encoded CBEFF
+ * stream as it is read.</li>
  * <li>{@link #setCertificateValues(String, String, String, String)}: Sets
  * custom certificate values if not loaded from properties.</li>
  * </ul>
@@ -83,6 +91,13 @@ import io.mosip.proxy.abis.exception.AbisException;
  * accessing shared environment properties.
  * </p>
  *
+ * <p>
+ * <strong>Caching:</strong> The private key entry is read from the keystore
+ * once and reused until {@link #setCertificateValues(String, String, String, String)}
+ * installs a new certificate. The RSA and AES ciphers are kept per thread and
+ * re-initialised for every decryption instead of being looked up each time.
+ * </p>
+ *
  * @version 1.0.0
  * @since 1.0.0
  */
@@ -120,8 +135,38 @@ public class CryptoCoreUtil {
 
 	private static final int AAD_SIZE = 32;
 
+	/**
+	 * Upper bound on the key part of a streamed CBEFF: version header, thumbprint
+	 * and an RSA-wrapped key of up to 8192 bits, with room to spare.
+	 */
+	private static final int MAX_KEY_PART_LENGTH = 4096;
+
 	protected static final byte[] VERSION_RSA_2048 = "VER_R2".getBytes();
 
+	private static final OAEPParameterSpec OAEP_PARAMS = new OAEPParameterSpec("SHA-256", "MGF1",
+			MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT);
+
+	/**
+	 * Incremented whenever the certificate values change, so that a key loaded
+	 * for an older certificate is never reused.
+	 */
+	private static final AtomicLong KEY_GENERATION = new AtomicLong();
+
+	/**
+	 * Private key entry together with the certificate generation it was loaded
+	 * for.
+	 */
+	private record CachedKey(long generation, KeyStore.PrivateKeyEntry entry) {
+	}
+
+	private final AtomicReference<CachedKey> cachedKey = new AtomicReference<>();
+
+	private final Object keyLock = new Object();
+
+	private final ThreadLocal<Cipher> rsaCipher = new ThreadLocal<>();
+
+	private final ThreadLocal<Cipher> aesCipher = new ThreadLocal<>();
+
 	/**
 	 * Loads certificate and keystore properties from the partner.properties file.
 	 * Invoked once during initialization to set static configuration values.
@@ -151,15 +196,103 @@ public class CryptoCoreUtil {
 	 */
 	@SuppressWarnings({ "java:S112" })
 	public String decryptCbeff(String responseData) throws Exception {
-		KeyStore.PrivateKeyEntry privateKey = getPrivateKeyEntryFromP12();
+		KeyStore.PrivateKeyEntry privateKey = getPrivateKeyEntry();
 		byte[] responseBytes = Base64.decodeBase64(responseData);
 		byte[] deryptedCbeffData = decryptCbeffData(responseBytes, privateKey);
 		return new String(deryptedCbeffData);
 	}
 
+	/**
+	 * Decrypts a Base64-encoded CBEFF stream without first reading it into memory.
+	 *
+	 * <p>
+	 * Only the key part before {@code #KEY_SPLITTER#} and the AAD are read
+	 * eagerly. For the {@code VER_R2} layout the returned stream decrypts the
+	 * rest of the input as it is read; the older layout, which carries the IV
+	 * at the end, is read in full and decrypted like {@link #decryptCbeff(String)}.
+	 * Note that AES/GCM only releases plaintext once the authentication tag has
+	 * been verified, so the cipher still holds the ciphertext of one document,
+	 * but the encoded, decoded and string copies are no longer kept.
+	 * </p>
+	 *
+	 * @param responseData Base64-encoded CBEFF data to decrypt; it is closed when
+	 *                     the returned stream is closed
+	 * @return Stream of the decrypted CBEFF data
+	 * @throws AbisException if the key part cannot be read or decrypted
+	 */
+	@SuppressWarnings({ "java:S2139" })
+	public InputStream decryptCbeffStream(InputStream responseData) throws AbisException {
+		InputStream decoded = new Base64InputStream(responseData);
+		try {
+			byte[] keyPart = readKeyPart(decoded);
+			KeyStore.PrivateKeyEntry privateKey = getPrivateKeyEntry();
+			if (Arrays.equals(parseEncryptKeyHeader(keyPart), VERSION_RSA_2048)) {
+				byte[] encSymmetricKey = Arrays.copyOfRange(keyPart, THUMBPRINT_LENGTH + VERSION_RSA_2048.length,
+						keyPart.length);
+				byte[] aad = decoded.readNBytes(AAD_SIZE);
+				if (aad.length != AAD_SIZE)
+					throw new IOException("Encrypted CBEFF data is truncated");
+				byte[] symmetricKey = decryptRandomSymKey(privateKey.getPrivateKey(), encSymmetricKey);
+				Cipher cipher = Cipher.getInstance(SYMMETRIC_ALGORITHM);
+				cipher.init(Cipher.DECRYPT_MODE, new SecretKeySpec(symmetricKey, "AES"),
+						new GCMParameterSpec(GCM_TAG_LENGTH, Arrays.copyOfRange(aad, 0, NONCE_SIZE)));
+				cipher.updateAAD(aad);
+				return new CipherInputStream(decoded, cipher);
+			}
+			ByteArrayOutputStream response = new ByteArrayOutputStream();
+			response.write(keyPart);
+			response.write(KEY_SPLITTER.getBytes());
+			decoded.transferTo(response);
+			decoded.close();
+			return new ByteArrayInputStream(decryptCbeffData(response.toByteArray(), privateKey));
+		} catch (AbisException e) {
+			closeQuietly(decoded);
+			throw e;
+		} catch (Exception e) {
+			closeQuietly(decoded);
+			logger.error("decryptCbeffStream", e);
+			throw new AbisException(AbisErrorCode.INVALID_DECRYPTION_EXCEPTION.getErrorCode(),
+					AbisErrorCode.INVALID_DECRYPTION_EXCEPTION.getErrorMessage());
+		}
+	}
+
+	/**
+	 * Reads the key part of an encrypted CBEFF stream, up to and excluding
+	 * {@code #KEY_SPLITTER#}, leaving the stream positioned at the data.
+	 *
+	 * @param in Stream of the Base64-decoded encrypted CBEFF data
+	 * @return The key part
+	 * @throws IOException if the stream ends or the key part exceeds
+	 *                     {@code MAX_KEY_PART_LENGTH} bytes before the splitter
+	 */
+	private static byte[] readKeyPart(InputStream in) throws IOException {
+		byte[] splitter = KEY_SPLITTER.getBytes();
+		byte[] buffer = new byte[MAX_KEY_PART_LENGTH + splitter.length];
+		int length = 0;
+		int b;
+		while ((b = in.read()) != -1) {
+			if (length == buffer.length)
+				throw new IOException("Key splitter not found in encrypted CBEFF data");
+			buffer[length++] = (byte) b;
+			if (length >= splitter.length
+					&& Arrays.equals(buffer, length - splitter.length, length, splitter, 0, splitter.length))
+				return Arrays.copyOf(buffer, length - splitter.length);
+		}
+		throw new IOException("Key splitter not found in encrypted CBEFF data");
+	}
+
+	private static void closeQuietly(InputStream in) {
+		try {
+			in.close();
+		} catch (IOException e) {
+			logger.warn("Error while closing CBEFF stream", e);
+		}
+	}
+
 	/**
 	 * Sets custom certificate and keystore values programmatically. Typically used
-	 * for testing or alternate runtime configurations.
+	 * for testing or alternate runtime configurations. Any cached private key is
+	 * invalidated, so the next decryption loads the new certificate.
 	 *
 	 * @param filePathVal Path to the certificate file
 	 * @param keystoreVal Keystore type (e.g., PKCS12)
@@ -172,6 +305,34 @@ public class CryptoCoreUtil {
 		filePath = filePathVal;
 		keystore = keystoreVal;
 		certiPassword = passwordVal;
+		KEY_GENERATION.incrementAndGet();
+	}
+
+	/**
+	 * Returns the cached private key entry, loading it from the keystore when
+	 * nothing is cached yet or the certificate values have changed since it was
+	 * loaded. Concurrent callers that miss the cache wait for a single load.
+	 *
+	 * @return PrivateKeyEntry containing the private key and associated certificate
+	 *         chain
+	 * @throws Exception if the keystore cannot be read
+	 */
+	@SuppressWarnings({ "java:S112" })
+	private KeyStore.PrivateKeyEntry getPrivateKeyEntry() throws Exception {
+		long generation = KEY_GENERATION.get();
+		CachedKey cached = cachedKey.get();
+		if (cached != null && cached.generation() == generation)
+			return cached.entry();
+		synchronized (keyLock) {
+			generation = KEY_GENERATION.get();
+			cached = cachedKey.get();
+			if (cached != null && cached.generation() == generation)
+				return cached.entry();
+			KeyStore.PrivateKeyEntry entry = getPrivateKeyEntryFromP12();
+			if (entry != null)
+				cachedKey.set(new CachedKey(generation, entry));
+			return entry;
+		}
 	}
 
 	/**
@@ -325,11 +486,14 @@ public class CryptoCoreUtil {
 			throws IllegalBlockSizeException, BadPaddingException, NoSuchAlgorithmException, NoSuchPaddingException,
 			InvalidAlgorithmParameterException, InvalidKeyException {
 		try {
-			Cipher cipher = Cipher.getInstance(RSA_ECB_OAEP_PADDING);
-			OAEPParameterSpec oaepParams = new OAEPParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256,
-					PSource.PSpecified.DEFAULT);
-			cipher.init(2, privateKey, oaepParams);
-			return cipher.doFinal(encRandomSymKey);
+			Cipher cipher = getCipher(rsaCipher, RSA_ECB_OAEP_PADDING);
+			try {
+				cipher.init(2, privateKey, OAEP_PARAMS);
+				return cipher.doFinal(encRandomSymKey);
+			} catch (Exception e) {
+				rsaCipher.remove();
+				throw e;
+			}
 		} catch (NoSuchAlgorithmException e) {
 			throw new NoSuchAlgorithmException(e);
 		} catch (NoSuchPaddingException e) {
@@ -364,12 +528,13 @@ public class CryptoCoreUtil {
 	@SuppressWarnings({ "java:S2139" })
 	private byte[] decryptCbeffData(SecretKey key, byte[] data) throws AbisException {
 		try {
-			Cipher cipher = Cipher.getInstance(SYMMETRIC_ALGORITHM);
+			Cipher cipher = getCipher(aesCipher, SYMMETRIC_ALGORITHM);
 			byte[] randomIV = Arrays.copyOfRange(data, data.length - cipher.getBlockSize(), data.length);
 			GCMParameterSpec gcmParameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, randomIV);
 			cipher.init(2, key, gcmParameterSpec);
 			return cipher.doFinal(Arrays.copyOf(data, data.length - cipher.getBlockSize()));
 		} catch (Exception e) {
+			aesCipher.remove();
 			logger.error("decryptCbeffData", e);
 			throw new AbisException(AbisErrorCode.INVALID_DECRYPTION_EXCEPTION.getErrorCode(),
 					AbisErrorCode.INVALID_DECRYPTION_EXCEPTION.getErrorMessage() + e.getLocalizedMessage());
@@ -399,19 +564,41 @@ public class CryptoCoreUtil {
 	@SuppressWarnings({ "java:S2139" })
 	private byte[] decryptCbeffData(SecretKey key, byte[] data, byte[] nonce, byte[] aad) throws AbisException {
 		try {
-			Cipher cipher = Cipher.getInstance(SYMMETRIC_ALGORITHM);
+			Cipher cipher = getCipher(aesCipher, SYMMETRIC_ALGORITHM);
 			SecretKeySpec keySpec = new SecretKeySpec(key.getEncoded(), "AES");
 			GCMParameterSpec gcmParameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, nonce);
 			cipher.init(2, keySpec, gcmParameterSpec);
 			cipher.updateAAD(aad);
 			return cipher.doFinal(data, 0, data.length);
 		} catch (Exception e) {
+			aesCipher.remove();
 			logger.error("decryptCbeffData", e);
 			throw new AbisException(AbisErrorCode.INVALID_DECRYPTION_EXCEPTION.getErrorCode(),
 					AbisErrorCode.INVALID_DECRYPTION_EXCEPTION.getErrorMessage() + e.getLocalizedMessage());
 		}
 	}
 
+	/**
+	 * Returns the calling thread's cipher for the given transformation, creating
+	 * it on first use. Callers re-initialise the cipher before every use and drop
+	 * it from the cache when an operation on it fails.
+	 *
+	 * @param cache          The per-thread cache for this transformation
+	 * @param transformation The cipher transformation
+	 * @return The cipher for the calling thread
+	 * @throws NoSuchAlgorithmException if the transformation is not available
+	 * @throws NoSuchPaddingException   if the padding scheme is not available
+	 */
+	private static Cipher getCipher(ThreadLocal<Cipher> cache, String transformation)
+			throws NoSuchAlgorithmException, NoSuchPaddingException {
+		Cipher cipher = cache.get();
+		if (cipher == null) {
+			cipher = Cipher.getInstance(transformation);
+			cache.set(cipher);
+		}
+		return cipher;
+	}
+
 	/**
 	 * Computes the SHA-256 hash (thumbprint) of the encoded form of the given
 	 * certificate.
@@ -0,0 +1,175 @@
+package io.mosip.proxy.abis.utility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only file of length-prefixed, checksummed records.
+ * <p>
+ * Every record is written as a four byte payload length, a four byte CRC-32C
+ * of the payload and the payload itself. A record cut short by a crash, or
+ * whose checksum does not match, ends the file for the {@link Reader}, which
+ * reports how far the file is valid so that the torn tail can be truncated
+ * before appending again.
+ * </p>
+ *
+ * @since 1.3.0
+ */
+public final class RecordLog {
+	/** Number of bytes preceding every payload. */
+	public static final int HEADER_LENGTH = 8;
+
+	private RecordLog() {
+		throw new IllegalStateException("RecordLog class");
+	}
+
+	private static int checksum(byte[] payload) {
+		CRC32C crc = new CRC32C();
+		crc.update(payload);
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Appends records to the end of a file, creating it if needed.
+	 */
+	public static final class Writer implements Closeable {
+		private final FileChannel channel;
+		private long size;
+
+		/**
+		 * Opens a file for appending.
+		 *
+		 * @param path the file
+		 * @throws IOException if the file cannot be opened
+		 */
+		public Writer(Path path) throws IOException {
+			this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND);
+			this.size = channel.size();
+		}
+
+		/**
+		 * Appends a record with a single write.
+		 *
+		 * @param payload the record
+		 * @param sync    whether to force the record to the storage device before
+		 *                returning
+		 * @throws IOException if the record cannot be written
+		 */
+		public void append(byte[] payload, boolean sync) throws IOException {
+			ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + payload.length);
+			buffer.putInt(payload.length).putInt(checksum(payload)).put(payload).flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			if (sync)
+				channel.force(false);
+			size += HEADER_LENGTH + payload.length;
+		}
+
+		/**
+		 * Forces the written records to the storage device.
+		 *
+		 * @throws IOException if the file cannot be synced
+		 */
+		public void sync() throws IOException {
+			channel.force(false);
+		}
+
+		/**
+		 * Returns the size of the file.
+		 *
+		 * @return the size in bytes
+		 */
+		public long size() {
+			return size;
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Reads the records of a file through a memory-mapped window, which is moved
+	 * along the file as records are read so files of any size can be read
+	 * without copying them onto the heap.
+	 */
+	public static final class Reader implements Closeable {
+		private static final long WINDOW = 64L * 1024 * 1024;
+
+		private final FileChannel channel;
+		private final long fileSize;
+		private MappedByteBuffer window;
+		private long windowStart;
+		private long position;
+
+		/**
+		 * Opens a file for reading.
+		 *
+		 * @param path the file
+		 * @throws IOException if the file cannot be opened
+		 */
+		public Reader(Path path) throws IOException {
+			this.channel = FileChannel.open(path, StandardOpenOption.READ);
+			this.fileSize = channel.size();
+		}
+
+		/**
+		 * Reads the next record.
+		 *
+		 * @return the record, or {@code null} at the end of the file or at a torn
+		 *         or corrupt record
+		 * @throws IOException if the file cannot be read
+		 */
+		public byte[] next() throws IOException {
+			if (fileSize - position < HEADER_LENGTH)
+				return null;
+			ByteBuffer header = map(position, HEADER_LENGTH);
+			int length = header.getInt();
+			int crc = header.getInt();
+			if (length < 0 || fileSize - position - HEADER_LENGTH < length)
+				return null;
+			byte[] payload = new byte[length];
+			map(position + HEADER_LENGTH, length).get(payload);
+			if (checksum(payload) != crc)
+				return null;
+			position += HEADER_LENGTH + length;
+			return payload;
+		}
+
+		/**
+		 * Returns the length of the file up to the end of the last record read.
+		 *
+		 * @return the valid length in bytes
+		 */
+		public long validLength() {
+			return position;
+		}
+
+		/**
+		 * Returns a view of {@code length} bytes at {@code offset}, moving the
+		 * mapped window when they fall outside it.
+		 */
+		private ByteBuffer map(long offset, int length) throws IOException {
+			if (window == null || offset < windowStart || offset + length > windowStart + window.capacity()) {
+				windowStart = offset;
+				window = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+						Math.min(fileSize - offset, Math.max(WINDOW, length)));
+			}
+			return window.slice((int) (offset - windowStart), length);
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
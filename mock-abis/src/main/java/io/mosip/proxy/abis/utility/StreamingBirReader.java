@@ -0,0 +1,266 @@
+package io.mosip.proxy.abis.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.commons.codec.binary.Base64OutputStream;
+
+/**
+ * Reads the biometric records of a CBEFF document with StAX, hashing each BDB
+ * as it streams past instead of building the document in memory.
+ * <p>
+ * Only the data the insert needs is kept per record: the first biometric type,
+ * the subtype and the SHA-256 digest of the decoded BDB, and on request its
+ * {@link BdbSignature}. The Base64 text of a BDB is decoded and digested in
+ * chunks, so memory use does not depend on the size of the document or of any
+ * single BDB.
+ * </p>
+ * <p>
+ * As with {@code CbeffValidator.getBIRFromXML}, only the BIRs nested in the
+ * root BIR are read and those without a BDB are skipped. The type is taken
+ * from the {@code Type} element of {@code BDBInfo}, and the subtype is
+ * rendered the way the JAXB entity's list renders it, e.g.
+ * {@code [Left, IndexFinger]}, so stored values match the non-streaming path.
+ * </p>
+ */
+public final class StreamingBirReader {
+
+	private static final String BIR = "BIR";
+	private static final String BDB = "BDB";
+	private static final String BDB_INFO = "BDBInfo";
+	private static final String TYPE = "Type";
+	private static final String SUBTYPE = "Subtype";
+
+	private static final int CHUNK_SIZE = 8192;
+
+	private static final XMLInputFactory FACTORY = createFactory();
+
+	/**
+	 * One biometric record read from the CBEFF document.
+	 *
+	 * @param type      The first biometric type, e.g. {@code Finger}, or
+	 *                  {@code null} if the record has none.
+	 * @param subtype   The subtype as rendered by the JAXB entity, or
+	 *                  {@code null} if the record has none.
+	 * @param bdbHash   The lowercase hex SHA-256 digest of the decoded BDB.
+	 * @param bdbLength The length of the decoded BDB in bytes.
+	 * @param signature The serialized {@link BdbSignature} of the decoded BDB, or
+	 *                  {@code null} if signatures were not requested.
+	 */
+	public record BdbRecord(String type, String subtype, String bdbHash, long bdbLength, byte[] signature) {
+
+		/**
+		 * Creates a record without a signature.
+		 *
+		 * @param type      The first biometric type.
+		 * @param subtype   The subtype as rendered by the JAXB entity.
+		 * @param bdbHash   The lowercase hex SHA-256 digest of the decoded BDB.
+		 * @param bdbLength The length of the decoded BDB in bytes.
+		 */
+		public BdbRecord(String type, String subtype, String bdbHash, long bdbLength) {
+			this(type, subtype, bdbHash, bdbLength, null);
+		}
+	}
+
+	private StreamingBirReader() {
+	}
+
+	/**
+	 * Reads every nested BIR that has a BDB from the given CBEFF stream.
+	 *
+	 * @param cbeff The CBEFF XML document; it is read to the end but not closed.
+	 * @return The records in document order.
+	 * @throws XMLStreamException if the document is not well-formed XML.
+	 * @throws IOException        if the stream cannot be read.
+	 */
+	public static List<BdbRecord> read(InputStream cbeff) throws XMLStreamException, IOException {
+		return read(cbeff, false);
+	}
+
+	/**
+	 * Reads every nested BIR that has a BDB from the given CBEFF stream,
+	 * optionally computing the signature of each BDB in the same pass.
+	 *
+	 * @param cbeff      The CBEFF XML document; it is read to the end but not
+	 *                   closed.
+	 * @param signatures Whether to compute the {@link BdbSignature} of each BDB.
+	 * @return The records in document order.
+	 * @throws XMLStreamException if the document is not well-formed XML.
+	 * @throws IOException        if the stream cannot be read.
+	 */
+	public static List<BdbRecord> read(InputStream cbeff, boolean signatures) throws XMLStreamException, IOException {
+		List<BdbRecord> records = new ArrayList<>();
+		Deque<String> path = new ArrayDeque<>();
+		char[] chars = new char[CHUNK_SIZE];
+		XMLStreamReader reader = FACTORY.createXMLStreamReader(cbeff);
+		try {
+			int birDepth = 0;
+			String type = null;
+			List<String> subtype = null;
+			BdbDigest bdb = null;
+			StringBuilder text = null;
+			while (reader.hasNext()) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					String name = reader.getLocalName();
+					String parent = path.peek();
+					path.push(name);
+					if (BIR.equals(name)) {
+						birDepth++;
+						type = null;
+						subtype = null;
+						bdb = null;
+					} else if (BDB.equals(name) && BIR.equals(parent) && birDepth > 1) {
+						bdb = new BdbDigest(signatures);
+					} else if ((TYPE.equals(name) || SUBTYPE.equals(name)) && BDB_INFO.equals(parent)) {
+						text = new StringBuilder();
+					}
+				} else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+					String name = path.peek();
+					if (BDB.equals(name) && bdb != null) {
+						copyTo(reader, chars, bdb);
+					} else if (text != null) {
+						text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+					}
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					String name = path.pop();
+					if (BIR.equals(name)) {
+						if (bdb != null && birDepth > 1)
+							records.add(new BdbRecord(type, subtype == null || subtype.isEmpty() ? null : subtype.toString(),
+									bdb.hex(), bdb.length(), bdb.signature()));
+						birDepth--;
+						bdb = null;
+					} else if (text != null && TYPE.equals(name)) {
+						List<String> tokens = tokens(text);
+						if (type == null && !tokens.isEmpty())
+							type = tokens.get(0);
+						text = null;
+					} else if (text != null && SUBTYPE.equals(name)) {
+						if (subtype == null)
+							subtype = new ArrayList<>();
+						subtype.addAll(tokens(text));
+						text = null;
+					} else if (BDB.equals(name) && bdb != null) {
+						bdb.finish();
+					}
+				}
+			}
+		} finally {
+			reader.close();
+		}
+		return records;
+	}
+
+	/**
+	 * Feeds the current text event to the BDB digest in fixed-size chunks.
+	 */
+	private static void copyTo(XMLStreamReader reader, char[] chars, BdbDigest bdb)
+			throws XMLStreamException, IOException {
+		int length = reader.getTextLength();
+		for (int offset = 0; offset < length;) {
+			int copied = reader.getTextCharacters(offset, chars, 0, Math.min(chars.length, length - offset));
+			if (copied <= 0)
+				break;
+			bdb.write(chars, copied);
+			offset += copied;
+		}
+	}
+
+	private static List<String> tokens(CharSequence text) {
+		List<String> tokens = new ArrayList<>();
+		for (String token : text.toString().trim().split("\\s+")) {
+			if (!token.isEmpty())
+				tokens.add(token);
+		}
+		return tokens;
+	}
+
+	private static XMLInputFactory createFactory() {
+		XMLInputFactory factory = XMLInputFactory.newFactory();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+		return factory;
+	}
+
+	/**
+	 * Decodes Base64 BDB text incrementally into a SHA-256 digest and, when
+	 * requested, a signature.
+	 */
+	private static final class BdbDigest extends OutputStream {
+		private final MessageDigest digest;
+		private final BdbSignature.Builder signature;
+		private final Base64OutputStream decoder;
+		private final byte[] ascii = new byte[CHUNK_SIZE];
+		private long length;
+		private String hex;
+
+		private BdbDigest(boolean signature) {
+			try {
+				this.digest = MessageDigest.getInstance("SHA-256");
+			} catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+			this.signature = signature ? BdbSignature.builder() : null;
+			this.decoder = new Base64OutputStream(this, false);
+		}
+
+		private void write(char[] chars, int count) throws IOException {
+			for (int i = 0; i < count; i++) {
+				ascii[i] = (byte) chars[i];
+			}
+			decoder.write(ascii, 0, count);
+		}
+
+		private void finish() throws IOException {
+			if (hex == null) {
+				decoder.close();
+				hex = HexFormat.of().formatHex(digest.digest());
+			}
+		}
+
+		private String hex() throws IOException {
+			finish();
+			return hex;
+		}
+
+		private long length() {
+			return length;
+		}
+
+		private byte[] signature() throws IOException {
+			finish();
+			return signature != null ? signature.build().toBytes() : null;
+		}
+
+		@Override
+		public void write(int b) {
+			digest.update((byte) b);
+			if (signature != null)
+				signature.update((byte) b);
+			length++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			digest.update(b, off, len);
+			if (signature != null)
+				signature.update(b, off, len);
+			length += len;
+		}
+	}
+
+}
@@ -81,6 +81,38 @@ class ProxyAbisConfigControllerTest {
         assertEquals(expectations, response.getBody());
     }
 
+    /**
+     * Tests the restore of an expectation snapshot.
+     * Verifies that:
+     * - Service is called with the expectations of the snapshot
+     * - Response contains the number of expectations restored
+     * - HTTP status is OK
+     */
+    @Test
+    void testRestoreExpectations_ValidSnapshot_ReturnsHttpOkWithCount() {
+        List<Expectation> snapshot = List.of(new Expectation(), new Expectation());
+
+        ResponseEntity<String> response = controller.restoreExpectations(snapshot);
+
+        verify(proxyAbisConfigService).restoreExpectations(snapshot);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertTrue(Objects.requireNonNull(response.getBody()).contains("2"));
+    }
+
+    /**
+     * Tests error handling when restoring an expectation snapshot fails.
+     * Verifies that:
+     * - IllegalArgumentException is properly wrapped in AbisException
+     */
+    @Test
+    void testRestoreExpectations_WhenServiceThrowsException_ShouldThrowAbisException() {
+        List<Expectation> snapshot = List.of(new Expectation());
+        doThrow(new IllegalArgumentException("Expectation without id")).when(proxyAbisConfigService)
+                .restoreExpectations(snapshot);
+
+        assertThrows(AbisException.class, () -> controller.restoreExpectations(snapshot));
+    }
+
     /**
      * Tests the deletion of a specific expectation.
      * Verifies that:
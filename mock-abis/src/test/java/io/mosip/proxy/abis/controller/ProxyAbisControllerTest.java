@@ -9,16 +9,28 @@ import io.mosip.proxy.abis.dto.InsertRequestMO;
 import io.mosip.proxy.abis.dto.RequestMO;
 import io.mosip.proxy.abis.dto.ResponseMO;
 
+import io.mosip.proxy.abis.exception.AdmissionRejectedException;
 import io.mosip.proxy.abis.exception.FailureReasonsConstants;
 import io.mosip.proxy.abis.exception.RequestException;
 import io.mosip.proxy.abis.listener.Listener;
+import io.mosip.proxy.abis.service.AdmissionLimiter;
 import io.mosip.proxy.abis.service.ProxyAbisInsertService;
+import io.mosip.proxy.abis.service.PipelineMetrics;
+import io.mosip.proxy.abis.service.RequestTracer;
+import io.mosip.proxy.abis.service.ResponseDispatcher;
+import io.mosip.proxy.abis.service.impl.AdaptiveAdmissionLimiter;
+import io.mosip.proxy.abis.service.impl.DelayedResponseDispatcher;
+import io.mosip.proxy.abis.service.impl.MicrometerPipelineMetrics;
+import io.mosip.proxy.abis.service.impl.RequestTracerImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,21 +38,27 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.validation.BindingResult;
 
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Field;
 import java.time.LocalDateTime;
-import java.util.Timer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -63,6 +81,24 @@ class ProxyAbisControllerTest {
     @Mock
     private BindingResult bindingResult;
 
+    @Spy
+    private ResponseDispatcher responseDispatcher = new DelayedResponseDispatcher(new SimpleMeterRegistry(), 2, 100,
+            1000, 1000, 1);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PipelineMetrics pipelineMetrics = new MicrometerPipelineMetrics(meterRegistry, true, false);
+
+    @Spy
+    private RequestTracer requestTracer = new RequestTracerImpl(null, new SimpleMeterRegistry(), false, 1, 1, 1000);
+
+    @Spy
+    private AdmissionLimiter admissionLimiter = new AdaptiveAdmissionLimiter(new SimpleMeterRegistry(), true,
+            Map.of(AdmissionLimiter.Endpoint.INSERT, new AdaptiveAdmissionLimiter.EndpointSettings(1, 0),
+                    AdmissionLimiter.Endpoint.IDENTIFY, new AdaptiveAdmissionLimiter.EndpointSettings(1, 0)),
+            0, 2, new AdaptiveAdmissionLimiter.AdaptiveSettings(false, 1, 2.0));
+
     @InjectMocks
     private ProxyAbisController controller;
 
@@ -70,6 +106,14 @@ class ProxyAbisControllerTest {
     private RequestMO validRequest;
     private IdentityRequest validIdentityRequest;
 
+    /**
+     * Stops the response dispatcher threads.
+     */
+    @AfterEach
+    void tearDown() {
+        ((DelayedResponseDispatcher) responseDispatcher).shutdown();
+    }
+
     /**
      * Sets up the test data and initializes the controller with a mock listener.
      */
@@ -112,6 +156,30 @@ class ProxyAbisControllerTest {
         assertInstanceOf(ResponseMO.class, response.getBody());
     }
 
+    /**
+     * Tests that an insert request arriving while the endpoint is at its limit is
+     * rejected with 429 before reaching the service, and that the slot of a
+     * processed request is released.
+     */
+    @Test
+    void saveInsertRequest_endpointAtLimit_rejectsWithTooManyRequests() throws Exception {
+        when(bindingResult.hasErrors()).thenReturn(false);
+        AdmissionLimiter.Permit held = admissionLimiter.acquire(AdmissionLimiter.Endpoint.INSERT, validRequest);
+
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                () -> controller.saveInsertRequest(validInsertRequest, bindingResult));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatus());
+        assertEquals(2, rejected.getRetryAfterSeconds());
+        assertEquals("test-request-id", rejected.getEntity().getRequestId());
+        verify(abisInsertService, never()).insertData(any(InsertRequestMO.class));
+
+        held.release();
+        when(abisInsertService.insertData(any(InsertRequestMO.class))).thenReturn(0);
+        assertEquals(HttpStatus.OK, controller.saveInsertRequest(validInsertRequest, bindingResult).getStatusCode());
+        assertEquals(0, ((AdaptiveAdmissionLimiter) admissionLimiter).getInflight(AdmissionLimiter.Endpoint.INSERT));
+    }
+
     /**
      * Tests validation failure handling for insert requests.
      * Ensures that requests with validation errors are properly rejected.
@@ -192,6 +260,20 @@ class ProxyAbisControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
+    /**
+     * Tests that the slot of an identify request is released when the service
+     * fails, so the next request is admitted.
+     */
+    @Test
+    void identityRequest_serviceFails_releasesSlot() {
+        when(abisInsertService.findDuplication(any(IdentityRequest.class)))
+                .thenThrow(new RequestException("Error"));
+
+        controller.identityRequest(validIdentityRequest);
+
+        assertEquals(0, ((AdaptiveAdmissionLimiter) admissionLimiter).getInflight(AdmissionLimiter.Endpoint.IDENTIFY));
+    }
+
     /**
      * Tests failure handling in identity verification requests.
      * Ensures proper error responses when identity verification fails.
@@ -221,6 +303,41 @@ class ProxyAbisControllerTest {
         assertTrue(response.getBody() instanceof ResponseMO);
     }
 
+    /**
+     * Tests asynchronous insert handling through listener.
+     * Verifies that the response is sent only once the insert completes.
+     */
+    @Test
+    void saveInsertRequestThroughListnerAsync_insertCompletes_sendsSuccessResponse() throws Exception {
+        CompletableFuture<Integer> insert = new CompletableFuture<>();
+        when(abisInsertService.insertDataAsync(any(InsertRequestMO.class))).thenReturn(insert);
+
+        CompletableFuture<ResponseEntity<Object>> response = controller
+                .saveInsertRequestThroughListnerAsync(validInsertRequest, 1);
+
+        assertFalse(response.isDone());
+        insert.complete(0);
+        assertInstanceOf(ResponseMO.class, response.get(1, TimeUnit.SECONDS).getBody());
+        verify(listener, timeout(1000)).sendToQueue(any(), eq(1));
+    }
+
+    /**
+     * Tests asynchronous insert handling through listener when the insert fails.
+     * Verifies that a failure response with the reason of the insert is sent.
+     */
+    @Test
+    void saveInsertRequestThroughListnerAsync_insertFails_sendsFailureResponse() throws Exception {
+        when(abisInsertService.insertDataAsync(any(InsertRequestMO.class))).thenReturn(
+                CompletableFuture.failedFuture(new RequestException(FailureReasonsConstants.REFERENCEID_ALREADY_EXISTS)));
+
+        ResponseEntity<Object> response = controller.saveInsertRequestThroughListnerAsync(validInsertRequest, 1)
+                .get(1, TimeUnit.SECONDS);
+
+        FailureResponse failure = assertInstanceOf(FailureResponse.class, response.getBody());
+        assertEquals(FailureReasonsConstants.REFERENCEID_ALREADY_EXISTS, failure.getFailureReason());
+        verify(listener, timeout(1000)).sendToQueue(any(), eq(1));
+    }
+
     /**
      * Tests the deleteRequestThroughListner method for a successful scenario.
      * It ensures that when deleteData is called on the service, the controller responds with HTTP OK
@@ -413,19 +530,48 @@ class ProxyAbisControllerTest {
 
 
     /**
-     * Tests timer cleanup in controller.
+     * Tests that executeAsync hands the response to the dispatcher with the delay in seconds.
      */
     @Test
-    void testExecuteAsync_TimerInitializedAndNotNullAfterDelay() throws Exception {
+    void testExecuteAsync_SchedulesOnDispatcherWithDelayInSeconds() throws Exception {
         ResponseEntity<Object> responseEntity = new ResponseEntity<>("test", HttpStatus.OK);
         controller.executeAsync(responseEntity, 0, 1);
 
-        Thread.sleep(1500);
+        verify(responseDispatcher).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.SECONDS));
+        verify(listener, timeout(1000)).sendToQueue(responseEntity, 1);
+    }
+
+    /**
+     * Tests that a response rejected by a dispatcher at capacity is dropped without
+     * failing the caller.
+     */
+    @Test
+    void testExecuteAsync_WhenDispatcherAtCapacity_DropsResponse() throws Exception {
+        ResponseEntity<Object> responseEntity = new ResponseEntity<>("test", HttpStatus.OK);
+        doThrow(new RejectedExecutionException("at capacity"))
+                .when(responseDispatcher).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+
+        controller.executeAsync(responseEntity, 0, 1);
+
+        verify(listener, never()).sendToQueue(any(), anyInt());
+        assertEquals(1, meterRegistry.get("mock.abis.pipeline.stage").tag("stage", "schedule")
+                .tag("outcome", FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN).timer().count());
+    }
+
+    /**
+     * Tests that a dispatched response records how late it ran against its due
+     * time under the schedule stage.
+     */
+    @Test
+    void executeAsync_dispatched_recordsScheduleStage() throws Exception {
+        ResponseMO response = new ResponseMO("mosip.abis.delete", "test-request-id", LocalDateTime.now(), "1");
+        ResponseEntity<Object> responseEntity = new ResponseEntity<>(response, HttpStatus.OK);
+
+        controller.executeAsync(responseEntity, 0, 1);
 
-        Field timerField = ProxyAbisController.class.getDeclaredField("timer");
-        timerField.setAccessible(true);
-        Timer timer = (Timer) timerField.get(controller);
-        assertNotNull(timer);
+        verify(listener, timeout(1000)).sendToQueue(responseEntity, 1);
+        assertEquals(1, meterRegistry.get("mock.abis.pipeline.stage").tag("stage", "schedule")
+                .tag("operation", "delete").tag("outcome", PipelineMetrics.SUCCESS).timer().count());
     }
 
     /**
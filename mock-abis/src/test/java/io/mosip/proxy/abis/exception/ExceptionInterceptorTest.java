@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -71,6 +72,24 @@ class ExceptionInterceptorTest {
         assertNotNull(response.getBody()); // Verify the response body is not null
     }
 
+    /**
+     * Tests the handleAdmissionRejectedException method when an overloaded endpoint rejects a request.
+     * Verifies the rejection status, Retry-After header and failure response.
+     */
+    @Test
+    void testExceptionInterceptor_HandleAdmissionRejectedException_ReturnsStatusWithRetryAfter() {
+        AdmissionRejectedException exception = new AdmissionRejectedException(requestMO,
+                FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN, HttpStatus.TOO_MANY_REQUESTS, 3);
+        ResponseEntity<Object> response = exceptionInterceptor.handleAdmissionRejectedException(exception);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        FailureResponse failureResponse = (FailureResponse) response.getBody();
+        assertNotNull(failureResponse);
+        assertEquals("test-request-id", failureResponse.getRequestId());
+        assertEquals("2", failureResponse.getReturnValue());
+        assertEquals(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN, failureResponse.getFailureReason());
+    }
+
     /**
      * Tests the handleBindingErrors method when a valid BindingException is passed.
      * Verifies the response status, body, and failure reason.
@@ -0,0 +1,159 @@
+package io.mosip.proxy.abis.listener;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.mosip.proxy.abis.dto.FailureResponse;
+import io.mosip.proxy.abis.dto.IdentityRequest;
+import io.mosip.proxy.abis.dto.InsertRequestMO;
+import io.mosip.proxy.abis.dto.RequestMO;
+
+/**
+ * Unit test class for AbisMessageCodec.
+ * This class tests decoding of text and byte messages, binding to the request
+ * DTOs, the field map used for failure reasons and response encoding.
+ */
+class AbisMessageCodecTest {
+
+    private static final String INSERT = """
+            {"id":"mosip.abis.insert","version":"1.1","requestId":"req-1",
+             "requesttime":"2024-04-22T10:00:00.000Z","referenceId":"ref-1",
+             "referenceURL":"http://datashare/ref-1"}
+            """;
+
+    /**
+     * Tests that a text insert message yields its id and binds to an insert
+     * request, including the UTC request time.
+     */
+    @Test
+    void decode_textInsert_bindsInsertRequest() throws Exception {
+        AbisMessageCodec.DecodedMessage message = AbisMessageCodec.decode(INSERT);
+
+        InsertRequestMO request = AbisMessageCodec.toInsertRequest(message);
+
+        assertEquals("mosip.abis.insert", message.id());
+        assertEquals("ref-1", request.getReferenceId());
+        assertEquals("http://datashare/ref-1", request.getReferenceURL());
+        assertEquals(LocalDateTime.of(2024, 4, 22, 10, 0), request.getRequesttime());
+    }
+
+    /**
+     * Tests that the request ID is read from the parsed message, and is null when
+     * it is missing or not text.
+     */
+    @Test
+    void requestIdOf_message_returnsTextualRequestId() throws Exception {
+        assertEquals("req-1", AbisMessageCodec.requestIdOf(AbisMessageCodec.decode(INSERT)));
+        assertNull(AbisMessageCodec.requestIdOf(AbisMessageCodec.decode("{\"requestId\":7}")));
+        assertNull(AbisMessageCodec.requestIdOf(AbisMessageCodec.decode("{}")));
+    }
+
+    /**
+     * Tests that a byte message is decoded from its UTF-8 content.
+     */
+    @Test
+    void decode_bytes_bindsDeleteRequest() throws Exception {
+        String delete = """
+                {"id":"mosip.abis.delete","version":"1.1","requestId":"req-2",
+                 "requesttime":"2024-04-22T10:00:00.000Z","referenceId":"r\u00e9f-2"}
+                """;
+
+        AbisMessageCodec.DecodedMessage message = AbisMessageCodec.decode(delete.getBytes(StandardCharsets.UTF_8));
+        RequestMO request = AbisMessageCodec.toRequest(message);
+
+        assertEquals("mosip.abis.delete", message.id());
+        assertEquals("r\u00e9f-2", request.getReferenceId());
+    }
+
+    /**
+     * Tests that an identify message binds its gallery of reference IDs.
+     */
+    @Test
+    void toIdentityRequest_withGallery_bindsReferenceIds() throws Exception {
+        String identify = """
+                {"id":"mosip.abis.identify","version":"1.1","requestId":"req-3",
+                 "requesttime":"2024-04-22T10:00:00.000Z","referenceId":"ref-3",
+                 "gallery":{"referenceIds":[{"referenceId":"ref-a"},{"referenceId":"ref-b"}]}}
+                """;
+
+        IdentityRequest request = AbisMessageCodec.toIdentityRequest(AbisMessageCodec.decode(identify));
+
+        assertEquals(2, request.getGallery().getReferenceIds().size());
+        assertEquals("ref-b", request.getGallery().getReferenceIds().get(1).getReferenceId());
+    }
+
+    /**
+     * Tests that a request with an unexpected field is rejected when bound, as the
+     * listener relies on this to report an invalid request structure.
+     */
+    @Test
+    void toInsertRequest_unknownField_throwsIOException() throws Exception {
+        AbisMessageCodec.DecodedMessage message = AbisMessageCodec
+                .decode(INSERT.replace("\"id\"", "\"extra\":\"x\",\"id\""));
+
+        assertThrows(IOException.class, () -> AbisMessageCodec.toInsertRequest(message));
+    }
+
+    /**
+     * Tests that a message without a textual id decodes with a null id.
+     */
+    @Test
+    void decode_missingId_returnsNullId() throws Exception {
+        assertNull(AbisMessageCodec.decode("{\"id\":1,\"version\":\"1.1\"}").id());
+    }
+
+    /**
+     * Tests that invalid JSON and JSON that is not an object are rejected.
+     */
+    @Test
+    void decode_notJsonObject_throws() {
+        assertThrows(IOException.class, () -> AbisMessageCodec.decode("invalid json data"));
+        assertThrows(IllegalArgumentException.class, () -> AbisMessageCodec.decode("[1,2]"));
+        assertThrows(IllegalArgumentException.class, () -> AbisMessageCodec.decode(new byte[0]));
+    }
+
+    /**
+     * Tests that the field map holds values as text, renders nested values as
+     * JSON and is null when the message could not be parsed.
+     */
+    @Test
+    void toMap_mixedValues_returnsTextFields() throws Exception {
+        AbisMessageCodec.DecodedMessage message = AbisMessageCodec
+                .decode("{\"id\":\"mosip.abis.identify\",\"version\":1.1,\"requestId\":null,"
+                        + "\"gallery\":{\"referenceIds\":[]}}");
+
+        Map<String, String> map = AbisMessageCodec.toMap(message);
+
+        assertEquals("mosip.abis.identify", map.get("id"));
+        assertEquals("1.1", map.get("version"));
+        assertTrue(map.containsKey("requestId"));
+        assertNull(map.get("requestId"));
+        assertEquals("{\"referenceIds\":[]}", map.get("gallery"));
+        assertNull(AbisMessageCodec.toMap(null));
+    }
+
+    /**
+     * Tests that responses are written with ISO dates rather than timestamps, in
+     * both text and byte form.
+     */
+    @Test
+    void writeValue_response_usesIsoDates() throws Exception {
+        FailureResponse response = new FailureResponse("mosip.abis.insert", "req-1",
+                LocalDateTime.of(2024, 4, 22, 10, 0, 5), "2", "1");
+
+        String text = AbisMessageCodec.writeValueAsString(response);
+        byte[] bytes = AbisMessageCodec.writeValueAsBytes(response);
+
+        assertTrue(text.contains("\"2024-04-22T10:00:05\""));
+        assertEquals(text, new String(bytes, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,195 @@
+package io.mosip.proxy.abis.listener;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jakarta.jms.Connection;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+
+/**
+ * Unit test class for ConsumerPool.
+ * This class tests session creation per consumer, message handling and
+ * acknowledgement, the in-flight cap and shutdown.
+ */
+class ConsumerPoolTest {
+
+    private Connection connection;
+    private Session session;
+    private MessageConsumer consumer;
+    private ConsumerPool pool;
+
+    /**
+     * Sets up a connection whose sessions all hand out the same consumer mock.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = mock(Connection.class);
+        session = mock(Session.class);
+        consumer = mock(MessageConsumer.class);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(session.createQueue(anyString())).thenReturn(mock(Queue.class));
+        when(session.createConsumer(any(Destination.class))).thenReturn(consumer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null)
+            pool.close();
+    }
+
+    /**
+     * Tests that starting the pool opens one client-acknowledged session and one
+     * prefetch-limited consumer per worker, and closing it closes every session.
+     */
+    @Test
+    void start_multipleConsumers_createsSessionPerConsumer() throws Exception {
+        when(consumer.receive(anyLong())).thenAnswer(inv -> idle());
+
+        pool = new ConsumerPool(connection, "inQueue", mock(QueueListener.class), 3, 0, false);
+        pool.start();
+
+        verify(connection, times(3)).createSession(false, Session.CLIENT_ACKNOWLEDGE);
+        verify(session, times(3)).createQueue("inQueue?consumer.prefetchSize=1");
+        assertEquals(3, pool.getConsumers());
+
+        pool.close();
+        verify(session, times(3)).close();
+    }
+
+    /**
+     * Tests that a received message is passed to the handler and acknowledged
+     * after it has been handled.
+     */
+    @Test
+    void receive_message_handledThenAcknowledged() throws Exception {
+        Message message = mock(Message.class);
+        AtomicBoolean delivered = new AtomicBoolean();
+        when(consumer.receive(anyLong())).thenAnswer(inv -> delivered.getAndSet(true) ? idle() : message);
+        CountDownLatch handled = new CountDownLatch(1);
+        QueueListener handler = new QueueListener() {
+            @Override
+            public void setListener(Message m) {
+                handled.countDown();
+            }
+        };
+
+        pool = new ConsumerPool(connection, "inQueue", handler, 1, 0, true);
+        pool.start();
+
+        assertTrue(handled.await(5, TimeUnit.SECONDS));
+        pool.close();
+        verify(message, atLeastOnce()).acknowledge();
+    }
+
+    /**
+     * Tests that a message whose handler throws is not acknowledged and its
+     * session is recovered, so the broker redelivers it.
+     */
+    @Test
+    void receive_handlerThrows_recoversWithoutAcknowledging() throws Exception {
+        Message message = mock(Message.class);
+        AtomicBoolean delivered = new AtomicBoolean();
+        when(consumer.receive(anyLong())).thenAnswer(inv -> delivered.getAndSet(true) ? idle() : message);
+        CountDownLatch recovered = new CountDownLatch(1);
+        doAnswer(inv -> {
+            recovered.countDown();
+            return null;
+        }).when(session).recover();
+        QueueListener handler = new QueueListener() {
+            @Override
+            public void setListener(Message m) {
+                throw new IllegalStateException("handler failed");
+            }
+        };
+
+        pool = new ConsumerPool(connection, "inQueue", handler, 1, 0, true);
+        pool.start();
+
+        assertTrue(recovered.await(5, TimeUnit.SECONDS));
+        pool.close();
+        verify(message, never()).acknowledge();
+    }
+
+    /**
+     * Tests that no more than the configured number of messages are handled at
+     * once, even with more consumers than permits.
+     */
+    @Test
+    void receive_moreConsumersThanPermits_respectsMaxInFlight() throws Exception {
+        when(consumer.receive(anyLong())).thenAnswer(inv -> mock(Message.class));
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch handled = new CountDownLatch(20);
+        QueueListener handler = new QueueListener() {
+            @Override
+            public void setListener(Message m) {
+                int now = current.incrementAndGet();
+                peak.accumulateAndGet(now, Math::max);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                current.decrementAndGet();
+                handled.countDown();
+            }
+        };
+
+        pool = new ConsumerPool(connection, "inQueue", handler, 6, 2, false);
+        pool.start();
+
+        assertTrue(handled.await(10, TimeUnit.SECONDS));
+        assertTrue(peak.get() <= 2);
+    }
+
+    /**
+     * Tests that a failure while creating the consumers closes the sessions that
+     * were already opened and propagates the error.
+     */
+    @Test
+    void start_sessionCreationFails_closesOpenedSessions() throws Exception {
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session)
+                .thenThrow(new JMSException("Broker unavailable"));
+
+        pool = new ConsumerPool(connection, "inQueue", mock(QueueListener.class), 2, 0, false);
+
+        assertThrows(JMSException.class, () -> pool.start());
+        verify(session).close();
+    }
+
+    private static Message idle() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -6,10 +6,19 @@ import io.mosip.proxy.abis.dto.IdentityRequest;
 import io.mosip.proxy.abis.dto.InsertRequestMO;
 import io.mosip.proxy.abis.dto.MockAbisQueueDetails;
 import io.mosip.proxy.abis.dto.RequestMO;
+import io.mosip.proxy.abis.dto.SpanRecord;
 import io.mosip.proxy.abis.exception.AbisException;
 import io.mosip.proxy.abis.exception.FailureReasonsConstants;
 
 import io.mosip.proxy.abis.exception.RequestException;
+import io.mosip.proxy.abis.service.LaneScheduler;
+import io.mosip.proxy.abis.service.PipelineMetrics;
+import io.mosip.proxy.abis.service.RequestDeduplicator;
+import io.mosip.proxy.abis.service.RequestTracer;
+import io.mosip.proxy.abis.service.ResponseDispatcher;
+import io.mosip.proxy.abis.service.SpanSink;
+import io.mosip.proxy.abis.service.impl.RequestTracerImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.jms.Connection;
 import jakarta.jms.Destination;
 import jakarta.jms.JMSException;
@@ -29,11 +38,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.MockedStatic;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -47,6 +59,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -59,6 +72,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.doNothing;
@@ -90,6 +104,18 @@ class ListenerTest {
     @Mock
     private ProxyAbisController proxyAbisController;
 
+    @Mock
+    private RequestDeduplicator requestDeduplicator;
+
+    @Mock
+    private LaneScheduler laneScheduler;
+
+    @Mock
+    private PipelineMetrics pipelineMetrics;
+
+    @Spy
+    private RequestTracer requestTracer = new RequestTracerImpl(null, new SimpleMeterRegistry(), false, 1, 1, 1000);
+
     @Mock
     private RestTemplate restTemplate;
 
@@ -282,34 +308,72 @@ class ListenerTest {
 
     /**
      * Tests the send method of Listener.
-     * Verifies that the method returns true and performs the expected JMS operations.
+     * Verifies that the method returns true and that repeated sends to the same queue
+     * reuse the sending thread's session and producer instead of creating new ones.
      */
     @Test
-    void testListener_SendMethod_ReturnsSuccessAndClosesResources() throws Exception {
+    void testListener_SendMethod_ReturnsSuccessAndReusesProducer() throws Exception {
         Listener spyListener = Mockito.spy(listener);
 
         ActiveMQConnectionFactory dummyFactory = mock(ActiveMQConnectionFactory.class);
         ReflectionTestUtils.setField(spyListener, "activeMQConnectionFactory", dummyFactory);
 
+        ActiveMQConnection mockConnection = mock(ActiveMQConnection.class);
         Session mockSession = mock(Session.class);
         Queue mockQueue = mock(Queue.class);
         MessageProducer mockProducer = mock(MessageProducer.class);
         TextMessage mockTextMessage = mock(TextMessage.class);
 
-        ReflectionTestUtils.setField(spyListener, "session", mockSession);
-
+        ReflectionTestUtils.setField(spyListener, "connection", mockConnection);
+        when(mockConnection.isClosed()).thenReturn(false);
+        when(mockConnection.createSession(false, Session.AUTO_ACKNOWLEDGE)).thenReturn(mockSession);
         when(mockSession.createQueue(anyString())).thenReturn(mockQueue);
         when(mockSession.createProducer(mockQueue)).thenReturn(mockProducer);
         when(mockSession.createTextMessage(anyString())).thenReturn(mockTextMessage);
 
-        boolean result = spyListener.send("testMessage", "testQueue");
+        assertTrue(spyListener.send("testMessage", "testQueue"));
+        assertTrue(spyListener.send("testMessage", "testQueue"));
 
-        assertTrue(result); // Verify the result is true
+        verify(mockConnection).createSession(false, Session.AUTO_ACKNOWLEDGE);
         verify(mockSession).createQueue("testQueue");
         verify(mockSession).createProducer(mockQueue);
-        verify(mockSession).createTextMessage("testMessage");
-        verify(mockProducer).send(mockTextMessage);
+        verify(mockProducer, Mockito.times(2)).send(mockTextMessage);
+        verify(mockProducer, never()).close();
+
+        spyListener.shutdown();
         verify(mockProducer).close();
+        verify(mockSession).close();
+    }
+
+    /**
+     * Tests that shutdown sends the delayed responses before closing the
+     * producers, and that a send after shutdown fails instead of opening a new
+     * producer pool.
+     */
+    @Test
+    void testListener_Shutdown_DrainsDispatcherBeforeClosingProducers() throws Exception {
+        Listener spyListener = Mockito.spy(listener);
+        ReflectionTestUtils.setField(spyListener, "activeMQConnectionFactory", mock(ActiveMQConnectionFactory.class));
+        ActiveMQConnection mockConnection = mock(ActiveMQConnection.class);
+        Session mockSession = mock(Session.class);
+        Queue mockQueue = mock(Queue.class);
+        MessageProducer mockProducer = mock(MessageProducer.class);
+        ReflectionTestUtils.setField(spyListener, "connection", mockConnection);
+        when(mockConnection.createSession(false, Session.AUTO_ACKNOWLEDGE)).thenReturn(mockSession);
+        when(mockSession.createQueue(anyString())).thenReturn(mockQueue);
+        when(mockSession.createProducer(mockQueue)).thenReturn(mockProducer);
+        when(mockSession.createTextMessage(anyString())).thenReturn(mock(TextMessage.class));
+        ResponseDispatcher dispatcher = mock(ResponseDispatcher.class);
+        Mockito.doAnswer(invocation -> spyListener.send("delayed", "testQueue")).when(dispatcher).shutdown();
+        spyListener.setResponseDispatcher(dispatcher);
+
+        spyListener.shutdown();
+
+        InOrder inOrder = Mockito.inOrder(mockProducer);
+        inOrder.verify(mockProducer).send(any(TextMessage.class));
+        inOrder.verify(mockProducer).close();
+        assertFalse(spyListener.send("late", "testQueue"));
+        verify(mockConnection).createSession(false, Session.AUTO_ACKNOWLEDGE);
     }
 
     /**
@@ -318,7 +382,9 @@ class ListenerTest {
      */
     @Test
     void testListener_InitialSetupWithNullFactory_ThrowsAbisExceptionWithInvalidConnectionCode() throws Exception {
-        Listener spyListener = Mockito.spy(new Listener(Mockito.mock(ProxyAbisController.class)));
+        Listener spyListener = Mockito.spy(new Listener(Mockito.mock(ProxyAbisController.class),
+                Mockito.mock(RequestDeduplicator.class), Mockito.mock(LaneScheduler.class),
+                Mockito.mock(PipelineMetrics.class), requestTracer));
 
         Field factoryField = Listener.class.getDeclaredField("activeMQConnectionFactory");
         factoryField.setAccessible(true);
@@ -481,6 +547,34 @@ class ListenerTest {
         verify(mockConsumer).setMessageListener(mockMessageListener);
     }
 
+    /**
+     * Tests that the consume method starts a consumer pool with one session per
+     * consumer when more than one consumer is configured.
+     */
+    @Test
+    void testListener_ConsumeWithMultipleConsumers_CreatesSessionPerConsumer() throws Exception {
+        ActiveMQConnection mockConnection = mock(ActiveMQConnection.class);
+        Session mockSession = mock(Session.class);
+        MessageConsumer mockConsumer = mock(MessageConsumer.class);
+
+        ReflectionTestUtils.setField(listener, "activeMQConnectionFactory", mock(ActiveMQConnectionFactory.class));
+        ReflectionTestUtils.setField(listener, "connection", mockConnection);
+        ReflectionTestUtils.setField(listener, "consumerCount", 3);
+
+        when(mockConnection.createSession(false, Session.CLIENT_ACKNOWLEDGE)).thenReturn(mockSession);
+        when(mockSession.createQueue(anyString())).thenReturn(mock(Queue.class));
+        when(mockSession.createConsumer(any(Destination.class))).thenReturn(mockConsumer);
+
+        try {
+            byte[] result = listener.consume("testQueue", mock(QueueListener.class), "ACTIVEMQ");
+            assertEquals(0, result.length);
+            verify(mockConnection, Mockito.times(3)).createSession(false, Session.CLIENT_ACKNOWLEDGE);
+        } finally {
+            listener.shutdown();
+        }
+        verify(mockSession, Mockito.times(3)).close();
+    }
+
     /**
      * Tests the getJson method when local configuration is enabled.
      * It verifies that the returned JSON is not null and contains the key "abis".
@@ -690,6 +784,166 @@ class ListenerTest {
         verify(proxyAbisController).executeAsync(any(), anyInt(), eq(2));
     }
 
+    /**
+     * Tests consumeLogic with a request ID seen for the first time.
+     * Verifies that the request is processed and its response recorded.
+     */
+    @Test
+    void consumeLogic_newRequestId_recordsResponse() throws Exception {
+        ResponseEntity<Object> response = new ResponseEntity<>("ok", HttpStatus.OK);
+        when(requestDeduplicator.isEnabled()).thenReturn(true);
+        when(requestDeduplicator.claim("123"))
+                .thenReturn(new RequestDeduplicator.Claim(RequestDeduplicator.Status.NEW, null));
+        when(proxyAbisController.saveInsertRequestThroughListner(any(InsertRequestMO.class), eq(2)))
+                .thenReturn(response);
+
+        listener.consumeLogic(bytesMessage(
+                "{\"id\":\"mosip.abis.insert\",\"version\":\"1.1\",\"requestId\":\"123\"}"), "testAddress");
+
+        verify(requestDeduplicator).complete("123", response);
+    }
+
+    /**
+     * Tests consumeLogic with an insert downloading its CBEFF data asynchronously.
+     * Verifies that the response is recorded only once the insert completes.
+     */
+    @Test
+    void consumeLogic_asyncInsert_recordsResponseOnCompletion() throws Exception {
+        ResponseEntity<Object> response = new ResponseEntity<>("ok", HttpStatus.OK);
+        CompletableFuture<ResponseEntity<Object>> insert = new CompletableFuture<>();
+        when(requestDeduplicator.isEnabled()).thenReturn(true);
+        when(requestDeduplicator.claim("123"))
+                .thenReturn(new RequestDeduplicator.Claim(RequestDeduplicator.Status.NEW, null));
+        when(proxyAbisController.isInsertAsync()).thenReturn(true);
+        when(proxyAbisController.saveInsertRequestThroughListnerAsync(any(InsertRequestMO.class), eq(2)))
+                .thenReturn(insert);
+
+        listener.consumeLogic(bytesMessage(
+                "{\"id\":\"mosip.abis.insert\",\"version\":\"1.1\",\"requestId\":\"123\"}"), "testAddress");
+
+        verify(requestDeduplicator, never()).complete(anyString(), any());
+        insert.complete(response);
+        verify(requestDeduplicator).complete("123", response);
+        verify(proxyAbisController, never()).saveInsertRequestThroughListner(any(InsertRequestMO.class), anyInt());
+    }
+
+    /**
+     * Tests consumeLogic with as many asynchronous inserts in flight as allowed.
+     * Verifies that a further insert waits until one of them completes.
+     */
+    @Test
+    void consumeLogic_asyncInsertsAtLimit_waitsForInsertToComplete() throws Exception {
+        ReflectionTestUtils.setField(listener, "maxAsyncInserts", 1);
+        ResponseEntity<Object> response = new ResponseEntity<>("ok", HttpStatus.OK);
+        CompletableFuture<ResponseEntity<Object>> first = new CompletableFuture<>();
+        when(proxyAbisController.isInsertAsync()).thenReturn(true);
+        when(proxyAbisController.saveInsertRequestThroughListnerAsync(any(InsertRequestMO.class), eq(2)))
+                .thenReturn(first, CompletableFuture.completedFuture(response));
+        String insert = "{\"id\":\"mosip.abis.insert\",\"version\":\"1.1\",\"requestId\":\"123\"}";
+        ActiveMQBytesMessage secondMessage = bytesMessage(insert);
+
+        listener.consumeLogic(bytesMessage(insert), "testAddress");
+        Thread second = new Thread(() -> {
+            try {
+                listener.consumeLogic(secondMessage, "testAddress");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        second.start();
+        second.join(200);
+
+        assertTrue(second.isAlive());
+        verify(proxyAbisController, Mockito.times(1)).saveInsertRequestThroughListnerAsync(any(InsertRequestMO.class),
+                eq(2));
+        first.complete(response);
+        second.join(5000);
+        assertFalse(second.isAlive());
+        verify(proxyAbisController, Mockito.times(2)).saveInsertRequestThroughListnerAsync(any(InsertRequestMO.class),
+                eq(2));
+    }
+
+    /**
+     * Tests consumeLogic with a redelivered request that was already processed.
+     * Verifies that the recorded response is re-sent without processing the request again.
+     */
+    @Test
+    void consumeLogic_redeliveredCompletedRequest_replaysRecordedResponse() throws Exception {
+        ResponseEntity<Object> response = new ResponseEntity<>("ok", HttpStatus.OK);
+        when(requestDeduplicator.isEnabled()).thenReturn(true);
+        when(requestDeduplicator.claim("123"))
+                .thenReturn(new RequestDeduplicator.Claim(RequestDeduplicator.Status.COMPLETED, response));
+
+        listener.consumeLogic(bytesMessage(
+                "{\"id\":\"mosip.abis.insert\",\"version\":\"1.1\",\"requestId\":\"123\"}"), "testAddress");
+
+        verify(proxyAbisController).executeAsync(response, 0, 2);
+        verify(proxyAbisController, never()).saveInsertRequestThroughListner(any(InsertRequestMO.class), anyInt());
+        verify(requestDeduplicator, never()).complete(anyString(), any());
+    }
+
+    /**
+     * Tests consumeLogic with a redelivered request that is still being processed.
+     * Verifies that the copy is dropped without a response.
+     */
+    @Test
+    void consumeLogic_redeliveredInFlightRequest_dropsMessage() throws Exception {
+        when(requestDeduplicator.isEnabled()).thenReturn(true);
+        when(requestDeduplicator.claim("123"))
+                .thenReturn(new RequestDeduplicator.Claim(RequestDeduplicator.Status.IN_FLIGHT, null));
+
+        listener.consumeLogic(bytesMessage(
+                "{\"id\":\"mosip.abis.delete\",\"version\":\"1.1\",\"requestId\":\"123\"}"), "testAddress");
+
+        verifyNoInteractions(proxyAbisController);
+    }
+
+    /**
+     * Tests consumeLogic with work lanes enabled.
+     * Verifies that an identify request is queued on the identify lane and only processed when the lane runs it.
+     */
+    @Test
+    void consumeLogic_lanesEnabled_submitsToRequestLane() throws Exception {
+        ResponseEntity<Object> response = new ResponseEntity<>("ok", HttpStatus.OK);
+        when(laneScheduler.isEnabled()).thenReturn(true);
+        when(proxyAbisController.identityRequestThroughListner(any(IdentityRequest.class), eq(2)))
+                .thenReturn(response);
+
+        listener.consumeLogic(bytesMessage(
+                "{\"id\":\"mosip.abis.identify\",\"version\":\"1.1\",\"requestId\":\"123\"}"), "testAddress");
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(laneScheduler).submit(eq(LaneScheduler.Lane.IDENTIFY), task.capture());
+        verifyNoInteractions(proxyAbisController);
+
+        task.getValue().run();
+
+        verify(proxyAbisController).identityRequestThroughListner(any(IdentityRequest.class), eq(2));
+    }
+
+    /**
+     * Tests consumeLogic with work lanes enabled and an unknown request id.
+     * Verifies that the failure response is sent directly instead of being queued.
+     */
+    @Test
+    void consumeLogic_lanesEnabledUnknownId_answersDirectly() throws Exception {
+        when(laneScheduler.isEnabled()).thenReturn(true);
+
+        listener.consumeLogic(bytesMessage(
+                "{\"id\":\"mosip.abis.unknown\",\"version\":\"1.1\",\"requestId\":\"123\"}"), "testAddress");
+
+        verify(laneScheduler, never()).submit(any(), any());
+        verify(proxyAbisController).executeAsync(any(), anyInt(), eq(2));
+    }
+
+    private static ActiveMQBytesMessage bytesMessage(String json) {
+        ActiveMQBytesMessage message = mock(ActiveMQBytesMessage.class);
+        ByteSequence sequence = new ByteSequence(new byte[0]);
+        sequence.setData(json.getBytes());
+        when(message.getContent()).thenReturn(sequence);
+        return message;
+    }
+
     /**
      * Tests consumeLogic with an unsupported message type.
      */
@@ -991,6 +1245,77 @@ class ListenerTest {
         verify(proxyAbisController).deleteRequestThroughListner(any(RequestMO.class), eq(1));
     }
 
+    /**
+     * Tests that decoding a message is timed as the receive stage of its operation.
+     */
+    @Test
+    void consumeLogic_decodedMessage_recordsReceiveStage() throws Exception {
+        TextMessage message = mock(TextMessage.class);
+        when(message.getText()).thenReturn("{\"id\":\"mosip.abis.delete\",\"version\":\"1.1\",\"requestId\":\"123\","
+                + "\"requesttime\":\"2024-04-22T10:00:00.000Z\",\"referenceId\":\"ref-123\"}");
+
+        listener.consumeLogic(message, "mockAddress");
+
+        verify(pipelineMetrics).record(eq(PipelineMetrics.Stage.RECEIVE), eq(PipelineMetrics.Operation.DELETE),
+                eq(PipelineMetrics.SUCCESS), anyLong());
+    }
+
+    /**
+     * Tests that a message that cannot be decoded is timed as the receive stage
+     * of an unknown operation, with the failure reason it is answered with.
+     */
+    @Test
+    void consumeLogic_undecodableMessage_recordsReceiveFailure() throws Exception {
+        TextMessage message = mock(TextMessage.class);
+        when(message.getText()).thenReturn("not json");
+
+        listener.consumeLogic(message, "mockAddress");
+
+        verify(pipelineMetrics).record(eq(PipelineMetrics.Stage.RECEIVE), eq(PipelineMetrics.Operation.UNKNOWN),
+                eq(FailureReasonsConstants.UNEXPECTED_ERROR), anyLong());
+    }
+
+    /**
+     * Tests that with tracing enabled a message carrying a traceparent property
+     * is traced as a child of the span it names, ending with the request.
+     */
+    @Test
+    void consumeLogic_traceparentProperty_continuesRemoteTrace() throws Exception {
+        List<SpanRecord> exported = new ArrayList<>();
+        RequestTracerImpl tracer = new RequestTracerImpl(new SpanSink() {
+            @Override
+            public String getName() {
+                return "test";
+            }
+
+            @Override
+            public void export(List<SpanRecord> spans) {
+                exported.addAll(spans);
+            }
+        }, new SimpleMeterRegistry(), true, 100, 100, 60000);
+        Listener traced = new Listener(proxyAbisController, requestDeduplicator, laneScheduler, pipelineMetrics,
+                tracer);
+        TextMessage message = mock(TextMessage.class);
+        when(message.getText()).thenReturn("{\"id\":\"mosip.abis.delete\",\"version\":\"1.1\",\"requestId\":\"123\","
+                + "\"requesttime\":\"2024-04-22T10:00:00.000Z\",\"referenceId\":\"ref-123\"}");
+        when(message.getStringProperty(RequestTracer.TRACEPARENT))
+                .thenReturn("00-" + "a".repeat(32) + "-" + "b".repeat(16) + "-01");
+        when(proxyAbisController.deleteRequestThroughListner(any(RequestMO.class), eq(1)))
+                .thenReturn(new ResponseEntity<>(HttpStatus.OK));
+
+        traced.consumeLogic(message, "mockAddress");
+        tracer.shutdown();
+
+        assertEquals(1, exported.size());
+        SpanRecord span = exported.get(0);
+        assertEquals("mosip.abis.delete", span.getName());
+        assertEquals("a".repeat(32), span.getTraceId());
+        assertEquals("b".repeat(16), span.getParentSpanId());
+        assertEquals("CONSUMER", span.getKind());
+        assertEquals("123", span.getRequestId());
+        assertEquals(PipelineMetrics.SUCCESS, span.getOutcome());
+    }
+
     /**
      * Tests the getFailureReason method with empty map.
      * Verifies that NullPointerException is handled properly.
@@ -1284,6 +1609,50 @@ class ListenerTest {
         assertNotNull(factory);
     }
 
+    /**
+     * Tests the getAbisQueueDetails method with two ABIS configured.
+     * Verifies that each ABIS keeps its own queues and broker settings and that the first one is the default.
+     */
+    @Test
+    void getAbisQueueDetails_TwoAbis_ReturnsIndependentDetails() throws Exception {
+        String testJson = """
+                {
+                    "abis": [{
+                        "userName": "userA",
+                        "password": "passA",
+                        "brokerUrl": "tcp://brokerA:61616",
+                        "typeOfQueue": "ACTIVEMQ",
+                        "inboundQueueName": "inQueueA",
+                        "outboundQueueName": "outQueueA",
+                        "name": "abisA"
+                    }, {
+                        "userName": "userB",
+                        "password": "passB",
+                        "brokerUrl": "tcp://brokerB:61616",
+                        "typeOfQueue": "ACTIVEMQ",
+                        "inboundQueueName": "inQueueB",
+                        "outboundQueueName": "outQueueB",
+                        "name": "abisB"
+                    }]
+                }
+                """;
+
+        mockedStatic.when(() -> Listener.getJson(any(), any(), anyBoolean()))
+                .thenReturn(testJson);
+
+        List<MockAbisQueueDetails> result = listener.getAbisQueueDetails();
+        assertEquals(2, result.size());
+        assertEquals("abisA", result.get(0).getName());
+        assertEquals("outQueueA", result.get(0).getOutboundQueueName());
+        assertEquals("userA", result.get(0).getUserName());
+        assertEquals("abisB", result.get(1).getName());
+        assertEquals("inQueueB", result.get(1).getInboundQueueName());
+        assertEquals("outQueueB", result.get(1).getOutboundQueueName());
+        assertTrue(result.get(1).getBrokerUrl().contains("tcp://brokerB:61616"));
+        ActiveMQConnectionFactory factory = (ActiveMQConnectionFactory) ReflectionTestUtils.getField(listener, "activeMQConnectionFactory");
+        assertEquals("userA", factory.getUserName());
+    }
+
     /**
      * Tests getAbisQueueDetails with null value for a key.
      * Verifies that AbisException is thrown.
@@ -1431,9 +1800,13 @@ class ListenerTest {
         MessageProducer mockProducer = mock(MessageProducer.class);
         TextMessage mockTextMessage = mock(TextMessage.class);
 
+        ActiveMQConnection mockConnection = mock(ActiveMQConnection.class);
+
         ReflectionTestUtils.setField(spyListener, "activeMQConnectionFactory", mockFactory);
-        ReflectionTestUtils.setField(spyListener, "session", mockSession);
+        ReflectionTestUtils.setField(spyListener, "connection", mockConnection);
 
+        when(mockConnection.isClosed()).thenReturn(false);
+        when(mockConnection.createSession(false, Session.AUTO_ACKNOWLEDGE)).thenReturn(mockSession);
         when(mockSession.createQueue(testAddress)).thenReturn(mockQueue);
         when(mockSession.createProducer(mockQueue)).thenReturn(mockProducer);
         when(mockSession.createTextMessage(testMessage)).thenReturn(mockTextMessage);
@@ -1441,7 +1814,9 @@ class ListenerTest {
         doThrow(new JMSException("Send failed")).when(mockProducer).send(mockTextMessage);
         boolean result = spyListener.send(testMessage, testAddress);
         assertFalse(result);
+        // the failed session is discarded so the next send starts afresh
         verify(mockProducer).close();
+        verify(mockSession).close();
     }
 
     /**
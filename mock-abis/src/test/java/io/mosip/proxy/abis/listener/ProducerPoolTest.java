@@ -0,0 +1,135 @@
+package io.mosip.proxy.abis.listener;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.apache.activemq.ActiveMQConnection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jakarta.jms.Connection;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+/**
+ * Unit test class for ProducerPool.
+ * This class tests session and producer reuse, one session per sending thread,
+ * recovery after a failed send and shutdown.
+ */
+class ProducerPoolTest {
+
+    private Connection connection;
+    private Session session;
+    private MessageProducer producer;
+    private TextMessage textMessage;
+    private ProducerPool pool;
+
+    /**
+     * Sets up a connection whose sessions all hand out the same producer mock.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        connection = mock(Connection.class);
+        session = mock(Session.class);
+        producer = mock(MessageProducer.class);
+        textMessage = mock(TextMessage.class);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(session.createQueue(anyString())).thenReturn(mock(Queue.class));
+        when(session.createProducer(any(Destination.class))).thenReturn(producer);
+        when(session.createTextMessage(anyString())).thenReturn(textMessage);
+        pool = new ProducerPool(connection, false);
+    }
+
+    /**
+     * Tests that sends from one thread share a session and create one producer per
+     * queue.
+     */
+    @Test
+    void send_sameThread_reusesSessionAndProducerPerQueue() throws Exception {
+        pool.send("outQueue", s -> s.createTextMessage("one"));
+        pool.send("outQueue", s -> s.createTextMessage("two"));
+        pool.send("otherQueue", s -> s.createTextMessage("three"));
+
+        verify(connection, times(1)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+        verify(session, times(1)).createQueue("outQueue");
+        verify(session, times(1)).createQueue("otherQueue");
+        verify(producer, times(3)).send(textMessage);
+        assertEquals(1, pool.getSessions());
+    }
+
+    /**
+     * Tests that each sending thread gets its own session.
+     */
+    @Test
+    void send_differentThreads_openSessionPerThread() throws Exception {
+        pool.send("outQueue", s -> s.createTextMessage("one"));
+        Thread other = new Thread(() -> {
+            try {
+                pool.send("outQueue", s -> s.createTextMessage("two"));
+            } catch (JMSException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        other.start();
+        other.join();
+
+        verify(connection, times(2)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+    }
+
+    /**
+     * Tests that a failed send discards the thread's session so the next send opens
+     * a new one.
+     */
+    @Test
+    void send_failure_discardsSessionAndRecovers() throws Exception {
+        doThrow(new JMSException("Broker unavailable")).doNothing().when(producer).send(textMessage);
+
+        assertThrows(JMSException.class, () -> pool.send("outQueue", s -> s.createTextMessage("one")));
+        verify(producer).close();
+        verify(session).close();
+        assertEquals(0, pool.getSessions());
+
+        pool.send("outQueue", s -> s.createTextMessage("two"));
+        verify(connection, times(2)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+    }
+
+    /**
+     * Tests that closing the pool closes its producers and sessions and rejects
+     * further sends.
+     */
+    @Test
+    void close_openSessions_closesAndRejectsSends() throws Exception {
+        pool.send("outQueue", s -> s.createTextMessage("one"));
+
+        pool.close();
+
+        verify(producer).close();
+        verify(session).close();
+        assertThrows(JMSException.class, () -> pool.send("outQueue", s -> s.createTextMessage("two")));
+    }
+
+    /**
+     * Tests that async send is switched on for ActiveMQ connections.
+     */
+    @Test
+    void constructor_asyncSend_enablesAsyncSendOnConnection() {
+        ActiveMQConnection activeMQConnection = mock(ActiveMQConnection.class);
+
+        new ProducerPool(activeMQConnection, true);
+
+        verify(activeMQConnection).setUseAsyncSend(true);
+    }
+}
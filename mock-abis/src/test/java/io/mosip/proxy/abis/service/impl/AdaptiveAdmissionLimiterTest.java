@@ -0,0 +1,194 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.proxy.abis.constant.FailureReasonsConstants;
+import io.mosip.proxy.abis.dto.RequestMO;
+import io.mosip.proxy.abis.exception.AdmissionRejectedException;
+import io.mosip.proxy.abis.service.AdmissionLimiter;
+import io.mosip.proxy.abis.service.AdmissionLimiter.Endpoint;
+import io.mosip.proxy.abis.service.PipelineMetrics.Operation;
+import io.mosip.proxy.abis.service.PipelineMetrics.Stage;
+import io.mosip.proxy.abis.service.impl.AdaptiveAdmissionLimiter.AdaptiveSettings;
+import io.mosip.proxy.abis.service.impl.AdaptiveAdmissionLimiter.EndpointSettings;
+
+/**
+ * Unit test class for AdaptiveAdmissionLimiter.
+ * This class tests admission up to the limit, the bounded wait queue, the 429
+ * and 503 rejections, the limiter meters and the latency driven limit.
+ */
+class AdaptiveAdmissionLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private SimpleMeterRegistry meterRegistry;
+    private final RequestMO request = new RequestMO();
+
+    /**
+     * Sets up a fresh meter registry and the request reported on rejection.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        request.setId("mosip.abis.insert");
+        request.setRequestId("req-1");
+    }
+
+    /**
+     * Tests that with admission control disabled every request is admitted
+     * without a limit.
+     */
+    @Test
+    void acquire_disabled_returnsUnlimitedPermit() {
+        AdaptiveAdmissionLimiter limiter = new AdaptiveAdmissionLimiter(meterRegistry, false, settings(1, 0), 0, 1,
+                new AdaptiveSettings(false, 1, 2.0));
+
+        assertSame(AdmissionLimiter.UNLIMITED, limiter.acquire(Endpoint.INSERT, request));
+        assertSame(AdmissionLimiter.UNLIMITED, limiter.acquire(Endpoint.INSERT, request));
+    }
+
+    /**
+     * Tests that requests beyond the limit with a full queue are rejected with 429
+     * and Retry-After, and that releasing a permit twice frees a single slot.
+     */
+    @Test
+    void acquire_atLimitQueueFull_rejectsWithTooManyRequests() {
+        AdaptiveAdmissionLimiter limiter = limiter(2, 0, 0);
+        AdmissionLimiter.Permit first = limiter.acquire(Endpoint.INSERT, request);
+        limiter.acquire(Endpoint.INSERT, request);
+
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                () -> limiter.acquire(Endpoint.INSERT, request));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getStatus());
+        assertEquals(3, rejected.getRetryAfterSeconds());
+        assertEquals(FailureReasonsConstants.ABORTED, rejected.getReasonConstant());
+        assertSame(request, rejected.getEntity());
+        assertEquals(0, limiter.getInflight(Endpoint.IDENTIFY));
+
+        first.release();
+        first.release();
+        assertEquals(1, limiter.getInflight(Endpoint.INSERT));
+        assertEquals(2.0, requests(Endpoint.INSERT, "admitted"));
+        assertEquals(1.0, requests(Endpoint.INSERT, "queue_full"));
+    }
+
+    /**
+     * Tests that a queued request with no slot freeing up in time is rejected with
+     * 503.
+     */
+    @Test
+    void acquire_noSlotWithinTimeout_rejectsWithServiceUnavailable() {
+        AdaptiveAdmissionLimiter limiter = limiter(1, 1, 20);
+        limiter.acquire(Endpoint.IDENTIFY, request);
+
+        AdmissionRejectedException rejected = assertThrows(AdmissionRejectedException.class,
+                () -> limiter.acquire(Endpoint.IDENTIFY, request));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatus());
+        assertEquals(0, limiter.getQueued(Endpoint.IDENTIFY));
+        assertEquals(1.0, requests(Endpoint.IDENTIFY, "timeout"));
+    }
+
+    /**
+     * Tests that a queued request is admitted once a slot is released.
+     */
+    @Test
+    void acquire_slotReleased_admitsQueuedRequest() throws Exception {
+        AdaptiveAdmissionLimiter limiter = limiter(1, 1, 5000);
+        AdmissionLimiter.Permit held = limiter.acquire(Endpoint.INSERT, request);
+
+        CompletableFuture<AdmissionLimiter.Permit> queued = CompletableFuture
+                .supplyAsync(() -> limiter.acquire(Endpoint.INSERT, request));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.getQueued(Endpoint.INSERT) == 0 && System.nanoTime() < deadline)
+            Thread.sleep(5);
+        assertEquals(1.0, meterRegistry.get("mock.abis.admission.queued").tag("endpoint", "insert").gauge().value());
+
+        held.release();
+
+        queued.get(5, TimeUnit.SECONDS).release();
+        assertEquals(0, limiter.getInflight(Endpoint.INSERT));
+        assertEquals(2, meterRegistry.get("mock.abis.admission.wait").tag("endpoint", "insert").timer().count());
+    }
+
+    /**
+     * Tests that the adaptive limit shrinks while the database slows down, not
+     * below the minimum, and grows back once latency recovers under load.
+     */
+    @Test
+    void observe_latencyRisesThenRecovers_shrinksAndRegrowsLimit() {
+        AdaptiveAdmissionLimiter limiter = new AdaptiveAdmissionLimiter(meterRegistry, true, settings(20, 0), 0, 1,
+                new AdaptiveSettings(true, 4, 2.0));
+        for (int i = 0; i < 50; i++)
+            limiter.observe(Operation.IDENTIFY, Stage.DUPLICATE_QUERY, MILLI);
+        assertEquals(20, limiter.getLimit(Endpoint.IDENTIFY));
+
+        for (int i = 0; i < 100; i++)
+            limiter.observe(Operation.IDENTIFY, Stage.DUPLICATE_QUERY, 100 * MILLI);
+        int shrunk = limiter.getLimit(Endpoint.IDENTIFY);
+        assertTrue(shrunk < 10, "limit " + shrunk);
+        assertTrue(shrunk >= 4, "limit " + shrunk);
+        assertEquals(20, limiter.getLimit(Endpoint.INSERT));
+        assertEquals((double) shrunk,
+                meterRegistry.get("mock.abis.admission.limit").tag("endpoint", "identify").gauge().value());
+
+        List<AdmissionLimiter.Permit> load = new ArrayList<>();
+        for (int i = 0; i < shrunk; i++)
+            load.add(limiter.acquire(Endpoint.IDENTIFY, request));
+        for (int i = 0; i < 50; i++)
+            limiter.observe(Operation.IDENTIFY, Stage.DUPLICATE_QUERY, MILLI);
+        assertTrue(limiter.getLimit(Endpoint.IDENTIFY) > shrunk);
+        load.forEach(AdmissionLimiter.Permit::release);
+    }
+
+    /**
+     * Tests that stages not involving the data share or the database, and
+     * operations without a limited endpoint, leave the limit alone.
+     */
+    @Test
+    void observe_unrelatedStageOrOperation_keepsLimit() {
+        AdaptiveAdmissionLimiter limiter = new AdaptiveAdmissionLimiter(meterRegistry, true, settings(20, 0), 0, 1,
+                new AdaptiveSettings(true, 1, 1.0));
+        limiter.observe(Operation.INSERT, Stage.SEND, MILLI);
+        limiter.observe(Operation.DELETE, Stage.PERSIST, MILLI);
+        for (int i = 0; i < 50; i++) {
+            limiter.observe(Operation.INSERT, Stage.SEND, 100 * MILLI);
+            limiter.observe(Operation.DELETE, Stage.PERSIST, 100 * MILLI);
+        }
+
+        assertEquals(20, limiter.getLimit(Endpoint.INSERT));
+    }
+
+    private AdaptiveAdmissionLimiter limiter(int limit, int queue, long queueTimeoutMs) {
+        return new AdaptiveAdmissionLimiter(meterRegistry, true, settings(limit, queue), queueTimeoutMs, 3,
+                new AdaptiveSettings(false, 1, 2.0));
+    }
+
+    private static Map<Endpoint, EndpointSettings> settings(int limit, int queue) {
+        Map<Endpoint, EndpointSettings> settings = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values())
+            settings.put(endpoint, new EndpointSettings(limit, queue));
+        return settings;
+    }
+
+    private double requests(Endpoint endpoint, String outcome) {
+        return meterRegistry.get("mock.abis.admission.requests").tag("endpoint", endpoint.tag())
+                .tag("outcome", outcome).counter().count();
+    }
+}
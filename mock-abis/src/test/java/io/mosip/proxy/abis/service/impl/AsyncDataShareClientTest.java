@@ -0,0 +1,207 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit test class for AsyncDataShareClient.
+ * This class fetches from a stub data share server on a local port, covering
+ * response bodies, authentication headers, error statuses, and the per-host
+ * connection limit and wait queue.
+ */
+class AsyncDataShareClientTest {
+
+    private static final byte[] CBEFF = "<BIR/>".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private String baseUrl;
+    private final AtomicReference<String> cookie = new AtomicReference<>();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private AsyncDataShareClient client;
+
+    /**
+     * Starts a stub data share server serving CBEFF data, a missing share, and a
+     * slow share held until the test releases it.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/share", exchange -> {
+            cookie.set(exchange.getRequestHeaders().getFirst("Cookie"));
+            respond(exchange, 200, CBEFF);
+        });
+        server.createContext("/missing", exchange -> respond(exchange, 404, new byte[0]));
+        server.createContext("/slow", exchange -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrent.decrementAndGet();
+            respond(exchange, 200, CBEFF);
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Stops the client and the stub server.
+     */
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (client != null)
+            client.shutdown();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    /**
+     * Tests that a fetch completes with the response body and carries the headers
+     * added by the interceptors of the template.
+     */
+    @Test
+    void fetch_okResponse_returnsBodyWithAuthHeaders() throws Exception {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().add("Cookie", "Authorization=token");
+            return execution.execute(request, body);
+        });
+        client = client(restTemplate, 4, 10);
+
+        byte[] body = client.fetch(baseUrl + "/share").get(10, TimeUnit.SECONDS);
+
+        assertArrayEquals(CBEFF, body);
+        assertEquals("Authorization=token", cookie.get());
+        assertEquals(1, meterRegistry.get("mock.abis.datashare.fetch").tag("outcome", "success").timer().count());
+    }
+
+    /**
+     * Tests that a client error status completes the fetch with the exception the
+     * template would throw.
+     */
+    @Test
+    void fetch_notFound_completesWithHttpClientErrorException() {
+        client = client(new RestTemplate(), 4, 10);
+
+        CompletableFuture<byte[]> fetch = client.fetch(baseUrl + "/missing");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> fetch.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(HttpClientErrorException.class, error.getCause());
+    }
+
+    /**
+     * Tests that fetches beyond the per-host limit wait for a connection instead of
+     * running concurrently.
+     */
+    @Test
+    void fetch_overPerHostLimit_waitsForConnection() throws Exception {
+        client = client(new RestTemplate(), 1, 10);
+
+        List<CompletableFuture<byte[]>> fetches = List.of(client.fetch(baseUrl + "/slow"),
+                client.fetch(baseUrl + "/slow"), client.fetch(baseUrl + "/slow"));
+        TimeUnit.MILLISECONDS.sleep(200);
+        assertEquals(2.0, meterRegistry.get("mock.abis.datashare.waiting").gauge().value());
+        assertEquals(1.0, meterRegistry.get("mock.abis.datashare.saturation").gauge().value());
+        release.countDown();
+
+        CompletableFuture.allOf(fetches.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        assertEquals(1, maxConcurrent.get());
+    }
+
+    /**
+     * Tests that a fetch is rejected when the wait queue of its host is full.
+     */
+    @Test
+    void fetch_waitQueueFull_rejects() {
+        client = client(new RestTemplate(), 1, 1);
+
+        CompletableFuture<byte[]> running = client.fetch(baseUrl + "/slow");
+        CompletableFuture<byte[]> waiting = client.fetch(baseUrl + "/slow");
+        CompletableFuture<byte[]> rejected = client.fetch(baseUrl + "/slow");
+
+        ExecutionException error = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertFalse(running.isDone());
+        assertFalse(waiting.isDone());
+        assertEquals(1, meterRegistry.get("mock.abis.datashare.rejected").counter().count());
+    }
+
+    /**
+     * Tests that fetches waiting for a connection fail when the client shuts
+     * down, instead of never completing.
+     */
+    @Test
+    void shutdown_fetchesWaiting_failWithRejectedExecutionException() throws Exception {
+        client = client(new RestTemplate(), 1, 10);
+
+        client.fetch(baseUrl + "/slow");
+        CompletableFuture<byte[]> waiting = client.fetch(baseUrl + "/slow");
+        client.shutdown();
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> waiting.get(10, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+        assertEquals(0.0, meterRegistry.get("mock.abis.datashare.waiting").gauge().value());
+    }
+
+    /**
+     * Tests that a disabled client does not fetch.
+     */
+    @Test
+    void fetch_disabled_fails() {
+        client = new AsyncDataShareClient(new RestTemplate(), meterRegistry, false, 1, 1, 1, 1000, 1000);
+
+        assertFalse(client.isEnabled());
+        assertTrue(client.fetch(baseUrl + "/share").isCompletedExceptionally());
+    }
+
+    private AsyncDataShareClient client(RestTemplate restTemplate, int maxPerHost, int maxPendingPerHost) {
+        return new AsyncDataShareClient(restTemplate, meterRegistry, true, 2, maxPerHost, maxPendingPerHost, 5000,
+                10000);
+    }
+
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.proxy.abis.dao.ProxyAbisBioDataRepository;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.utility.BioDigest;
+
+/**
+ * Unit test class for BioDigestStorageImpl.
+ * This class tests how digests are placed for each storage mode and the
+ * conversion of existing records between the two forms.
+ */
+@ExtendWith(MockitoExtension.class)
+class BioDigestStorageImplTest {
+
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Mock
+    private ProxyAbisBioDataRepository proxyAbisBioDataRepository;
+
+    private BioDigestStorageImpl storage;
+
+    /**
+     * Sets up a storage in binary mode converting two records per page.
+     */
+    @BeforeEach
+    void setUp() {
+        storage = new BioDigestStorageImpl(proxyAbisBioDataRepository);
+        ReflectionTestUtils.setField(storage, "storage", "binary");
+        ReflectionTestUtils.setField(storage, "convertPageSize", 2);
+    }
+
+    /**
+     * Tests that in binary mode the hexadecimal digest moves to the binary column
+     * while the entity still reports the hexadecimal form.
+     */
+    @Test
+    void prepare_binaryMode_storesDigestBytes() {
+        BiometricData bd = bio(1L, HASH);
+
+        storage.prepare(bd);
+
+        assertArrayEquals(BioDigest.fromHex(HASH).toBytes(), bd.getBioDigest());
+        assertNull(ReflectionTestUtils.getField(bd, "bioData"));
+        assertEquals(HASH, bd.getBioData());
+    }
+
+    /**
+     * Tests that a value which is not a SHA-256 digest is kept as text.
+     */
+    @Test
+    void prepare_binaryModeNotADigest_keepsText() {
+        BiometricData bd = bio(1L, "not-a-digest");
+
+        storage.prepare(bd);
+
+        assertNull(bd.getBioDigest());
+        assertEquals("not-a-digest", bd.getBioData());
+    }
+
+    /**
+     * Tests that in hex mode a binary digest is moved back to the text column.
+     */
+    @Test
+    void prepare_hexMode_storesHexText() {
+        ReflectionTestUtils.setField(storage, "storage", "hex");
+        BiometricData bd = bio(1L, null);
+        bd.setBioDigest(BioDigest.fromHex(HASH).toBytes());
+
+        storage.prepare(bd);
+
+        assertFalse(storage.isBinary());
+        assertNull(bd.getBioDigest());
+        assertEquals(HASH, ReflectionTestUtils.getField(bd, "bioData"));
+    }
+
+    /**
+     * Tests that conversion pages through hexadecimal records by id and saves each
+     * page in binary form.
+     */
+    @Test
+    void convert_binaryMode_convertsAllPages() {
+        List<BiometricData> page1 = new ArrayList<>(List.of(bio(1L, HASH), bio(2L, HASH)));
+        List<BiometricData> page2 = new ArrayList<>(List.of(bio(5L, HASH)));
+        when(proxyAbisBioDataRepository.fetchHexDigestsAfter(eq(0L), any(Pageable.class))).thenReturn(page1);
+        when(proxyAbisBioDataRepository.fetchHexDigestsAfter(eq(2L), any(Pageable.class))).thenReturn(page2);
+        when(proxyAbisBioDataRepository.fetchHexDigestsAfter(eq(5L), any(Pageable.class))).thenReturn(List.of());
+
+        long converted = storage.convert();
+
+        assertTrue(storage.isBinary());
+        assertEquals(3, converted);
+        verify(proxyAbisBioDataRepository).saveAll(page1);
+        verify(proxyAbisBioDataRepository).saveAll(page2);
+        verify(proxyAbisBioDataRepository, never()).fetchBinaryDigestsAfter(any(), any());
+        assertArrayEquals(BioDigest.fromHex(HASH).toBytes(), page2.get(0).getBioDigest());
+    }
+
+    /**
+     * Tests that a database error stops the conversion without failing startup.
+     */
+    @Test
+    void convert_databaseError_stopsQuietly() {
+        when(proxyAbisBioDataRepository.fetchHexDigestsAfter(any(), any()))
+                .thenThrow(new RuntimeException("Database error"));
+
+        assertEquals(0, storage.convert());
+    }
+
+    private static BiometricData bio(Long id, String bioData) {
+        BiometricData bd = new BiometricData();
+        bd.setId(id);
+        bd.setType("Finger");
+        bd.setBioData(bioData);
+        return bd;
+    }
+}
@@ -0,0 +1,358 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.mosip.proxy.abis.dao.ProxyAbisBioDataRepository;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.entity.InsertEntity;
+import io.mosip.proxy.abis.service.GalleryScope;
+import io.mosip.proxy.abis.utility.BioDigest;
+
+/**
+ * Unit test class for BiometricIndexImpl.
+ * This class tests loading the index from the database, keeping it in step with
+ * inserts and deletes, and answering duplicate lookups from it.
+ */
+@ExtendWith(MockitoExtension.class)
+class BiometricIndexImplTest {
+
+    private static final String HASH_A = "a".repeat(64);
+    private static final String HASH_B = "b".repeat(64);
+    private static final String HASH_C = "c".repeat(64);
+
+    @Mock
+    private ProxyAbisBioDataRepository proxyAbisBioDataRepository;
+
+    private BiometricIndexImpl index;
+
+    /**
+     * Sets up the test environment before each test.
+     * Creates an enabled index with an empty backing table.
+     */
+    @BeforeEach
+    void setUp() {
+        index = new BiometricIndexImpl(proxyAbisBioDataRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "rebuildPageSize", 2);
+    }
+
+    /**
+     * Tests that a disabled index never loads or becomes available.
+     */
+    @Test
+    void rebuild_indexDisabled_doesNotQueryDatabase() {
+        ReflectionTestUtils.setField(index, "enabled", false);
+
+        index.rebuild();
+
+        assertFalse(index.isAvailable());
+        verify(proxyAbisBioDataRepository, never()).fetchIndexEntriesAfter(any(), any());
+    }
+
+    /**
+     * Tests loading the index page by page using the last id of each page.
+     * Verifies that every reference ID is indexed and the index becomes available.
+     */
+    @Test
+    void rebuild_multiplePages_loadsAllRowsAndBecomesAvailable() {
+        List<Object[]> page1 = new ArrayList<>();
+        page1.add(new Object[] { 1L, "ref-1", "Finger", HASH_A, null });
+        page1.add(new Object[] { 2L, "ref-2", "Finger", HASH_A, null });
+        List<Object[]> page2 = new ArrayList<>();
+        page2.add(new Object[] { 3L, "ref-3", "Iris", HASH_B, null });
+        when(proxyAbisBioDataRepository.fetchIndexEntriesAfter(eq(0L), any(Pageable.class))).thenReturn(page1);
+        when(proxyAbisBioDataRepository.fetchIndexEntriesAfter(eq(2L), any(Pageable.class))).thenReturn(page2);
+
+        index.rebuild();
+
+        assertTrue(index.isAvailable());
+        assertEquals(3, index.size());
+        List<BiometricData> duplicates = index.findDuplicates("ref-1", null);
+        assertEquals(1, duplicates.size());
+        assertEquals("ref-2", duplicates.get(0).getInsertEntity().getReferenceId());
+        assertEquals("Finger", duplicates.get(0).getType());
+        assertEquals(HASH_A, duplicates.get(0).getBioData());
+    }
+
+    /**
+     * Tests that rows holding their digest in the binary column are indexed
+     * alongside rows holding it as hexadecimal text.
+     */
+    @Test
+    void rebuild_binaryDigestRows_indexedLikeHexRows() {
+        List<Object[]> page = new ArrayList<>();
+        page.add(new Object[] { 1L, "ref-1", "Iris", HASH_B, null });
+        page.add(new Object[] { 2L, "ref-2", "Iris", null, BioDigest.fromHex(HASH_B).toBytes() });
+        when(proxyAbisBioDataRepository.fetchIndexEntriesAfter(eq(0L), any(Pageable.class))).thenReturn(page);
+
+        index.rebuild();
+
+        List<BiometricData> duplicates = index.findDuplicates("ref-1", null);
+        assertEquals(1, duplicates.size());
+        assertEquals("ref-2", duplicates.get(0).getInsertEntity().getReferenceId());
+        assertEquals(HASH_B, duplicates.get(0).getBioData());
+    }
+
+    /**
+     * Tests that a failure while loading leaves the index unavailable so callers
+     * fall back to the database.
+     */
+    @Test
+    void rebuild_databaseError_indexStaysUnavailable() {
+        when(proxyAbisBioDataRepository.fetchIndexEntriesAfter(any(), any()))
+                .thenThrow(new RuntimeException("Database error"));
+
+        index.rebuild();
+
+        assertFalse(index.isAvailable());
+    }
+
+    /**
+     * Tests the duplicate lookup across the whole index.
+     * Verifies that one record is returned per matching biometric, ordered by reference ID,
+     * and that the probe itself is excluded.
+     */
+    @Test
+    void findDuplicates_sharedDigests_returnsMatchesOrderedByReferenceId() {
+        index.add("ref-9", List.of(bio("Finger", HASH_A), bio("Iris", HASH_B)));
+        index.add("ref-2", List.of(bio("Iris", HASH_B)));
+        index.add("ref-1", List.of(bio("Finger", HASH_A), bio("Face", HASH_C)));
+        index.add("ref-5", List.of(bio("Face", HASH_C)));
+
+        List<BiometricData> duplicates = index.findDuplicates("ref-9", null);
+
+        assertEquals(2, duplicates.size());
+        assertEquals("ref-1", duplicates.get(0).getInsertEntity().getReferenceId());
+        assertEquals("Finger", duplicates.get(0).getType());
+        assertEquals("ref-2", duplicates.get(1).getInsertEntity().getReferenceId());
+        assertEquals("Iris", duplicates.get(1).getType());
+    }
+
+    /**
+     * Tests the duplicate lookup restricted to a gallery.
+     * Verifies that candidates outside the gallery are not returned.
+     */
+    @Test
+    void findDuplicates_withGallery_returnsOnlyGalleryMatches() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A)));
+        index.add("ref-2", List.of(bio("Finger", HASH_A)));
+        index.add("ref-3", List.of(bio("Finger", HASH_A)));
+
+        List<BiometricData> duplicates = index.findDuplicates("ref-1", List.of("ref-3"));
+
+        assertEquals(1, duplicates.size());
+        assertEquals("ref-3", duplicates.get(0).getInsertEntity().getReferenceId());
+    }
+
+    /**
+     * Tests that a gallery scope counts each distinct gallery reference ID once
+     * and reports those that are not indexed.
+     */
+    @Test
+    void scopeOf_galleryWithUnknownAndRepeatedIds_countsMissing() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A)));
+        index.add("ref-2", List.of(bio("Finger", HASH_B)));
+
+        GalleryScope complete = index.scopeOf(List.of("ref-1", "ref-2", "ref-1"));
+        GalleryScope partial = index.scopeOf(List.of("ref-2", "missing"));
+
+        assertEquals(List.of("ref-1", "ref-2"), complete.getReferenceIds());
+        assertEquals(2, complete.getPresentCount());
+        assertTrue(complete.isComplete());
+        assertEquals(1, partial.getPresentCount());
+        assertFalse(partial.isComplete());
+    }
+
+    /**
+     * Tests the duplicate lookup against a gallery scope.
+     * Verifies that only gallery members are returned, ordered by reference ID.
+     */
+    @Test
+    void findDuplicatesInGallery_scope_returnsOnlyMembers() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A), bio("Iris", HASH_B)));
+        index.add("ref-4", List.of(bio("Iris", HASH_B)));
+        index.add("ref-2", List.of(bio("Finger", HASH_A)));
+        index.add("ref-3", List.of(bio("Finger", HASH_A)));
+
+        List<BiometricData> duplicates = index.findDuplicatesInGallery("ref-1",
+                index.scopeOf(List.of("ref-4", "ref-2", "ref-1")));
+
+        assertEquals(2, duplicates.size());
+        assertEquals("ref-2", duplicates.get(0).getInsertEntity().getReferenceId());
+        assertEquals("ref-4", duplicates.get(1).getInsertEntity().getReferenceId());
+        assertEquals("Iris", duplicates.get(1).getType());
+    }
+
+    /**
+     * Tests that a scope built before a delete does not match the reference ID
+     * that later reuses the deleted slot.
+     */
+    @Test
+    void findDuplicatesInGallery_slotReusedAfterScope_ignoresNewReferenceId() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A)));
+        index.add("ref-2", List.of(bio("Finger", HASH_C)));
+        GalleryScope gallery = index.scopeOf(List.of("ref-2"));
+
+        index.remove("ref-2");
+        index.add("ref-3", List.of(bio("Finger", HASH_A)));
+
+        assertTrue(index.findDuplicatesInGallery("ref-1", gallery).isEmpty());
+        assertTrue(index.findReferenceIds(HASH_A, gallery).isEmpty());
+    }
+
+    /**
+     * Tests the reference ID lookup for a digest within a gallery scope.
+     * Verifies that each reference ID is returned once and non-digests return nothing.
+     */
+    @Test
+    void findReferenceIds_scope_returnsDistinctMembersHoldingDigest() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A), bio("Iris", HASH_A)));
+        index.add("ref-2", List.of(bio("Finger", HASH_A)));
+        index.add("ref-3", List.of(bio("Finger", HASH_B)));
+        GalleryScope gallery = index.scopeOf(List.of("ref-1", "ref-3"));
+
+        assertEquals(List.of("ref-1"), index.findReferenceIds(HASH_A, gallery));
+        assertTrue(index.findReferenceIds("not-a-digest", gallery).isEmpty());
+    }
+
+    /**
+     * Tests the reference ID lookup for a digest without a gallery.
+     * Verifies that every reference ID holding the digest is returned.
+     */
+    @Test
+    void findReferenceIds_noGallery_returnsAllHoldingDigest() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A)));
+        index.add("ref-2", List.of(bio("Iris", HASH_A)));
+        index.add("ref-3", List.of(bio("Finger", HASH_B)));
+
+        assertEquals(List.of("ref-1", "ref-2"), index.findReferenceIds(HASH_A, null));
+    }
+
+    /**
+     * Tests that the digests of a reference ID are returned once each, and none
+     * for an unknown reference ID.
+     */
+    @Test
+    void findDigests_indexedReferenceId_returnsDistinctDigests() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A), bio("Iris", HASH_A), bio("Face", HASH_B)));
+
+        assertEquals(List.of(HASH_A, HASH_B), index.findDigests("ref-1"));
+        assertTrue(index.findDigests("missing").isEmpty());
+    }
+
+    /**
+     * Tests that only reference IDs holding a digest are reported as indexed.
+     */
+    @Test
+    void contains_indexedAndRemovedReferenceIds() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A)));
+        index.add("ref-2", List.of(bio("Finger", HASH_B)));
+        index.remove("ref-2");
+
+        assertTrue(index.contains("ref-1"));
+        assertFalse(index.contains("ref-2"));
+        assertFalse(index.contains("missing"));
+    }
+
+    /**
+     * Tests exporting the index page by page.
+     * Verifies that removed reference IDs are skipped, every record keeps its type
+     * and digest, and the last page returns -1.
+     */
+    @Test
+    void export_pages_returnsEveryReferenceIdThenEnd() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A), bio("Iris", HASH_B)));
+        index.add("ref-2", List.of(bio("Finger", HASH_A)));
+        index.add("ref-3", List.of(bio("Face", HASH_C)));
+        index.add("ref-4", List.of(bio("Face", HASH_C)));
+        index.remove("ref-2");
+        Map<String, List<BiometricData>> exported = new LinkedHashMap<>();
+
+        int next = index.export(0, 2, exported::put);
+        assertEquals(2, exported.size());
+        assertEquals(-1, index.export(next, 2, exported::put));
+
+        assertEquals(List.of("ref-1", "ref-3", "ref-4"), List.copyOf(exported.keySet()));
+        List<BiometricData> records = exported.get("ref-1");
+        assertEquals(List.of("Finger", "Iris"), records.stream().map(BiometricData::getType).toList());
+        assertEquals(HASH_B, BioDigest.fromBytes(records.get(1).getBioDigest()).toHex());
+    }
+
+    /**
+     * Tests the duplicate lookup for a reference ID that was never inserted.
+     */
+    @Test
+    void findDuplicates_unknownReferenceId_returnsEmptyList() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A)));
+
+        assertTrue(index.findDuplicates("missing", null).isEmpty());
+    }
+
+    /**
+     * Tests that removing a reference ID drops it from future lookups, and that its
+     * slot is reused by a later insert without leaking old postings.
+     */
+    @Test
+    void remove_existingReferenceId_noLongerReturnedAsDuplicate() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A)));
+        index.add("ref-2", List.of(bio("Finger", HASH_A)));
+
+        index.remove("ref-2");
+        assertTrue(index.findDuplicates("ref-1", null).isEmpty());
+        assertEquals(1, index.size());
+
+        index.add("ref-3", List.of(bio("Iris", HASH_B)));
+        assertTrue(index.findDuplicates("ref-1", null).isEmpty());
+        assertTrue(index.findDuplicates("ref-3", null).isEmpty());
+    }
+
+    /**
+     * Tests that clearing the index removes every entry.
+     */
+    @Test
+    void clear_populatedIndex_removesAllEntries() {
+        index.add("ref-1", List.of(bio("Finger", HASH_A)));
+        index.add("ref-2", List.of(bio("Finger", HASH_A)));
+
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertTrue(index.findDuplicates("ref-1", null).isEmpty());
+    }
+
+    /**
+     * Tests that biometric values which are not SHA-256 digests are skipped.
+     */
+    @Test
+    void add_malformedDigest_isSkipped() {
+        index.add("ref-1", List.of(bio("Finger", "hash-value")));
+        index.add("ref-2", Collections.singletonList(bio("Finger", "hash-value")));
+
+        assertTrue(index.findDuplicates("ref-1", null).isEmpty());
+    }
+
+    private static BiometricData bio(String type, String hash) {
+        return new BiometricData(null, type, null, hash, new InsertEntity());
+    }
+}
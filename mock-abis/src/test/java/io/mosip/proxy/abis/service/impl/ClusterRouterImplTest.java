@@ -0,0 +1,206 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.proxy.abis.dto.InsertRequestMO;
+import io.mosip.proxy.abis.exception.RequestException;
+import io.mosip.proxy.abis.service.ClusterPartition;
+import io.mosip.proxy.abis.service.ClusterPartition.Match;
+import io.mosip.proxy.abis.service.ProxyAbisInsertService;
+
+/**
+ * Unit test class for ClusterRouterImpl.
+ * This class runs three nodes in one JVM over an InProcessClusterTransport and
+ * tests forwarding to the owning node, merging the answers of every node and
+ * failing requests when a node fails.
+ */
+class ClusterRouterImplTest {
+
+    private static final List<String> NODES = List.of("node-1", "node-2", "node-3");
+
+    private SimpleMeterRegistry meterRegistry;
+    private InProcessClusterTransport transport;
+    private Map<String, ClusterPartition> partitions;
+    private Map<String, ProxyAbisInsertService> insertServices;
+    private ClusterRouterImpl router;
+
+    /**
+     * Registers three nodes with mocked partitions and insert services, and
+     * creates the router of node-1.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transport = new InProcessClusterTransport();
+        partitions = Map.of("node-1", mock(ClusterPartition.class), "node-2", mock(ClusterPartition.class),
+                "node-3", mock(ClusterPartition.class));
+        insertServices = Map.of("node-1", mock(ProxyAbisInsertService.class), "node-2",
+                mock(ProxyAbisInsertService.class), "node-3", mock(ProxyAbisInsertService.class));
+        NODES.forEach(node -> transport.register(node, insertServices.get(node), partitions.get(node)));
+        router = new ClusterRouterImpl(partitions.get("node-1"), transport, meterRegistry, true, "node-1", NODES,
+                128, 1000, 4);
+    }
+
+    /**
+     * Stops the router created by the test.
+     */
+    @AfterEach
+    void tearDown() {
+        router.shutdown();
+    }
+
+    /**
+     * Tests that every reference ID is local when cluster mode is off.
+     */
+    @Test
+    void isLocal_clusterDisabled_returnsTrue() {
+        ClusterRouterImpl disabled = new ClusterRouterImpl(partitions.get("node-1"), transport, meterRegistry, false,
+                "", List.of(), 128, 1000, 4);
+
+        assertFalse(disabled.isEnabled());
+        assertTrue(disabled.isLocal("any-reference-id"));
+    }
+
+    /**
+     * Tests that a node missing from the node list is rejected.
+     */
+    @Test
+    void constructor_localNodeNotListed_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ClusterRouterImpl(partitions.get("node-1"), transport,
+                meterRegistry, true, "node-4", NODES, 128, 1000, 4));
+    }
+
+    /**
+     * Tests that an insert of a reference ID owned by another node is run by that node.
+     */
+    @Test
+    void forwardInsert_remoteOwner_insertsOnOwner() {
+        String referenceId = referenceIdOwnedBy("node-2");
+        InsertRequestMO request = new InsertRequestMO();
+        request.setReferenceId(referenceId);
+        when(insertServices.get("node-2").insertData(request)).thenReturn(3);
+
+        assertFalse(router.isLocal(referenceId));
+        assertEquals(3, router.forwardInsert(request));
+        verifyNoInteractions(insertServices.get("node-1"), insertServices.get("node-3"));
+        assertEquals(1.0, meterRegistry.get("mock.abis.cluster.forwarded").tag("operation", "insert").counter()
+                .count());
+    }
+
+    /**
+     * Tests that the digests of a reference ID are read from its owner only.
+     */
+    @Test
+    void fetchDigests_remoteOwner_readsFromOwner() {
+        String referenceId = referenceIdOwnedBy("node-3");
+        when(partitions.get("node-3").fetchDigests(referenceId)).thenReturn(List.of("digest"));
+
+        assertEquals(List.of("digest"), router.fetchDigests(referenceId));
+        verify(partitions.get("node-1"), never()).fetchDigests(referenceId);
+    }
+
+    /**
+     * Tests that the gallery count adds up the count of every node.
+     */
+    @Test
+    void countPresent_everyNode_sumsCounts() {
+        List<String> gallery = List.of("ref-1", "ref-2", "ref-3");
+        when(partitions.get("node-1").countPresent(gallery)).thenReturn(1);
+        when(partitions.get("node-2").countPresent(gallery)).thenReturn(2);
+        when(partitions.get("node-3").countPresent(gallery)).thenReturn(0);
+
+        assertEquals(3, router.countPresent(gallery));
+    }
+
+    /**
+     * Tests that the duplicates found by every node are merged in reference ID order.
+     */
+    @Test
+    void findDuplicates_everyNode_mergesByReferenceId() {
+        List<String> digests = List.of("digest");
+        when(partitions.get("node-1").findDuplicates(digests, "probe", null)).thenReturn(List.of(new Match("ref-c", "FINGER")));
+        when(partitions.get("node-2").findDuplicates(digests, "probe", null))
+                .thenReturn(List.of(new Match("ref-a", "FINGER"), new Match("ref-d", "IRIS")));
+        when(partitions.get("node-3").findDuplicates(digests, "probe", null)).thenReturn(List.of(new Match("ref-b", "FACE")));
+
+        List<Match> merged = router.findDuplicates(digests, "probe", null);
+
+        assertEquals(List.of(new Match("ref-a", "FINGER"), new Match("ref-b", "FACE"), new Match("ref-c", "FINGER"),
+                new Match("ref-d", "IRIS")), merged);
+        assertEquals(1, meterRegistry.get("mock.abis.cluster.scatter").tag("operation", "duplicates").timer().count());
+    }
+
+    /**
+     * Tests that the reference IDs found by every node are merged without repeats.
+     */
+    @Test
+    void findReferenceIds_everyNode_mergesDistinct() {
+        List<String> gallery = List.of("ref-1", "ref-2");
+        when(partitions.get("node-1").findReferenceIds("digest", gallery)).thenReturn(List.of("ref-1"));
+        when(partitions.get("node-2").findReferenceIds("digest", gallery)).thenReturn(List.of("ref-2", "ref-1"));
+        when(partitions.get("node-3").findReferenceIds("digest", gallery)).thenReturn(new ArrayList<>());
+
+        assertEquals(List.of("ref-1", "ref-2"), router.findReferenceIds("digest", gallery));
+    }
+
+    /**
+     * Tests that a failing node fails the whole query rather than returning a partial result.
+     */
+    @Test
+    void countPresent_nodeFails_throwsRequestException() {
+        List<String> gallery = List.of("ref-1");
+        when(partitions.get("node-1").countPresent(gallery)).thenReturn(1);
+        when(partitions.get("node-2").countPresent(gallery)).thenThrow(new IllegalStateException("node down"));
+        when(partitions.get("node-3").countPresent(gallery)).thenReturn(0);
+
+        assertThrows(RequestException.class, () -> router.countPresent(gallery));
+    }
+
+    /**
+     * Tests that a query is failed at once when every thread is busy and the
+     * queue of waiting queries is full.
+     */
+    @Test
+    void countPresent_tooManyQueriesInFlight_throwsRequestException() {
+        ClusterRouterImpl single = new ClusterRouterImpl(partitions.get("node-1"), transport, meterRegistry, true,
+                "node-1", NODES, 128, 1000, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> gallery = List.of("ref-1");
+        NODES.forEach(node -> when(partitions.get(node).countPresent(gallery)).thenAnswer(invocation -> {
+            release.await();
+            return 1;
+        }));
+
+        try {
+            assertThrows(RequestException.class, () -> single.countPresent(gallery));
+        } finally {
+            release.countDown();
+            single.shutdown();
+        }
+    }
+
+    private String referenceIdOwnedBy(String node) {
+        for (int i = 0;; i++) {
+            if (router.ownerOf("ref-" + i).equals(node))
+                return "ref-" + i;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit test class for DelayedResponseDispatcher.
+ * This class tests delayed delivery, the capacity bound, the published meters
+ * and draining on shutdown.
+ */
+class DelayedResponseDispatcherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DelayedResponseDispatcher dispatcher;
+
+    /**
+     * Sets up a fresh meter registry for each test.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null)
+            dispatcher.shutdown();
+    }
+
+    /**
+     * Tests that a response without delay is sent and counted as scheduled and sent.
+     */
+    @Test
+    void schedule_noDelay_sendsResponse() throws Exception {
+        dispatcher = new DelayedResponseDispatcher(meterRegistry, 2, 10, 100, 1000, 1);
+        CountDownLatch sent = new CountDownLatch(1);
+
+        dispatcher.schedule(sent::countDown, 0, TimeUnit.SECONDS);
+
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, counter("mock.abis.dispatch.scheduled"));
+        awaitPending(0);
+        assertEquals(1.0, counter("mock.abis.dispatch.sent"));
+    }
+
+    /**
+     * Tests that a delayed response is held back until its delay has elapsed.
+     */
+    @Test
+    void schedule_withDelay_sendsAfterDelay() throws Exception {
+        dispatcher = new DelayedResponseDispatcher(meterRegistry, 2, 10, 100, 1000, 1);
+        CountDownLatch sent = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        dispatcher.schedule(sent::countDown, 300, TimeUnit.MILLISECONDS);
+
+        assertEquals(1, dispatcher.getPending());
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 300);
+    }
+
+    /**
+     * Tests that scheduling beyond capacity waits for the offer timeout and is then
+     * rejected and counted.
+     */
+    @Test
+    void schedule_atCapacity_rejectedAfterOfferTimeout() throws Exception {
+        dispatcher = new DelayedResponseDispatcher(meterRegistry, 1, 1, 50, 1000, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        dispatcher.schedule(() -> await(release), 0, TimeUnit.SECONDS);
+
+        assertThrows(RejectedExecutionException.class, () -> dispatcher.schedule(() -> {
+        }, 0, TimeUnit.SECONDS));
+        assertEquals(1.0, counter("mock.abis.dispatch.rejected"));
+
+        release.countDown();
+        awaitPending(0);
+        CountDownLatch sent = new CountDownLatch(1);
+        dispatcher.schedule(sent::countDown, 0, TimeUnit.SECONDS);
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests that a response which starts sending later than the threshold is
+     * counted as overdue.
+     */
+    @Test
+    void schedule_workersBusy_countsOverdue() throws Exception {
+        dispatcher = new DelayedResponseDispatcher(meterRegistry, 1, 10, 100, 10, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch sent = new CountDownLatch(1);
+        dispatcher.schedule(() -> await(release), 0, TimeUnit.SECONDS);
+        dispatcher.schedule(sent::countDown, 0, TimeUnit.SECONDS);
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        release.countDown();
+
+        assertTrue(sent.await(5, TimeUnit.SECONDS));
+        assertTrue(counter("mock.abis.dispatch.overdue") >= 1.0);
+    }
+
+    /**
+     * Tests that shutdown sends responses still waiting for their delay and refuses
+     * new ones.
+     */
+    @Test
+    void shutdown_delayedResponsesPending_sentImmediately() throws Exception {
+        dispatcher = new DelayedResponseDispatcher(meterRegistry, 2, 10, 100, 1000, 5);
+        CountDownLatch sent = new CountDownLatch(1);
+        dispatcher.schedule(sent::countDown, 1, TimeUnit.HOURS);
+        assertFalse(sent.await(50, TimeUnit.MILLISECONDS));
+
+        dispatcher.shutdown();
+
+        assertEquals(0, sent.getCount());
+        assertEquals(0, dispatcher.getPending());
+        assertThrows(RejectedExecutionException.class, () -> dispatcher.schedule(() -> {
+        }, 0, TimeUnit.SECONDS));
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private void awaitPending(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (dispatcher.getPending() != expected && System.currentTimeMillis() < deadline)
+            TimeUnit.MILLISECONDS.sleep(10);
+        assertEquals(expected, dispatcher.getPending());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package io.mosip.proxy.abis.service.impl;
 
 import io.mosip.proxy.abis.dto.Expectation;
+import io.mosip.proxy.abis.service.ExpectationCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -115,4 +119,112 @@ class ExpectationCacheImplTest {
         assertEquals(1, all.size()); // Verify the size of the map
         assertTrue(all.containsKey("one")); // Verify the key exists
     }
+
+    /**
+     * Tests the getVersion method.
+     * Verifies that the version changes with every insert and delete.
+     */
+    @Test
+    void getVersion_afterChanges_increments() {
+        Expectation e1 = new Expectation();
+        e1.setId("one");
+        long initial = cache.getVersion();
+
+        cache.insert(e1);
+        long afterInsert = cache.getVersion();
+        cache.delete("one");
+        long afterDelete = cache.getVersion();
+        cache.deleteAll();
+
+        assertTrue(afterInsert > initial);
+        assertTrue(afterDelete > afterInsert);
+        assertTrue(cache.getVersion() > afterDelete);
+    }
+
+    /**
+     * Tests the find method.
+     * Verifies that an expectation is found only for the action it interferes with.
+     */
+    @Test
+    void find_byAction_returnsExpectationOfThatActionOnly() {
+        Expectation ex = expectation("hash", ExpectationCache.IDENTIFY);
+        cache.insert(ex);
+
+        assertSame(ex, cache.find("hash", ExpectationCache.IDENTIFY));
+        assertNull(cache.find("hash", ExpectationCache.INSERT));
+        assertNull(cache.find("other", ExpectationCache.IDENTIFY));
+    }
+
+    /**
+     * Tests that replacing an expectation with one for another action moves it to
+     * the index of the new action, and that a delete removes it from the index.
+     */
+    @Test
+    void find_afterReplaceAndDelete_followsCurrentExpectation() {
+        cache.insert(expectation("hash", ExpectationCache.IDENTIFY));
+        Expectation replaced = expectation("hash", ExpectationCache.INSERT);
+        cache.insert(replaced);
+
+        assertNull(cache.find("hash", ExpectationCache.IDENTIFY));
+        assertSame(replaced, cache.find("hash", ExpectationCache.INSERT));
+
+        cache.delete("hash");
+        assertNull(cache.find("hash", ExpectationCache.INSERT));
+    }
+
+    /**
+     * Tests the find method with the Bloom filter enabled.
+     * Verifies that set expectations are still found and absent ones are not.
+     */
+    @Test
+    void find_bloomEnabled_findsEverySetExpectation() {
+        cache = new ExpectationCacheImpl(true, 1024, 3);
+        for (int i = 0; i < 100; i++)
+            cache.insert(expectation("hash-" + i, ExpectationCache.INSERT));
+
+        for (int i = 0; i < 100; i++)
+            assertNotNull(cache.find("hash-" + i, ExpectationCache.INSERT));
+        assertNull(cache.find("absent", ExpectationCache.INSERT));
+    }
+
+    /**
+     * Tests the restore method.
+     * Verifies that the expectations are replaced and the version changes once.
+     */
+    @Test
+    void restore_snapshot_replacesExpectationsWithOneVersionChange() {
+        cache.insert(expectation("old", ExpectationCache.INSERT));
+        List<Expectation> snapshot = List.of(expectation("one", ExpectationCache.IDENTIFY),
+                expectation("two", ExpectationCache.INSERT));
+        long before = cache.getVersion();
+
+        cache.restore(snapshot);
+
+        assertEquals(before + 1, cache.getVersion());
+        assertEquals(2, cache.snapshot().size());
+        assertNull(cache.find("old", ExpectationCache.INSERT));
+        assertNotNull(cache.find("one", ExpectationCache.IDENTIFY));
+        assertNotNull(cache.find("two", ExpectationCache.INSERT));
+    }
+
+    /**
+     * Tests that restoring an expectation without an ID is rejected and leaves
+     * the current expectations in place.
+     */
+    @Test
+    void restore_expectationWithoutId_throwsIllegalArgumentException() {
+        cache.insert(expectation("kept", ExpectationCache.INSERT));
+        List<Expectation> snapshot = List.of(expectation("one", ExpectationCache.INSERT), new Expectation());
+
+        assertThrows(IllegalArgumentException.class, () -> cache.restore(snapshot));
+        assertNotNull(cache.find("kept", ExpectationCache.INSERT));
+        assertNull(cache.find("one", ExpectationCache.INSERT));
+    }
+
+    private static Expectation expectation(String id, String action) {
+        Expectation ex = new Expectation();
+        ex.setId(id);
+        ex.setActionToInterfere(action);
+        return ex;
+    }
 }
\ No newline at end of file
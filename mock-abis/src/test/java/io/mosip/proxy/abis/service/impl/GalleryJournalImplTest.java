@@ -0,0 +1,224 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.proxy.abis.dao.ProxyAbisInsertRepository;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.entity.InsertEntity;
+import io.mosip.proxy.abis.service.BioDigestStorage;
+import io.mosip.proxy.abis.service.GalleryBulkLoader;
+import io.mosip.proxy.abis.utility.BdbSignature;
+import io.mosip.proxy.abis.utility.BioDigest;
+
+/**
+ * Unit test class for GalleryJournalImpl.
+ * This class writes journals to a temporary directory and restores them in a
+ * new instance, covering deletes, clears, compaction into a snapshot and torn
+ * log records.
+ */
+class GalleryJournalImplTest {
+
+    private static final String DIGEST_1 = "a".repeat(64);
+    private static final String DIGEST_2 = "b".repeat(64);
+
+    @TempDir
+    Path directory;
+
+    private ProxyAbisInsertRepository proxyabis;
+    private GalleryBulkLoader bulkLoader;
+    private BioDigestStorage bioDigestStorage;
+    private List<InsertEntity> loaded;
+    private GalleryJournalImpl journal;
+
+    /**
+     * Sets up an empty database whose bulk loads are collected.
+     */
+    @BeforeEach
+    void setUp() {
+        proxyabis = mock(ProxyAbisInsertRepository.class);
+        bulkLoader = mock(GalleryBulkLoader.class);
+        bioDigestStorage = mock(BioDigestStorage.class);
+        loaded = new ArrayList<>();
+        when(bulkLoader.load(anyList())).thenAnswer(invocation -> {
+            List<InsertEntity> batch = invocation.getArgument(0);
+            loaded.addAll(batch);
+            return batch.size();
+        });
+        journal = journal();
+    }
+
+    /**
+     * Closes the journal created by the test.
+     */
+    @AfterEach
+    void tearDown() {
+        journal.shutdown();
+    }
+
+    /**
+     * Tests that a restart restores the inserted reference IDs that were not deleted,
+     * with their types, subtypes and digests.
+     */
+    @Test
+    void restore_insertsAndDeletes_loadsLiveReferenceIds() {
+        journal.recordInsert(insert("ref-1", DIGEST_1));
+        journal.recordInsert(insert("ref-2", DIGEST_2));
+        journal.recordDelete("ref-1");
+
+        Map<String, InsertEntity> restored = restart();
+
+        assertEquals(List.of("ref-2"), List.copyOf(restored.keySet()));
+        BiometricData bd = restored.get("ref-2").getBiometricList().get(0);
+        assertEquals("Finger", bd.getType());
+        assertEquals("Left IndexFinger", bd.getSubtype());
+        assertArrayEquals(BioDigest.fromHex(DIGEST_2).toBytes(), bd.getBioDigest());
+        assertSame(restored.get("ref-2"), bd.getInsertEntity());
+    }
+
+    /**
+     * Tests that the signature of a biometric survives a restart, and that a
+     * biometric journaled without one is restored without one.
+     */
+    @Test
+    void restore_signedBiometric_keepsSignature() {
+        byte[] signature = BdbSignature.of("finger".getBytes()).toBytes();
+        InsertEntity signed = insert("ref-1", DIGEST_1);
+        signed.getBiometricList().get(0).setBioSignature(signature);
+        journal.recordInsert(signed);
+        journal.recordInsert(insert("ref-2", DIGEST_2));
+
+        Map<String, InsertEntity> restored = restart();
+
+        BiometricData bd = restored.get("ref-1").getBiometricList().get(0);
+        assertArrayEquals(BioDigest.fromHex(DIGEST_1).toBytes(), bd.getBioDigest());
+        assertArrayEquals(signature, bd.getBioSignature());
+        assertNull(restored.get("ref-2").getBiometricList().get(0).getBioSignature());
+    }
+
+    /**
+     * Tests that a compacted journal restores from the snapshot together with the
+     * records appended after compaction.
+     */
+    @Test
+    void compact_thenMoreRecords_restoresSnapshotAndLog() {
+        journal.recordInsert(insert("ref-1", DIGEST_1));
+        journal.recordInsert(insert("ref-2", DIGEST_2));
+        journal.recordInsert(insert("ref-3", DIGEST_1));
+        journal.recordDelete("ref-3");
+        journal.compact();
+        journal.recordDelete("ref-2");
+        journal.recordInsert(insert("ref-4", DIGEST_2));
+
+        assertTrue(Files.exists(directory.resolve(GalleryJournalImpl.SNAPSHOT)));
+        assertFalse(Files.exists(directory.resolve(GalleryJournalImpl.COMPACTING)));
+        assertEquals(List.of("ref-1", "ref-4"), List.copyOf(restart().keySet()));
+    }
+
+    /**
+     * Tests that a clear drops the reference IDs held by the snapshot.
+     */
+    @Test
+    void recordClear_afterCompaction_dropsSnapshot() {
+        journal.recordInsert(insert("ref-1", DIGEST_1));
+        journal.compact();
+        journal.recordClear();
+        journal.recordInsert(insert("ref-2", DIGEST_2));
+
+        assertEquals(List.of("ref-2"), List.copyOf(restart().keySet()));
+    }
+
+    /**
+     * Tests that a record torn by a crash is ignored on restore and truncated
+     * before the log is appended to again.
+     */
+    @Test
+    void restore_tornLogRecord_truncatesTail() throws Exception {
+        journal.recordInsert(insert("ref-1", DIGEST_1));
+        journal.shutdown();
+        Path log = directory.resolve(GalleryJournalImpl.LOG);
+        long validSize = Files.size(log);
+        Files.write(log, new byte[] { 0, 0, 0, 40, 1, 2, 3 }, StandardOpenOption.APPEND);
+
+        journal = journal();
+        journal.restore();
+
+        assertEquals(1, loaded.size());
+        assertEquals(validSize, Files.size(log));
+    }
+
+    /**
+     * Tests that a database already holding insert requests is not restored into.
+     */
+    @Test
+    void restore_databaseNotEmpty_skipsRestore() {
+        journal.recordInsert(insert("ref-1", DIGEST_1));
+        journal.shutdown();
+        when(proxyabis.count()).thenReturn(1L);
+
+        journal = journal();
+
+        assertEquals(0, journal.restore());
+        verify(bulkLoader, never()).load(anyList());
+    }
+
+    /**
+     * Tests that a disabled journal writes no files.
+     */
+    @Test
+    void recordInsert_disabled_writesNothing() throws Exception {
+        journal.shutdown();
+        journal = new GalleryJournalImpl(proxyabis, bulkLoader, bioDigestStorage, new SimpleMeterRegistry(), false,
+                directory, false, 1024, 10);
+
+        journal.recordInsert(insert("ref-1", DIGEST_1));
+
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private GalleryJournalImpl journal() {
+        return new GalleryJournalImpl(proxyabis, bulkLoader, bioDigestStorage, new SimpleMeterRegistry(), true,
+                directory, false, 1024 * 1024, 2);
+    }
+
+    private Map<String, InsertEntity> restart() {
+        journal.shutdown();
+        journal = journal();
+        journal.restore();
+        Map<String, InsertEntity> restored = new TreeMap<>();
+        loaded.forEach(entity -> restored.put(entity.getReferenceId(), entity));
+        return restored;
+    }
+
+    private static InsertEntity insert(String referenceId, String digest) {
+        InsertEntity entity = new InsertEntity("id", "1.1", "request-" + referenceId, null, referenceId);
+        entity.setBiometricList(
+                new ArrayList<>(List.of(new BiometricData(null, "Finger", "Left IndexFinger", digest, entity))));
+        return entity;
+    }
+}
@@ -0,0 +1,214 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.mosip.proxy.abis.dto.SeedRequest;
+import io.mosip.proxy.abis.dto.SeedResult;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.entity.InsertEntity;
+import io.mosip.proxy.abis.service.BioDigestStorage;
+import io.mosip.proxy.abis.service.BiometricIndex;
+import io.mosip.proxy.abis.service.BiometricMatcher;
+import io.mosip.proxy.abis.service.ClusterRouter;
+import io.mosip.proxy.abis.service.GalleryBulkLoader;
+import io.mosip.proxy.abis.service.GalleryJournal;
+import io.mosip.proxy.abis.service.GalleryReplicator;
+import io.mosip.proxy.abis.service.IdentifyResultCache;
+
+/**
+ * Unit test class for GallerySeederImpl.
+ * This class collects the batches handed to a mocked bulk loader and checks
+ * generated and imported galleries, duplicates, cluster ownership and the
+ * refresh of the index, cache and journal.
+ */
+class GallerySeederImplTest {
+
+    private GalleryBulkLoader bulkLoader;
+    private BiometricIndex biometricIndex;
+    private BiometricMatcher biometricMatcher;
+    private IdentifyResultCache identifyResultCache;
+    private GalleryJournal galleryJournal;
+    private ClusterRouter clusterRouter;
+    private GalleryReplicator galleryReplicator;
+    private List<InsertEntity> loaded;
+    private GallerySeederImpl seeder;
+
+    /**
+     * Sets up a seeder writing batches of two reference IDs.
+     */
+    @BeforeEach
+    void setUp() {
+        bulkLoader = mock(GalleryBulkLoader.class);
+        biometricIndex = mock(BiometricIndex.class);
+        biometricMatcher = mock(BiometricMatcher.class);
+        identifyResultCache = mock(IdentifyResultCache.class);
+        galleryJournal = mock(GalleryJournal.class);
+        clusterRouter = mock(ClusterRouter.class);
+        galleryReplicator = mock(GalleryReplicator.class);
+        loaded = new ArrayList<>();
+        when(bulkLoader.getMethod()).thenReturn(JdbcGalleryBulkLoader.JDBC_BATCH);
+        when(bulkLoader.load(anyList())).thenAnswer(invocation -> {
+            List<InsertEntity> batch = invocation.getArgument(0);
+            loaded.addAll(batch);
+            return batch.stream().mapToInt(entity -> entity.getBiometricList().size()).sum();
+        });
+        seeder = new GallerySeederImpl(bulkLoader, mock(BioDigestStorage.class), biometricIndex, biometricMatcher,
+                identifyResultCache, galleryJournal, clusterRouter, galleryReplicator, 2);
+    }
+
+    /**
+     * Tests that every generated reference ID gets all finger, iris and face
+     * subtypes, is journaled, and that the index and cache are refreshed once.
+     */
+    @Test
+    void generate_defaultModalities_writesThirteenBiometricsPerReferenceId() {
+        SeedResult result = seeder.generate(request(5, 0));
+
+        assertEquals(5, result.getReferenceIds());
+        assertEquals(65, result.getBiometrics());
+        assertEquals(JdbcGalleryBulkLoader.JDBC_BATCH, result.getMethod());
+        assertEquals(List.of("seed-0", "seed-1", "seed-2", "seed-3", "seed-4"),
+                loaded.stream().map(InsertEntity::getReferenceId).toList());
+        assertEquals(13, loaded.get(0).getBiometricList().size());
+        assertNull(loaded.get(0).getBiometricList().get(12).getSubtype());
+        verify(bulkLoader, times(3)).load(anyList());
+        verify(galleryJournal, times(5)).recordInsert(any());
+        verify(biometricIndex).rebuild();
+        verify(biometricMatcher).rebuild();
+        verify(identifyResultCache).clear();
+    }
+
+    /**
+     * Tests that the same seed generates the same digests.
+     */
+    @Test
+    void generate_sameSeed_generatesSameGallery() {
+        seeder.generate(request(3, 0));
+        List<InsertEntity> first = new ArrayList<>(loaded);
+        loaded.clear();
+
+        seeder.generate(request(3, 0));
+
+        for (int i = 0; i < first.size(); i++)
+            assertArrayEquals(digests(first.get(i)), digests(loaded.get(i)));
+    }
+
+    /**
+     * Tests that a duplicate rate of one makes every reference ID after the
+     * first copy the digests of the first.
+     */
+    @Test
+    void generate_duplicateRateOne_copiesDigests() {
+        seeder.generate(request(3, 1));
+
+        assertArrayEquals(digests(loaded.get(0)), digests(loaded.get(1)));
+        assertArrayEquals(digests(loaded.get(0)), digests(loaded.get(2)));
+    }
+
+    /**
+     * Tests that in cluster mode only the reference IDs owned by this node are
+     * written.
+     */
+    @Test
+    void generate_clusterEnabled_writesOwnedReferenceIdsOnly() {
+        when(clusterRouter.isEnabled()).thenReturn(true);
+        when(clusterRouter.isLocal(anyString())).thenAnswer(invocation -> !"seed-1".equals(invocation.getArgument(0)));
+
+        SeedResult result = seeder.generate(request(3, 0));
+
+        assertEquals(2, result.getReferenceIds());
+        assertEquals(List.of("seed-0", "seed-2"), loaded.stream().map(InsertEntity::getReferenceId).toList());
+    }
+
+    /**
+     * Tests that with replication enabled every seeded reference ID is added to
+     * the index and published, and the index holding the other nodes' reference
+     * IDs is not rebuilt from the database.
+     */
+    @Test
+    void generate_replicationEnabled_addsAndPublishesEachReferenceId() {
+        when(galleryReplicator.isEnabled()).thenReturn(true);
+
+        seeder.generate(request(3, 0));
+
+        for (InsertEntity entity : loaded) {
+            verify(biometricIndex).add(eq(entity.getReferenceId()), eq(entity.getBiometricList()));
+            verify(galleryReplicator).publishInsert(eq(entity.getReferenceId()), eq(entity.getBiometricList()));
+        }
+        verify(biometricIndex, never()).rebuild();
+        verify(biometricMatcher).rebuild();
+    }
+
+    /**
+     * Tests that an invalid duplicate rate is rejected before anything is
+     * written.
+     */
+    @Test
+    void generate_invalidDuplicateRate_throwsIllegalArgumentException() {
+        SeedRequest request = request(3, 2);
+
+        assertThrows(IllegalArgumentException.class, () -> seeder.generate(request));
+        verify(bulkLoader, never()).load(anyList());
+    }
+
+    /**
+     * Tests that consecutive CSV lines of a reference ID are grouped into one
+     * insert request, with subtypes holding commas kept whole.
+     */
+    @Test
+    void importCsv_validLines_groupsByReferenceId() throws Exception {
+        String csv = "referenceId,type,subtype,digest\n" + "ref-1,Finger,[Left, Thumb]," + "a".repeat(64) + "\n"
+                + "ref-1,Face,," + "b".repeat(64) + "\n" + "ref-2,Iris,[Left]," + "c".repeat(64) + "\n";
+
+        SeedResult result = seeder.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.getReferenceIds());
+        assertEquals(3, result.getBiometrics());
+        List<BiometricData> first = loaded.get(0).getBiometricList();
+        assertEquals("[Left, Thumb]", first.get(0).getSubtype());
+        assertNull(first.get(1).getSubtype());
+        assertEquals("ref-2", loaded.get(1).getReferenceId());
+    }
+
+    /**
+     * Tests that a line without a digest is rejected.
+     */
+    @Test
+    void importCsv_malformedLine_throwsIllegalArgumentException() {
+        byte[] csv = "ref-1,Finger\n".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> seeder.importCsv(new ByteArrayInputStream(csv)));
+    }
+
+    private static SeedRequest request(long count, double duplicateRate) {
+        SeedRequest request = new SeedRequest();
+        request.setCount(count);
+        request.setDuplicateRate(duplicateRate);
+        request.setRandomSeed(42);
+        return request;
+    }
+
+    private static byte[][] digests(InsertEntity entity) {
+        return entity.getBiometricList().stream().map(BiometricData::getBioDigest).toArray(byte[][]::new);
+    }
+}
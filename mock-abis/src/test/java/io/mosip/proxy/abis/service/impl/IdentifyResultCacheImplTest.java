@@ -0,0 +1,210 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.proxy.abis.dto.IdentifyDelayResponse;
+import io.mosip.proxy.abis.dto.IdentityRequest;
+import io.mosip.proxy.abis.dto.IdentityResponse;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.entity.InsertEntity;
+import io.mosip.proxy.abis.service.IdentifyResultCache.Key;
+
+/**
+ * Unit test class for IdentifyResultCacheImpl.
+ * This class tests lookups, invalidation by inserts and deletes, expiry, the
+ * size cap and the published meters.
+ */
+class IdentifyResultCacheImplTest {
+
+    private static final String HASH_A = "a".repeat(64);
+    private static final String HASH_B = "b".repeat(64);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong now;
+    private IdentifyResultCacheImpl cache;
+
+    /**
+     * Sets up an enabled cache of two entries with a 60 second TTL and a manual clock.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = new AtomicLong();
+        cache = new IdentifyResultCacheImpl(meterRegistry, true, 2, 60, now::get);
+    }
+
+    /**
+     * Tests that a cached result is returned with the envelope of the new request
+     * and counted as a hit, while an unknown key is counted as a miss.
+     */
+    @Test
+    void get_cachedResult_returnsCopyAddressedToRequest() {
+        Key key = key("probe");
+        cache.put(key, cache.generation(), response("cand-1"), List.of(HASH_A), null);
+
+        IdentifyDelayResponse hit = cache.get(key, request("probe", "retry-request"));
+        IdentifyDelayResponse miss = cache.get(key("other"), request("other", "other-request"));
+
+        assertNotNull(hit);
+        assertNull(miss);
+        assertEquals("retry-request", hit.getIdentityResponse().getRequestId());
+        assertEquals("1", hit.getIdentityResponse().getCandidateList().getCount());
+        assertEquals(5, hit.getDelayResponse());
+        assertEquals(1.0, meterRegistry.get("mock.abis.identify.cache.hits").counter().count());
+        assertEquals(1.0, meterRegistry.get("mock.abis.identify.cache.misses").counter().count());
+    }
+
+    /**
+     * Tests that an insert holding a digest the result depends on drops it, while
+     * an insert of unrelated digests keeps it.
+     */
+    @Test
+    void invalidateInsert_sharedDigest_dropsResult() {
+        Key key = key("probe");
+        cache.put(key, cache.generation(), response("cand-1"), List.of(HASH_A), null);
+
+        cache.invalidateInsert("new-2", List.of(bio(HASH_B)));
+        assertNotNull(cache.get(key, request("probe", "r1")));
+
+        cache.invalidateInsert("new-1", List.of(bio(HASH_A)));
+        assertNull(cache.get(key, request("probe", "r2")));
+        assertEquals(1.0, meterRegistry.get("mock.abis.identify.cache.invalidations").counter().count());
+    }
+
+    /**
+     * Tests that deleting a candidate or a gallery member drops the results that
+     * depend on it.
+     */
+    @Test
+    void invalidateDelete_candidateOrGalleryMember_dropsResult() {
+        Key wholeDb = key("probe-1");
+        Key gallery = new Key("probe-2", null, true, false, 1);
+        cache.put(wholeDb, cache.generation(), response("cand-1"), List.of(HASH_A), null);
+        cache.put(gallery, cache.generation(), response(), List.of(HASH_B), List.of("member-1"));
+
+        cache.invalidateDelete("cand-1");
+        cache.invalidateDelete("member-1");
+
+        assertNull(cache.get(wholeDb, request("probe-1", "r1")));
+        assertNull(cache.get(gallery, request("probe-2", "r2")));
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Tests that a result computed across an insert is not cached.
+     */
+    @Test
+    void put_afterInvalidation_discardsStaleResult() {
+        long generation = cache.generation();
+
+        cache.invalidateInsert("new-1", List.of(bio(HASH_B)));
+        cache.put(key("probe"), generation, response("cand-1"), List.of(HASH_A), null);
+
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Tests that a result is no longer served once its TTL has elapsed.
+     */
+    @Test
+    void get_afterTtl_evictsResult() {
+        Key key = key("probe");
+        cache.put(key, cache.generation(), response(), List.of(HASH_A), null);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+
+        assertNull(cache.get(key, request("probe", "r1")));
+        assertEquals(1.0, meterRegistry.get("mock.abis.identify.cache.evictions").counter().count());
+    }
+
+    /**
+     * Tests that the least recently used result is evicted beyond the size cap.
+     */
+    @Test
+    void put_beyondMaxEntries_evictsLeastRecentlyUsed() {
+        cache.put(key("probe-1"), cache.generation(), response(), List.of(HASH_A), null);
+        cache.put(key("probe-2"), cache.generation(), response(), List.of(HASH_A), null);
+        cache.get(key("probe-1"), request("probe-1", "r1"));
+
+        cache.put(key("probe-3"), cache.generation(), response(), List.of(HASH_B), null);
+
+        assertNotNull(cache.get(key("probe-1"), request("probe-1", "r2")));
+        assertNull(cache.get(key("probe-2"), request("probe-2", "r3")));
+        assertEquals(2.0, meterRegistry.get("mock.abis.identify.cache.size").gauge().value());
+    }
+
+    /**
+     * Tests that galleries with the same members share a key whatever their order,
+     * and that the configuration is part of the key.
+     */
+    @Test
+    void keyOf_sameGalleryInOtherOrder_returnsEqualKey() {
+        Key key = cache.keyOf("probe", List.of("ref-1", "ref-2"), true, false, 4);
+
+        assertEquals(key, cache.keyOf("probe", List.of("ref-2", "ref-1"), true, false, 4));
+        assertNotEquals(key, cache.keyOf("probe", List.of("ref-1"), true, false, 4));
+        assertNotEquals(key, cache.keyOf("probe", null, true, false, 4));
+        assertNotEquals(key, cache.keyOf("probe", List.of("ref-1", "ref-2"), false, false, 4));
+        assertNotEquals(key, cache.keyOf("probe", List.of("ref-1", "ref-2"), true, false, 5));
+    }
+
+    /**
+     * Tests that a disabled cache neither stores nor returns results.
+     */
+    @Test
+    void put_disabled_cachesNothing() {
+        IdentifyResultCacheImpl disabled = new IdentifyResultCacheImpl(new SimpleMeterRegistry(), false, 2, 60,
+                now::get);
+        IdentifyDelayResponse response = response();
+
+        disabled.put(key("probe"), disabled.generation(), response, Set.of(HASH_A), null);
+
+        assertNull(disabled.get(key("probe"), request("probe", "r1")));
+        assertEquals(0, disabled.size());
+    }
+
+    private static Key key(String referenceId) {
+        return new Key(referenceId, null, true, false, 1);
+    }
+
+    private static IdentityRequest request(String referenceId, String requestId) {
+        IdentityRequest request = new IdentityRequest();
+        request.setId("mosip.abis.identify");
+        request.setRequestId(requestId);
+        request.setRequesttime(LocalDateTime.of(2024, 4, 22, 10, 0));
+        request.setReferenceId(referenceId);
+        return request;
+    }
+
+    private static IdentifyDelayResponse response(String... candidateIds) {
+        List<IdentityResponse.Candidates> candidates = new ArrayList<>();
+        for (String candidateId : candidateIds) {
+            IdentityResponse.Candidates candidate = new IdentityResponse.Candidates();
+            candidate.setReferenceId(candidateId);
+            candidates.add(candidate);
+        }
+        IdentityResponse response = new IdentityResponse();
+        response.setRequestId("original-request");
+        response.setReturnValue("1");
+        response.setCandidateList(new IdentityResponse.CandidateList(String.valueOf(candidates.size()), candidates));
+        return new IdentifyDelayResponse(response, 5);
+    }
+
+    private static BiometricData bio(String hash) {
+        return new BiometricData(null, "Finger", null, hash, new InsertEntity());
+    }
+}
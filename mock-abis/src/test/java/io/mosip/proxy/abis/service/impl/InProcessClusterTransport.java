@@ -0,0 +1,71 @@
+package io.mosip.proxy.abis.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.mosip.proxy.abis.dto.InsertRequestMO;
+import io.mosip.proxy.abis.service.ClusterPartition;
+import io.mosip.proxy.abis.service.ClusterTransport;
+import io.mosip.proxy.abis.service.ProxyAbisInsertService;
+
+/**
+ * {@link ClusterTransport} calling nodes running in the same JVM directly,
+ * which allows a cluster of several nodes to be exercised in one process.
+ */
+class InProcessClusterTransport implements ClusterTransport {
+
+    private record Node(ProxyAbisInsertService insertService, ClusterPartition partition) {
+    }
+
+    private final Map<String, Node> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * Makes a node reachable through this transport.
+     *
+     * @param nodeId        the node ID
+     * @param insertService the insert service of the node
+     * @param partition     the partition of the node
+     */
+    void register(String nodeId, ProxyAbisInsertService insertService, ClusterPartition partition) {
+        nodes.put(nodeId, new Node(insertService, partition));
+    }
+
+    @Override
+    public int insert(String nodeId, InsertRequestMO request) {
+        return node(nodeId).insertService().insertData(request);
+    }
+
+    @Override
+    public void delete(String nodeId, String referenceId) {
+        node(nodeId).insertService().deleteData(referenceId);
+    }
+
+    @Override
+    public List<String> fetchDigests(String nodeId, String referenceId) {
+        return node(nodeId).partition().fetchDigests(referenceId);
+    }
+
+    @Override
+    public int countPresent(String nodeId, List<String> referenceIds) {
+        return node(nodeId).partition().countPresent(referenceIds);
+    }
+
+    @Override
+    public List<ClusterPartition.Match> findDuplicates(String nodeId, List<String> digests,
+            String excludeReferenceId, List<String> galleryIds) {
+        return node(nodeId).partition().findDuplicates(digests, excludeReferenceId, galleryIds);
+    }
+
+    @Override
+    public List<String> findReferenceIds(String nodeId, String digest, List<String> galleryIds) {
+        return node(nodeId).partition().findReferenceIds(digest, galleryIds);
+    }
+
+    private Node node(String nodeId) {
+        Node node = nodes.get(nodeId);
+        if (node == null)
+            throw new IllegalStateException("Cluster node " + nodeId + " is not registered");
+        return node;
+    }
+}
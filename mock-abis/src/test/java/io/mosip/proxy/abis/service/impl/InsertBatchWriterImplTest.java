@@ -0,0 +1,185 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.entity.InsertEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+
+/**
+ * Unit test class for InsertBatchWriterImpl.
+ * This class tests grouping of concurrent inserts into one transaction, the
+ * flush on the maximum wait, the per-insert retry of a failed batch and the
+ * unbatched path.
+ */
+class InsertBatchWriterImplTest {
+
+    private EntityManager entityManager;
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+    private InsertBatchWriterImpl writer;
+    private ExecutorService callers;
+
+    /**
+     * Sets up a mocked entity manager and transaction manager for each test.
+     */
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        meterRegistry = new SimpleMeterRegistry();
+        callers = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        if (writer != null)
+            writer.shutdown();
+    }
+
+    /**
+     * Tests that with batching disabled each insert is persisted in its own
+     * transaction on the calling thread.
+     */
+    @Test
+    void write_batchingDisabled_persistsInOwnTransaction() {
+        writer = new InsertBatchWriterImpl(entityManager, transactionManager, meterRegistry, false, 50, 20, 1);
+        InsertEntity entity = insert("ref-1");
+
+        writer.write(entity);
+
+        assertFalse(writer.isEnabled());
+        verify(entityManager).persist(entity);
+        verify(entityManager).flush();
+        verify(transactionManager).commit(any());
+    }
+
+    /**
+     * Tests that inserts arriving together are committed in a single transaction
+     * once the batch is full, and that their callers return only after it.
+     */
+    @Test
+    void write_concurrentInserts_committedInOneBatch() throws Exception {
+        writer = new InsertBatchWriterImpl(entityManager, transactionManager, meterRegistry, true, 3, 10_000, 1);
+        List<Future<?>> writes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            InsertEntity entity = insert("ref-" + i);
+            writes.add(callers.submit(() -> writer.write(entity)));
+        }
+
+        for (Future<?> write : writes) {
+            write.get(5, TimeUnit.SECONDS);
+        }
+
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+        verify(entityManager, times(3)).persist(any(InsertEntity.class));
+        assertEquals(3.0, meterRegistry.get("mock.abis.insert.batch.size").summary().totalAmount());
+    }
+
+    /**
+     * Tests that a lone insert is written once the maximum wait has elapsed,
+     * without waiting for the batch to fill.
+     */
+    @Test
+    void write_singleInsert_flushedAfterMaxWait() throws Exception {
+        writer = new InsertBatchWriterImpl(entityManager, transactionManager, meterRegistry, true, 50, 10, 1);
+        InsertEntity entity = insert("ref-1");
+
+        callers.submit(() -> writer.write(entity)).get(5, TimeUnit.SECONDS);
+
+        verify(entityManager).persist(entity);
+        verify(transactionManager).commit(any());
+    }
+
+    /**
+     * Tests that when a batch fails its inserts are retried one at a time, so
+     * only the offending insert fails and the others are committed.
+     */
+    @Test
+    void write_batchFails_onlyOffendingInsertFails() throws Exception {
+        writer = new InsertBatchWriterImpl(entityManager, transactionManager, meterRegistry, true, 2, 10_000, 1);
+        InsertEntity good = insert("ref-good");
+        InsertEntity bad = insert("ref-bad");
+        PersistenceException failure = new PersistenceException("duplicate key");
+        doThrow(failure).when(entityManager).persist(argThat((InsertEntity e) -> e == bad));
+
+        Future<?> goodWrite = callers.submit(() -> writer.write(good));
+        Future<?> badWrite = callers.submit(() -> {
+            PersistenceException thrown = assertThrows(PersistenceException.class, () -> writer.write(bad));
+            assertSame(failure, thrown);
+        });
+        goodWrite.get(5, TimeUnit.SECONDS);
+        badWrite.get(5, TimeUnit.SECONDS);
+
+        verify(transactionManager, times(2)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+        assertEquals(1.0, meterRegistry.get("mock.abis.insert.batch.retried").counter().count());
+    }
+
+    /**
+     * Tests that ids drawn for the biometric data by a failed attempt are
+     * cleared before the insert is persisted again.
+     */
+    @Test
+    void write_retriedInsert_clearsBiometricIds() {
+        writer = new InsertBatchWriterImpl(entityManager, transactionManager, meterRegistry, false, 50, 20, 1);
+        InsertEntity entity = insert("ref-1");
+        entity.getBiometricList().get(0).setId(42L);
+
+        writer.write(entity);
+
+        assertNull(entity.getBiometricList().get(0).getId());
+    }
+
+    /**
+     * Tests that inserts are refused once the writer has shut down.
+     */
+    @Test
+    void write_afterShutdown_rejected() {
+        writer = new InsertBatchWriterImpl(entityManager, transactionManager, meterRegistry, true, 50, 20, 1);
+        writer.shutdown();
+
+        assertTrue(writer.isEnabled());
+        assertThrows(RejectedExecutionException.class, () -> writer.write(insert("ref-1")));
+        verify(entityManager, never()).persist(any());
+    }
+
+    private static InsertEntity insert(String referenceId) {
+        InsertEntity entity = new InsertEntity("mosip.abis.insert", "1.1", "req-" + referenceId, null, referenceId);
+        BiometricData data = new BiometricData(null, "Finger", "[Left, Thumb]", "ab", entity);
+        entity.setBiometricList(new ArrayList<>(List.of(data)));
+        return entity;
+    }
+}
@@ -0,0 +1,109 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.entity.InsertEntity;
+
+/**
+ * Unit test class for JdbcGalleryBulkLoader.
+ * This class loads rows into an in-memory H2 database shaped like the tables
+ * Hibernate generates, and checks the written rows and the rollback of a
+ * failed load.
+ */
+class JdbcGalleryBulkLoaderTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcGalleryBulkLoader loader;
+
+    /**
+     * Creates a fresh database with the insert request and biometric tables.
+     */
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create sequence biometric_data_seq start with 1 increment by 50");
+        jdbcTemplate.execute("create table insert_request (reference_id varchar(255) primary key, id varchar(255),"
+                + " version varchar(255), request_id varchar(255), requesttime timestamp)");
+        jdbcTemplate.execute("create table biometric_data (id bigint primary key, type varchar(255),"
+                + " sub_type varchar(255), bio_data varchar(255), bio_digest varbinary(32),"
+                + " bio_signature varbinary(128),"
+                + " reference_id varchar(255) references insert_request(reference_id))");
+        loader = new JdbcGalleryBulkLoader(dataSource, new DataSourceTransactionManager(dataSource), 2);
+    }
+
+    /**
+     * Tests that every insert request and biometric record is written, with hex
+     * and binary digests kept in their own columns.
+     */
+    @Test
+    void load_entitiesWithBiometrics_writesAllRows() {
+        byte[] digest = new byte[32];
+        digest[0] = 1;
+        InsertEntity first = entity("ref-1", "a".repeat(64), null);
+        InsertEntity second = entity("ref-2", null, digest);
+        byte[] signature = new byte[128];
+        signature[0] = 2;
+        second.getBiometricList().get(0).setBioSignature(signature);
+        second.getBiometricList().add(new BiometricData(null, "Iris", "Left", "c".repeat(64), second));
+
+        assertEquals(3, loader.load(List.of(first, second)));
+
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from insert_request", Integer.class));
+        assertEquals(3, jdbcTemplate.queryForObject("select count(distinct id) from biometric_data", Integer.class));
+        Map<String, Object> binary = jdbcTemplate
+                .queryForMap("select bio_data, bio_digest, bio_signature from biometric_data where type = 'Finger' and reference_id = 'ref-2'");
+        assertNull(binary.get("bio_data"));
+        assertArrayEquals(digest, (byte[]) binary.get("bio_digest"));
+        assertArrayEquals(signature, (byte[]) binary.get("bio_signature"));
+        assertEquals("request-ref-1",
+                jdbcTemplate.queryForObject("select request_id from insert_request where reference_id = 'ref-1'", String.class));
+    }
+
+    /**
+     * Tests that a load failing part way leaves no rows behind.
+     */
+    @Test
+    void load_duplicateReferenceId_rollsBackWholeLoad() {
+        List<InsertEntity> entities = List.of(entity("ref-1", "a".repeat(64), null), entity("ref-2", "b".repeat(64), null),
+                entity("ref-1", "c".repeat(64), null));
+
+        assertThrows(DataAccessException.class, () -> loader.load(entities));
+
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from insert_request", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from biometric_data", Integer.class));
+    }
+
+    /**
+     * Tests that a database other than PostgreSQL is loaded through JDBC batches.
+     */
+    @Test
+    void getMethod_h2_usesJdbcBatch() {
+        assertEquals(JdbcGalleryBulkLoader.JDBC_BATCH, loader.getMethod());
+    }
+
+    private static InsertEntity entity(String referenceId, String bioData, byte[] bioDigest) {
+        InsertEntity entity = new InsertEntity("id", "1.1", "request-" + referenceId, null, referenceId);
+        BiometricData bd = new BiometricData(null, "Finger", "Left IndexFinger", bioData, entity);
+        bd.setBioDigest(bioDigest);
+        entity.setBiometricList(new ArrayList<>(List.of(bd)));
+        return entity;
+    }
+}
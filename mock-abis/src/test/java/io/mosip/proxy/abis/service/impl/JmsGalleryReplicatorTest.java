@@ -0,0 +1,310 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import org.apache.activemq.ActiveMQConnection;
+import org.apache.activemq.command.ActiveMQBytesMessage;
+import org.apache.activemq.command.ActiveMQQueue;
+import org.apache.activemq.command.ActiveMQTempQueue;
+import org.apache.activemq.command.ActiveMQTopic;
+import org.apache.activemq.transport.TransportListener;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.service.BiometricIndex;
+import io.mosip.proxy.abis.service.IdentifyResultCache;
+import io.mosip.proxy.abis.utility.BioDigest;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+/**
+ * Unit test class for JmsGalleryReplicator.
+ * This class runs the replicator over mocked JMS sessions carrying real
+ * ActiveMQ bytes messages, and tests publishing and applying events, ignoring
+ * the node's own events and catching up from the snapshot of another node, on
+ * startup and after the broker connection resumes.
+ */
+class JmsGalleryReplicatorTest {
+
+    private static final String HASH_A = "a".repeat(64);
+
+    private final ActiveMQTopic topic = new ActiveMQTopic("replication");
+    private final ActiveMQQueue snapshotQueue = new ActiveMQQueue("replication-snapshot");
+    private final ActiveMQTempQueue replies = new ActiveMQTempQueue("replies");
+
+    private SimpleMeterRegistry meterRegistry;
+    private BiometricIndex biometricIndex;
+    private IdentifyResultCache identifyResultCache;
+    private Session session;
+    private MessageProducer producer;
+    private MessageConsumer consumer;
+    private JmsGalleryReplicator replicator;
+
+    /**
+     * Sets up node-1 over a connection whose sessions all share one producer and
+     * one consumer.
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        biometricIndex = mock(BiometricIndex.class);
+        identifyResultCache = mock(IdentifyResultCache.class);
+        when(biometricIndex.isEnabled()).thenReturn(true);
+        when(biometricIndex.isAvailable()).thenReturn(true);
+
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        session = mock(Session.class);
+        producer = mock(MessageProducer.class);
+        consumer = mock(MessageConsumer.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).thenReturn(session);
+        when(session.createTopic("replication")).thenReturn(topic);
+        when(session.createQueue("replication-snapshot")).thenReturn(snapshotQueue);
+        when(session.createTemporaryQueue()).thenReturn(replies);
+        when(session.createProducer(isNull())).thenReturn(producer);
+        when(session.createConsumer(any())).thenReturn(consumer);
+        when(session.createBytesMessage()).thenAnswer(invocation -> new ActiveMQBytesMessage());
+
+        replicator = node("node-1", biometricIndex, identifyResultCache, connectionFactory);
+    }
+
+    /**
+     * Tests that a node no other node answers keeps its own gallery, listens for
+     * events and snapshot requests, and becomes available. Replication without
+     * the index is rejected.
+     */
+    @Test
+    void start_noNodeAnswers_keepsGalleryAndServes() throws Exception {
+        replicator.start();
+
+        assertTrue(replicator.isAvailable());
+        verify(producer).send(eq(snapshotQueue), any(Message.class));
+        verify(consumer, times(2)).setMessageListener(any());
+        verify(biometricIndex, never()).clear();
+        verify(identifyResultCache, never()).clear();
+
+        BiometricIndex disabledIndex = mock(BiometricIndex.class);
+        assertThrows(IllegalArgumentException.class,
+                () -> node("node-2", disabledIndex, identifyResultCache, null));
+    }
+
+    /**
+     * Tests that an insert published by one node is added to the index of
+     * another node with its type and digest, and drops the cached identify
+     * results it may change.
+     */
+    @Test
+    void publishInsert_otherNodeReceives_addsToIndexAndInvalidatesCache() throws Exception {
+        replicator.start();
+        BiometricIndex peerIndex = peerIndex();
+        IdentifyResultCache peerCache = mock(IdentifyResultCache.class);
+        JmsGalleryReplicator peer = node("node-2", peerIndex, peerCache, null);
+
+        replicator.publishInsert("ref-1", List.of(bio("Finger", HASH_A), bio("Iris", "not-a-digest")));
+        peer.onEvent(published());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<BiometricData>> records = ArgumentCaptor.forClass(List.class);
+        verify(peerIndex).add(eq("ref-1"), records.capture());
+        assertEquals(1, records.getValue().size());
+        assertEquals("Finger", records.getValue().get(0).getType());
+        assertArrayEquals(BioDigest.fromHex(HASH_A).toBytes(), records.getValue().get(0).getBioDigest());
+        verify(peerCache).invalidateInsert(eq("ref-1"), anyList());
+        assertEquals(1, meterRegistry.get("mock.abis.replication.published").tag("operation", "insert").counter()
+                .count());
+    }
+
+    /**
+     * Tests that deletes and clears of another node are applied to the index and
+     * the identify result cache.
+     */
+    @Test
+    void onEvent_deleteAndClear_appliedToIndexAndCache() throws Exception {
+        replicator.start();
+        BiometricIndex peerIndex = peerIndex();
+        IdentifyResultCache peerCache = mock(IdentifyResultCache.class);
+        JmsGalleryReplicator peer = node("node-2", peerIndex, peerCache, null);
+
+        replicator.publishDelete("ref-1");
+        peer.onEvent(published());
+        replicator.publishClear();
+        peer.onEvent(published());
+
+        verify(peerIndex).remove("ref-1");
+        verify(peerCache).invalidateDelete("ref-1");
+        verify(peerIndex).clear();
+        verify(peerCache).clear();
+    }
+
+    /**
+     * Tests that a node does not apply the events it published itself.
+     */
+    @Test
+    void onEvent_ownEvent_isIgnored() throws Exception {
+        replicator.start();
+
+        replicator.publishDelete("ref-1");
+        replicator.onEvent(published());
+
+        verify(biometricIndex, never()).remove(any());
+        verify(identifyResultCache, never()).invalidateDelete(any());
+    }
+
+    /**
+     * Tests catching up from the snapshot served by another node: the index is
+     * replaced by the snapshot, and an event received while loading it is only
+     * applied once the snapshot is complete.
+     */
+    @Test
+    void start_otherNodeServesSnapshot_replacesIndexThenAppliesBufferedEvents() throws Exception {
+        BiometricIndex serverIndex = peerIndex();
+        when(serverIndex.export(eq(0), eq(1000), any())).thenAnswer(invocation -> {
+            BiConsumer<String, List<BiometricData>> sink = invocation.getArgument(2);
+            sink.accept("ref-1", List.of(bio("Finger", HASH_A)));
+            return -1;
+        });
+        JmsGalleryReplicator server = node("node-2", serverIndex, mock(IdentifyResultCache.class), null);
+        Session serverSession = mock(Session.class);
+        MessageProducer replier = mock(MessageProducer.class);
+        when(serverSession.createBytesMessage()).thenAnswer(invocation -> new ActiveMQBytesMessage());
+        Message request = mock(Message.class);
+        when(request.getJMSReplyTo()).thenReturn(replies);
+        when(request.getStringProperty(JmsGalleryReplicator.NODE_PROPERTY)).thenReturn("node-1");
+
+        server.serve(serverSession, replier, request);
+        ArgumentCaptor<ActiveMQBytesMessage> snapshot = ArgumentCaptor.forClass(ActiveMQBytesMessage.class);
+        verify(replier, times(2)).send(eq(replies), snapshot.capture());
+        snapshot.getAllValues().forEach(JmsGalleryReplicatorTest::reset);
+
+        when(consumer.receive(anyLong())).thenAnswer(invocation -> {
+            replicator.onEvent(deleteEvent("node-3", "ref-2"));
+            return snapshot.getAllValues().get(0);
+        }).thenReturn(snapshot.getAllValues().get(1));
+
+        replicator.start();
+
+        InOrder inOrder = inOrder(biometricIndex, identifyResultCache);
+        inOrder.verify(biometricIndex).clear();
+        inOrder.verify(biometricIndex).add(eq("ref-1"), anyList());
+        inOrder.verify(identifyResultCache).clear();
+        inOrder.verify(biometricIndex).remove("ref-2");
+        verify(biometricIndex, never()).rebuild();
+        assertEquals(1, meterRegistry.get("mock.abis.replication.catchup").timer().count());
+        assertTrue(replicator.isAvailable());
+    }
+
+    /**
+     * Tests that a node stops serving identify requests from its index while the
+     * broker connection is interrupted, and catches up from a snapshot again once
+     * it resumes.
+     */
+    @Test
+    void transportResumed_afterInterruption_catchesUpAgain() throws Exception {
+        ActiveMQConnection connection = mock(ActiveMQConnection.class);
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(false, Session.AUTO_ACKNOWLEDGE)).thenReturn(session);
+        JmsGalleryReplicator node = node("node-1", biometricIndex, identifyResultCache, connectionFactory);
+        node.start();
+        ArgumentCaptor<TransportListener> transportListener = ArgumentCaptor.forClass(TransportListener.class);
+        verify(connection).addTransportListener(transportListener.capture());
+
+        transportListener.getValue().transportInterupted();
+        assertFalse(node.isAvailable());
+        node.onEvent(deleteEvent("node-2", "ref-1"));
+        verify(biometricIndex, never()).remove("ref-1");
+
+        transportListener.getValue().transportResumed();
+        verify(producer, timeout(5000).times(2)).send(eq(snapshotQueue), any(Message.class));
+        verify(biometricIndex, timeout(5000)).remove("ref-1");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!node.isAvailable() && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertTrue(node.isAvailable());
+    }
+
+    private JmsGalleryReplicator node(String nodeId, BiometricIndex index, IdentifyResultCache cache,
+            ConnectionFactory connectionFactory) {
+        return new JmsGalleryReplicator(index, cache, connectionFactory, meterRegistry, true, nodeId, "replication",
+                "replication-snapshot", 100, 1000);
+    }
+
+    /**
+     * Returns the last event published to the topic, ready to be read.
+     */
+    private Message published() throws Exception {
+        ArgumentCaptor<ActiveMQBytesMessage> captor = ArgumentCaptor.forClass(ActiveMQBytesMessage.class);
+        verify(producer, atLeastOnce()).send(eq(topic), captor.capture());
+        ActiveMQBytesMessage message = captor.getValue();
+        reset(message);
+        return message;
+    }
+
+    /**
+     * Builds the delete event of another node the way it is published.
+     */
+    private static Message deleteEvent(String nodeId, String referenceId) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(2);
+        out.writeUTF(referenceId);
+        ActiveMQBytesMessage message = new ActiveMQBytesMessage();
+        message.writeBytes(bytes.toByteArray());
+        message.setStringProperty(JmsGalleryReplicator.NODE_PROPERTY, nodeId);
+        reset(message);
+        return message;
+    }
+
+    /**
+     * Makes a sent message readable, as the broker does on delivery.
+     */
+    private static void reset(ActiveMQBytesMessage message) {
+        try {
+            message.reset();
+        } catch (JMSException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static BiometricIndex peerIndex() {
+        BiometricIndex index = mock(BiometricIndex.class);
+        when(index.isEnabled()).thenReturn(true);
+        return index;
+    }
+
+    private static BiometricData bio(String type, String hash) {
+        return new BiometricData(null, type, null, hash, null);
+    }
+}
@@ -0,0 +1,200 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import io.mosip.proxy.abis.dao.ProxyAbisBioDataRepository;
+import io.mosip.proxy.abis.entity.BiometricData;
+import io.mosip.proxy.abis.service.BiometricMatcher.Candidate;
+import io.mosip.proxy.abis.utility.BdbSignature;
+import io.mosip.proxy.abis.utility.BioDigest;
+
+/**
+ * Unit test class for LshBiometricMatcher.
+ * This class tests ranking of near duplicates, the result limit, galleries,
+ * biometric types, deletes, the FPIR threshold and loading from the database.
+ */
+@ExtendWith(MockitoExtension.class)
+class LshBiometricMatcherTest {
+
+    @Mock
+    private ProxyAbisBioDataRepository proxyAbisBioDataRepository;
+
+    private final Random random = new Random(17);
+    private LshBiometricMatcher matcher;
+    private byte[] probe;
+
+    /**
+     * Sets up an enabled matcher holding a probe and a hundred unrelated
+     * reference IDs.
+     */
+    @BeforeEach
+    void setUp() {
+        matcher = new LshBiometricMatcher(proxyAbisBioDataRepository, true, 16, 10, 30, 0.1, 2);
+        probe = randomBdb();
+        matcher.add("probe", List.of(biometric("Finger", probe)));
+        for (int i = 0; i < 100; i++)
+            matcher.add("other-" + i, List.of(biometric("Finger", randomBdb())));
+    }
+
+    /**
+     * Tests that near duplicates are returned best first with falling scores, and
+     * unrelated reference IDs and the probe itself are not returned.
+     */
+    @Test
+    void search_nearDuplicates_rankedBySimilarity() {
+        matcher.add("near-1", List.of(biometric("Finger", mutate(probe, 20))));
+        matcher.add("near-2", List.of(biometric("Finger", mutate(probe, 150))));
+        matcher.add("exact", List.of(biometric("Finger", probe.clone())));
+
+        List<Candidate> candidates = matcher.search("probe", null, 0, 0);
+
+        assertEquals(List.of("exact", "near-1", "near-2"), candidates.stream().map(Candidate::referenceId).toList());
+        assertEquals(1.0, candidates.get(0).score());
+        assertTrue(candidates.get(1).score() > candidates.get(2).score());
+        assertEquals(100, candidates.get(0).confidence());
+        assertEquals("Finger", candidates.get(0).modalities().get(0).biometricType());
+    }
+
+    /**
+     * Tests that no more than the requested number of candidates is returned.
+     */
+    @Test
+    void search_maxResults_limitsCandidates() {
+        for (int i = 0; i < 5; i++)
+            matcher.add("near-" + i, List.of(biometric("Finger", mutate(probe, 10 + 10 * i))));
+
+        assertEquals(2, matcher.search("probe", null, 2, 0).size());
+        assertEquals(5, matcher.search("probe", null, 0, 0).size());
+    }
+
+    /**
+     * Tests that a gallery restricts candidates to its reference IDs.
+     */
+    @Test
+    void search_gallery_returnsGalleryMembersOnly() {
+        matcher.add("near-1", List.of(biometric("Finger", mutate(probe, 10))));
+        matcher.add("near-2", List.of(biometric("Finger", mutate(probe, 10))));
+
+        List<Candidate> candidates = matcher.search("probe", List.of("near-2", "other-1"), 0, 0);
+
+        assertEquals(List.of("near-2"), candidates.stream().map(Candidate::referenceId).toList());
+    }
+
+    /**
+     * Tests that biometrics of another type never match, and that deleted
+     * reference IDs are no longer returned.
+     */
+    @Test
+    void search_otherTypeAndDeleted_notReturned() {
+        matcher.add("iris", List.of(biometric("Iris", probe.clone())));
+        matcher.add("deleted", List.of(biometric("Finger", probe.clone())));
+        matcher.remove("deleted");
+        matcher.add("kept", List.of(biometric("Finger", probe.clone())));
+
+        assertEquals(List.of("kept"), matcher.search("probe", null, 0, 0).stream().map(Candidate::referenceId).toList());
+        assertEquals(103, matcher.size());
+    }
+
+    /**
+     * Tests that a stricter target FPIR raises the score a candidate needs: with
+     * about a hundred records searched, 24 equal slots clear the threshold for an
+     * FPIR of 0.1 but not for one of 1e-10.
+     */
+    @Test
+    void search_stricterTargetFpir_dropsWeakCandidates() {
+        byte[] weak = BdbSignature.of(probe).toBytes();
+        for (int i = 24 * 2; i < weak.length; i += 2)
+            weak[i] ^= 0x5A;
+        BiometricData bd = new BiometricData(null, "Finger", null, null, null);
+        bd.setBioSignature(weak);
+        matcher.add("weak", List.of(bd));
+
+        List<Candidate> lenient = matcher.search("probe", null, 0, 10);
+        List<Candidate> strict = matcher.search("probe", null, 0, 100);
+
+        assertEquals(1, lenient.size());
+        assertEquals(24.0 / BdbSignature.SLOTS, lenient.get(0).score());
+        assertTrue(strict.isEmpty());
+    }
+
+    /**
+     * Tests loading the matcher page by page, deriving signatures from digests
+     * for rows stored without one.
+     */
+    @Test
+    void rebuild_rowsWithAndWithoutSignatures_loadsAll() {
+        byte[] digest = BioDigest.fromHex("a".repeat(64)).toBytes();
+        List<Object[]> page1 = new ArrayList<>();
+        page1.add(new Object[] { 1L, "ref-1", "Finger", BdbSignature.of(probe).toBytes(), null, null });
+        page1.add(new Object[] { 2L, "ref-2", "Finger", BdbSignature.of(mutate(probe, 10)).toBytes(), null, null });
+        List<Object[]> page2 = new ArrayList<>();
+        page2.add(new Object[] { 3L, "ref-3", "Iris", null, null, digest });
+        page2.add(new Object[] { 4L, "ref-4", "Iris", null, "a".repeat(64), null });
+        when(proxyAbisBioDataRepository.fetchSignatureEntriesAfter(eq(0L), any(Pageable.class))).thenReturn(page1);
+        when(proxyAbisBioDataRepository.fetchSignatureEntriesAfter(eq(2L), any(Pageable.class))).thenReturn(page2);
+        when(proxyAbisBioDataRepository.fetchSignatureEntriesAfter(eq(4L), any(Pageable.class)))
+                .thenReturn(new ArrayList<>());
+
+        matcher.rebuild();
+
+        assertTrue(matcher.isAvailable());
+        assertEquals(4, matcher.size());
+        assertEquals("ref-2", matcher.search("ref-1", null, 0, 0).get(0).referenceId());
+        assertEquals(1.0, matcher.search("ref-3", null, 0, 0).get(0).score());
+    }
+
+    /**
+     * Tests that a disabled matcher never loads, and that a band count not
+     * dividing the signature is rejected.
+     */
+    @Test
+    void rebuild_matcherDisabled_doesNotQueryDatabase() {
+        LshBiometricMatcher disabled = new LshBiometricMatcher(proxyAbisBioDataRepository, false, 16, 10, 30, 0.1,
+                2);
+
+        disabled.rebuild();
+
+        assertFalse(disabled.isAvailable());
+        verify(proxyAbisBioDataRepository, never()).fetchSignatureEntriesAfter(any(), any());
+        assertThrows(IllegalArgumentException.class,
+                () -> new LshBiometricMatcher(proxyAbisBioDataRepository, true, 12, 10, 30, 0.1, 2));
+    }
+
+    private byte[] randomBdb() {
+        byte[] bdb = new byte[4_000];
+        random.nextBytes(bdb);
+        return bdb;
+    }
+
+    private byte[] mutate(byte[] bdb, int changes) {
+        byte[] copy = bdb.clone();
+        for (int i = 0; i < changes; i++)
+            copy[random.nextInt(copy.length)] ^= (byte) (1 + random.nextInt(255));
+        return copy;
+    }
+
+    private static BiometricData biometric(String type, byte[] bdb) {
+        BiometricData bd = new BiometricData(null, type, null, null, null);
+        bd.setBioSignature(BdbSignature.of(bdb).toBytes());
+        return bd;
+    }
+}
@@ -0,0 +1,135 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.proxy.abis.constant.FailureReasonsConstants;
+import io.mosip.proxy.abis.exception.RequestException;
+import io.mosip.proxy.abis.service.AdmissionLimiter;
+import io.mosip.proxy.abis.service.PipelineMetrics;
+import io.mosip.proxy.abis.service.PipelineMetrics.Operation;
+import io.mosip.proxy.abis.service.PipelineMetrics.Stage;
+
+/**
+ * Unit test class for MicrometerPipelineMetrics.
+ * This class times stages into a simple meter registry and checks the stage,
+ * operation and outcome tags of the recorded timers.
+ */
+class MicrometerPipelineMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Creates an empty meter registry.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Tests that a stage completing normally returns its result and is recorded
+     * with the success outcome.
+     */
+    @Test
+    void time_stageCompletes_recordsSuccess() {
+        PipelineMetrics metrics = new MicrometerPipelineMetrics(meterRegistry, true, false);
+
+        String result = metrics.time(Stage.PERSIST, Operation.INSERT, () -> "stored");
+
+        assertEquals("stored", result);
+        assertEquals(1, timer("persist", "insert", PipelineMetrics.SUCCESS).count());
+    }
+
+    /**
+     * Tests that stage times reach the admission limiter even when no timers are
+     * recorded.
+     */
+    @Test
+    void record_disabledWithLimiter_passesTimeToLimiter() {
+        AdmissionLimiter limiter = mock(AdmissionLimiter.class);
+        PipelineMetrics metrics = new MicrometerPipelineMetrics(meterRegistry, false, false, limiter);
+
+        metrics.record(Stage.FETCH, Operation.INSERT, PipelineMetrics.SUCCESS, 42);
+
+        verify(limiter).observe(Operation.INSERT, Stage.FETCH, 42);
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    /**
+     * Tests that a stage failing with a RequestException is recorded with its
+     * failure reason and the exception is rethrown unchanged.
+     */
+    @Test
+    void time_requestException_recordsFailureReasonAndRethrows() {
+        PipelineMetrics metrics = new MicrometerPipelineMetrics(meterRegistry, true, false);
+        RequestException failure = new RequestException(FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS);
+
+        RequestException thrown = assertThrows(RequestException.class,
+                () -> metrics.time(Stage.FETCH, Operation.INSERT, () -> {
+                    throw failure;
+                }));
+
+        assertSame(failure, thrown);
+        assertEquals(1, timer("fetch", "insert", FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS).count());
+    }
+
+    /**
+     * Tests that the outcome of a failed future is taken from the exception it
+     * wraps, and that other exceptions map to an unknown internal error.
+     */
+    @Test
+    void outcomeOf_wrappedAndUnexpectedErrors_returnsFailureReason() {
+        RequestException failure = new RequestException(FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS);
+
+        assertEquals(FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS,
+                PipelineMetrics.outcomeOf(new CompletionException(failure)));
+        assertEquals(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN,
+                PipelineMetrics.outcomeOf(new IllegalStateException("boom")));
+        assertEquals(Operation.IDENTIFY, Operation.of("mosip.abis.identify"));
+        assertEquals(Operation.UNKNOWN, Operation.of(null));
+    }
+
+    /**
+     * Tests that with stage timing disabled no timer is registered.
+     */
+    @Test
+    void record_disabled_registersNothing() {
+        PipelineMetrics metrics = new MicrometerPipelineMetrics(meterRegistry, false, true);
+
+        metrics.record(Stage.RECEIVE, Operation.DELETE, PipelineMetrics.SUCCESS, 1_000);
+
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+
+    /**
+     * Tests that with histograms enabled the timers publish buckets from which
+     * percentiles can be aggregated.
+     */
+    @Test
+    void record_histogramEnabled_publishesBuckets() {
+        PipelineMetrics metrics = new MicrometerPipelineMetrics(meterRegistry, true, true);
+
+        metrics.record(Stage.DUPLICATE_QUERY, Operation.IDENTIFY, PipelineMetrics.SUCCESS, 2_000_000);
+
+        Timer timer = timer("duplicate_query", "identify", PipelineMetrics.SUCCESS);
+        assertEquals(1, timer.count());
+        assertTrue(timer.takeSnapshot().histogramCounts().length > 0);
+    }
+
+    private Timer timer(String stage, String operation, String outcome) {
+        return meterRegistry.get("mock.abis.pipeline.stage").tag("stage", stage).tag("operation", operation)
+                .tag("outcome", outcome).timer();
+    }
+}
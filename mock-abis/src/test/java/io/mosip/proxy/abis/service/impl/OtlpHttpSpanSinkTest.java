@@ -0,0 +1,121 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+
+import io.mosip.proxy.abis.constant.FailureReasonsConstants;
+import io.mosip.proxy.abis.dto.SpanRecord;
+import io.mosip.proxy.abis.service.PipelineMetrics;
+
+/**
+ * Unit test class for OtlpHttpSpanSink.
+ * This class exports spans to a stub collector on a local port, covering the
+ * OTLP/HTTP JSON request and collector errors.
+ */
+class OtlpHttpSpanSinkTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicReference<JsonNode> received = new AtomicReference<>();
+    private OtlpHttpSpanSink sink;
+
+    /**
+     * Starts a stub collector accepting spans on {@code /v1/traces} and failing
+     * on {@code /broken}.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/traces", exchange -> {
+            try (InputStream in = exchange.getRequestBody()) {
+                received.set(new ObjectMapper().readTree(in));
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.createContext("/broken", exchange -> {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the sink and the stub collector.
+     */
+    @AfterEach
+    void tearDown() {
+        if (sink != null)
+            sink.shutdown();
+        server.stop(0);
+    }
+
+    /**
+     * Tests that spans are posted as resource spans of the configured service,
+     * with the request ID as an attribute and failures as error statuses.
+     */
+    @Test
+    void export_spans_postsExportTraceServiceRequest() throws Exception {
+        sink = new OtlpHttpSpanSink(baseUrl + "/v1/traces", "mock-abis-test", 5000);
+
+        sink.export(List.of(
+                span("00f067aa0ba902b7", null, "CONSUMER", PipelineMetrics.SUCCESS),
+                span("b7ad6b7169203331", "00f067aa0ba902b7", "CLIENT",
+                        FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS)));
+
+        JsonNode resourceSpans = received.get().get("resourceSpans").get(0);
+        JsonNode serviceName = resourceSpans.get("resource").get("attributes").get(0);
+        assertEquals("service.name", serviceName.get("key").asText());
+        assertEquals("mock-abis-test", serviceName.get("value").get("stringValue").asText());
+        JsonNode spans = resourceSpans.get("scopeSpans").get(0).get("spans");
+        assertEquals(2, spans.size());
+
+        JsonNode consumer = spans.get(0);
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", consumer.get("traceId").asText());
+        assertFalse(consumer.has("parentSpanId"));
+        assertEquals(5, consumer.get("kind").asInt());
+        assertEquals("1000", consumer.get("startTimeUnixNano").asText());
+        assertEquals("abis.request_id", consumer.get("attributes").get(0).get("key").asText());
+        assertEquals(1, consumer.get("status").get("code").asInt());
+
+        JsonNode client = spans.get(1);
+        assertEquals("00f067aa0ba902b7", client.get("parentSpanId").asText());
+        assertEquals(3, client.get("kind").asInt());
+        assertEquals(2, client.get("status").get("code").asInt());
+        assertEquals(FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS,
+                client.get("status").get("message").asText());
+    }
+
+    /**
+     * Tests that a collector error status fails the export.
+     */
+    @Test
+    void export_collectorError_throwsIOException() {
+        sink = new OtlpHttpSpanSink(baseUrl + "/broken", "mock-abis", 5000);
+
+        assertThrows(IOException.class,
+                () -> sink.export(List.of(span("00f067aa0ba902b7", null, "INTERNAL", PipelineMetrics.SUCCESS))));
+    }
+
+    private static SpanRecord span(String spanId, String parentSpanId, String kind, String outcome) {
+        return new SpanRecord("4bf92f3577b34da6a3ce929d0e0e4736", spanId, parentSpanId, "mosip.abis.insert", kind,
+                "req-1", 1_000L, 2_000L, outcome, Map.of());
+    }
+}
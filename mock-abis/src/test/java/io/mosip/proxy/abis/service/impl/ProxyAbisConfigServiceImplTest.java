@@ -3,12 +3,21 @@ package io.mosip.proxy.abis.service.impl;
 import io.mosip.proxy.abis.dao.ProxyAbisBioDataRepository;
 import io.mosip.proxy.abis.dao.ProxyAbisInsertRepository;
 import io.mosip.proxy.abis.dto.Expectation;
+import io.mosip.proxy.abis.service.BioDigestStorage;
+import io.mosip.proxy.abis.service.BiometricIndex;
+import io.mosip.proxy.abis.service.BiometricMatcher;
 import io.mosip.proxy.abis.service.ExpectationCache;
+import io.mosip.proxy.abis.service.GalleryJournal;
+import io.mosip.proxy.abis.service.GalleryReplicator;
+import io.mosip.proxy.abis.service.IdentifyResultCache;
+import io.mosip.proxy.abis.utility.BioDigest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.HashMap;
 import java.util.List;
@@ -21,6 +30,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
 
 /**
  * Unit test class for ProxyAbisConfigServiceImpl.
@@ -38,6 +48,24 @@ class ProxyAbisConfigServiceImplTest {
     @Mock
     private ExpectationCache expectationCache;
 
+    @Mock
+    private BiometricIndex biometricIndex;
+
+    @Mock
+    private BiometricMatcher biometricMatcher;
+
+    @Mock
+    private BioDigestStorage bioDigestStorage;
+
+    @Mock
+    private IdentifyResultCache identifyResultCache;
+
+    @Mock
+    private GalleryJournal galleryJournal;
+
+    @Mock
+    private GalleryReplicator galleryReplicator;
+
     @InjectMocks
     private ProxyAbisConfigServiceImpl proxyAbisConfigService;
 
@@ -159,6 +187,36 @@ class ProxyAbisConfigServiceImplTest {
         assertEquals(1, result.size()); // Verify the size of the result
     }
 
+    /**
+     * Tests the getCachedBiometric method with binary digest storage.
+     * Verifies that the hash is looked up as raw bytes and returned in hexadecimal form.
+     */
+    @Test
+    void getCachedBiometric_binaryStorage_looksUpDigestBytes() {
+        String hash = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+        byte[] digest = BioDigest.fromHex(hash).toBytes();
+        when(bioDigestStorage.isBinary()).thenReturn(true);
+        when(proxyAbisBioDataRepository.fetchByBioDigest(digest)).thenReturn(List.of(digest));
+
+        List<String> result = proxyAbisConfigService.getCachedBiometric(hash);
+
+        assertEquals(List.of(hash), result);
+        verify(proxyAbisBioDataRepository, never()).fetchByBioData(hash);
+    }
+
+    /**
+     * Tests the getCachedBiometrics method with binary digest storage.
+     * Verifies that stored digests are returned in hexadecimal form.
+     */
+    @Test
+    void getCachedBiometrics_binaryStorage_returnsHexDigests() {
+        String hash = "ffeeddccbbaa99887766554433221100ffeeddccbbaa99887766554433221100";
+        when(bioDigestStorage.isBinary()).thenReturn(true);
+        when(proxyAbisBioDataRepository.fetchAllBioDigest()).thenReturn(List.of(BioDigest.fromHex(hash).toBytes()));
+
+        assertEquals(List.of(hash), proxyAbisConfigService.getCachedBiometrics());
+    }
+
     /**
      * Tests the deleteAllCachedBiometrics method.
      * Verifies that all cached biometrics are deleted from the repositories.
@@ -167,7 +225,38 @@ class ProxyAbisConfigServiceImplTest {
     void deleteAllCachedBiometrics_deletesAllBiometricsFromBothRepositories_successfully() {
         proxyAbisConfigService.deleteAllCachedBiometrics();
 
-        verify(proxyAbisBioDataRepository, times(1)).deleteAll(); // Verify the deleteAll method is called on bioDataRepository
-        verify(proxyAbisInsertRepository, times(1)).deleteAll(); // Verify the deleteAll method is called on insertRepository
+        verify(proxyAbisBioDataRepository, times(1)).deleteAllInBulk(); // Verify the bulk delete is called on bioDataRepository
+        verify(proxyAbisInsertRepository, times(1)).deleteAllInBulk(); // Verify the bulk delete is called on insertRepository
+        verify(biometricIndex, times(1)).clear(); // Verify the in-memory index is cleared as well
+        verify(biometricMatcher, times(1)).clear(); // Verify the matcher is cleared as well
+        verify(identifyResultCache, times(1)).clear(); // Verify cached identify results are dropped
+        verify(galleryJournal, times(1)).recordClear(); // Verify the clear survives a restart
+        verify(galleryReplicator, times(1)).publishClear(); // Verify the other nodes clear their index
+    }
+
+    /**
+     * Tests that a clear is only applied to the index, the matcher and the identify
+     * result cache, journaled and published once its transaction commits.
+     */
+    @Test
+    void deleteAllCachedBiometrics_inTransaction_appliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            proxyAbisConfigService.deleteAllCachedBiometrics();
+            verify(biometricIndex, never()).clear();
+            verify(biometricMatcher, never()).clear();
+            verify(identifyResultCache, never()).clear();
+            verify(galleryJournal, never()).recordClear();
+            verify(galleryReplicator, never()).publishClear();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(biometricIndex).clear();
+            verify(biometricMatcher).clear();
+            verify(identifyResultCache).clear();
+            verify(galleryJournal).recordClear();
+            verify(galleryReplicator).publishClear();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 }
\ No newline at end of file
@@ -1,11 +1,14 @@
 package io.mosip.proxy.abis.service.impl;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
@@ -14,8 +17,13 @@ import static org.mockito.Mockito.*;
 
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -24,14 +32,22 @@ import io.mosip.proxy.abis.dto.IdentityRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
+import org.mockito.MockedStatic;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.multipart.MultipartFile;
@@ -46,9 +62,25 @@ import io.mosip.proxy.abis.dto.InsertRequestMO;
 import io.mosip.proxy.abis.entity.BiometricData;
 import io.mosip.proxy.abis.entity.InsertEntity;
 import io.mosip.proxy.abis.exception.RequestException;
+import io.mosip.proxy.abis.service.BioDigestStorage;
+import io.mosip.proxy.abis.service.BiometricIndex;
+import io.mosip.proxy.abis.service.BiometricMatcher;
+import io.mosip.proxy.abis.service.ClusterPartition;
+import io.mosip.proxy.abis.service.ClusterRouter;
+import io.mosip.proxy.abis.service.DataShareClient;
 import io.mosip.proxy.abis.service.ExpectationCache;
+import io.mosip.proxy.abis.service.GalleryJournal;
+import io.mosip.proxy.abis.service.GalleryReplicator;
+import io.mosip.proxy.abis.service.GalleryScope;
+import io.mosip.proxy.abis.service.IdentifyResultCache;
+import io.mosip.proxy.abis.service.InsertBatchWriter;
+import io.mosip.proxy.abis.service.PipelineMetrics;
 import io.mosip.proxy.abis.service.ProxyAbisConfigService;
+import io.mosip.proxy.abis.service.RequestTracer;
+import io.mosip.proxy.abis.utility.BdbSignature;
 import io.mosip.proxy.abis.utility.CryptoCoreUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.kernel.biometrics.commons.CbeffValidator;
 import io.mosip.kernel.biometrics.entities.BIR;
 import io.mosip.kernel.biometrics.entities.BDBInfo;
 import io.mosip.kernel.biometrics.constant.BiometricType;
@@ -78,6 +110,41 @@ class ProxyAbisInsertServiceImplTest {
     @Mock
     private ExpectationCache expectationCache;
 
+    @Mock
+    private BiometricIndex biometricIndex;
+
+    @Mock
+    private BiometricMatcher biometricMatcher;
+
+    @Mock
+    private BioDigestStorage bioDigestStorage;
+
+    @Mock
+    private InsertBatchWriter insertBatchWriter;
+
+    @Mock
+    private IdentifyResultCache identifyResultCache;
+
+    @Mock
+    private ClusterRouter clusterRouter;
+
+    @Mock
+    private GalleryReplicator galleryReplicator;
+
+    @Mock
+    private GalleryJournal galleryJournal;
+
+    @Mock
+    private DataShareClient dataShareClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PipelineMetrics pipelineMetrics = new MicrometerPipelineMetrics(meterRegistry, true, false);
+
+    @Spy
+    private RequestTracer requestTracer = new RequestTracerImpl(null, new SimpleMeterRegistry(), false, 1, 1, 1000);
+
     @InjectMocks
     private ProxyAbisInsertServiceImpl proxyAbisInsertService;
 
@@ -141,12 +208,30 @@ class ProxyAbisInsertServiceImplTest {
      */
     @Test
     void insertData_throwsRequestException_whenReferenceIdAlreadyExists() {
-        when(proxyabis.findById(insertRequest.getReferenceId())).thenReturn(Optional.of(insertEntity));
+        when(proxyabis.existsById(insertRequest.getReferenceId())).thenReturn(true);
+        RequestException exception = assertThrows(RequestException.class, () -> {
+            proxyAbisInsertService.insertData(insertRequest);
+        });
+
+        assertEquals(FailureReasonsConstants.REFERENCEID_ALREADY_EXISTS, exception.getReasonConstant());
+    }
+
+    /**
+     * Tests that in replication mode an insert is rejected when its reference ID
+     * was inserted on another node and is only held in the replicated index.
+     */
+    @Test
+    void insertData_referenceIdInsertedOnPeer_throwsRequestException() {
+        when(proxyabis.existsById(insertRequest.getReferenceId())).thenReturn(false);
+        when(galleryReplicator.isAvailable()).thenReturn(true);
+        when(biometricIndex.contains(insertRequest.getReferenceId())).thenReturn(true);
+
         RequestException exception = assertThrows(RequestException.class, () -> {
             proxyAbisInsertService.insertData(insertRequest);
         });
 
         assertEquals(FailureReasonsConstants.REFERENCEID_ALREADY_EXISTS, exception.getReasonConstant());
+        verify(proxyabis, never()).save(any());
     }
 
     /**
@@ -156,9 +241,13 @@ class ProxyAbisInsertServiceImplTest {
     @Test
     void testDeleteData_Success() {
         String referenceId = "test-reference-id";
-        doNothing().when(proxyabis).deleteById(referenceId);
+        when(proxyAbisBioDataRepository.deleteByReferenceId(referenceId)).thenReturn(2);
+        when(proxyabis.deleteByReferenceId(referenceId)).thenReturn(1);
         proxyAbisInsertService.deleteData(referenceId);
-        verify(proxyabis).deleteById(referenceId);
+        InOrder inOrder = inOrder(proxyAbisBioDataRepository, proxyabis);
+        inOrder.verify(proxyAbisBioDataRepository).deleteByReferenceId(referenceId);
+        inOrder.verify(proxyabis).deleteByReferenceId(referenceId);
+        verify(proxyabis, never()).deleteById(referenceId);
     }
 
     /**
@@ -168,13 +257,32 @@ class ProxyAbisInsertServiceImplTest {
     @Test
     void deleteData_validReferenceId_success() {
         String referenceId = "test-reference-id";
-        doThrow(new RuntimeException("Database error")).when(proxyabis).deleteById(referenceId);
+        doThrow(new RuntimeException("Database error")).when(proxyabis).deleteByReferenceId(referenceId);
 
         assertThrows(RequestException.class, () -> {
             proxyAbisInsertService.deleteData(referenceId);
         });
     }
 
+    /**
+     * Tests the duplication check with binary digest storage.
+     * Verifies that stored digests and duplicates are read from the binary column.
+     */
+    @Test
+    void findDuplication_binaryStorage_queriesByDigest() {
+        when(bioDigestStorage.isBinary()).thenReturn(true);
+        when(proxyAbisBioDataRepository.fetchBioDigestByRefId(anyString())).thenReturn(List.of(new byte[32]));
+        when(proxyAbisConfigService.getDuplicate()).thenReturn(true);
+        when(proxyAbisBioDataRepository.fetchDuplicatesForReferenceIdByDigest(anyString())).thenReturn(biometricDataList);
+
+        IdentifyDelayResponse response = proxyAbisInsertService.findDuplication(identityRequest);
+
+        assertEquals("1", response.getIdentityResponse().getCandidateList().getCount());
+        verify(expectationCache).find("0".repeat(64), ExpectationCache.IDENTIFY);
+        verify(proxyAbisBioDataRepository, never()).fetchBioDataByRefId(anyString());
+        verify(proxyAbisBioDataRepository, never()).fetchDuplicatesForReferenceId(anyString());
+    }
+
     /**
      * Tests the duplication check with no gallery reference IDs.
      * Verifies that the method correctly searches for duplicates in the entire database.
@@ -194,6 +302,180 @@ class ProxyAbisInsertServiceImplTest {
         assertEquals("1", response.getIdentityResponse().getCandidateList().getCount());
     }
 
+    /**
+     * Tests the insertion of a reference ID owned by another cluster node.
+     * Verifies that the insert is forwarded without touching the local database.
+     */
+    @Test
+    void insertData_clusterRemoteOwner_forwardsToOwner() {
+        when(clusterRouter.isEnabled()).thenReturn(true);
+        when(clusterRouter.isLocal("test-reference-id")).thenReturn(false);
+        when(clusterRouter.forwardInsert(insertRequest)).thenReturn(5);
+
+        assertEquals(5, proxyAbisInsertService.insertData(insertRequest));
+        verifyNoInteractions(proxyabis, insertBatchWriter, biometricIndex);
+    }
+
+    /**
+     * Tests the deletion of a reference ID owned by another cluster node.
+     * Verifies that the delete is forwarded without touching the local database.
+     */
+    @Test
+    void deleteData_clusterRemoteOwner_forwardsToOwner() {
+        when(clusterRouter.isEnabled()).thenReturn(true);
+        when(clusterRouter.isLocal("test-reference-id")).thenReturn(false);
+
+        proxyAbisInsertService.deleteData("test-reference-id");
+
+        verify(clusterRouter).forwardDelete("test-reference-id");
+        verifyNoInteractions(proxyabis, biometricIndex, identifyResultCache);
+    }
+
+    /**
+     * Tests the duplication check in cluster mode.
+     * Verifies that the digests, gallery count and duplicates are gathered through the cluster.
+     */
+    @Test
+    void findDuplication_clusterEnabled_gathersFromEveryNode() {
+        IdentityRequest.Gallery gallery = new IdentityRequest.Gallery();
+        IdentityRequest.ReferenceIds refId = new IdentityRequest.ReferenceIds();
+        refId.setReferenceId("gallery-ref-id");
+        gallery.setReferenceIds(List.of(refId));
+        identityRequest.setGallery(gallery);
+
+        when(clusterRouter.isEnabled()).thenReturn(true);
+        when(clusterRouter.countPresent(List.of("gallery-ref-id"))).thenReturn(1);
+        when(clusterRouter.fetchDigests("test-reference-id")).thenReturn(List.of("digest"));
+        when(proxyAbisConfigService.getDuplicate()).thenReturn(true);
+        when(clusterRouter.findDuplicates(List.of("digest"), "test-reference-id", List.of("gallery-ref-id")))
+                .thenReturn(List.of(new ClusterPartition.Match("gallery-ref-id", "FINGER")));
+
+        IdentifyDelayResponse response = proxyAbisInsertService.findDuplication(identityRequest);
+
+        assertEquals("1", response.getIdentityResponse().getCandidateList().getCount());
+        assertEquals("gallery-ref-id",
+                response.getIdentityResponse().getCandidateList().getCandidates().get(0).getReferenceId());
+        verifyNoInteractions(proxyabis, proxyAbisBioDataRepository, biometricIndex);
+    }
+
+    /**
+     * Tests that the deletion of biometric data also removes the reference ID from the index.
+     */
+    @Test
+    void deleteData_validReferenceId_removesFromIndex() {
+        String referenceId = "test-reference-id";
+        proxyAbisInsertService.deleteData(referenceId);
+        verify(biometricIndex).remove(referenceId);
+        verify(biometricMatcher).remove(referenceId);
+        verify(identifyResultCache).invalidateDelete(referenceId);
+        verify(galleryJournal).recordDelete(referenceId);
+        verify(galleryReplicator).publishDelete(referenceId);
+    }
+
+    /**
+     * Tests that a delete is only applied to the index, the matcher and the identify
+     * result cache, journaled and published once its transaction commits.
+     */
+    @Test
+    void deleteData_inTransaction_appliedAfterCommit() {
+        String referenceId = "test-reference-id";
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            proxyAbisInsertService.deleteData(referenceId);
+            verify(biometricIndex, never()).remove(referenceId);
+            verify(biometricMatcher, never()).remove(referenceId);
+            verify(identifyResultCache, never()).invalidateDelete(referenceId);
+            verify(galleryJournal, never()).recordDelete(referenceId);
+            verify(galleryReplicator, never()).publishDelete(referenceId);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(biometricIndex).remove(referenceId);
+            verify(biometricMatcher).remove(referenceId);
+            verify(identifyResultCache).invalidateDelete(referenceId);
+            verify(galleryJournal).recordDelete(referenceId);
+            verify(galleryReplicator).publishDelete(referenceId);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * Tests the duplication check when the identify result is cached.
+     * Verifies that the cached result is returned without searching for duplicates.
+     */
+    @Test
+    void findDuplication_cachedResult_skipsDuplicateSearch() {
+        IdentifyResultCache.Key key = new IdentifyResultCache.Key("test-reference-id", null, true, false, 0);
+        IdentifyDelayResponse cached = new IdentifyDelayResponse(new IdentityResponse(), 0);
+        when(identifyResultCache.isEnabled()).thenReturn(true);
+        when(identifyResultCache.keyOf(eq("test-reference-id"), isNull(), anyBoolean(), anyBoolean(), anyLong()))
+                .thenReturn(key);
+        when(identifyResultCache.get(key, identityRequest)).thenReturn(cached);
+
+        IdentifyDelayResponse response = proxyAbisInsertService.findDuplication(identityRequest);
+
+        assertEquals(cached, response);
+        verify(proxyAbisBioDataRepository, never()).fetchBioDataByRefId(anyString());
+        verify(proxyAbisBioDataRepository, never()).fetchDuplicatesForReferenceId(anyString());
+    }
+
+    /**
+     * Tests the duplication check when the identify result is not cached.
+     * Verifies that the computed result is cached with the probe digests it depends on.
+     */
+    @Test
+    void findDuplication_cacheMiss_cachesComputedResult() {
+        IdentifyResultCache.Key key = new IdentifyResultCache.Key("test-reference-id", null, true, false, 3);
+        when(identifyResultCache.isEnabled()).thenReturn(true);
+        when(proxyAbisConfigService.getDuplicate()).thenReturn(true);
+        when(expectationCache.getVersion()).thenReturn(3L);
+        when(identifyResultCache.keyOf("test-reference-id", null, true, false, 3L)).thenReturn(key);
+        when(identifyResultCache.generation()).thenReturn(7L);
+        when(proxyAbisBioDataRepository.fetchBioDataByRefId(anyString())).thenReturn(List.of("probe-hash"));
+        when(proxyAbisBioDataRepository.fetchDuplicatesForReferenceId(anyString())).thenReturn(biometricDataList);
+
+        IdentifyDelayResponse response = proxyAbisInsertService.findDuplication(identityRequest);
+
+        assertEquals("1", response.getIdentityResponse().getCandidateList().getCount());
+        verify(identifyResultCache).put(eq(key), eq(7L), eq(response), eq(Set.of("probe-hash")), isNull());
+    }
+
+    /**
+     * Tests the duplication check when the in-memory index is available.
+     * Verifies that duplicates are served from the index and the database query is skipped.
+     */
+    @Test
+    void findDuplication_indexAvailable_usesIndexInsteadOfDatabase() {
+        when(proxyAbisBioDataRepository.fetchBioDataByRefId(anyString())).thenReturn(new ArrayList<>());
+        when(proxyAbisConfigService.getDuplicate()).thenReturn(true);
+        when(biometricIndex.isAvailable()).thenReturn(true);
+        when(biometricIndex.findDuplicates("test-reference-id", null)).thenReturn(biometricDataList);
+
+        IdentifyDelayResponse response = proxyAbisInsertService.findDuplication(identityRequest);
+
+        assertEquals("1", response.getIdentityResponse().getCandidateList().getCount());
+        verify(proxyAbisBioDataRepository, never()).fetchDuplicatesForReferenceId(anyString());
+    }
+
+    /**
+     * Tests the duplication check when replication has caught up.
+     * Verifies that the probe digests and duplicates both come from the index and the
+     * database is not queried.
+     */
+    @Test
+    void findDuplication_replicationAvailable_answersFromIndex() {
+        when(galleryReplicator.isAvailable()).thenReturn(true);
+        when(proxyAbisConfigService.getDuplicate()).thenReturn(true);
+        when(biometricIndex.isAvailable()).thenReturn(true);
+        when(biometricIndex.findDigests("test-reference-id")).thenReturn(List.of("probe-hash"));
+        when(biometricIndex.findDuplicates("test-reference-id", null)).thenReturn(biometricDataList);
+
+        IdentifyDelayResponse response = proxyAbisInsertService.findDuplication(identityRequest);
+
+        assertEquals("1", response.getIdentityResponse().getCandidateList().getCount());
+        verifyNoInteractions(proxyAbisBioDataRepository);
+    }
+
     /**
      * Tests the duplication check with gallery reference IDs.
      * Verifies that the method correctly searches for duplicates only within the gallery.
@@ -249,7 +531,7 @@ class ProxyAbisInsertServiceImplTest {
         expectation.setGallery(expGallery);
 
         when(proxyAbisBioDataRepository.fetchBioDataByRefId(anyString())).thenReturn(bioValues);
-        when(expectationCache.get(anyString())).thenReturn(expectation);
+        when(expectationCache.find(anyString(), eq(ExpectationCache.IDENTIFY))).thenReturn(expectation);
         when(proxyAbisBioDataRepository.fetchReferenceId(anyString())).thenReturn(List.of("exp-ref-id"));
 
         IdentifyDelayResponse response = proxyAbisInsertService.findDuplication(identityRequest);
@@ -332,7 +614,7 @@ class ProxyAbisInsertServiceImplTest {
      */
     @Test
     void insertData_cbeffFetchError_throwsRequestException() {
-        when(proxyabis.findById(insertRequest.getReferenceId())).thenReturn(Optional.empty());
+        when(proxyabis.existsById(insertRequest.getReferenceId())).thenReturn(false);
         when(restTemplate.exchange(
                 anyString(),
                 eq(HttpMethod.GET),
@@ -360,6 +642,81 @@ class ProxyAbisInsertServiceImplTest {
         verify(proxyAbisBioDataRepository, never()).fetchDuplicatesForReferenceId(anyString());
     }
 
+    /**
+     * Tests the duplication check with a gallery when the in-memory index is available.
+     * Verifies that the gallery is resolved and searched in memory without querying the database.
+     */
+    @Test
+    void findDuplication_galleryWithIndex_resolvesGalleryInMemory() {
+        identityRequest.setGallery(gallery("gallery-ref-id", "gallery-ref-id"));
+        GalleryScope scope = new GalleryScope(List.of("gallery-ref-id"), new BitSet(), 0, 0);
+
+        when(biometricIndex.isAvailable()).thenReturn(true);
+        when(biometricIndex.scopeOf(List.of("gallery-ref-id"))).thenReturn(scope);
+        when(proxyAbisBioDataRepository.fetchBioDataByRefId(anyString())).thenReturn(new ArrayList<>());
+        when(proxyAbisConfigService.getDuplicate()).thenReturn(true);
+        when(biometricIndex.findDuplicatesInGallery("test-reference-id", scope)).thenReturn(biometricDataList);
+
+        IdentifyDelayResponse response = proxyAbisInsertService.findDuplication(identityRequest);
+
+        assertEquals("1", response.getIdentityResponse().getCandidateList().getCount());
+        verify(proxyabis, never()).fetchCountForReferenceIdPresentInGallery(anyList());
+        verify(proxyAbisBioDataRepository, never()).fetchDuplicatesForReferenceIdBasedOnGalleryIds(anyString(), anyList());
+    }
+
+    /**
+     * Tests the duplication check with a gallery reference ID missing from the in-memory index.
+     * Verifies that a RequestException with REFERENCEID_NOT_FOUND is thrown.
+     */
+    @Test
+    void findDuplication_galleryMissingFromIndex_throwsRequestException() {
+        identityRequest.setGallery(gallery("gallery-ref-id", "unknown-ref-id"));
+
+        when(biometricIndex.isAvailable()).thenReturn(true);
+        when(biometricIndex.scopeOf(anyList()))
+                .thenReturn(new GalleryScope(List.of("gallery-ref-id", "unknown-ref-id"), new BitSet(), 1, 0));
+
+        RequestException exception = assertThrows(RequestException.class,
+                () -> proxyAbisInsertService.findDuplication(identityRequest));
+        assertEquals(FailureReasonsConstants.REFERENCEID_NOT_FOUND, exception.getReasonConstant());
+    }
+
+    /**
+     * Tests the duplication check with a gallery larger than the query chunk size and no index.
+     * Verifies that the gallery is counted and searched one chunk at a time.
+     */
+    @Test
+    void findDuplication_largeGalleryWithoutIndex_queriesInChunks() {
+        ReflectionTestUtils.setField(proxyAbisInsertService, "galleryQueryChunkSize", 2);
+        identityRequest.setGallery(gallery("ref-1", "ref-2", "ref-3", "ref-4", "ref-5"));
+
+        when(proxyabis.fetchCountForReferenceIdPresentInGallery(anyList())).thenReturn(2, 2, 1);
+        when(proxyAbisBioDataRepository.fetchBioDataByRefId(anyString())).thenReturn(new ArrayList<>());
+        when(proxyAbisConfigService.getDuplicate()).thenReturn(true);
+        when(proxyAbisBioDataRepository.fetchDuplicatesForReferenceIdBasedOnGalleryIds(anyString(), anyList()))
+                .thenReturn(new ArrayList<>());
+
+        IdentifyDelayResponse response = proxyAbisInsertService.findDuplication(identityRequest);
+
+        assertEquals("0", response.getIdentityResponse().getCandidateList().getCount());
+        verify(proxyabis).fetchCountForReferenceIdPresentInGallery(List.of("ref-1", "ref-2"));
+        verify(proxyabis).fetchCountForReferenceIdPresentInGallery(List.of("ref-5"));
+        verify(proxyAbisBioDataRepository, times(3))
+                .fetchDuplicatesForReferenceIdBasedOnGalleryIds(eq("test-reference-id"), anyList());
+    }
+
+    private static IdentityRequest.Gallery gallery(String... galleryReferenceIds) {
+        List<IdentityRequest.ReferenceIds> referenceIds = new ArrayList<>();
+        for (String galleryReferenceId : galleryReferenceIds) {
+            IdentityRequest.ReferenceIds refId = new IdentityRequest.ReferenceIds();
+            refId.setReferenceId(galleryReferenceId);
+            referenceIds.add(refId);
+        }
+        IdentityRequest.Gallery gallery = new IdentityRequest.Gallery();
+        gallery.setReferenceIds(referenceIds);
+        return gallery;
+    }
+
     /**
      * Tests the findDuplication method when the gallery reference count is invalid.
      * Verifies that a RequestException with the failure constant REFERENCEID_NOT_FOUND is thrown.
@@ -404,12 +761,11 @@ class ProxyAbisInsertServiceImplTest {
     @Test
     void insertData_invalidCbeffFormat_throwsRequestException() throws Exception {
         String invalidCbeff = "invalid-cbeff-data";
-        ReflectionTestUtils.setField(proxyAbisInsertService, "cbeffURL", "http://test-url.com/cbeff");
         ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", false);
 
         when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class)))
                 .thenReturn(ResponseEntity.ok(invalidCbeff));
-        when(proxyabis.findById(anyString())).thenReturn(Optional.empty());
+        when(proxyabis.existsById(anyString())).thenReturn(false);
 
         RequestException exception = assertThrows(RequestException.class, () -> {
             proxyAbisInsertService.insertData(insertRequest);
@@ -424,12 +780,11 @@ class ProxyAbisInsertServiceImplTest {
     @Test
     void insertData_emptyCbeffData_throwsRequestException() throws Exception {
         String emptyCbeff = "";
-        ReflectionTestUtils.setField(proxyAbisInsertService, "cbeffURL", "http://test-url.com/cbeff");
         ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", false);
 
         when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class)))
                 .thenReturn(ResponseEntity.ok(emptyCbeff));
-        when(proxyabis.findById(anyString())).thenReturn(Optional.empty());
+        when(proxyabis.existsById(anyString())).thenReturn(false);
         RequestException exception = assertThrows(RequestException.class, () -> {
             proxyAbisInsertService.insertData(insertRequest);
         });
@@ -443,12 +798,11 @@ class ProxyAbisInsertServiceImplTest {
     @Test
     void insertData_dataShareError_throwsRequestException() throws Exception {
         String errorResponse = "{\"errors\":[{\"errorCode\":\"DAT-SER-001\",\"message\":\"Data Encryption failed\"}]}";
-        ReflectionTestUtils.setField(proxyAbisInsertService, "cbeffURL", "http://test-url.com/cbeff");
         ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", false);
 
         when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class)))
                 .thenReturn(ResponseEntity.ok(errorResponse));
-        when(proxyabis.findById(anyString())).thenReturn(Optional.empty());
+        when(proxyabis.existsById(anyString())).thenReturn(false);
 
         RequestException exception = assertThrows(RequestException.class, () -> {
             proxyAbisInsertService.insertData(insertRequest);
@@ -511,7 +865,7 @@ class ProxyAbisInsertServiceImplTest {
         expectation.setForcedResponse("Error");
         expectation.setErrorCode(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN);
 
-        when(expectationCache.get(anyString())).thenReturn(expectation);
+        when(expectationCache.find(anyString(), eq(ExpectationCache.IDENTIFY))).thenReturn(expectation);
         when(proxyAbisBioDataRepository.fetchBioDataByRefId(anyString())).thenReturn(bioValues);
 
         RequestException exception = assertThrows(RequestException.class, () -> {
@@ -552,13 +906,12 @@ class ProxyAbisInsertServiceImplTest {
                 + "</Quality><Type>Finger</Type><Subtype>Left IndexFinger</Subtype><Level>Raw</Level><Purpose>Enroll</Purpose>"
                 + "<CreationDate>2023-01-01T12:00:00.000Z</CreationDate></BDBInfo><BDB>base64-encoded-data</BDB></BIR>";
 
-        ReflectionTestUtils.setField(proxyAbisInsertService, "cbeffURL", "http://test-url.com/cbeff");
         ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", true);
 
         when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class)))
                 .thenReturn(ResponseEntity.ok(encryptedCbeff));
         when(cryptoUtil.decryptCbeff(encryptedCbeff)).thenReturn(decryptedCbeff);
-        when(proxyabis.findById(anyString())).thenReturn(Optional.empty());
+        when(proxyabis.existsById(anyString())).thenReturn(false);
         RequestException exception = assertThrows(RequestException.class, () -> {
             proxyAbisInsertService.insertData(insertRequest);
         });
@@ -1018,7 +1371,7 @@ class ProxyAbisInsertServiceImplTest {
 
             @Override
             public InputStream getInputStream() throws IOException {
-                return new java.io.ByteArrayInputStream(fileContent);
+                return new ByteArrayInputStream(fileContent);
             }
 
             @Override
@@ -1045,7 +1398,7 @@ class ProxyAbisInsertServiceImplTest {
      */
     @Test
     void insertData_uriSyntaxException_throwsRequestException() {
-        when(proxyabis.findById(anyString())).thenReturn(Optional.empty());
+        when(proxyabis.existsById(anyString())).thenReturn(false);
         when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class)))
                 .thenThrow(new IllegalArgumentException("Invalid URI"));
 
@@ -1090,7 +1443,7 @@ class ProxyAbisInsertServiceImplTest {
         expectation.setForcedResponse("NoDuplicate");
 
         IdentityResponse response = ReflectionTestUtils.invokeMethod(
-                proxyAbisInsertService, "processExpectation", identityRequest, expectation, null);
+                proxyAbisInsertService, "processExpectation", identityRequest, expectation, null, null);
 
         assertNotNull(response);
         assertEquals("0", response.getCandidateList().getCount());
@@ -1115,7 +1468,7 @@ class ProxyAbisInsertServiceImplTest {
         when(proxyAbisBioDataRepository.fetchReferenceId(anyString())).thenReturn(new ArrayList<>());
 
         IdentityResponse response = ReflectionTestUtils.invokeMethod(
-                proxyAbisInsertService, "processExpectation", identityRequest, expectation, null);
+                proxyAbisInsertService, "processExpectation", identityRequest, expectation, null, null);
 
         assertNotNull(response);
     }
@@ -1166,7 +1519,7 @@ class ProxyAbisInsertServiceImplTest {
 
         when(proxyabis.fetchCountForReferenceIdPresentInGallery(anyList())).thenReturn(1);
         when(proxyAbisBioDataRepository.fetchBioDataByRefId(anyString())).thenReturn(bioValues);
-        when(expectationCache.get(anyString())).thenReturn(expectation);
+        when(expectationCache.find(anyString(), eq(ExpectationCache.IDENTIFY))).thenReturn(expectation);
         when(proxyAbisBioDataRepository.fetchByReferenceId(anyString(), anyList()))
                 .thenReturn(List.of("exp-ref-id"));
 
@@ -1229,7 +1582,7 @@ class ProxyAbisInsertServiceImplTest {
     void insertData_withBlankCbeffAfterDecryption_throwsRequestException() throws Exception {
         String encryptedCbeff = "encrypted-data";
 
-        when(proxyabis.findById(anyString())).thenReturn(Optional.empty());
+        when(proxyabis.existsById(anyString())).thenReturn(false);
         when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class)))
                 .thenReturn(ResponseEntity.ok(encryptedCbeff));
         when(cryptoUtil.decryptCbeff(encryptedCbeff)).thenReturn("   ");
@@ -1250,7 +1603,7 @@ class ProxyAbisInsertServiceImplTest {
     void insertData_withNullCbeffAfterDecryption_throwsRequestException() throws Exception {
         String encryptedCbeff = "encrypted-data";
 
-        when(proxyabis.findById(anyString())).thenReturn(Optional.empty());
+        when(proxyabis.existsById(anyString())).thenReturn(false);
         when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class)))
                 .thenReturn(ResponseEntity.ok(encryptedCbeff));
         when(cryptoUtil.decryptCbeff(encryptedCbeff)).thenReturn(null);
@@ -1283,7 +1636,7 @@ class ProxyAbisInsertServiceImplTest {
         when(proxyAbisBioDataRepository.fetchReferenceId(anyString())).thenReturn(new ArrayList<>());
 
         IdentityResponse response = ReflectionTestUtils.invokeMethod(
-                proxyAbisInsertService, "processExpectation", identityRequest, expectation, null);
+                proxyAbisInsertService, "processExpectation", identityRequest, expectation, null, null);
 
         assertNotNull(response);
         assertEquals("0", response.getCandidateList().getCount());
@@ -1323,4 +1676,340 @@ class ProxyAbisInsertServiceImplTest {
         assertEquals("010f", result);
     }
 
-}
\ No newline at end of file
+    /**
+     * Tests the duplication check when the approximate matcher is available.
+     * Verifies that the request flags are passed to the matcher, that candidates
+     * keep its ranking and carry its scores, and that neither the cache nor the
+     * database is used.
+     */
+    @Test
+    void findDuplication_matcherAvailable_returnsRankedCandidatesWithScores() {
+        identityRequest.setFlags(new IdentityRequest.Flags("5", "40", null, null));
+        when(proxyAbisBioDataRepository.fetchBioDataByRefId(anyString())).thenReturn(new ArrayList<>());
+        when(proxyAbisConfigService.getDuplicate()).thenReturn(true);
+        when(identifyResultCache.isEnabled()).thenReturn(true);
+        when(biometricMatcher.isAvailable()).thenReturn(true);
+        when(biometricMatcher.search("test-reference-id", null, 5, 40)).thenReturn(List.of(
+                new BiometricMatcher.Candidate("ref-near", 0.953125, 100,
+                        List.of(new BiometricMatcher.ModalityScore("Finger", 0.953125, 100))),
+                new BiometricMatcher.Candidate("ref-far", 0.5, 42,
+                        List.of(new BiometricMatcher.ModalityScore("Iris", 0.5, 42)))));
+
+        IdentifyDelayResponse response = proxyAbisInsertService.findDuplication(identityRequest);
+
+        IdentityResponse.CandidateList candidates = response.getIdentityResponse().getCandidateList();
+        assertEquals("2", candidates.getCount());
+        assertEquals("ref-near", candidates.getCandidates().get(0).getReferenceId());
+        assertEquals("95", candidates.getCandidates().get(0).getAnalytics().getInternalScore());
+        assertEquals("100", candidates.getCandidates().get(0).getAnalytics().getConfidence());
+        assertEquals("ref-far", candidates.getCandidates().get(1).getReferenceId());
+        assertEquals("Iris", candidates.getCandidates().get(1).getModalities().get(0).getBiometricType());
+        assertEquals("42", candidates.getCandidates().get(1).getModalities().get(0).getAnalytics().getConfidence());
+        verify(identifyResultCache, never()).get(any(), any());
+        verify(proxyAbisBioDataRepository, never()).fetchDuplicatesForReferenceId(anyString());
+        verify(biometricIndex, never()).findDuplicates(anyString(), any());
+    }
+
+    /**
+     * Tests that with the matcher enabled a streamed insert stores the signature
+     * of each BDB and adds the biometrics to the matcher.
+     */
+    @Test
+    void insertData_streamingWithMatcher_storesSignatures() throws Exception {
+        String cbeff = "<BIR><BIR><BDBInfo><Type>Face</Type></BDBInfo><BDB>"
+                + Base64.getEncoder().encodeToString("face".getBytes()) + "</BDB></BIR></BIR>";
+        ReflectionTestUtils.setField(proxyAbisInsertService, "streamingEnabled", true);
+        ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", false);
+        when(proxyabis.existsById(anyString())).thenReturn(false);
+        when(biometricMatcher.isEnabled()).thenReturn(true);
+        stubStreamedResponse(cbeff);
+
+        proxyAbisInsertService.insertData(insertRequest);
+
+        ArgumentCaptor<InsertEntity> saved = ArgumentCaptor.forClass(InsertEntity.class);
+        verify(proxyabis).save(saved.capture());
+        List<BiometricData> stored = saved.getValue().getBiometricList();
+        assertArrayEquals(BdbSignature.of("face".getBytes()).toBytes(), stored.get(0).getBioSignature());
+        verify(biometricMatcher).add("test-reference-id", stored);
+    }
+
+    /**
+     * Tests that with the matcher enabled an insert read without streaming also
+     * stores the signature of each BDB and adds the biometrics to the matcher.
+     */
+    @Test
+    void insertData_matcherWithoutStreaming_storesSignatures() throws Exception {
+        BIR bir = new BIR();
+        BDBInfo bdbInfo = new BDBInfo();
+        bdbInfo.setType(List.of(BiometricType.FACE));
+        bir.setBdbInfo(bdbInfo);
+        bir.setBdb("face".getBytes());
+        BIR birInfo = new BIR();
+        birInfo.setBirs(new ArrayList<>(List.of(bir)));
+        ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", false);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class)))
+                .thenReturn(ResponseEntity.ok("<BIR/>"));
+        when(proxyabis.existsById(anyString())).thenReturn(false);
+        when(biometricMatcher.isEnabled()).thenReturn(true);
+
+        try (MockedStatic<CbeffValidator> cbeffValidator = mockStatic(CbeffValidator.class)) {
+            cbeffValidator.when(() -> CbeffValidator.getBIRFromXML(any(byte[].class))).thenReturn(birInfo);
+            cbeffValidator.when(() -> CbeffValidator.validateXML(birInfo)).thenReturn(true);
+
+            proxyAbisInsertService.insertData(insertRequest);
+        }
+
+        ArgumentCaptor<InsertEntity> saved = ArgumentCaptor.forClass(InsertEntity.class);
+        verify(proxyabis).save(saved.capture());
+        List<BiometricData> stored = saved.getValue().getBiometricList();
+        assertArrayEquals(BdbSignature.of("face".getBytes()).toBytes(), stored.get(0).getBioSignature());
+        verify(biometricMatcher).add("test-reference-id", stored);
+    }
+
+    /**
+     * Tests that with streaming enabled the CBEFF body is read through the response
+     * stream and each BDB is stored as its type, subtype and SHA-256 hash.
+     */
+    @Test
+    void insertData_streamingEnabled_savesHashedBiometrics() throws Exception {
+        String bdb = Base64.getEncoder().encodeToString("finger".getBytes());
+        String cbeff = "<BIR xmlns=\"http://standards.iso.org/iso-iec/19785/-3/ed-2/\"><BIR><BDBInfo>"
+                + "<Format><Organization>Mosip</Organization><Type>7</Type></Format>"
+                + "<Type>Finger</Type><Subtype>Left IndexFinger</Subtype></BDBInfo>"
+                + "<BDB>" + bdb + "</BDB></BIR></BIR>";
+        ReflectionTestUtils.setField(proxyAbisInsertService, "streamingEnabled", true);
+        ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", false);
+        when(proxyabis.existsById(anyString())).thenReturn(false);
+        stubStreamedResponse(cbeff);
+
+        proxyAbisInsertService.insertData(insertRequest);
+
+        verify(restTemplate, never()).exchange(anyString(), eq(HttpMethod.GET), isNull(), eq(String.class));
+        ArgumentCaptor<InsertEntity> saved = ArgumentCaptor.forClass(InsertEntity.class);
+        verify(proxyabis).save(saved.capture());
+        BiometricData stored = saved.getValue().getBiometricList().get(0);
+        assertEquals("Finger", stored.getType());
+        assertEquals("[Left, IndexFinger]", stored.getSubtype());
+        assertEquals(ReflectionTestUtils.invokeMethod(proxyAbisInsertService, "getSHAFromBytes", "finger".getBytes()),
+                stored.getBioData());
+    }
+
+    /**
+     * Tests that an insert expectation forcing an error fails the insert before
+     * anything is stored.
+     */
+    @Test
+    void insertData_insertExpectationForcesError_throwsRequestException() throws Exception {
+        String cbeff = "<BIR><BIR><BDBInfo><Type>Face</Type></BDBInfo><BDB>ZmFjZQ==</BDB></BIR></BIR>";
+        ReflectionTestUtils.setField(proxyAbisInsertService, "streamingEnabled", true);
+        ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", false);
+        Expectation expectation = new Expectation();
+        expectation.setId("face-hash");
+        expectation.setActionToInterfere(ExpectationCache.INSERT);
+        expectation.setForcedResponse("Error");
+        expectation.setErrorCode(FailureReasonsConstants.UNEXPECTED_ERROR);
+        when(proxyabis.existsById(anyString())).thenReturn(false);
+        when(expectationCache.find(anyString(), eq(ExpectationCache.INSERT))).thenReturn(expectation);
+        stubStreamedResponse(cbeff);
+
+        RequestException exception = assertThrows(RequestException.class,
+                () -> proxyAbisInsertService.insertData(insertRequest));
+
+        assertEquals(FailureReasonsConstants.UNEXPECTED_ERROR, exception.getReasonConstant());
+        verify(proxyabis, never()).save(any(InsertEntity.class));
+    }
+
+    /**
+     * Tests that with streaming enabled an encrypted body is decrypted as a stream.
+     */
+    @Test
+    void insertData_streamingEncrypted_decryptsStream() throws Exception {
+        String cbeff = "<BIR><BIR><BDBInfo><Type>Iris</Type><Subtype>Left</Subtype></BDBInfo>"
+                + "<BDB>aXJpcw==</BDB></BIR></BIR>";
+        ReflectionTestUtils.setField(proxyAbisInsertService, "streamingEnabled", true);
+        ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", true);
+        when(proxyabis.existsById(anyString())).thenReturn(false);
+        when(cryptoUtil.decryptCbeffStream(any(InputStream.class)))
+                .thenReturn(new ByteArrayInputStream(cbeff.getBytes()));
+        stubStreamedResponse("ZW5jcnlwdGVk");
+
+        proxyAbisInsertService.insertData(insertRequest);
+
+        verify(cryptoUtil, never()).decryptCbeff(anyString());
+        verify(proxyabis).save(any(InsertEntity.class));
+    }
+
+    /**
+     * Tests that with insert batching enabled the insert is handed to the batch
+     * writer instead of being saved directly, and indexed once it is written.
+     */
+    @Test
+    void insertData_batchingEnabled_writesThroughBatchWriter() throws Exception {
+        String cbeff = "<BIR><BIR><BDBInfo><Type>Face</Type></BDBInfo><BDB>ZmFjZQ==</BDB></BIR></BIR>";
+        ReflectionTestUtils.setField(proxyAbisInsertService, "streamingEnabled", true);
+        ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", false);
+        when(proxyabis.existsById(anyString())).thenReturn(false);
+        when(insertBatchWriter.isEnabled()).thenReturn(true);
+        stubStreamedResponse(cbeff);
+
+        proxyAbisInsertService.insertData(insertRequest);
+
+        InOrder inOrder = inOrder(insertBatchWriter, biometricIndex);
+        inOrder.verify(insertBatchWriter).write(any(InsertEntity.class));
+        inOrder.verify(biometricIndex).add(eq(insertRequest.getReferenceId()), anyList());
+        verify(identifyResultCache).invalidateInsert(eq(insertRequest.getReferenceId()), anyList());
+        verify(galleryReplicator).publishInsert(eq(insertRequest.getReferenceId()), anyList());
+        verify(proxyabis, never()).save(any(InsertEntity.class));
+    }
+
+    /**
+     * Tests that a failed batch write is reported as an internal error and the
+     * biometrics are not indexed.
+     */
+    @Test
+    void insertData_batchWriteFails_throwsRequestException() throws Exception {
+        String cbeff = "<BIR><BIR><BDBInfo><Type>Face</Type></BDBInfo><BDB>ZmFjZQ==</BDB></BIR></BIR>";
+        ReflectionTestUtils.setField(proxyAbisInsertService, "streamingEnabled", true);
+        ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", false);
+        when(proxyabis.existsById(anyString())).thenReturn(false);
+        when(insertBatchWriter.isEnabled()).thenReturn(true);
+        doThrow(new IllegalStateException("constraint violation")).when(insertBatchWriter).write(any(InsertEntity.class));
+        stubStreamedResponse(cbeff);
+
+        RequestException exception = assertThrows(RequestException.class,
+                () -> proxyAbisInsertService.insertData(insertRequest));
+
+        assertEquals(FailureReasonsConstants.INTERNAL_ERROR_UNKNOWN, exception.getReasonConstant());
+        verify(biometricIndex, never()).add(anyString(), anyList());
+    }
+
+    /**
+     * Tests that with streaming enabled a data share expiry response still fails
+     * with DATA_SHARE_URL_EXPIRED.
+     */
+    @Test
+    void insertData_streamingDataShareExpired_throwsRequestException() throws Exception {
+        ReflectionTestUtils.setField(proxyAbisInsertService, "streamingEnabled", true);
+        when(proxyabis.existsById(anyString())).thenReturn(false);
+        stubStreamedResponse("{\"errors\":[{\"errorCode\":\"DAT-SER-006\",\"message\":\"Data share usuage expired\"}]}");
+
+        RequestException exception = assertThrows(RequestException.class, () -> {
+            proxyAbisInsertService.insertData(insertRequest);
+        });
+        assertEquals(FailureReasonsConstants.DATA_SHARE_URL_EXPIRED, exception.getReasonConstant());
+    }
+
+    /**
+     * Tests that with streaming enabled a body without nested biometric records
+     * fails with CBEFF_HAS_NO_DATA.
+     */
+    @Test
+    void insertData_streamingNoBiometrics_throwsRequestException() throws Exception {
+        ReflectionTestUtils.setField(proxyAbisInsertService, "streamingEnabled", true);
+        ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", false);
+        when(proxyabis.existsById(anyString())).thenReturn(false);
+        stubStreamedResponse("<BIR><BIRInfo><Integrity>false</Integrity></BIRInfo></BIR>");
+
+        RequestException exception = assertThrows(RequestException.class, () -> {
+            proxyAbisInsertService.insertData(insertRequest);
+        });
+        assertEquals(FailureReasonsConstants.CBEFF_HAS_NO_DATA, exception.getReasonConstant());
+    }
+
+    /**
+     * Tests that with asynchronous fetching the insert is written only once the
+     * download completes, without using the blocking template.
+     */
+    @Test
+    void insertDataAsync_fetchCompletes_savesBiometrics() throws Exception {
+        String cbeff = "<BIR><BIR><BDBInfo><Type>Face</Type></BDBInfo><BDB>ZmFjZQ==</BDB></BIR></BIR>";
+        ReflectionTestUtils.setField(proxyAbisInsertService, "streamingEnabled", true);
+        ReflectionTestUtils.setField(proxyAbisInsertService, "encryption", false);
+        CompletableFuture<byte[]> download = new CompletableFuture<>();
+        when(dataShareClient.isEnabled()).thenReturn(true);
+        when(dataShareClient.fetch(insertRequest.getReferenceURL())).thenReturn(download);
+        when(proxyabis.existsById(anyString())).thenReturn(false);
+
+        CompletableFuture<Integer> insert = proxyAbisInsertService.insertDataAsync(insertRequest);
+
+        assertFalse(insert.isDone());
+        verify(proxyabis, never()).save(any(InsertEntity.class));
+        download.complete(cbeff.getBytes());
+        assertEquals(Integer.valueOf(0), insert.get());
+        verify(proxyabis).save(any(InsertEntity.class));
+        verify(galleryJournal).recordInsert(any(InsertEntity.class));
+        verifyNoInteractions(restTemplate);
+        for (String stage : List.of("fetch", "parse", "expectation", "persist"))
+            assertEquals(1, stageCount(stage, "insert", PipelineMetrics.SUCCESS));
+    }
+
+    /**
+     * Tests that an asynchronous download failing with a client error fails the
+     * insert with UNABLE_TO_FETCH_BIOMETRIC_DETAILS, as the blocking fetch does.
+     */
+    @Test
+    void insertDataAsync_fetchClientError_failsWithUnableToFetch() {
+        when(dataShareClient.isEnabled()).thenReturn(true);
+        when(dataShareClient.fetch(anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.UNAUTHORIZED)));
+        when(proxyabis.existsById(anyString())).thenReturn(false);
+
+        CompletableFuture<Integer> insert = proxyAbisInsertService.insertDataAsync(insertRequest);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, insert::get);
+        assertEquals(FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS,
+                ((RequestException) exception.getCause()).getReasonConstant());
+        verify(proxyabis, never()).save(any(InsertEntity.class));
+        assertEquals(1, stageCount("fetch", "insert", FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS));
+    }
+
+    /**
+     * Tests that with asynchronous fetching disabled the insert runs on the calling
+     * thread and its failure is returned in the future.
+     */
+    @Test
+    void insertDataAsync_disabled_insertsOnCallingThread() {
+        when(proxyabis.existsById(anyString())).thenReturn(true);
+
+        CompletableFuture<Integer> insert = proxyAbisInsertService.insertDataAsync(insertRequest);
+
+        assertTrue(insert.isCompletedExceptionally());
+        ExecutionException exception = assertThrows(ExecutionException.class, insert::get);
+        assertEquals(FailureReasonsConstants.REFERENCEID_ALREADY_EXISTS,
+                ((RequestException) exception.getCause()).getReasonConstant());
+        verify(dataShareClient, never()).fetch(anyString());
+    }
+
+    /**
+     * Tests that an identify times the expectation lookup and the duplicate query
+     * as separate stages.
+     */
+    @Test
+    void findDuplication_noGallery_recordsExpectationAndDuplicateQueryStages() {
+        when(proxyAbisBioDataRepository.fetchBioDataByRefId(anyString())).thenReturn(new ArrayList<>());
+        when(proxyAbisConfigService.getDuplicate()).thenReturn(true);
+        when(proxyAbisBioDataRepository.fetchDuplicatesForReferenceId(anyString())).thenReturn(new ArrayList<>());
+
+        proxyAbisInsertService.findDuplication(identityRequest);
+
+        assertEquals(1, stageCount("expectation", "identify", PipelineMetrics.SUCCESS));
+        assertEquals(1, stageCount("duplicate_query", "identify", PipelineMetrics.SUCCESS));
+    }
+
+    private long stageCount(String stage, String operation, String outcome) {
+        return meterRegistry.get("mock.abis.pipeline.stage").tag("stage", stage).tag("operation", operation)
+                .tag("outcome", outcome).timer().count();
+    }
+
+    /**
+     * Stubs the streaming fetch so that the response extractor reads the given body.
+     */
+    @SuppressWarnings("unchecked")
+    private void stubStreamedResponse(String body) throws IOException {
+        ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream(body.getBytes()));
+        when(restTemplate.execute(anyString(), eq(HttpMethod.GET), isNull(), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> ((ResponseExtractor<Object>) invocation.getArgument(3)).extractData(response));
+    }
+
+}
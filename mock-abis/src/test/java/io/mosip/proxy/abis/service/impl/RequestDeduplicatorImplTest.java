@@ -0,0 +1,125 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.proxy.abis.service.RequestDeduplicator.Status;
+
+/**
+ * Unit test class for RequestDeduplicatorImpl.
+ * This class tests claiming, replay of recorded responses, the time window, the
+ * size cap and the suppressed-duplicate counters.
+ */
+class RequestDeduplicatorImplTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong now;
+    private RequestDeduplicatorImpl deduplicator;
+
+    /**
+     * Sets up an enabled deduplicator of two entries with a 60 second window and a manual clock.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = new AtomicLong();
+        deduplicator = new RequestDeduplicatorImpl(meterRegistry, true, 2, 60, now::get);
+    }
+
+    /**
+     * Tests that a completed request is replayed with its recorded response and counted.
+     */
+    @Test
+    void claim_completedRequest_returnsRecordedResponse() {
+        ResponseEntity<Object> response = new ResponseEntity<>("ok", HttpStatus.OK);
+
+        assertEquals(Status.NEW, deduplicator.claim("req-1").status());
+        deduplicator.complete("req-1", response);
+        var claim = deduplicator.claim("req-1");
+
+        assertEquals(Status.COMPLETED, claim.status());
+        assertSame(response, claim.response());
+        assertEquals(1.0, suppressed("replayed"));
+    }
+
+    /**
+     * Tests that a request claimed again before it completes is reported in flight.
+     */
+    @Test
+    void claim_requestBeingProcessed_returnsInFlight() {
+        deduplicator.claim("req-1");
+
+        assertEquals(Status.IN_FLIGHT, deduplicator.claim("req-1").status());
+        assertEquals(1.0, suppressed("in_flight"));
+    }
+
+    /**
+     * Tests that a released request is processed again when redelivered.
+     */
+    @Test
+    void release_claimedRequest_allowsNewClaim() {
+        deduplicator.claim("req-1");
+
+        deduplicator.release("req-1");
+
+        assertEquals(Status.NEW, deduplicator.claim("req-1").status());
+    }
+
+    /**
+     * Tests that a request ID is forgotten once the window has elapsed since it completed.
+     */
+    @Test
+    void claim_afterWindow_returnsNew() {
+        deduplicator.claim("req-1");
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+        deduplicator.complete("req-1", new ResponseEntity<>("ok", HttpStatus.OK));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        assertEquals(Status.COMPLETED, deduplicator.claim("req-1").status());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(Status.NEW, deduplicator.claim("req-1").status());
+    }
+
+    /**
+     * Tests that the oldest request ID is dropped beyond the size cap.
+     */
+    @Test
+    void claim_beyondMaxEntries_dropsOldest() {
+        deduplicator.claim("req-1");
+        deduplicator.claim("req-2");
+        deduplicator.claim("req-3");
+
+        assertEquals(2, deduplicator.size());
+        assertEquals(Status.NEW, deduplicator.claim("req-1").status());
+        assertEquals(Status.IN_FLIGHT, deduplicator.claim("req-3").status());
+    }
+
+    /**
+     * Tests that a disabled deduplicator treats every request as new.
+     */
+    @Test
+    void claim_disabled_alwaysReturnsNew() {
+        RequestDeduplicatorImpl disabled = new RequestDeduplicatorImpl(new SimpleMeterRegistry(), false, 2, 60,
+                now::get);
+
+        disabled.claim("req-1");
+        disabled.complete("req-1", new ResponseEntity<>("ok", HttpStatus.OK));
+
+        assertEquals(Status.NEW, disabled.claim("req-1").status());
+        assertEquals(0, disabled.size());
+    }
+
+    private double suppressed(String outcome) {
+        return meterRegistry.get("mock.abis.dedup.suppressed").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,205 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.proxy.abis.constant.FailureReasonsConstants;
+import io.mosip.proxy.abis.dto.SpanRecord;
+import io.mosip.proxy.abis.exception.RequestException;
+import io.mosip.proxy.abis.service.RequestTracer;
+import io.mosip.proxy.abis.service.SpanSink;
+
+/**
+ * Unit test class for RequestTracerImpl.
+ * This class records spans into a collecting sink, flushing explicitly, and
+ * covers trace IDs, parent links, context propagation, traceparent parsing and
+ * the bounded export queue.
+ */
+class RequestTracerImplTest {
+
+    private final List<SpanRecord> exported = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private RequestTracerImpl tracer;
+
+    /**
+     * Creates an enabled tracer whose background export never runs during a
+     * test.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracer = new RequestTracerImpl(new CollectingSink(), meterRegistry, true, 100, 10, 60000);
+    }
+
+    /**
+     * Stops the export thread.
+     */
+    @AfterEach
+    void tearDown() {
+        tracer.shutdown();
+    }
+
+    /**
+     * Tests that a root span belongs to the trace derived from its request ID,
+     * and that a span started under it is its child in the same trace.
+     */
+    @Test
+    void start_underActiveSpan_isChildInRequestTrace() {
+        RequestTracer.Span root = tracer.start("mosip.abis.insert", "req-1");
+        try (RequestTracer.Scope scope = root.activate()) {
+            tracer.start("persist", null).end();
+        }
+        root.end();
+        tracer.flush();
+
+        assertEquals(2, exported.size());
+        SpanRecord child = exported.get(0);
+        SpanRecord parent = exported.get(1);
+        assertEquals(RequestTracerImpl.traceIdOf("req-1"), parent.getTraceId());
+        assertNull(parent.getParentSpanId());
+        assertEquals(parent.getTraceId(), child.getTraceId());
+        assertEquals(parent.getSpanId(), child.getParentSpanId());
+        assertEquals("req-1", child.getRequestId());
+        assertSame(RequestTracer.NOOP, tracer.current());
+    }
+
+    /**
+     * Tests that without a current span or request ID nothing is recorded.
+     */
+    @Test
+    void start_noParentNoRequestId_returnsNoop() {
+        assertSame(RequestTracer.NOOP, tracer.start("persist", null));
+    }
+
+    /**
+     * Tests that a valid traceparent is continued and an invalid one falls back
+     * to the trace of the request.
+     */
+    @Test
+    void start_traceparent_continuesValidRemoteSpan() {
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+        tracer.start("valid", "req-1", "00-" + traceId + "-00f067aa0ba902b7-01").end();
+        tracer.start("zero", "req-1", "00-" + "0".repeat(32) + "-00f067aa0ba902b7-01").end();
+        tracer.start("garbage", "req-1", "not-a-traceparent").end();
+        tracer.flush();
+
+        assertEquals(traceId, exported.get(0).getTraceId());
+        assertEquals("00f067aa0ba902b7", exported.get(0).getParentSpanId());
+        assertEquals(RequestTracerImpl.traceIdOf("req-1"), exported.get(1).getTraceId());
+        assertEquals(RequestTracerImpl.traceIdOf("req-1"), exported.get(2).getTraceId());
+    }
+
+    /**
+     * Tests that a wrapped task runs under the span current when it was
+     * wrapped, on another thread.
+     */
+    @Test
+    void wrap_otherThread_carriesCurrentSpan() throws Exception {
+        RequestTracer.Span root = tracer.start("mosip.abis.identify", "req-2");
+        Runnable task;
+        try (RequestTracer.Scope scope = root.activate()) {
+            task = tracer.wrap(() -> tracer.start("send", null).end());
+        }
+        CompletableFuture.runAsync(task).get();
+        root.end();
+        tracer.flush();
+
+        assertEquals(root.traceparent().split("-")[2], exported.get(0).getParentSpanId());
+    }
+
+    /**
+     * Tests that trace ends the span with the failure reason of the exception it
+     * rethrows.
+     */
+    @Test
+    void trace_failure_endsWithFailureReason() {
+        RequestException failure = new RequestException(FailureReasonsConstants.UNEXPECTED_ERROR);
+
+        assertThrows(RequestException.class, () -> tracer.trace("expectation", "req-3", () -> {
+            throw failure;
+        }));
+        tracer.flush();
+
+        assertEquals(FailureReasonsConstants.UNEXPECTED_ERROR, exported.get(0).getOutcome());
+    }
+
+    /**
+     * Tests that only the first end of a span is recorded.
+     */
+    @Test
+    void end_twice_recordsFirstOutcome() {
+        RequestTracer.Span span = tracer.start("fetch", "req-4");
+        span.end(FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS);
+        span.end();
+        tracer.flush();
+
+        assertEquals(1, exported.size());
+        assertEquals(FailureReasonsConstants.UNABLE_TO_FETCH_BIOMETRIC_DETAILS, exported.get(0).getOutcome());
+    }
+
+    /**
+     * Tests that a disabled tracer records nothing.
+     */
+    @Test
+    void start_disabled_returnsNoop() {
+        RequestTracerImpl disabled = new RequestTracerImpl(null, meterRegistry, false, 1, 1, 1000);
+
+        assertSame(RequestTracer.NOOP, disabled.start("mosip.abis.insert", "req-1"));
+        assertNull(disabled.current().traceparent());
+    }
+
+    /**
+     * Tests that spans ending while the queue is full are dropped and counted,
+     * and that spans the sink fails to write are counted as failed.
+     */
+    @Test
+    void flush_fullQueueAndFailingSink_countsDroppedAndFailed() {
+        RequestTracerImpl small = new RequestTracerImpl(new SpanSink() {
+            @Override
+            public String getName() {
+                return "failing";
+            }
+
+            @Override
+            public void export(List<SpanRecord> spans) throws IOException {
+                throw new IOException("disk full");
+            }
+        }, meterRegistry, true, 2, 10, 60000);
+        try {
+            for (int i = 0; i < 3; i++)
+                small.start("span", "req-" + i).end();
+            small.flush();
+        } finally {
+            small.shutdown();
+        }
+
+        assertEquals(1.0, meterRegistry.get("mock.abis.tracing.spans").tag("outcome", "dropped").counter().count());
+        assertEquals(2.0, meterRegistry.get("mock.abis.tracing.spans").tag("outcome", "failed").counter().count());
+        assertTrue(meterRegistry.get("mock.abis.tracing.queued").gauges().stream().allMatch(g -> g.value() == 0));
+    }
+
+    private final class CollectingSink implements SpanSink {
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public void export(List<SpanRecord> spans) {
+            exported.addAll(spans);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.mosip.proxy.abis.dto.SpanRecord;
+
+/**
+ * Unit test class for RollingFileSpanSink.
+ * This class writes spans to a temporary directory, covering the JSON lines
+ * written and rolling the file over once it is full.
+ */
+class RollingFileSpanSinkTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Tests that each span is appended as one JSON line, creating missing
+     * directories.
+     */
+    @Test
+    void export_spans_appendsJsonLines() throws Exception {
+        Path file = dir.resolve("traces/spans.jsonl");
+        RollingFileSpanSink sink = new RollingFileSpanSink(file, 1024 * 1024, 3);
+
+        sink.export(List.of(span("a"), span("b")));
+        sink.export(List.of(span("c")));
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(3, lines.size());
+        JsonNode first = new ObjectMapper().readTree(lines.get(0));
+        assertEquals("a", first.get("spanId").asText());
+        assertEquals("req-1", first.get("requestId").asText());
+        assertEquals("replayed", first.get("attributes").get("abis.dedup").asText());
+    }
+
+    /**
+     * Tests that a full file is rolled over before writing, keeping at most the
+     * configured number of files.
+     */
+    @Test
+    void export_fileFull_rollsOverAndKeepsMaxFiles() throws Exception {
+        Path file = dir.resolve("spans.jsonl");
+        RollingFileSpanSink sink = new RollingFileSpanSink(file, 1, 3);
+
+        for (String id : List.of("a", "b", "c", "d"))
+            sink.export(List.of(span(id)));
+
+        assertTrue(Files.readString(file).contains("\"d\""));
+        assertTrue(Files.readString(dir.resolve("spans.jsonl.1")).contains("\"c\""));
+        assertTrue(Files.readString(dir.resolve("spans.jsonl.2")).contains("\"b\""));
+        assertFalse(Files.exists(dir.resolve("spans.jsonl.3")));
+    }
+
+    private static SpanRecord span(String spanId) {
+        return new SpanRecord("4bf92f3577b34da6a3ce929d0e0e4736", spanId, null, "mosip.abis.insert", "CONSUMER",
+                "req-1", 1_000L, 2_000L, "success", Map.of("abis.dedup", "replayed"));
+    }
+}
@@ -0,0 +1,181 @@
+package io.mosip.proxy.abis.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.mosip.proxy.abis.service.LaneScheduler.Lane;
+import io.mosip.proxy.abis.service.impl.WeightedLaneScheduler.LaneSettings;
+
+/**
+ * Unit test class for WeightedLaneScheduler.
+ * This class tests the weighted order in which lanes are served, the per-lane
+ * worker cap, the queue depth gauge and shutdown.
+ */
+class WeightedLaneSchedulerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WeightedLaneScheduler scheduler;
+
+    /**
+     * Sets up a fresh meter registry.
+     */
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Shuts down the scheduler created by the test.
+     */
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null)
+            scheduler.shutdown();
+    }
+
+    /**
+     * Tests that a single worker serves waiting lanes in proportion to their weights.
+     */
+    @Test
+    void submit_backlogOnTwoLanes_servesLanesByWeight() throws Exception {
+        scheduler = scheduler(1, settings(1, 1, 3, 1));
+        CountDownLatch release = blockWorker(Lane.DELETE);
+        List<Lane> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(8);
+        for (int i = 0; i < 4; i++) {
+            scheduler.submit(Lane.INSERT, record(order, Lane.INSERT, done));
+            scheduler.submit(Lane.IDENTIFY, record(order, Lane.IDENTIFY, done));
+        }
+
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(Lane.IDENTIFY, Lane.IDENTIFY, Lane.INSERT, Lane.IDENTIFY), order.subList(0, 4));
+    }
+
+    /**
+     * Tests that a lane at its worker cap waits while another lane is served by an idle worker.
+     */
+    @Test
+    void submit_laneAtMaxWorkers_leavesRequestQueued() throws Exception {
+        scheduler = scheduler(2, settings(1, 1, 1, 1));
+        CountDownLatch release = blockWorker(Lane.INSERT);
+        scheduler.submit(Lane.INSERT, () -> {
+        });
+        CountDownLatch identified = new CountDownLatch(1);
+
+        scheduler.submit(Lane.IDENTIFY, identified::countDown);
+
+        assertTrue(identified.await(5, TimeUnit.SECONDS));
+        assertEquals(1, scheduler.getQueued(Lane.INSERT));
+        assertEquals(1, scheduler.getActive(Lane.INSERT));
+        release.countDown();
+    }
+
+    /**
+     * Tests that the queue depth gauge reports the requests waiting on each lane.
+     */
+    @Test
+    void getQueued_requestsWaiting_reportedByGauge() throws Exception {
+        scheduler = scheduler(1, settings(1, 1, 1, 1));
+        CountDownLatch release = blockWorker(Lane.DELETE);
+
+        scheduler.submit(Lane.INSERT, () -> {
+        });
+        scheduler.submit(Lane.INSERT, () -> {
+        });
+
+        assertEquals(2, scheduler.getQueued(Lane.INSERT));
+        assertEquals(2.0, meterRegistry.get("mock.abis.lane.queue.depth").tag("lane", "insert").gauge().value());
+        assertEquals(0.0, meterRegistry.get("mock.abis.lane.queue.depth").tag("lane", "identify").gauge().value());
+        release.countDown();
+    }
+
+    /**
+     * Tests that shutdown processes the queued requests and rejects new ones.
+     */
+    @Test
+    void shutdown_queuedRequests_processedBeforeStop() throws Exception {
+        scheduler = scheduler(1, settings(1, 1, 1, 1));
+        CountDownLatch release = blockWorker(Lane.DELETE);
+        CountDownLatch done = new CountDownLatch(2);
+        scheduler.submit(Lane.INSERT, done::countDown);
+        scheduler.submit(Lane.IDENTIFY, done::countDown);
+
+        release.countDown();
+        scheduler.shutdown();
+
+        assertEquals(0, done.getCount());
+        assertEquals(1, meterRegistry.get("mock.abis.lane.processing").tag("lane", "insert").timer().count());
+        assertThrows(RejectedExecutionException.class, () -> scheduler.submit(Lane.INSERT, () -> {
+        }));
+    }
+
+    /**
+     * Tests that a disabled scheduler runs requests on the calling thread.
+     */
+    @Test
+    void submit_disabled_runsInline() throws Exception {
+        scheduler = new WeightedLaneScheduler(meterRegistry, false, 1, settings(1, 1, 1, 1), 1);
+        AtomicReference<Thread> runner = new AtomicReference<>();
+
+        scheduler.submit(Lane.IDENTIFY, () -> runner.set(Thread.currentThread()));
+
+        assertSame(Thread.currentThread(), runner.get());
+    }
+
+    private WeightedLaneScheduler scheduler(int workers, Map<Lane, LaneSettings> settings) {
+        return new WeightedLaneScheduler(meterRegistry, true, workers, settings, 5);
+    }
+
+    private static Map<Lane, LaneSettings> settings(int insertWorkers, int insertWeight, int identifyWeight,
+            int deleteWeight) {
+        Map<Lane, LaneSettings> settings = new EnumMap<>(Lane.class);
+        settings.put(Lane.INSERT, new LaneSettings(10, insertWorkers, insertWeight));
+        settings.put(Lane.IDENTIFY, new LaneSettings(10, 4, identifyWeight));
+        settings.put(Lane.DELETE, new LaneSettings(10, 1, deleteWeight));
+        return settings;
+    }
+
+    /**
+     * Occupies a worker with a request on the given lane until the returned latch is released.
+     */
+    private CountDownLatch blockWorker(Lane lane) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.submit(lane, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    private static Runnable record(List<Lane> order, Lane lane, CountDownLatch done) {
+        return () -> {
+            order.add(lane);
+            done.countDown();
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package io.mosip.proxy.abis.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Unit test class for AfterCommit utility class.
+ * This class tests running actions without a transaction, after a commit and
+ * on a rollback.
+ */
+class AfterCommitTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+            TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    /**
+     * Tests the private constructor of the AfterCommit class.
+     * Verifies that it throws an IllegalStateException when invoked.
+     */
+    @Test
+    void testAfterCommit_PrivateConstructor_ThrowsIllegalStateException() throws Exception {
+        Constructor<AfterCommit> constructor = AfterCommit.class.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        InvocationTargetException exception = assertThrows(InvocationTargetException.class,
+                constructor::newInstance);
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+    }
+
+    /**
+     * Tests that an action runs at once when no transaction is active.
+     */
+    @Test
+    void run_noTransaction_runsAtOnce() {
+        AtomicInteger runs = new AtomicInteger();
+
+        AfterCommit.run(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+    }
+
+    /**
+     * Tests that an action only runs once the transaction commits.
+     */
+    @Test
+    void run_transactionCommits_runsAfterCommit() {
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(runs::incrementAndGet);
+        assertEquals(0, runs.get());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(1, runs.get());
+    }
+
+    /**
+     * Tests that an action is dropped when the transaction rolls back.
+     */
+    @Test
+    void run_transactionRollsBack_neverRuns() {
+        AtomicInteger runs = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+
+        AfterCommit.run(runs::incrementAndGet);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, runs.get());
+    }
+}
@@ -0,0 +1,92 @@
+package io.mosip.proxy.abis.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for BdbSignature.
+ * This class tests that similar BDBs get similar signatures, that chunked
+ * computation matches whole computation, and the serialized and digest derived
+ * forms.
+ */
+class BdbSignatureTest {
+
+    /**
+     * Tests that a BDB with a few changed bytes keeps most slots while an
+     * unrelated BDB shares almost none.
+     */
+    @Test
+    void similarity_nearAndUnrelatedBdbs_separatesThem() {
+        Random random = new Random(11);
+        byte[] bdb = new byte[20_000];
+        random.nextBytes(bdb);
+        byte[] near = bdb.clone();
+        for (int i = 0; i < 100; i++)
+            near[random.nextInt(near.length)] ^= 0x55;
+        byte[] unrelated = new byte[20_000];
+        random.nextBytes(unrelated);
+
+        BdbSignature signature = BdbSignature.of(bdb);
+
+        assertEquals(1.0, signature.similarity(BdbSignature.of(bdb.clone())));
+        assertTrue(signature.similarity(BdbSignature.of(near)) > 0.8);
+        assertTrue(signature.similarity(BdbSignature.of(unrelated)) < 0.1);
+    }
+
+    /**
+     * Tests that feeding a BDB in chunks gives the same signature as computing it
+     * in one go.
+     */
+    @Test
+    void builder_chunkedUpdates_matchesWholeBdb() {
+        byte[] bdb = new byte[10_000];
+        new Random(3).nextBytes(bdb);
+
+        BdbSignature chunked = BdbSignature.builder().update(bdb, 0, 1)
+                .update(bdb, 1, 4_999).update(bdb, 5_000, 5_000).build();
+
+        assertEquals(BdbSignature.of(bdb), chunked);
+    }
+
+    /**
+     * Tests that a signature survives serialization and that packed comparison
+     * agrees with slot by slot comparison.
+     */
+    @Test
+    void fromBytes_serializedSignature_roundTrips() {
+        byte[] first = new byte[4_000];
+        new Random(5).nextBytes(first);
+        byte[] second = first.clone();
+        second[2_000] ^= 1;
+        BdbSignature a = BdbSignature.of(first);
+        BdbSignature b = BdbSignature.of(second);
+
+        assertEquals(BdbSignature.LENGTH, a.toBytes().length);
+        assertEquals(a, BdbSignature.fromBytes(a.toBytes()));
+        int equal = 0;
+        for (int slot = 0; slot < BdbSignature.SLOTS; slot++) {
+            if (a.slot(slot) == b.slot(slot))
+                equal++;
+        }
+        assertEquals(equal, a.matches(b));
+        assertThrows(IllegalArgumentException.class, () -> BdbSignature.fromBytes(new byte[16]));
+    }
+
+    /**
+     * Tests that signatures derived from digests match for equal digests only.
+     */
+    @Test
+    void fromDigest_equalAndDifferentDigests_matchesEqualOnly() {
+        BdbSignature a = BdbSignature.fromDigest(BioDigest.fromHex("a".repeat(64)));
+
+        assertEquals(a, BdbSignature.fromDigest(BioDigest.fromHex("a".repeat(64))));
+        assertNotEquals(a, BdbSignature.fromDigest(BioDigest.fromHex("b".repeat(64))));
+        assertTrue(a.matches(BdbSignature.fromDigest(BioDigest.fromHex("b".repeat(64)))) < 4);
+    }
+}
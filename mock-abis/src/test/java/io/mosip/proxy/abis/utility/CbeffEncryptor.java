@@ -0,0 +1,64 @@
+package io.mosip.proxy.abis.utility;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.cert.Certificate;
+import java.security.spec.MGF1ParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.OAEPParameterSpec;
+import javax.crypto.spec.PSource;
+
+/**
+ * Builds CBEFF payloads in the format decrypted by {@link CryptoCoreUtil}:
+ * {@code VER_R2 | certificate thumbprint | RSA-OAEP wrapped AES key |
+ * #KEY_SPLITTER# | AAD (nonce first) | AES-GCM ciphertext}, Base64 encoded.
+ */
+final class CbeffEncryptor {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private CbeffEncryptor() {
+    }
+
+    /**
+     * Encrypts the given data for the holder of the certificate's private key.
+     *
+     * @param data        The plain CBEFF bytes
+     * @param certificate The certificate whose public key wraps the AES key
+     * @return The Base64-encoded encrypted payload
+     * @throws Exception if encryption fails
+     */
+    static String encrypt(byte[] data, Certificate certificate) throws Exception {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+        keyGenerator.init(256);
+        SecretKey secretKey = keyGenerator.generateKey();
+
+        Cipher rsa = Cipher.getInstance("RSA/ECB/OAEPWITHSHA-256ANDMGF1PADDING");
+        rsa.init(Cipher.ENCRYPT_MODE, certificate.getPublicKey(), new OAEPParameterSpec("SHA-256", "MGF1",
+                MGF1ParameterSpec.SHA256, PSource.PSpecified.DEFAULT));
+        byte[] wrappedKey = rsa.doFinal(secretKey.getEncoded());
+
+        byte[] aad = new byte[32];
+        RANDOM.nextBytes(aad);
+        Cipher aes = Cipher.getInstance("AES/GCM/NoPadding");
+        aes.init(Cipher.ENCRYPT_MODE, secretKey, new GCMParameterSpec(128, Arrays.copyOfRange(aad, 0, 12)));
+        aes.updateAAD(aad);
+        byte[] encrypted = aes.doFinal(data);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(CryptoCoreUtil.VERSION_RSA_2048);
+        out.write(MessageDigest.getInstance("SHA-256").digest(certificate.getEncoded()));
+        out.write(wrappedKey);
+        out.write("#KEY_SPLITTER#".getBytes());
+        out.write(aad);
+        out.write(encrypted);
+        return Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+}
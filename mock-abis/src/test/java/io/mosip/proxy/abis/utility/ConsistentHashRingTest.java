@@ -0,0 +1,71 @@
+package io.mosip.proxy.abis.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for ConsistentHashRing.
+ * This class tests that owners do not depend on node order, that keys spread
+ * over the nodes and that adding a node only moves keys to that node.
+ */
+class ConsistentHashRingTest {
+
+    /**
+     * Tests that rings built from the same nodes in a different order agree on every owner.
+     */
+    @Test
+    void ownerOf_nodesInDifferentOrder_returnsSameOwner() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 64);
+        ConsistentHashRing reordered = new ConsistentHashRing(List.of("node-3", "node-1", "node-2"), 64);
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ring.ownerOf("ref-" + i), reordered.ownerOf("ref-" + i));
+        }
+    }
+
+    /**
+     * Tests that keys are spread over every node.
+     */
+    @Test
+    void ownerOf_manyKeys_spreadsOverNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 128);
+        Map<String, Integer> owned = new HashMap<>();
+
+        for (int i = 0; i < 3000; i++) {
+            owned.merge(ring.ownerOf("ref-" + i), 1, Integer::sum);
+        }
+
+        assertEquals(3, owned.size());
+        owned.values().forEach(count -> assertTrue(count > 600, "unbalanced ring " + owned));
+    }
+
+    /**
+     * Tests that adding a node only moves keys to the new node.
+     */
+    @Test
+    void ownerOf_nodeAdded_movesKeysOnlyToNewNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node-1", "node-2"), 128);
+        ConsistentHashRing grown = new ConsistentHashRing(List.of("node-1", "node-2", "node-3"), 128);
+
+        for (int i = 0; i < 1000; i++) {
+            String owner = grown.ownerOf("ref-" + i);
+            if (!owner.equals("node-3"))
+                assertEquals(ring.ownerOf("ref-" + i), owner);
+        }
+    }
+
+    /**
+     * Tests that a ring cannot be built without nodes.
+     */
+    @Test
+    void constructor_noNodes_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 128));
+    }
+}
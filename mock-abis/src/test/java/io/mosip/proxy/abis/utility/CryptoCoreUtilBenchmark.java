@@ -0,0 +1,86 @@
+package io.mosip.proxy.abis.utility;
+
+import java.io.InputStream;
+import java.security.KeyStore;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * JMH benchmark for {@link CryptoCoreUtil#decryptCbeff(String)}, measured in
+ * decrypts per second.
+ * <p>
+ * {@code cachedKey} is the normal path, where the private key is loaded once
+ * and the ciphers are reused. {@code reloadedKey} invalidates the key before
+ * every decrypt, so each call parses the PKCS#12 keystore again as every call
+ * did before the key was cached.
+ * </p>
+ * <p>
+ * Not run by the test suite. Run it with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=io.mosip.proxy.abis.utility.CryptoCoreUtilBenchmark}
+ * or from the IDE through {@link #main(String[])}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CryptoCoreUtilBenchmark {
+
+    private CryptoCoreUtil cryptoCoreUtil;
+    private String encryptedCbeff;
+
+    /**
+     * Loads the bundled test certificate and encrypts a CBEFF-sized payload for it.
+     */
+    @Setup
+    public void setUp() throws Exception {
+        CryptoCoreUtil.setCertificateValues("cbeff.p12", "PKCS12", "password", "cbeff");
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources()
+                .addFirst(new MapPropertySource("benchmark", Map.of("certificate.filename", "cbeff.p12")));
+        cryptoCoreUtil = new CryptoCoreUtil();
+        ReflectionTestUtils.setField(cryptoCoreUtil, "env", environment);
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream is = CryptoCoreUtilBenchmark.class.getResourceAsStream("/cbeff.p12")) {
+            keyStore.load(is, "password".toCharArray());
+        }
+        byte[] cbeff = ("<BIR>" + "A".repeat(64 * 1024) + "</BIR>").getBytes();
+        encryptedCbeff = CbeffEncryptor.encrypt(cbeff, keyStore.getCertificate("cbeff"));
+    }
+
+    @Benchmark
+    public String cachedKey() throws Exception {
+        return cryptoCoreUtil.decryptCbeff(encryptedCbeff);
+    }
+
+    @Benchmark
+    public String reloadedKey() throws Exception {
+        CryptoCoreUtil.setCertificateValues("cbeff.p12", "PKCS12", "password", "cbeff");
+        return cryptoCoreUtil.decryptCbeff(encryptedCbeff);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(CryptoCoreUtilBenchmark.class.getSimpleName()).build()).run();
+    }
+}
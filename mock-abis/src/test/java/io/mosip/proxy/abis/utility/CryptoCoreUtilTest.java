@@ -27,6 +27,12 @@ import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.security.InvalidKeyException;
 import javax.crypto.NoSuchPaddingException;
 import javax.crypto.IllegalBlockSizeException;
@@ -589,4 +595,97 @@ class CryptoCoreUtilTest {
             assertTrue(exception.getCause() instanceof AbisException);
         }
     }
+
+    /**
+     * Tests that repeated decryptions read the keystore only once and reuse the cached key.
+     */
+    @Test
+    void testDecryptCbeff_RepeatedCalls_LoadsKeystoreOnce() throws Exception {
+        CryptoCoreUtil.setCertificateValues("cbeff.p12", "PKCS12", "password", "cbeff");
+        Mockito.doReturn("cbeff.p12").when(environment).getProperty("certificate.filename");
+        String encrypted = CbeffEncryptor.encrypt("<BIR>first</BIR>".getBytes(), loadCertificate());
+
+        assertEquals("<BIR>first</BIR>", cryptoCoreUtil.decryptCbeff(encrypted));
+        assertEquals("<BIR>first</BIR>", cryptoCoreUtil.decryptCbeff(encrypted));
+
+        verify(environment, times(1)).getProperty("certificate.filename");
+    }
+
+    /**
+     * Tests that uploading new certificate values invalidates the cached key so the
+     * next decryption reloads the keystore.
+     */
+    @Test
+    void testDecryptCbeff_CertificateValuesChanged_ReloadsKeystore() throws Exception {
+        CryptoCoreUtil.setCertificateValues("cbeff.p12", "PKCS12", "password", "cbeff");
+        Mockito.doReturn("cbeff.p12").when(environment).getProperty("certificate.filename");
+        String encrypted = CbeffEncryptor.encrypt("<BIR>data</BIR>".getBytes(), loadCertificate());
+
+        cryptoCoreUtil.decryptCbeff(encrypted);
+        CryptoCoreUtil.setCertificateValues("cbeff.p12", "PKCS12", "password", "cbeff");
+        assertEquals("<BIR>data</BIR>", cryptoCoreUtil.decryptCbeff(encrypted));
+
+        verify(environment, times(2)).getProperty("certificate.filename");
+    }
+
+    /**
+     * Tests that concurrent decryptions on several threads, each with its own
+     * ciphers, all return the right plain text.
+     */
+    @Test
+    void testDecryptCbeff_ConcurrentCalls_ReturnDecryptedData() throws Exception {
+        CryptoCoreUtil.setCertificateValues("cbeff.p12", "PKCS12", "password", "cbeff");
+        Mockito.doReturn("cbeff.p12").when(environment).getProperty("certificate.filename");
+        Certificate certificate = loadCertificate();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String plain = "<BIR>" + i + "</BIR>";
+                String encrypted = CbeffEncryptor.encrypt(plain.getBytes(), certificate);
+                results.add(executor.submit(() -> plain.equals(cryptoCoreUtil.decryptCbeff(encrypted))));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that a streamed CBEFF is decrypted to the same plain text as the
+     * string-based decryption.
+     */
+    @Test
+    void testDecryptCbeffStream_ValidData_ReturnsDecryptedStream() throws Exception {
+        CryptoCoreUtil.setCertificateValues("cbeff.p12", "PKCS12", "password", "cbeff");
+        Mockito.doReturn("cbeff.p12").when(environment).getProperty("certificate.filename");
+        String plain = "<BIR>" + "streamed".repeat(1000) + "</BIR>";
+        String encrypted = CbeffEncryptor.encrypt(plain.getBytes(), loadCertificate());
+
+        try (InputStream decrypted = cryptoCoreUtil
+                .decryptCbeffStream(new ByteArrayInputStream(encrypted.getBytes()))) {
+            assertEquals(plain, new String(decrypted.readAllBytes()));
+        }
+        assertEquals(plain, cryptoCoreUtil.decryptCbeff(encrypted));
+    }
+
+    /**
+     * Tests that a stream without the key splitter is rejected with an {@link AbisException}.
+     */
+    @Test
+    void testDecryptCbeffStream_MissingKeySplitter_ThrowsAbisException() {
+        InputStream encrypted = new ByteArrayInputStream(Base64.encodeBase64(new byte[512]));
+
+        assertThrows(AbisException.class, () -> cryptoCoreUtil.decryptCbeffStream(encrypted));
+    }
+
+    private Certificate loadCertificate() throws Exception {
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream is = getClass().getResourceAsStream("/cbeff.p12")) {
+            keyStore.load(is, "password".toCharArray());
+        }
+        return keyStore.getCertificate("cbeff");
+    }
 }
\ No newline at end of file
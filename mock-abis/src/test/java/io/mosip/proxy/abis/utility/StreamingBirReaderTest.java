@@ -0,0 +1,153 @@
+package io.mosip.proxy.abis.utility;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test class for StreamingBirReader.
+ * This class tests the extracted type, subtype and digest of each BDB, the
+ * handling of records without a BDB and of malformed documents.
+ */
+class StreamingBirReaderTest {
+
+    private static final String NAMESPACE = "http://standards.iso.org/iso-iec/19785/-3/ed-2/";
+
+    /**
+     * Tests that each nested BIR yields its type, subtype and the SHA-256 of the
+     * decoded BDB, ignoring the Type elements of Format and Quality.
+     */
+    @Test
+    void read_nestedBirs_returnsTypeSubtypeAndDigest() throws Exception {
+        byte[] finger = "finger-data".getBytes(StandardCharsets.UTF_8);
+        byte[] face = "face-data".getBytes(StandardCharsets.UTF_8);
+        String cbeff = cbeff(bir("Finger", "Left IndexFinger", finger) + bir("Face", null, face));
+
+        List<StreamingBirReader.BdbRecord> records = read(cbeff);
+
+        assertEquals(2, records.size());
+        assertEquals("Finger", records.get(0).type());
+        assertEquals("[Left, IndexFinger]", records.get(0).subtype());
+        assertEquals(sha256(finger), records.get(0).bdbHash());
+        assertEquals(finger.length, records.get(0).bdbLength());
+        assertEquals("Face", records.get(1).type());
+        assertNull(records.get(1).subtype());
+        assertEquals(sha256(face), records.get(1).bdbHash());
+    }
+
+    /**
+     * Tests that a BDB larger than the read buffer and wrapped over several lines
+     * is digested in full.
+     */
+    @Test
+    void read_largeWrappedBdb_digestsWholeBdb() throws Exception {
+        byte[] iris = new byte[100_000];
+        for (int i = 0; i < iris.length; i++)
+            iris[i] = (byte) i;
+        String bdb = Base64.getMimeEncoder().encodeToString(iris);
+        String cbeff = cbeff("<BIR><BDBInfo><Type>Iris</Type><Subtype>Left</Subtype></BDBInfo><BDB>" + bdb
+                + "</BDB></BIR>");
+
+        List<StreamingBirReader.BdbRecord> records = read(cbeff);
+
+        assertEquals(1, records.size());
+        assertEquals(sha256(iris), records.get(0).bdbHash());
+        assertEquals(iris.length, records.get(0).bdbLength());
+    }
+
+    /**
+     * Tests that a requested signature is computed over the whole decoded BDB and
+     * equals the one computed from the BDB in memory, and that none is computed
+     * otherwise.
+     */
+    @Test
+    void read_signaturesRequested_matchesInMemorySignature() throws Exception {
+        byte[] iris = new byte[50_000];
+        for (int i = 0; i < iris.length; i++)
+            iris[i] = (byte) (i * 31 + (i >> 7));
+        String cbeff = cbeff("<BIR><BDBInfo><Type>Iris</Type></BDBInfo><BDB>"
+                + Base64.getMimeEncoder().encodeToString(iris) + "</BDB></BIR>");
+
+        List<StreamingBirReader.BdbRecord> signed = StreamingBirReader
+                .read(new ByteArrayInputStream(cbeff.getBytes(StandardCharsets.UTF_8)), true);
+
+        assertArrayEquals(BdbSignature.of(iris).toBytes(), signed.get(0).signature());
+        assertNull(read(cbeff).get(0).signature());
+    }
+
+    /**
+     * Tests that BIRs without a BDB are skipped, as the non-streaming parser does.
+     */
+    @Test
+    void read_birWithoutBdb_skipped() throws Exception {
+        String cbeff = cbeff("<BIR><BDBInfo><Type>Finger</Type></BDBInfo></BIR>"
+                + bir("Iris", "Right", "iris".getBytes(StandardCharsets.UTF_8)));
+
+        List<StreamingBirReader.BdbRecord> records = read(cbeff);
+
+        assertEquals(1, records.size());
+        assertEquals("Iris", records.get(0).type());
+    }
+
+    /**
+     * Tests that a document with only the root BIR yields no records.
+     */
+    @Test
+    void read_noNestedBirs_returnsEmpty() throws Exception {
+        assertTrue(read(cbeff("")).isEmpty());
+    }
+
+    /**
+     * Tests that malformed XML is reported as an XMLStreamException.
+     */
+    @Test
+    void read_malformedXml_throwsXmlStreamException() {
+        assertThrows(XMLStreamException.class, () -> read("<BIR><BIR><BDB>abc</BIR>"));
+    }
+
+    /**
+     * Tests that a document type declaration is rejected rather than resolved.
+     */
+    @Test
+    void read_doctype_rejected() {
+        String cbeff = "<?xml version=\"1.0\"?><!DOCTYPE BIR [<!ENTITY x SYSTEM \"file:///etc/passwd\">]>"
+                + cbeff(bir("Finger", "Left Thumb", new byte[] { 1 }).replace("Finger", "&x;"));
+
+        assertThrows(XMLStreamException.class, () -> read(cbeff));
+    }
+
+    private static List<StreamingBirReader.BdbRecord> read(String cbeff) throws Exception {
+        return StreamingBirReader.read(new ByteArrayInputStream(cbeff.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String cbeff(String birs) {
+        return "<BIR xmlns=\"" + NAMESPACE + "\"><BIRInfo><Integrity>false</Integrity></BIRInfo>" + birs + "</BIR>";
+    }
+
+    private static String bir(String type, String subtype, byte[] bdb) {
+        return "<BIR><BIRInfo><Integrity>false</Integrity></BIRInfo><BDBInfo>"
+                + "<Format><Organization>Mosip</Organization><Type>7</Type></Format>"
+                + "<Type>" + type + "</Type>"
+                + (subtype == null ? "" : "<Subtype>" + subtype + "</Subtype>")
+                + "<Quality><Algorithm><Organization>HMAC</Organization><Type>SHA-256</Type></Algorithm>"
+                + "<Score>64</Score></Quality></BDBInfo>"
+                + "<BDB>" + Base64.getEncoder().encodeToString(bdb) + "</BDB></BIR>";
+    }
+
+    private static String sha256(byte[] data) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+    }
+}
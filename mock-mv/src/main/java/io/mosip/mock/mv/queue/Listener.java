@@ -37,6 +37,7 @@ import io.mosip.mock.mv.dto.ManualAdjudicationResponseDTO;
 import io.mosip.mock.mv.dto.ReferenceIds;
 import io.mosip.mock.mv.exception.MVException;
 import io.mosip.mock.mv.service.ExpectationCache;
+import jakarta.annotation.PreDestroy;
 import jakarta.jms.BytesMessage;
 import jakarta.jms.Connection;
 import jakarta.jms.Destination;
@@ -44,7 +45,6 @@ import jakarta.jms.JMSException;
 import jakarta.jms.Message;
 import jakarta.jms.MessageConsumer;
 import jakarta.jms.MessageListener;
-import jakarta.jms.MessageProducer;
 import jakarta.jms.Session;
 import jakarta.jms.TextMessage;
 
@@ -82,6 +82,10 @@ public class Listener {
 	@Value("${mock.mv.success:true}")
 	private boolean isSuccess;
 
+	/** Sends responses without waiting for the broker acknowledgement. */
+	@Value("${mock.mv.producer.async.send:false}")
+	private boolean asyncSend;
+
 	/** The username. */
 	@Value("${registration.processor.manual.adjudication.queue.username}")
 	private String mausername;
@@ -139,6 +143,7 @@ public class Listener {
 	private Connection connection;
 	private Session session;
 	private Destination destination;
+	private ProducerPool producerPool;
 
 	private Timer timer = new Timer();
 
@@ -342,6 +347,8 @@ public class Listener {
 
 	/**
 	 * Creates and sends a byte array message to the specified JMS queue address.
+	 * The message is sent through the {@link ProducerPool}, which reuses the
+	 * calling thread's session and the producer for the queue.
 	 *
 	 * @param message The byte array message to send.
 	 * @param address The JMS queue address to send the message to.
@@ -349,14 +356,12 @@ public class Listener {
 	 */
 	public Boolean send(byte[] message, String address) {
 		boolean flag = false;
-		MessageProducer messageProducer = null;
 		try {
-			initialSetup();
-			destination = session.createQueue(address);
-			messageProducer = session.createProducer(destination);
-			BytesMessage byteMessage = session.createBytesMessage();
-			byteMessage.writeObject(message);
-			messageProducer.send(byteMessage);
+			getProducerPool().send(address, producerSession -> {
+				BytesMessage byteMessage = producerSession.createBytesMessage();
+				byteMessage.writeObject(message);
+				return byteMessage;
+			});
 			flag = true;
 		} catch (Exception e) {
 			logger.error("send", e);
@@ -365,7 +370,9 @@ public class Listener {
 	}
 
 	/**
-	 * Creates and sends a text message to the specified JMS queue address.
+	 * Creates and sends a text message to the specified JMS queue address. The
+	 * message is sent through the {@link ProducerPool}, which reuses the calling
+	 * thread's session and the producer for the queue.
 	 *
 	 * @param message The text message to send.
 	 * @param address The JMS queue address to send the message to.
@@ -373,13 +380,8 @@ public class Listener {
 	 */
 	public Boolean send(String message, String address) {
 		boolean flag = false;
-		MessageProducer messageProducer = null;
 		try {
-			initialSetup();
-			destination = session.createQueue(address);
-			messageProducer = session.createProducer(destination);
-			messageProducer.send(session.createTextMessage(message));
-
+			getProducerPool().send(address, producerSession -> producerSession.createTextMessage(message));
 			flag = true;
 		} catch (Exception e) {
 			logger.error("send", e);
@@ -388,6 +390,34 @@ public class Listener {
 		return flag;
 	}
 
+	/**
+	 * Returns the producer pool for the current connection, replacing it when the
+	 * connection has been re-established since it was created.
+	 *
+	 * @return The producer pool.
+	 * @throws MVException if the ActiveMQ connection factory is null.
+	 */
+	private synchronized ProducerPool getProducerPool() {
+		initialSetup();
+		if (producerPool == null || producerPool.getConnection() != connection) {
+			if (producerPool != null)
+				producerPool.close();
+			producerPool = new ProducerPool(connection, asyncSend);
+		}
+		return producerPool;
+	}
+
+	/**
+	 * Closes the pooled producers and their sessions.
+	 */
+	@PreDestroy
+	public synchronized void shutdown() {
+		if (producerPool != null) {
+			producerPool.close();
+			producerPool = null;
+		}
+	}
+
 	/**
 	 * Performs initial setup operations before executing the main functionality.
 	 * This method checks the validity of the ActiveMQ connection factory and throws
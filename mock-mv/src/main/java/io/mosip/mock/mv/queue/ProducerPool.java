@@ -0,0 +1,180 @@
+package io.mosip.mock.mv.queue;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.activemq.ActiveMQConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+/**
+ * Pool of JMS producers for the outbound manual adjudication and verification
+ * queues.
+ * <p>
+ * A JMS {@link Session} must not be used by more than one thread at a time, so
+ * every sending thread gets its own session on first use. Each session keeps
+ * one {@link MessageProducer} per queue, created on the first send to that
+ * queue and reused afterwards, so a send no longer pays for creating a
+ * destination and a producer on the broker.
+ * </p>
+ * <p>
+ * When a send fails, the calling thread's session and producers are discarded
+ * and recreated on its next send, which recovers from a dropped connection.
+ * With async send enabled, ActiveMQ returns from {@code send} without waiting
+ * for the broker to acknowledge the message.
+ * </p>
+ */
+public class ProducerPool implements AutoCloseable {
+	private static final Logger logger = LoggerFactory.getLogger(ProducerPool.class);
+
+	/**
+	 * Creates the message to send on the session of the calling thread.
+	 */
+	@FunctionalInterface
+	public interface MessageCreator {
+		Message create(Session session) throws JMSException;
+	}
+
+	/**
+	 * A session owned by one thread, with its producers by queue name.
+	 */
+	private static final class Channel {
+		private final Thread owner;
+		private final Session session;
+		private final Map<String, MessageProducer> producers = new HashMap<>();
+
+		private Channel(Thread owner, Session session) {
+			this.owner = owner;
+			this.session = session;
+		}
+	}
+
+	private final Connection connection;
+	private final ThreadLocal<Channel> channel = new ThreadLocal<>();
+	private final Set<Channel> channels = ConcurrentHashMap.newKeySet();
+	private volatile boolean closed;
+
+	/**
+	 * Creates a pool sending over the given connection.
+	 *
+	 * @param connection The started JMS connection to create sessions on.
+	 * @param asyncSend  Whether messages are sent without waiting for the broker
+	 *                   acknowledgement; only applies to ActiveMQ connections.
+	 */
+	public ProducerPool(Connection connection, boolean asyncSend) {
+		this.connection = connection;
+		if (asyncSend && connection instanceof ActiveMQConnection activeMQConnection)
+			activeMQConnection.setUseAsyncSend(true);
+	}
+
+	/**
+	 * Sends a message to the given queue using the calling thread's session and
+	 * cached producer.
+	 *
+	 * @param address The JMS queue address (name) to send the message to.
+	 * @param creator Creates the message on the calling thread's session.
+	 * @throws JMSException if the message cannot be created or sent; the calling
+	 *                      thread's session is discarded in that case.
+	 */
+	public void send(String address, MessageCreator creator) throws JMSException {
+		if (closed)
+			throw new JMSException("Producer pool is closed");
+		Channel current = channel.get();
+		try {
+			if (current == null)
+				current = open();
+			MessageProducer producer = current.producers.get(address);
+			if (producer == null) {
+				producer = current.session.createProducer(current.session.createQueue(address));
+				current.producers.put(address, producer);
+			}
+			producer.send(creator.create(current.session));
+		} catch (JMSException | RuntimeException e) {
+			if (current != null)
+				discard(current);
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a session for the calling thread. Sessions of threads that have since
+	 * ended are closed first so they do not accumulate.
+	 *
+	 * @return the new channel
+	 * @throws JMSException if the session cannot be created
+	 */
+	private Channel open() throws JMSException {
+		for (Iterator<Channel> it = channels.iterator(); it.hasNext();) {
+			Channel stale = it.next();
+			if (!stale.owner.isAlive()) {
+				it.remove();
+				closeQuietly(stale);
+			}
+		}
+		Channel created = new Channel(Thread.currentThread(),
+				connection.createSession(false, Session.AUTO_ACKNOWLEDGE));
+		channel.set(created);
+		channels.add(created);
+		return created;
+	}
+
+	private void discard(Channel stale) {
+		channel.remove();
+		channels.remove(stale);
+		closeQuietly(stale);
+	}
+
+	/**
+	 * Returns the connection this pool sends over.
+	 *
+	 * @return the connection
+	 */
+	public Connection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * Returns the number of open sessions, one per thread that has sent.
+	 *
+	 * @return the open session count
+	 */
+	public int getSessions() {
+		return channels.size();
+	}
+
+	/**
+	 * Closes every producer and session. Further sends fail.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		for (Channel open : channels) {
+			closeQuietly(open);
+		}
+		channels.clear();
+	}
+
+	private static void closeQuietly(Channel open) {
+		for (MessageProducer producer : open.producers.values()) {
+			try {
+				producer.close();
+			} catch (JMSException e) {
+				logger.error("Error while closing producer", e);
+			}
+		}
+		try {
+			open.session.close();
+		} catch (JMSException e) {
+			logger.error("Error while closing producer session", e);
+		}
+	}
+}
@@ -420,6 +420,21 @@ public class TestListner {
 		verify(session).createTextMessage(messageText);
 	}
 
+	/**
+	 * Test method for {@link Listener#send(String, String)} with repeated sends.
+	 * Verifies that the session and producer are reused rather than created per message.
+	 */
+	@Test
+	public void testSendText_RepeatedSends_ReusesSessionAndProducer() throws Exception {
+		assertTrue(listener.send("first", "test-queue"));
+		assertTrue(listener.send("second", "test-queue"));
+
+		verify(connection, times(1)).createSession(false, Session.AUTO_ACKNOWLEDGE);
+		verify(session, times(1)).createProducer(queue);
+		verify(messageProducer, times(2)).send(textMessage);
+		verify(messageProducer, never()).close();
+	}
+
 	/**
 	 * Test method for {@link Listener#send(String, String)} with producer creation failure.
 	 */